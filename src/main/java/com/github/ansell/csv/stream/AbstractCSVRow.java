@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.util.List;
+
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema.Column;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema.ColumnType;
+
+/**
+ * Base class for {@link CSVRow} implementations, which looks up columns by
+ * header using the shared {@link CSVHeaders} for the headers.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+abstract class AbstractCSVRow implements CSVRow {
+
+    private final List<String> headers;
+    private final CSVHeaders headerIndex;
+    private final ColumnType[] columnTypes;
+
+    AbstractCSVRow(final List<String> headers, final CsvSchema schema) {
+        this.headers = headers;
+        // The headers have already been trimmed, so the cached names match
+        // for headers that do not come from a CSVHeaders
+        this.headerIndex = CSVHeaders.of(headers);
+        this.columnTypes = new ColumnType[headers.size()];
+        for (int i = 0; i < headers.size(); i++) {
+            final Column column = schema.column(headers.get(i));
+            columnTypes[i] = column == null ? ColumnType.STRING : column.getType();
+        }
+    }
+
+    @Override
+    public final List<String> getHeaders() {
+        return headers;
+    }
+
+    @Override
+    public final CSVHeaders getHeaderIndex() {
+        return headerIndex;
+    }
+
+    @Override
+    public final int indexOf(final String header) {
+        return headerIndex.indexOf(header);
+    }
+
+    @Override
+    public final ColumnType getColumnType(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return index < columnTypes.length ? columnTypes[index] : ColumnType.STRING;
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * An {@link OutputStream} that compresses data in the blocked gzip (BGZF)
+ * layout, deflating the blocks concurrently on a {@link ForkJoinPool} and
+ * writing them in order.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class BGZFOutputStream extends OutputStream {
+
+    /**
+     * The maximum number of uncompressed bytes in each block, which leaves
+     * room for the block to be stored without compression if deflating it
+     * does not make it small enough.
+     */
+    static final int MAX_BLOCK_INPUT = 0xff00;
+
+    private static final int MAX_BLOCK_SIZE = 0x10000;
+
+    /**
+     * The empty block that marks the end of a BGZF file.
+     */
+    private static final byte[] EOF_BLOCK = { 0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff,
+            6, 0, 'B', 'C', 2, 0, 0x1b, 0, 3, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+
+    private final OutputStream output;
+    private final ForkJoinPool pool;
+    private final int maxBlocksInFlight;
+    private final int level;
+    private final ArrayDeque<ForkJoinTask<byte[]>> inFlight = new ArrayDeque<>();
+    private byte[] buffer = new byte[MAX_BLOCK_INPUT];
+    private int count;
+    private boolean closed;
+
+    BGZFOutputStream(final OutputStream output, final ForkJoinPool pool,
+            final int maxBlocksInFlight, final int level) {
+        this.output = output;
+        this.pool = pool;
+        this.maxBlocksInFlight = maxBlocksInFlight;
+        this.level = level;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        checkOpen();
+        buffer[count++] = (byte) b;
+        if (count == buffer.length) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(final byte[] b, int off, int len) throws IOException {
+        checkOpen();
+        while (len > 0) {
+            final int length = Math.min(len, buffer.length - count);
+            System.arraycopy(b, off, buffer, count, length);
+            count += length;
+            off += length;
+            len -= length;
+            if (count == buffer.length) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Writes the blocks that have already been compressed and flushes the
+     * underlying stream. Partial blocks are only written when the stream is
+     * closed, as writers such as Jackson's SequenceWriter flush after every
+     * value, which would otherwise cut a tiny block for each value and wait
+     * for every block in flight.
+     */
+    @Override
+    public void flush() throws IOException {
+        checkOpen();
+        while (!inFlight.isEmpty() && inFlight.peekFirst().isDone()) {
+            output.write(CSVGzip.join(inFlight.removeFirst()));
+        }
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            finish();
+        } finally {
+            closed = true;
+            // Blocks that are being deflated are waited for, so that no
+            // worker is still running after the stream has been closed
+            CSVParallelParser.awaitAll(inFlight);
+            inFlight.clear();
+            output.close();
+        }
+    }
+
+    /**
+     * Writes any buffered data as a final partial block, waits for all of the
+     * blocks to be written, and then writes the end of file marker.
+     */
+    private void finish() throws IOException {
+        if (count > 0) {
+            submitBlock();
+        }
+        while (!inFlight.isEmpty()) {
+            output.write(CSVGzip.join(inFlight.removeFirst()));
+        }
+        output.write(EOF_BLOCK);
+        output.flush();
+    }
+
+    private void checkOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        final byte[] block = buffer;
+        final int length = count;
+        buffer = new byte[MAX_BLOCK_INPUT];
+        count = 0;
+        if (inFlight.size() >= maxBlocksInFlight) {
+            output.write(CSVGzip.join(inFlight.removeFirst()));
+        }
+        inFlight.addLast(pool.submit(() -> deflateBlock(block, length, level)));
+    }
+
+    /**
+     * Deflate the given bytes into a single BGZF block.
+     */
+    static byte[] deflateBlock(final byte[] input, final int length, final int level) {
+        final byte[] result = new byte[MAX_BLOCK_SIZE];
+        int compressedLength = deflate(input, length, level, result);
+        if (compressedLength < 0) {
+            // Incompressible data is stored, which always fits in a block
+            compressedLength = deflate(input, length, Deflater.NO_COMPRESSION, result);
+        }
+        final int trailer = GzipPipelineInputStream.BGZF_HEADER_SIZE + compressedLength;
+        final int blockSize = trailer + GzipPipelineInputStream.GZIP_TRAILER_SIZE;
+        System.arraycopy(EOF_BLOCK, 0, result, 0, GzipPipelineInputStream.BGZF_HEADER_SIZE);
+        writeShort(result, 16, blockSize - 1);
+        final CRC32 crc = new CRC32();
+        crc.update(input, 0, length);
+        writeShort(result, trailer, (int) crc.getValue());
+        writeShort(result, trailer + 2, (int) (crc.getValue() >>> 16));
+        writeShort(result, trailer + 4, length);
+        writeShort(result, trailer + 6, length >>> 16);
+        return Arrays.copyOf(result, blockSize);
+    }
+
+    /**
+     * @return The length of the deflated data, or -1 if it does not fit in a
+     *         block.
+     */
+    private static int deflate(final byte[] input, final int length, final int level,
+            final byte[] result) {
+        final Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(input, 0, length);
+            deflater.finish();
+            final int offset = GzipPipelineInputStream.BGZF_HEADER_SIZE;
+            final int limit = MAX_BLOCK_SIZE - GzipPipelineInputStream.GZIP_TRAILER_SIZE;
+            int compressedLength = 0;
+            while (!deflater.finished() && offset + compressedLength < limit) {
+                compressedLength += deflater.deflate(result, offset + compressedLength,
+                        limit - offset - compressedLength);
+            }
+            return deflater.finished() ? compressedLength : -1;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void writeShort(final byte[] buffer, final int offset, final int value) {
+        buffer[offset] = (byte) value;
+        buffer[offset + 1] = (byte) (value >>> 8);
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Consumer} that collects results into batches and passes each batch
+ * to a batch consumer once it is full, for sinks such as JDBC batch inserts or
+ * bulk writers that work best with many results at a time.
+ * <p>
+ * The backing lists are reused for later batches, so the batch consumer sees
+ * an unmodifiable view that is only valid until it returns, and must copy the
+ * results if it needs to keep them. If a maximum latency is given, a partial
+ * batch is also passed on once its first result has waited for that long, so
+ * that results from a slow streaming source are not held back indefinitely.
+ * In that case the batch consumer may be called from a background thread,
+ * although never concurrently with itself. Batches are always passed on in
+ * the order that their results were accepted.
+ * <p>
+ * The batch consumer is called without holding the lock used to accept
+ * results, so other threads can keep adding to the next batch while a batch is
+ * being passed on. Each batch is passed to the batch consumer at most once. If
+ * the batch consumer throws an exception, the exception is rethrown and the
+ * batch is discarded, so that a batch that was partly written by the batch
+ * consumer is not written again when later batches are passed on.
+ * <p>
+ * Closing this consumer passes on any remaining results.
+ * 
+ * @param <T>
+ *            The type of the results that are collected into batches.
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public final class BatchingConsumer<T> implements Consumer<T>, AutoCloseable {
+
+    /**
+     * The default number of results in each batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final Consumer<List<T>> batchConsumer;
+    private final int batchSize;
+    private final long maxLatencyNanos;
+    /**
+     * Held while calling the batch consumer, so that batches are passed on
+     * one at a time and in order.
+     */
+    private final Object deliveryLock = new Object();
+    private final ArrayDeque<List<T>> pending = new ArrayDeque<>();
+    private List<T> batch;
+    private List<T> spare;
+    private long generation;
+    private ScheduledFuture<?> scheduledFlush;
+    private RuntimeException failure;
+    private boolean closed;
+
+    private BatchingConsumer(final Consumer<List<T>> batchConsumer, final int batchSize,
+            final Duration maxLatency) {
+        this.batchConsumer = Objects.requireNonNull(batchConsumer, "Batch consumer was null");
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        if (maxLatency != null && (maxLatency.isNegative() || maxLatency.isZero())) {
+            throw new IllegalArgumentException("Maximum latency must be positive: " + maxLatency);
+        }
+        this.batchSize = batchSize;
+        this.maxLatencyNanos = maxLatency == null ? -1 : maxLatency.toNanos();
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * @param batchConsumer
+     *            The consumer of each batch of results.
+     * @param batchSize
+     *            The number of results in each batch other than the last.
+     * @param <T>
+     *            The type of the results.
+     * @return A consumer that passes results to the batch consumer once the
+     *         batch size is reached, and when it is closed.
+     */
+    public static <T> BatchingConsumer<T> of(final Consumer<List<T>> batchConsumer,
+            final int batchSize) {
+        return new BatchingConsumer<>(batchConsumer, batchSize, null);
+    }
+
+    /**
+     * @param batchConsumer
+     *            The consumer of each batch of results.
+     * @param batchSize
+     *            The maximum number of results in each batch.
+     * @param maxLatency
+     *            The longest time that a result waits before a partial batch
+     *            containing it is passed to the batch consumer, or null to only
+     *            pass on full batches before this consumer is closed.
+     * @param <T>
+     *            The type of the results.
+     * @return A consumer that passes results to the batch consumer once the
+     *         batch size is reached or the first result in the batch has
+     *         waited for the maximum latency, and when it is closed.
+     */
+    public static <T> BatchingConsumer<T> of(final Consumer<List<T>> batchConsumer,
+            final int batchSize, final Duration maxLatency) {
+        return new BatchingConsumer<>(batchConsumer, batchSize, maxLatency);
+    }
+
+    @Override
+    public void accept(final T result) {
+        synchronized (this) {
+            checkOpen();
+            batch.add(result);
+            if (batch.size() < batchSize) {
+                if (batch.size() == 1 && maxLatencyNanos > 0) {
+                    final long expectedGeneration = generation;
+                    scheduledFlush = FlushScheduler.INSTANCE.schedule(
+                            () -> flushExpired(expectedGeneration), maxLatencyNanos,
+                            TimeUnit.NANOSECONDS);
+                }
+                return;
+            }
+            swap();
+        }
+        deliver();
+    }
+
+    /**
+     * Pass any results that are waiting to the batch consumer.
+     */
+    public void flush() {
+        synchronized (this) {
+            checkOpen();
+            swap();
+        }
+        deliver();
+    }
+
+    /**
+     * Pass any remaining results to the batch consumer, after which no more
+     * results are accepted.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+        }
+        try {
+            flush();
+        } finally {
+            synchronized (deliveryLock) {
+                synchronized (this) {
+                    closed = true;
+                    pending.clear();
+                }
+            }
+        }
+    }
+
+    private void checkOpen() {
+        if (failure != null) {
+            final RuntimeException result = failure;
+            failure = null;
+            throw result;
+        }
+        if (closed) {
+            throw new IllegalStateException("Batching consumer was closed");
+        }
+    }
+
+    /**
+     * Queue the current batch to be passed on, if it is not empty, and start
+     * a new batch. Must be called while holding the lock on this consumer.
+     */
+    private void swap() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        pending.addLast(batch);
+        batch = spare != null ? spare : new ArrayList<>(batchSize);
+        spare = null;
+        generation++;
+    }
+
+    /**
+     * Pass the queued batches to the batch consumer, without holding the lock
+     * on this consumer. Each batch is removed from the queue before it is
+     * passed on, so a batch that fails is not passed on again.
+     */
+    private void deliver() {
+        synchronized (deliveryLock) {
+            while (true) {
+                final List<T> next;
+                synchronized (this) {
+                    next = pending.pollFirst();
+                }
+                if (next == null) {
+                    return;
+                }
+                try {
+                    batchConsumer.accept(Collections.unmodifiableList(next));
+                } finally {
+                    synchronized (this) {
+                        next.clear();
+                        spare = next;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Called by the scheduler once the first result in a batch has waited for
+     * the maximum latency. Failures are rethrown to the thread that next uses
+     * this consumer.
+     */
+    private void flushExpired(final long expectedGeneration) {
+        synchronized (this) {
+            if (closed || failure != null || generation != expectedGeneration) {
+                return;
+            }
+            swap();
+        }
+        try {
+            deliver();
+        } catch (final RuntimeException e) {
+            synchronized (this) {
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * Holds the single daemon thread that flushes batches which have reached
+     * their maximum latency, which is only started if it is needed.
+     */
+    private static final class FlushScheduler {
+        private static final ScheduledThreadPoolExecutor INSTANCE = create();
+
+        private static ScheduledThreadPoolExecutor create() {
+            final ScheduledThreadPoolExecutor result = new ScheduledThreadPoolExecutor(1, r -> {
+                final Thread thread = new Thread(r, "csvstream-batch-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            result.setRemoveOnCancelPolicy(true);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Hands buffers from a producer running on a daemon background thread to a
+ * single consumer through a bounded queue, forwarding any failure of the
+ * producer to the consumer once the buffers before it have been taken.
+ * 
+ * @param <B>
+ *            The type of the buffers.
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class BufferPipeline<B> {
+
+    /**
+     * Fills the pipeline on the background thread.
+     * 
+     * @param <B>
+     *            The type of the buffers.
+     */
+    @FunctionalInterface
+    interface Producer<B> {
+        /**
+         * Put all of the buffers into the pipeline.
+         * 
+         * @throws IOException
+         *             If the buffers could not be produced. An
+         *             {@link InterruptedIOException} is treated as the
+         *             pipeline being closed.
+         * @throws InterruptedException
+         *             If the pipeline was closed while waiting for space.
+         */
+        void produce() throws IOException, InterruptedException;
+    }
+
+    /**
+     * Marks the end of the buffers, after any failure has been recorded.
+     */
+    private static final Object END = new Object();
+
+    private final BlockingQueue<Object> buffers;
+    private final String threadName;
+    private final String failureMessage;
+    private Thread thread;
+    private volatile IOException failure;
+    private boolean ended;
+
+    /**
+     * @param threadName
+     *            The name of the background thread.
+     * @param capacity
+     *            The number of buffers that can be waiting to be taken.
+     * @param failureMessage
+     *            The message of the exception that is thrown to the consumer
+     *            if the producer fails.
+     */
+    BufferPipeline(final String threadName, final int capacity, final String failureMessage) {
+        this.buffers = new ArrayBlockingQueue<>(capacity);
+        this.threadName = threadName;
+        this.failureMessage = failureMessage;
+    }
+
+    /**
+     * Start the background thread, which calls {@link #put(Object)} for each
+     * buffer.
+     * 
+     * @param producer
+     *            The producer to run on the background thread.
+     */
+    void start(final Producer<B> producer) {
+        thread = new Thread(() -> run(producer), threadName);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Called by the producer to hand over the next buffer, waiting for space
+     * in the queue.
+     * 
+     * @param buffer
+     *            The next buffer.
+     * @throws InterruptedException
+     *             If the pipeline was closed.
+     */
+    void put(final B buffer) throws InterruptedException {
+        buffers.put(buffer);
+    }
+
+    /**
+     * Called by the consumer to take the next buffer, waiting for the
+     * producer if necessary.
+     * 
+     * @return The next buffer, or null if the producer has finished.
+     * @throws IOException
+     *             If the producer failed, or the consumer was interrupted.
+     */
+    @SuppressWarnings("unchecked")
+    B take() throws IOException {
+        if (ended) {
+            return null;
+        }
+        final Object result;
+        try {
+            result = buffers.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException interrupted = new InterruptedIOException(
+                    "Interrupted while waiting for " + threadName);
+            interrupted.initCause(e);
+            throw interrupted;
+        }
+        if (result == END) {
+            ended = true;
+            if (failure != null) {
+                throw new IOException(failureMessage, failure);
+            }
+            return null;
+        }
+        return (B) result;
+    }
+
+    /**
+     * @return True if a buffer, or the end of the buffers, can be taken
+     *         without waiting.
+     */
+    boolean ready() {
+        return !buffers.isEmpty();
+    }
+
+    /**
+     * Stop the producer, and discard any buffers that have not been taken.
+     */
+    void close() {
+        ended = true;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        buffers.clear();
+    }
+
+    private void run(final Producer<B> producer) {
+        boolean closed = false;
+        try {
+            producer.produce();
+        } catch (final InterruptedException | InterruptedIOException e) {
+            // The consumer closed the pipeline
+            closed = true;
+        } catch (final IOException e) {
+            failure = e;
+        } catch (final Throwable e) {
+            // Errors are forwarded too, as the consumer would otherwise wait
+            // for the end of the buffers forever
+            failure = new IOException(e);
+        } finally {
+            if (!closed) {
+                try {
+                    buffers.put(END);
+                } catch (final InterruptedException e) {
+                    // The consumer closed the pipeline
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A window over a sequence of bytes, which can be moved forward through the
+ * input while keeping the bytes from a given index onwards available.
+ * 
+ * The valid bytes in the window are from index 0 to the limit of the buffer.
+ * The position of the buffer is not used.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+abstract class ByteWindow implements Closeable {
+
+    protected ByteBuffer buffer;
+
+    protected long offset;
+
+    /**
+     * @return The buffer containing the bytes in the window, which may be a
+     *         different buffer after each call to {@link #advance(int)}.
+     */
+    final ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * @return The position in the input of the byte at index 0 in the
+     *         window.
+     */
+    final long offset() {
+        return offset;
+    }
+
+    /**
+     * @return True if the limit of the buffer is the end of the input.
+     */
+    abstract boolean isEnd();
+
+    /**
+     * Move the window forward so that the byte at the given index is at index
+     * 0, followed by the rest of the bytes that were in the window, and then
+     * by more bytes from the input if there are any.
+     * 
+     * Previous buffers returned by {@link #buffer()} may be reused by this
+     * method.
+     * 
+     * @param from
+     *            The index of the first byte to keep in the window.
+     * @return False if there were no more bytes available in the input, and
+     *         true otherwise.
+     * @throws IOException
+     *             If there was an error reading from the input.
+     */
+    abstract boolean advance(int from) throws IOException;
+
+    /**
+     * Calculate the next window size when a single record will not fit into
+     * the current window size.
+     * 
+     * @param windowSize
+     *            The current window size.
+     * @return A larger window size.
+     * @throws IOException
+     *             If the window cannot be made larger.
+     */
+    static int growWindowSize(final int windowSize) throws IOException {
+        if (windowSize >= Integer.MAX_VALUE - 8) {
+            throw new IOException("A single record was larger than the maximum window size");
+        }
+        return (int) Math.min(Integer.MAX_VALUE - 8, windowSize * 2L);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A fixed size list of the values in a record from a {@link CSVByteTokenizer},
+ * which holds a copy of the bytes for the values and decodes each value the
+ * first time it is requested. Default values are substituted for empty values
+ * without decoding them.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class CSVByteRow extends AbstractList<String> implements RandomAccess {
+
+    private final ByteBuffer buffer;
+    private final int[] bounds;
+    private final byte[] flags;
+    private final int quote;
+    private final List<String> defaultValues;
+    private String[] values;
+
+    CSVByteRow(final ByteBuffer buffer, final int[] bounds, final byte[] flags, final int quote,
+            final List<String> defaultValues) {
+        this.buffer = buffer;
+        this.bounds = bounds;
+        this.flags = flags;
+        this.quote = quote;
+        this.defaultValues = defaultValues;
+    }
+
+    @Override
+    public String get(final int index) {
+        if (index < 0 || index >= flags.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + flags.length);
+        }
+        if (values == null) {
+            values = new String[flags.length];
+        }
+        String result = values[index];
+        if (result == null) {
+            final int start = bounds[index << 1];
+            final int end = bounds[(index << 1) + 1];
+            if (start == end && index < defaultValues.size()) {
+                result = defaultValues.get(index);
+            } else {
+                result = CSVByteTokenizer.decode(buffer, start, end, flags[index], quote);
+            }
+            values[index] = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String set(final int index, final String element) {
+        final String previous = get(index);
+        values[index] = element;
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return flags.length;
+    }
+}
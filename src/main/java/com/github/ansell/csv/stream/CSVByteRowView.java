@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * A {@link CSVRow} over the current record of a {@link CSVByteTokenizer}.
+ * 
+ * Each column has a single reusable {@link CharSequence}. Values that only
+ * contain ASCII characters are read directly from the bytes in the window, and
+ * other values are decoded into a character array that is reused for the
+ * column, so no objects are created per row once the arrays are large enough.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class CSVByteRowView extends AbstractCSVRow {
+
+    private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+    private final CSVByteTokenizer tokenizer;
+    private final int[] columns;
+    private final List<String> defaultValues;
+    private Cell[] cells = new Cell[0];
+
+    /**
+     * @param tokenizer
+     *            The tokenizer to read the current record from.
+     * @param headers
+     *            The headers for the columns in the view.
+     * @param columns
+     *            The indexes of the fields to include in the view, or null to
+     *            include all of the fields.
+     * @param defaultValues
+     *            Either an empty list, or a list of default values for each
+     *            column in the view that are substituted for empty values.
+     * @param schema
+     *            The schema that declares the types of the columns.
+     */
+    CSVByteRowView(final CSVByteTokenizer tokenizer, final List<String> headers,
+            final int[] columns, final List<String> defaultValues, final CsvSchema schema) {
+        super(headers, schema);
+        this.tokenizer = tokenizer;
+        this.columns = columns;
+        this.defaultValues = defaultValues;
+    }
+
+    @Override
+    public int size() {
+        return columns == null ? tokenizer.fieldCount() : columns.length;
+    }
+
+    @Override
+    public CharSequence get(final int index) {
+        final int size = size();
+        final int field = field(index);
+        final int start = tokenizer.start(field);
+        final int end = tokenizer.end(field);
+        if (start == end && index < defaultValues.size()) {
+            return defaultValues.get(index);
+        }
+        if (index >= cells.length) {
+            final int oldLength = cells.length;
+            cells = Arrays.copyOf(cells, Math.max(size, oldLength * 2));
+            for (int i = oldLength; i < cells.length; i++) {
+                cells[i] = new Cell();
+            }
+        }
+        return cells[index].reset(tokenizer.buffer(), start, end, tokenizer.flags(field));
+    }
+
+    @Override
+    public String getString(final int index) {
+        final int field = field(index);
+        if (tokenizer.start(field) == tokenizer.end(field) && index < defaultValues.size()) {
+            return defaultValues.get(index);
+        }
+        return tokenizer.getString(field);
+    }
+
+    /**
+     * @return The index in the current record of the field for the given
+     *         index in this view.
+     */
+    private int field(final int index) {
+        final int size = size();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return columns == null ? index : columns[index];
+    }
+
+    /**
+     * A reusable view of a single value.
+     */
+    private final class Cell implements CharSequence {
+
+        private ByteBuffer buffer;
+        private int start;
+        private int length;
+        private char[] chars;
+
+        Cell reset(final ByteBuffer nextBuffer, final int nextStart, final int end,
+                final int flags) {
+            if (flags == 0) {
+                this.buffer = nextBuffer;
+                this.start = nextStart;
+                this.length = end - nextStart;
+            } else {
+                this.buffer = null;
+                this.length = decode(nextBuffer, nextStart, end, flags);
+            }
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+            }
+            if (buffer != null) {
+                return (char) (buffer.get(start + index) & 0xFF);
+            }
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(final int from, final int to) {
+            return toString().subSequence(from, to);
+        }
+
+        @Override
+        public String toString() {
+            if (buffer != null) {
+                return CSVByteTokenizer.decode(buffer, start, start + length, 0, -1);
+            }
+            return new String(chars, 0, length);
+        }
+
+        /**
+         * Decode UTF-8 bytes into the reusable character array, removing the
+         * second quote from each pair of doubled quotes if the value contains
+         * escaped quotes.
+         */
+        private int decode(final ByteBuffer bytes, final int from, final int end,
+                final int flags) {
+            if (chars == null || chars.length < end - from) {
+                chars = new char[Math.max(end - from, 16)];
+            }
+            final int quote = (flags & CSVByteTokenizer.FLAG_ESCAPED_QUOTES) != 0
+                    ? tokenizer.quote()
+                    : -1;
+            int count = 0;
+            int i = from;
+            while (i < end) {
+                final int b = bytes.get(i++) & 0xFF;
+                if (b < 0x80) {
+                    chars[count++] = (char) b;
+                    // Doubled quotes are always in pairs inside of quoted values
+                    if (b == quote) {
+                        i++;
+                    }
+                    continue;
+                }
+                final int extra;
+                int codePoint;
+                if (b >= 0xC2 && b < 0xE0) {
+                    extra = 1;
+                    codePoint = b & 0x1F;
+                } else if (b >= 0xE0 && b < 0xF0) {
+                    extra = 2;
+                    codePoint = b & 0x0F;
+                } else if (b >= 0xF0 && b < 0xF5) {
+                    extra = 3;
+                    codePoint = b & 0x07;
+                } else {
+                    chars[count++] = REPLACEMENT_CHARACTER;
+                    continue;
+                }
+                int consumed = 0;
+                while (consumed < extra && i + consumed < end
+                        && (bytes.get(i + consumed) & 0xC0) == 0x80) {
+                    codePoint = (codePoint << 6) | (bytes.get(i + consumed) & 0x3F);
+                    consumed++;
+                }
+                i += consumed;
+                if (consumed < extra || !isValidCodePoint(codePoint, extra)) {
+                    chars[count++] = REPLACEMENT_CHARACTER;
+                } else if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                    chars[count++] = Character.highSurrogate(codePoint);
+                    chars[count++] = Character.lowSurrogate(codePoint);
+                } else {
+                    chars[count++] = (char) codePoint;
+                }
+            }
+            return count;
+        }
+    }
+
+    private static boolean isValidCodePoint(final int codePoint, final int extra) {
+        switch (extra) {
+        case 2:
+            return codePoint >= 0x800 && !Character.isSurrogate((char) codePoint);
+        case 3:
+            return codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT
+                    && codePoint <= Character.MAX_CODE_POINT;
+        default:
+            return true;
+        }
+    }
+}
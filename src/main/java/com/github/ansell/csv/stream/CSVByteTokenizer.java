@@ -0,0 +1,493 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * Tokenises UTF-8 or ASCII CSV records directly from the bytes in a
+ * {@link ByteWindow}, recording the bounds of each field without decoding it.
+ * Field values are decoded from the window when they are requested through
+ * {@link #getString(int)}, or copied out of the window by
+ * {@link #snapshot(int[], List)} and decoded later when they are requested.
+ * 
+ * The tokenising rules match those of the Jackson CSV parser as configured by
+ * {@link CSVStream#defaultMapper()}: spaces around values are trimmed, blank
+ * lines are skipped, lines starting with '#' are comments, and quote
+ * characters inside of quoted values are escaped by doubling them. A leading
+ * UTF-8 byte order mark is skipped.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class CSVByteTokenizer {
+
+    static final int FLAG_ESCAPED_QUOTES = 1;
+    static final int FLAG_NON_ASCII = 2;
+
+    private static final int RECORD = 0;
+    private static final int END = 1;
+    private static final int NEED_MORE = 2;
+
+    private final ByteWindow window;
+    private final byte separator;
+    private final int quote;
+    private final boolean trimSpaces;
+    private final boolean allowComments;
+
+    private ByteBuffer buffer;
+    private int position;
+    private int refillFrom;
+    private boolean started;
+
+    private int fieldCount;
+    private int[] bounds = new int[32];
+    private byte[] flags = new byte[16];
+
+    /**
+     * @param window
+     *            The window over the bytes to tokenise.
+     * @param separator
+     *            The column separator, which must be an ASCII character.
+     * @param quote
+     *            The quote character, which must be an ASCII character, or -1
+     *            if quoting is disabled.
+     * @param trimSpaces
+     *            True to trim spaces and control characters from around
+     *            values.
+     * @param allowComments
+     *            True to skip lines that start with '#'.
+     */
+    CSVByteTokenizer(final ByteWindow window, final char separator, final int quote,
+            final boolean trimSpaces, final boolean allowComments) {
+        if (!isSupported(separator) || (quote >= 0 && !isSupported(quote))) {
+            throw new IllegalArgumentException(
+                    "Column separator and quote character must be ASCII characters.");
+        }
+        this.window = window;
+        this.separator = (byte) separator;
+        this.quote = quote;
+        this.trimSpaces = trimSpaces;
+        this.allowComments = allowComments;
+        this.buffer = window.buffer();
+    }
+
+    /**
+     * Check whether the given schema can be tokenised by this class, which
+     * does not support escape characters or non-ASCII separators and quotes.
+     * 
+     * @param schema
+     *            The schema to check.
+     * @return True if the schema can be tokenised by this class.
+     */
+    static boolean supports(final CsvSchema schema) {
+        return !schema.usesEscapeChar() && !schema.usesHeader()
+                && isSupported(schema.getColumnSeparator())
+                && (!schema.usesQuoteChar() || isSupported(schema.getQuoteChar()));
+    }
+
+    /**
+     * Create a tokenizer using the column separator and quote character from
+     * the given schema, which must be supported as per
+     * {@link #supports(CsvSchema)}.
+     * 
+     * @param window
+     *            The window over the bytes to tokenise.
+     * @param schema
+     *            The schema.
+     * @return A tokenizer matching the rules from
+     *         {@link CSVStream#defaultMapper()} and the given schema.
+     */
+    static CSVByteTokenizer forSchema(final ByteWindow window, final CsvSchema schema) {
+        return new CSVByteTokenizer(window, schema.getColumnSeparator(),
+                schema.usesQuoteChar() ? schema.getQuoteChar() : -1, true, true);
+    }
+
+    private static boolean isSupported(final int c) {
+        return c > 0 && c < 0x80 && c != '\r' && c != '\n';
+    }
+
+    /**
+     * Move to the next record.
+     * 
+     * @return True if there was a record, and false if the end of the input
+     *         was reached.
+     * @throws IOException
+     *             If there was an error reading from the input.
+     * @throws CSVStreamException
+     *             If the input was not valid CSV.
+     */
+    boolean next() throws IOException, CSVStreamException {
+        if (!started) {
+            started = true;
+            skipByteOrderMark();
+        }
+        while (true) {
+            final int result = scanRecord(position);
+            if (result == NEED_MORE) {
+                window.advance(refillFrom);
+                buffer = window.buffer();
+                position = 0;
+            } else {
+                return result == RECORD;
+            }
+        }
+    }
+
+    /**
+     * @return The number of fields in the current record.
+     */
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * @return The buffer that the current field bounds refer to.
+     */
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * @param index
+     *            The index of the field in the current record.
+     * @return The index in the buffer of the first byte of the field.
+     */
+    int start(final int index) {
+        return bounds[index << 1];
+    }
+
+    /**
+     * @param index
+     *            The index of the field in the current record.
+     * @return The index in the buffer after the last byte of the field.
+     */
+    int end(final int index) {
+        return bounds[(index << 1) + 1];
+    }
+
+    /**
+     * @param index
+     *            The index of the field in the current record.
+     * @return The flags for the field, a combination of
+     *         {@link #FLAG_ESCAPED_QUOTES} and {@link #FLAG_NON_ASCII}.
+     */
+    int flags(final int index) {
+        return flags[index];
+    }
+
+    /**
+     * @return The quote character, or -1 if quoting is disabled.
+     */
+    int quote() {
+        return quote;
+    }
+
+    /**
+     * Decode a field in the current record.
+     * 
+     * @param index
+     *            The index of the field in the current record.
+     * @return The value of the field.
+     */
+    String getString(final int index) {
+        return decode(buffer, start(index), end(index), flags(index), quote);
+    }
+
+    /**
+     * Decode all of the fields in the current record.
+     * 
+     * @return A new mutable list containing the values of the fields.
+     */
+    List<String> toList() {
+        final List<String> result = new ArrayList<>(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            result.add(getString(i));
+        }
+        return result;
+    }
+
+    /**
+     * Create a list of the given fields in the current record that decodes
+     * each value the first time it is requested. The bytes of the fields are
+     * copied out of the window, as they may be overwritten or unmapped once
+     * the tokenizer moves on, but are not decoded until they are needed.
+     * 
+     * @param columns
+     *            The indexes of the fields to include, or null to include all
+     *            of the fields.
+     * @param defaultValues
+     *            Either an empty list, or a list of default values for each
+     *            included field that are substituted for empty values.
+     * @return A lazily decoded list of the included fields.
+     */
+    CSVByteRow snapshot(final int[] columns, final List<String> defaultValues) {
+        final int size = columns == null ? fieldCount : columns.length;
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            final int index = columns == null ? i : columns[i];
+            length += end(index) - start(index);
+        }
+        final byte[] bytes = new byte[length];
+        final int[] copiedBounds = new int[size << 1];
+        final byte[] copiedFlags = new byte[size];
+        final ByteBuffer view = buffer.duplicate();
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            final int index = columns == null ? i : columns[i];
+            final int start = start(index);
+            final int end = end(index);
+            view.limit(end).position(start);
+            view.get(bytes, count, end - start);
+            copiedBounds[i << 1] = count;
+            count += end - start;
+            copiedBounds[(i << 1) + 1] = count;
+            copiedFlags[i] = flags[index];
+        }
+        return new CSVByteRow(ByteBuffer.wrap(bytes), copiedBounds, copiedFlags, quote,
+                defaultValues);
+    }
+
+    /**
+     * Decode the given range of bytes as a field value.
+     * 
+     * @param buffer
+     *            The buffer containing the field.
+     * @param start
+     *            The index of the first byte of the field.
+     * @param end
+     *            The index after the last byte of the field.
+     * @param flags
+     *            The flags for the field.
+     * @param quote
+     *            The quote character.
+     * @return The value of the field.
+     */
+    static String decode(final ByteBuffer buffer, final int start, final int end, final int flags,
+            final int quote) {
+        final int length = end - start;
+        if (length == 0) {
+            return "";
+        }
+        // ASCII is a subset of ISO-8859-1, which decodes without any checks
+        final Charset charset = (flags & FLAG_NON_ASCII) != 0 ? StandardCharsets.UTF_8
+                : StandardCharsets.ISO_8859_1;
+        if ((flags & FLAG_ESCAPED_QUOTES) == 0 && buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, length, charset);
+        }
+        final byte[] bytes = new byte[length];
+        int count = 0;
+        if ((flags & FLAG_ESCAPED_QUOTES) == 0) {
+            final ByteBuffer view = buffer.duplicate();
+            view.limit(end).position(start);
+            view.get(bytes);
+            count = length;
+        } else {
+            for (int i = start; i < end; i++) {
+                final byte nextByte = buffer.get(i);
+                bytes[count++] = nextByte;
+                // Doubled quotes are always in pairs inside of quoted values
+                if (nextByte == quote) {
+                    i++;
+                }
+            }
+        }
+        return new String(bytes, 0, count, charset);
+    }
+
+    private void skipByteOrderMark() throws IOException {
+        while (buffer.limit() < 3 && !window.isEnd()) {
+            window.advance(0);
+            buffer = window.buffer();
+        }
+        if (buffer.limit() >= 3 && (buffer.get(0) & 0xFF) == 0xEF && (buffer.get(1) & 0xFF) == 0xBB
+                && (buffer.get(2) & 0xFF) == 0xBF) {
+            position = 3;
+        }
+    }
+
+    private int needMore(final int from) {
+        refillFrom = from;
+        return NEED_MORE;
+    }
+
+    private boolean isSpace(final byte b) {
+        return (b & 0xFF) <= ' ' && b != '\r' && b != '\n' && b != separator;
+    }
+
+    private int scanRecord(final int from) throws CSVStreamException {
+        final ByteBuffer buffer = this.buffer;
+        final int limit = buffer.limit();
+        final boolean end = window.isEnd();
+
+        // Skip blank lines and comment lines
+        int p = from;
+        while (true) {
+            int q = p;
+            if (trimSpaces) {
+                while (q < limit && isSpace(buffer.get(q))) {
+                    q++;
+                }
+            }
+            if (q >= limit) {
+                if (end) {
+                    position = q;
+                    return END;
+                }
+                return needMore(p);
+            }
+            final byte c = buffer.get(q);
+            if (c == '\n' || c == '\r') {
+                p = q + 1;
+            } else if (allowComments && c == '#') {
+                while (q < limit && buffer.get(q) != '\n' && buffer.get(q) != '\r') {
+                    q++;
+                }
+                if (q >= limit) {
+                    if (end) {
+                        position = q;
+                        return END;
+                    }
+                    return needMore(p);
+                }
+                p = q + 1;
+            } else {
+                break;
+            }
+        }
+
+        final int recordStart = p;
+        fieldCount = 0;
+        while (true) {
+            int q = p;
+            if (trimSpaces) {
+                while (q < limit && isSpace(buffer.get(q))) {
+                    q++;
+                }
+            }
+            final int fieldStart;
+            int fieldEnd;
+            int fieldFlags = 0;
+            int bits = 0;
+            if (quote >= 0 && q < limit && buffer.get(q) == quote) {
+                fieldStart = ++q;
+                while (true) {
+                    if (q >= limit) {
+                        if (end) {
+                            throw new CSVStreamException("Missing closing quote for value at byte "
+                                    + (window.offset() + fieldStart - 1));
+                        }
+                        return needMore(recordStart);
+                    }
+                    final byte c = buffer.get(q);
+                    if (c == quote) {
+                        if (q + 1 >= limit && !end) {
+                            return needMore(recordStart);
+                        }
+                        if (q + 1 < limit && buffer.get(q + 1) == quote) {
+                            fieldFlags |= FLAG_ESCAPED_QUOTES;
+                            q += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    bits |= c;
+                    q++;
+                }
+                fieldEnd = q++;
+                while (q < limit && isSpace(buffer.get(q))) {
+                    q++;
+                }
+                if (q >= limit && !end) {
+                    return needMore(recordStart);
+                }
+                if (q < limit) {
+                    final byte c = buffer.get(q);
+                    if (c != separator && c != '\r' && c != '\n') {
+                        throw new CSVStreamException(
+                                "Expected column separator character or end-of-line after quoted value at byte "
+                                        + (window.offset() + q));
+                    }
+                }
+            } else {
+                fieldStart = q;
+                while (q < limit) {
+                    final byte c = buffer.get(q);
+                    if (c == separator || c == '\r' || c == '\n') {
+                        break;
+                    }
+                    bits |= c;
+                    q++;
+                }
+                if (q >= limit && !end) {
+                    return needMore(recordStart);
+                }
+                fieldEnd = q;
+                if (trimSpaces) {
+                    while (fieldEnd > fieldStart && (buffer.get(fieldEnd - 1) & 0xFF) <= ' ') {
+                        fieldEnd--;
+                    }
+                }
+            }
+            // Bytes are signed, so any byte outside of ASCII sets the sign bit
+            if (bits < 0) {
+                fieldFlags |= FLAG_NON_ASCII;
+            }
+            addField(fieldStart, fieldEnd, fieldFlags);
+
+            if (q >= limit) {
+                position = q;
+                return RECORD;
+            }
+            if (buffer.get(q) == separator) {
+                p = q + 1;
+            } else {
+                // A line feed following a carriage return is skipped as a
+                // blank line by the next call
+                position = q + 1;
+                return RECORD;
+            }
+        }
+    }
+
+    private void addField(final int start, final int end, final int fieldFlags) {
+        if (fieldCount == flags.length) {
+            flags = Arrays.copyOf(flags, fieldCount * 2);
+            bounds = Arrays.copyOf(bounds, fieldCount * 4);
+        }
+        bounds[fieldCount << 1] = start;
+        bounds[(fieldCount << 1) + 1] = end;
+        flags[fieldCount] = (byte) fieldFlags;
+        fieldCount++;
+    }
+}
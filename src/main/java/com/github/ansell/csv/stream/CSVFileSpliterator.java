@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * A {@link Spliterator} over the converted lines from a byte range of a CSV
+ * file, which splits by finding a record boundary near the middle of the
+ * range, so that each half can be parsed independently.
+ * 
+ * The header lines are parsed by the first call to any of the methods on the
+ * spliterator for the whole file. The first half of the range is scanned for
+ * quoted values and comment lines when splitting, as a line feed is only a
+ * record boundary if it is outside of a quoted value.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class CSVFileSpliterator<T> implements Spliterator<T> {
+
+    /**
+     * The default minimum number of bytes in a range that is split.
+     */
+    static final long DEFAULT_MINIMUM_SPLIT_SIZE = 1024L * 1024L;
+
+    private final FileChannel channel;
+    private final CSVLineProcessor<T> processor;
+    private final ObjectReader headerReader;
+    private final ObjectReader dataReader;
+    private final int quoteChar;
+    private final boolean allowComments;
+    private final boolean splittable;
+    private final long minimumSplitSize;
+
+    private boolean initialised;
+    private long start;
+    private final long end;
+
+    private Reader reader;
+    private MappingIterator<List<String>> iterator;
+    private boolean done;
+
+    /**
+     * Create a spliterator for a whole file.
+     * 
+     * @param channel
+     *            The channel for the file.
+     * @param processor
+     *            The processor for the lines.
+     * @param objectReader
+     *            The reader to parse lines with, which must be configured
+     *            with the schema.
+     * @param schema
+     *            The schema used to parse the file.
+     * @param allowComments
+     *            True if lines starting with '#' are comments.
+     * @param minimumSplitSize
+     *            The minimum number of bytes in a range that is split.
+     * @throws IOException
+     *             If the size of the file could not be found.
+     */
+    CSVFileSpliterator(final FileChannel channel, final CSVLineProcessor<T> processor,
+            final ObjectReader objectReader, final CsvSchema schema,
+            final boolean allowComments, final long minimumSplitSize) throws IOException {
+        if (minimumSplitSize < 1) {
+            throw new IllegalArgumentException("Minimum split size must be positive.");
+        }
+        this.channel = channel;
+        this.processor = processor;
+        this.headerReader = objectReader;
+        this.dataReader = objectReader.with(schema.withoutHeader());
+        this.quoteChar = schema.usesQuoteChar() ? schema.getQuoteChar() : -1;
+        this.allowComments = allowComments;
+        // Escape characters and multi-byte quote characters prevent the byte
+        // level scanning from finding record boundaries
+        this.splittable = !schema.usesEscapeChar() && quoteChar <= 0x7F;
+        this.minimumSplitSize = minimumSplitSize;
+        this.start = 0;
+        this.end = channel.size();
+    }
+
+    /**
+     * Create a spliterator for a range of data lines, after the headers have
+     * been processed.
+     */
+    private CSVFileSpliterator(final CSVFileSpliterator<T> parent, final long start,
+            final long end) {
+        this.channel = parent.channel;
+        this.processor = parent.processor;
+        this.headerReader = parent.headerReader;
+        this.dataReader = parent.dataReader;
+        this.quoteChar = parent.quoteChar;
+        this.allowComments = parent.allowComments;
+        this.splittable = parent.splittable;
+        this.minimumSplitSize = parent.minimumSplitSize;
+        this.initialised = true;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        final T next = next();
+        if (next == null) {
+            return false;
+        }
+        action.accept(next);
+        return true;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        try {
+            initialise();
+            if (!splittable || iterator != null || done || end - start < minimumSplitSize * 2) {
+                return null;
+            }
+            final long middle = start + (end - start) / 2;
+            // The start of the range is always on a record boundary
+            final int state = quoteChar >= 0
+                    ? CSVRecordBoundaries.scan(channel, start, middle,
+                            CSVRecordBoundaries.LINE_START, quoteChar, allowComments)
+                    : CSVRecordBoundaries.LINE_START;
+            final long boundary = CSVRecordBoundaries.nextRecordStart(channel, middle, end,
+                    state, quoteChar, allowComments);
+            if (boundary >= end) {
+                return null;
+            }
+            // Ordered spliterators must return the prefix of the range
+            final CSVFileSpliterator<T> prefix = new CSVFileSpliterator<>(this, start, boundary);
+            start = boundary;
+            return prefix;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long estimateSize() {
+        // The number of bytes is an upper bound on the number of lines
+        return end - start;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+
+    /**
+     * @return The next non-null result from the lineConverter, or null if
+     *         the end of the range was reached.
+     */
+    private T next() {
+        if (done) {
+            return null;
+        }
+        try {
+            initialise();
+            if (iterator == null) {
+                reader = CSVParallelParser.newReader(channel, start, end);
+                iterator = (splittable ? dataReader : headerReader).readValues(reader);
+            }
+            while (iterator.hasNext()) {
+                // Without splitting, the whole file is read by one iterator
+                final T apply = splittable ? processor.convert(iterator.next())
+                        : processor.process(iterator.next());
+
+                // Line checker returning null indicates that a value was
+                // not found, and will not be sent to the stream.
+                if (apply != null) {
+                    return apply;
+                }
+            }
+            done = true;
+            if (!splittable) {
+                processor.finish();
+            }
+            close();
+            return null;
+        } catch (final IOException e) {
+            done = true;
+            throw new UncheckedIOException(e);
+        } catch (final CSVStreamException e) {
+            done = true;
+            throw e;
+        } catch (final RuntimeException e) {
+            done = true;
+            throw new CSVStreamException(e);
+        }
+    }
+
+    /**
+     * Parse the header lines on the first call for the whole file, and move
+     * the start of the range past them.
+     */
+    private void initialise() throws IOException {
+        if (initialised) {
+            return;
+        }
+        initialised = true;
+        if (!splittable) {
+            return;
+        }
+        final long dataStart = CSVRecordBoundaries.skipRecords(channel, start, end,
+                processor.getHeaderLineCount(), quoteChar, allowComments);
+        try (final Reader headerInput = CSVParallelParser.newReader(channel, start, dataStart);
+                final MappingIterator<List<String>> it = headerReader.readValues(headerInput);) {
+            while (it.hasNext()) {
+                processor.process(it.next());
+            }
+        }
+        processor.finish();
+        start = dataStart;
+    }
+
+    private void close() throws IOException {
+        if (iterator != null) {
+            iterator.close();
+        }
+        if (reader != null) {
+            reader.close();
+        }
+    }
+}
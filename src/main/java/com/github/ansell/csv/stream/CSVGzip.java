@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip compressed streams that move compression and decompression off the
+ * thread that is parsing or writing the CSV file.
+ * 
+ * Files in the blocked gzip (BGZF) layout, as written by
+ * {@link #newOutputStream(OutputStream)} and by bgzip, are made of
+ * independent gzip members that each record their compressed size, so their
+ * blocks are inflated concurrently on a {@link ForkJoinPool}. Other gzip
+ * files, including other multi-member files, are inflated on a single
+ * background thread. Either way the uncompressed buffers are handed over to
+ * the reading thread through a bounded queue.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public final class CSVGzip {
+
+    /**
+     * Private constructor for static only class
+     */
+    private CSVGzip() {
+    }
+
+    /**
+     * Create a stream that decompresses the given gzip stream in the
+     * background, using the common {@link ForkJoinPool} for BGZF blocks.
+     * 
+     * @param compressed
+     *            The gzip compressed input, which is closed when the returned
+     *            stream is exhausted or closed.
+     * @return A stream containing the decompressed bytes.
+     * @see #newInputStream(InputStream, ForkJoinPool, int)
+     */
+    public static InputStream newInputStream(final InputStream compressed) {
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        return newInputStream(compressed, pool, Math.max(2, pool.getParallelism() * 2));
+    }
+
+    /**
+     * Create a stream that decompresses the given gzip stream in the
+     * background.
+     * 
+     * @param compressed
+     *            The gzip compressed input, which is closed when the returned
+     *            stream is exhausted or closed.
+     * @param pool
+     *            The {@link ForkJoinPool} used to inflate BGZF blocks
+     *            concurrently.
+     * @param maxBlocksInFlight
+     *            The maximum number of blocks that are being inflated, or are
+     *            waiting to be read, at any time, which bounds the memory used
+     *            for decompressed data ahead of the reader.
+     * @return A stream containing the decompressed bytes.
+     */
+    public static InputStream newInputStream(final InputStream compressed,
+            final ForkJoinPool pool, final int maxBlocksInFlight) {
+        if (maxBlocksInFlight < 1) {
+            throw new IllegalArgumentException("Maximum blocks in flight must be positive.");
+        }
+        return new GzipPipelineInputStream(compressed, pool, maxBlocksInFlight);
+    }
+
+    /**
+     * Create a stream that compresses data in the BGZF layout, deflating
+     * blocks concurrently on the common {@link ForkJoinPool}.
+     * 
+     * @param output
+     *            The output for the compressed data, which is closed when the
+     *            returned stream is closed.
+     * @return A stream that compresses the bytes written to it.
+     * @see #newOutputStream(OutputStream, ForkJoinPool, int, int)
+     */
+    public static OutputStream newOutputStream(final OutputStream output) {
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        return newOutputStream(output, pool, Math.max(2, pool.getParallelism() * 2),
+                Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Create a stream that compresses data in the BGZF layout, which is a
+     * series of gzip members of up to 64KB each, followed by an empty
+     * member to mark the end of the file. Any gzip reader can decompress the
+     * result.
+     * 
+     * @param output
+     *            The output for the compressed data, which is closed when the
+     *            returned stream is closed.
+     * @param pool
+     *            The {@link ForkJoinPool} used to deflate blocks concurrently.
+     * @param maxBlocksInFlight
+     *            The maximum number of blocks that are being deflated, or are
+     *            waiting to be written, at any time.
+     * @param level
+     *            The {@link Deflater} compression level, from 0 to 9, or
+     *            {@link Deflater#DEFAULT_COMPRESSION}.
+     * @return A stream that compresses the bytes written to it.
+     */
+    public static OutputStream newOutputStream(final OutputStream output,
+            final ForkJoinPool pool, final int maxBlocksInFlight, final int level) {
+        if (maxBlocksInFlight < 1) {
+            throw new IllegalArgumentException("Maximum blocks in flight must be positive.");
+        }
+        if (level != Deflater.DEFAULT_COMPRESSION
+                && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        return new BGZFOutputStream(output, pool, maxBlocksInFlight, level);
+    }
+
+    /**
+     * Wait for the result of a block, rethrowing any {@link IOException} that
+     * it failed with.
+     */
+    static <R> R join(final ForkJoinTask<R> task) throws IOException {
+        try {
+            return task.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            final InterruptedIOException result = new InterruptedIOException(
+                    "Interrupted while waiting for a gzip block");
+            result.initCause(e);
+            throw result;
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else {
+                throw new IOException(cause);
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A thread-safe, bounded cache of canonical {@link CSVHeaders}, keyed by the
+ * header names as they appear in the file, so that header lines that are seen
+ * repeatedly are trimmed and indexed once and then shared.
+ * <p>
+ * This replaces interning each header name, which goes through the global JVM
+ * string table, contends between concurrent parses and grows without bound
+ * when the headers vary. The cache is split into stripes, each with its own
+ * lock, and each stripe evicts its least recently used headers once it is
+ * full.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public final class CSVHeaderCache {
+
+    /**
+     * The default maximum number of header lines that will be cached.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private static final int STRIPES = 16;
+
+    private static final CSVHeaderCache DEFAULT = new CSVHeaderCache(DEFAULT_MAXIMUM_SIZE);
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+
+    private CSVHeaderCache(final int maximumSize) {
+        final int stripeCount = Math.min(STRIPES, Integer.highestOneBit(Math.max(1, maximumSize)));
+        final int stripeSize = (maximumSize + stripeCount - 1) / stripeCount;
+        this.stripes = new Stripe[stripeCount];
+        this.stripeShift = Integer.numberOfLeadingZeros(stripeCount) + 1;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(stripeSize);
+        }
+    }
+
+    /**
+     * @return The shared cache used by {@link CSVStream} and
+     *         {@link JSONStream}.
+     */
+    public static CSVHeaderCache defaultCache() {
+        return DEFAULT;
+    }
+
+    /**
+     * Create a new cache.
+     * 
+     * @param maximumSize
+     *            The maximum number of header lines to cache, which is rounded
+     *            up to a multiple of the number of stripes. Headers are still
+     *            canonicalised when the size is 0, but they are not shared.
+     * @return A new cache.
+     */
+    public static CSVHeaderCache withMaximumSize(final int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Maximum size must not be negative.");
+        }
+        return new CSVHeaderCache(maximumSize);
+    }
+
+    /**
+     * Returns the canonical headers for the given header names, with each
+     * name trimmed.
+     * 
+     * @param headers
+     *            The header names as they appear in the file, which are
+     *            copied if they need to be added to the cache.
+     * @return The canonical headers, which may be shared with other callers.
+     */
+    public CSVHeaders canonicalise(final List<String> headers) {
+        final Stripe stripe = stripes[stripeIndex(headers.hashCode())];
+        synchronized (stripe) {
+            final CSVHeaders result = stripe.get(headers);
+            if (result != null) {
+                return result;
+            }
+        }
+        // Build the headers outside of the lock, as another thread creating
+        // the same headers at the same time is harmless
+        final CSVHeaders result = CSVHeaders.trimmed(headers);
+        if (stripe.maximumSize == 0) {
+            return result;
+        }
+        final List<String> key = Collections.unmodifiableList(new ArrayList<>(headers));
+        synchronized (stripe) {
+            final CSVHeaders existing = stripe.putIfAbsent(key, result);
+            return existing == null ? result : existing;
+        }
+    }
+
+    /**
+     * List hash codes of similar headers differ mostly in their low bits, so
+     * the stripe is chosen from the high bits of a multiplicative hash.
+     */
+    private int stripeIndex(final int hash) {
+        return stripes.length == 1 ? 0 : (hash * 0x9E3779B9) >>> stripeShift;
+    }
+
+    /**
+     * @return The number of header lines that are currently cached.
+     */
+    public int size() {
+        int result = 0;
+        for (final Stripe nextStripe : stripes) {
+            synchronized (nextStripe) {
+                result += nextStripe.size();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A map in access order that removes its least recently used entry when
+     * it grows past its maximum size. All access must be synchronized on the
+     * stripe.
+     */
+    private static final class Stripe extends LinkedHashMap<List<String>, CSVHeaders> {
+        private static final long serialVersionUID = 6011453914226367312L;
+
+        private final int maximumSize;
+
+        Stripe(final int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<List<String>, CSVHeaders> eldest) {
+            return size() > maximumSize;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * An immutable list of header names, along with a map from each name to the
+ * index of its first occurrence, which are built once and shared by
+ * {@link CSVHeaderCache} between all of the parse calls that see the same
+ * header line.
+ * <p>
+ * {@link #indexOf(String)} uses an open addressing table with linear probing,
+ * so looking up a column by name takes constant time however wide the file
+ * is, without boxing the index.
+ * <p>
+ * The list returned by {@link #getNames()} keeps a reference to these
+ * headers, so that rows given that list can find these headers again without
+ * going through the cache.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public final class CSVHeaders {
+
+    private final List<String> names;
+    private final Map<String, Integer> indexes;
+    private final String[] table;
+    private final int[] tableIndexes;
+    private final int shift;
+
+    private CSVHeaders(final String[] names) {
+        final Map<String, Integer> nextIndexes = new LinkedHashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            nextIndexes.putIfAbsent(names[i], i);
+        }
+        this.names = new Names(names);
+        this.indexes = Collections.unmodifiableMap(nextIndexes);
+        // At most half full, so that probe sequences stay short
+        final int capacity = Math.max(2, Integer.highestOneBit(Math.max(1, indexes.size())) << 2);
+        this.table = new String[capacity];
+        this.tableIndexes = new int[capacity];
+        this.shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        final int mask = capacity - 1;
+        for (final Map.Entry<String, Integer> nextEntry : indexes.entrySet()) {
+            int slot = slot(nextEntry.getKey());
+            while (table[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = nextEntry.getKey();
+            tableIndexes[slot] = nextEntry.getValue();
+        }
+    }
+
+    /**
+     * Create headers with each of the given names trimmed.
+     * 
+     * @param headers
+     *            The header names.
+     * @return The trimmed headers.
+     */
+    static CSVHeaders trimmed(final List<String> headers) {
+        final String[] names = new String[headers.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = headers.get(i).trim();
+        }
+        return new CSVHeaders(names);
+    }
+
+    /**
+     * Find the headers for the given list of names, without adding them to
+     * the cache if the list came from {@link #getNames()}.
+     * 
+     * @param headers
+     *            The header names.
+     * @return The headers that the list was returned from, or the canonical
+     *         headers from {@link CSVHeaderCache#defaultCache()} for other
+     *         lists.
+     */
+    static CSVHeaders of(final List<String> headers) {
+        if (headers instanceof Names) {
+            return ((Names) headers).headers();
+        }
+        return CSVHeaderCache.defaultCache().canonicalise(headers);
+    }
+
+    /**
+     * Create the headers for the given columns, which are not added to the
+     * cache, as each projection of the same header line would otherwise use
+     * another entry.
+     * 
+     * @param columns
+     *            The indexes of the columns to include, or null to include all
+     *            of the columns.
+     * @return These headers if columns is null, or new headers containing
+     *         the given columns.
+     */
+    CSVHeaders project(final int[] columns) {
+        if (columns == null) {
+            return this;
+        }
+        final String[] projectedNames = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            projectedNames[i] = names.get(columns[i]);
+        }
+        return new CSVHeaders(projectedNames);
+    }
+
+    /**
+     * @return The header names, in order, which cannot be modified.
+     */
+    public List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * @return A map from each header name to the index of its first
+     *         occurrence, which cannot be modified.
+     */
+    public Map<String, Integer> getIndexes() {
+        return indexes;
+    }
+
+    /**
+     * @param name
+     *            A header name.
+     * @return The index of the first occurrence of the name, or -1 if it is
+     *         not one of the headers.
+     */
+    public int indexOf(final String name) {
+        if (name == null) {
+            return -1;
+        }
+        final int mask = table.length - 1;
+        for (int slot = slot(name);; slot = (slot + 1) & mask) {
+            final String next = table[slot];
+            if (next == null) {
+                return -1;
+            }
+            if (next == name || next.equals(name)) {
+                return tableIndexes[slot];
+            }
+        }
+    }
+
+    /**
+     * @return The number of headers.
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Spread the hash code of the name using a multiplicative hash, taking
+     * the high bits as the first slot to probe.
+     */
+    private int slot(final String name) {
+        return (name.hashCode() * 0x9E3779B9) >>> shift;
+    }
+
+    @Override
+    public String toString() {
+        return names.toString();
+    }
+
+    /**
+     * The unmodifiable list of names, which refers back to the headers.
+     */
+    private final class Names extends AbstractList<String> implements RandomAccess {
+
+        private final String[] values;
+
+        Names(final String[] values) {
+            this.values = values;
+        }
+
+        CSVHeaders headers() {
+            return CSVHeaders.this;
+        }
+
+        @Override
+        public String get(final int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+}
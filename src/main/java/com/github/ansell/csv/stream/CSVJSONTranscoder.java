@@ -0,0 +1,330 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * Transcodes between CSV and JSON documents by linking the streaming parser
+ * for one format directly to the streaming generator for the other, without
+ * creating an intermediate object for each record.
+ *
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public final class CSVJSONTranscoder {
+
+    /**
+     * Private constructor for static only class
+     */
+    private CSVJSONTranscoder() {
+    }
+
+    /**
+     * Transcode a CSV file with a single header line to a JSON array of
+     * objects, using the headers as the field names.
+     * 
+     * @param input
+     *            The {@link Reader} containing the CSV file.
+     * @param output
+     *            The {@link Writer} that will receive the JSON document.
+     * @throws IOException
+     *             If an error occurred accessing the input or output.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static void csvToJSON(final Reader input, final Writer output)
+            throws IOException, CSVStreamException {
+        csvToJSON(input, output, h -> {
+        }, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT,
+                CSVMapperCache.defaultCache(), CSVStream.defaultSchema(), CSVProjection.all(),
+                Collections.emptyMap(), JSONStream.DEFAULT_MAPPER, false);
+    }
+
+    /**
+     * Transcode a CSV file to JSON objects, one for each data line in the
+     * file.
+     * 
+     * @param input
+     *            The {@link Reader} containing the CSV file.
+     * @param output
+     *            The {@link Writer} that will receive the JSON document.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            transcoding process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as the projected
+     *            headers. Default values are written in place of empty values.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param cache
+     *            The {@link CSVMapperCache} to get the reader for the schema
+     *            from.
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param projection
+     *            The columns to write to each JSON object, by header or index.
+     * @param fieldNames
+     *            The JSON field names to use for the projected headers. Headers
+     *            that are not in the map are used directly as the field name.
+     * @param jsonMapper
+     *            The {@link ObjectMapper} to create the {@link JsonGenerator}
+     *            from.
+     * @param lines
+     *            True to write each object on a separate line in the JSON
+     *            Lines format, and false to write a single JSON array.
+     * @throws IOException
+     *             If an error occurred accessing the input or output.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static void csvToJSON(final Reader input, final Writer output,
+            final Consumer<List<String>> headersValidator, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount,
+            final CSVMapperCache cache, final CsvSchema schema, final CSVProjection projection,
+            final Map<String, String> fieldNames, final ObjectMapper jsonMapper,
+            final boolean lines) throws IOException, CSVStreamException {
+        final CSVLineProcessor<Void> processor = new CSVLineProcessor<>(headersValidator, null,
+                substituteHeaders, defaultValues, headerLineCount, projection);
+
+        try (final CsvParser parser = (CsvParser) cache.reader(schema).createParser(input);
+                final JsonGenerator generator = jsonMapper.getFactory()
+                        .createGenerator(output);) {
+            // Each line is reported as an array of strings, nested inside of
+            // another array if the lines are wrapped
+            final int lineDepth = parser.isEnabled(CsvParser.Feature.WRAP_AS_ARRAY) ? 2 : 1;
+            if (lines) {
+                generator.setRootValueSeparator(null);
+            } else {
+                generator.writeStartArray();
+            }
+            String[] line = new String[16];
+            int lineSize = 0;
+            int depth = 0;
+            SerializableString[] names = null;
+            int[] columns = null;
+            String[] defaults = null;
+            JsonToken nextToken;
+            while ((nextToken = parser.nextToken()) != null) {
+                if (nextToken == JsonToken.START_ARRAY) {
+                    depth++;
+                    lineSize = 0;
+                } else if (nextToken == JsonToken.END_ARRAY) {
+                    if (depth-- != lineDepth) {
+                        continue;
+                    }
+                    if (!processor.expectsDataLine()) {
+                        processor.process(Arrays.asList(Arrays.copyOf(line, lineSize)));
+                        continue;
+                    }
+                    if (names == null) {
+                        names = fieldNames(processor.getHeaders(), fieldNames);
+                        columns = processor.getColumns();
+                        defaults = processor.getDefaultValues().toArray(new String[0]);
+                    }
+                    if (lineSize != processor.getLineSize()) {
+                        processor.checkLineSize(Arrays.asList(line).subList(0, lineSize));
+                    }
+                    generator.writeStartObject();
+                    for (int i = 0; i < names.length; i++) {
+                        String nextValue = line[columns == null ? i : columns[i]];
+                        if (nextValue.isEmpty() && defaults.length > 0) {
+                            nextValue = defaults[i];
+                        }
+                        generator.writeFieldName(names[i]);
+                        generator.writeString(nextValue);
+                    }
+                    generator.writeEndObject();
+                    if (lines) {
+                        generator.writeRaw('\n');
+                    }
+                } else if (nextToken == JsonToken.VALUE_STRING) {
+                    if (lineSize == line.length) {
+                        line = Arrays.copyOf(line, lineSize * 2);
+                    }
+                    line[lineSize++] = parser.getText();
+                }
+            }
+            if (!lines) {
+                generator.writeEndArray();
+            }
+        } catch (IOException | CSVStreamException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new CSVStreamException(e);
+        }
+
+        processor.finish();
+    }
+
+    /**
+     * Transcode the records from a JSON document to a CSV file with a single
+     * header line.
+     * 
+     * @param input
+     *            The {@link Reader} containing the JSON document.
+     * @param output
+     *            The {@link Writer} that will receive the CSV file.
+     * @param basePath
+     *            The path to go to before checking the field paths. Set to "/"
+     *            to start at the top of the document. If the basePath points to
+     *            an array, each of the array elements are matched separately
+     *            with the fieldRelativePaths. If it points to an object, the
+     *            object is directly matched to obtain a single result row.
+     *            Otherwise an exception is thrown.
+     * @param fieldRelativePaths
+     *            The relative paths underneath the basePath to select field
+     *            values from.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields.
+     * @param outputHeaders
+     *            The header list to use in the output.
+     * @throws IOException
+     *             If an error occurred accessing the input or output.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static void jsonToCSV(final Reader input, final Writer output,
+            final JsonPointer basePath,
+            final Map<String, Optional<JsonPointer>> fieldRelativePaths,
+            final Map<String, String> defaultValues, final List<String> outputHeaders)
+            throws IOException, CSVStreamException {
+        jsonToCSV(input, output, h -> {
+        }, basePath, JSONExtractionPlan.compile(outputHeaders, fieldRelativePaths),
+                defaultValues, JSONStream.DEFAULT_MAPPER, CSVMapperCache.defaultCache());
+    }
+
+    /**
+     * Transcode the records from a JSON document to a CSV file with a single
+     * header line, using the headers from the {@link JSONExtractionPlan}.
+     * 
+     * @param input
+     *            The {@link Reader} containing the JSON document.
+     * @param output
+     *            The {@link Writer} that will receive the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            transcoding process to short-circuit before parsing, with a
+     *            CSVStreamException being rethrown by this code.
+     * @param basePath
+     *            The path to go to before checking the field paths. Set to "/"
+     *            to start at the top of the document. If the basePath points to
+     *            an array, each of the array elements are matched separately
+     *            with the plan. If it points to an object, the object is
+     *            directly matched to obtain a single result row. Otherwise an
+     *            exception is thrown.
+     * @param plan
+     *            The {@link JSONExtractionPlan} for the headers and the
+     *            relative paths underneath the basePath to select field values
+     *            from.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields.
+     * @param jsonMapper
+     *            The {@link ObjectMapper} to use to parse the JSON document.
+     * @param cache
+     *            The {@link CSVMapperCache} to get the writer for the CSV file
+     *            from.
+     * @throws IOException
+     *             If an error occurred accessing the input or output.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static void jsonToCSV(final Reader input, final Writer output,
+            final Consumer<List<String>> headersValidator, final JsonPointer basePath,
+            final JSONExtractionPlan plan, final Map<String, String> defaultValues,
+            final ObjectMapper jsonMapper, final CSVMapperCache cache)
+            throws IOException, CSVStreamException {
+        final Function<List<String>, List<String>> defaultValueReplacer = JSONStream
+                .validate(headersValidator, plan, defaultValues);
+        final JsonNodeFactory bigDecimalFactory = JSONExtractionPlan.bigDecimalFactory(jsonMapper);
+        final CsvSchema schema = CSVStream.buildSchema(plan.getHeaders());
+
+        try (final CsvGenerator generator = (CsvGenerator) cache.writer(schema)
+                .createGenerator(output);) {
+            JSONStream.parseRecords(factory -> factory.createParser(input), basePath, jsonMapper,
+                    parser -> writeLine(generator,
+                            defaultValueReplacer.apply(plan.extract(parser, bigDecimalFactory))));
+            if (generator.getOutputContext().getEntryCount() == 0) {
+                // The header line is only written before the first record,
+                // so write it directly if there were no records
+                generator.setSchema(CSVStream.buildSchema(plan.getHeaders(), false));
+                writeLine(generator, plan.getHeaders());
+            }
+        } catch (IOException | CSVStreamException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new CSVStreamException(e);
+        }
+    }
+
+    private static void writeLine(final CsvGenerator generator, final List<String> line)
+            throws IOException {
+        generator.writeStartArray();
+        for (final String nextValue : line) {
+            generator.writeString(nextValue);
+        }
+        generator.writeEndArray();
+    }
+
+    private static SerializableString[] fieldNames(final List<String> headers,
+            final Map<String, String> fieldNames) {
+        final List<String> result = new ArrayList<>(headers.size());
+        for (final String nextHeader : headers) {
+            result.add(fieldNames.getOrDefault(nextHeader, nextHeader));
+        }
+        return JSONStream.fieldNames(result);
+    }
+
+}
@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Applies the header validation, header line skipping, column projection,
+ * default value substitution and line conversion rules used by
+ * {@link CSVStream} to a sequence of parsed lines, independent of how the
+ * lines were tokenised.
+ * 
+ * Once the headers are known, {@link #convert(List)} does not modify any
+ * state, so data lines may be converted concurrently.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class CSVLineProcessor<T> {
+
+    private final Consumer<List<String>> headersValidator;
+    private final BiFunction<List<String>, List<String>, T> lineConverter;
+    private final List<String> defaultValues;
+    private final int headerLineCount;
+    private final Function<List<String>, List<String>> defaultValueReplacer;
+    private final CSVProjection projection;
+
+    private List<String> fileHeaders;
+    private int[] columns;
+    private volatile List<String> headers;
+    private int lineCount = 0;
+
+    /**
+     * Create a processor, validating the substitute headers immediately if
+     * they were given.
+     * 
+     * @param headersValidator
+     *            The validator of the header line.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as the projected
+     *            columns.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param projection
+     *            The columns to give to the lineConverter.
+     * @throws CSVStreamException
+     *             If the substitute headers did not pass validation.
+     */
+    CSVLineProcessor(final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final List<String> substituteHeaders, final List<String> defaultValues,
+            final int headerLineCount, final CSVProjection projection)
+            throws CSVStreamException {
+        if (headerLineCount < 0) {
+            throw new IllegalArgumentException("Header line count must be non-negative.");
+        }
+
+        if (headerLineCount < 1 && substituteHeaders == null) {
+            throw new IllegalArgumentException(
+                    "If there are no header lines, a substitute set of headers must be defined.");
+        }
+
+        this.headersValidator = headersValidator;
+        this.lineConverter = lineConverter;
+        this.defaultValues = defaultValues;
+        this.headerLineCount = headerLineCount;
+        this.projection = projection;
+
+        if (substituteHeaders != null) {
+            final CSVHeaders nextHeaders;
+            try {
+                nextHeaders = canonicaliseHeaders(substituteHeaders);
+                headersValidator.accept(nextHeaders.getNames());
+            } catch (final Exception e) {
+                throw new CSVStreamException("Could not verify substituted headers for csv file",
+                        e);
+            }
+            final int[] nextColumns = projection.resolve(nextHeaders);
+            setHeaders(nextHeaders, nextHeaders.project(nextColumns), nextColumns);
+        }
+
+        // Trivial non-replacer if there were no default values set
+        if (defaultValues.isEmpty()) {
+            defaultValueReplacer = l -> l;
+        } else {
+            defaultValueReplacer = l -> {
+                List<String> changedResult = null;
+                for (int i = 0; i < l.size(); i++) {
+                    if (l.get(i).isEmpty() && !defaultValues.get(i).isEmpty()) {
+                        if (changedResult == null) {
+                            changedResult = new ArrayList<>(l);
+                        }
+                        changedResult.set(i, defaultValues.get(i));
+                    }
+                }
+                if (changedResult == null) {
+                    return l;
+                } else {
+                    return changedResult;
+                }
+            };
+        }
+    }
+
+    /**
+     * Process the next line from the file, in file order, which may be a
+     * header line or a data line.
+     * 
+     * @param nextLine
+     *            The next line from the file.
+     * @return The result of the lineConverter, or null if the line was a
+     *         header line or the lineConverter returned null.
+     * @throws CSVStreamException
+     *             If the headers did not pass validation or the line was not
+     *             consistent with the headers.
+     */
+    T process(final List<String> nextLine) throws CSVStreamException {
+        T result = null;
+        if (headers == null) {
+            final CSVHeaders nextHeaders = canonicaliseHeaders(nextLine);
+            try {
+                headersValidator.accept(nextHeaders.getNames());
+            } catch (final Exception e) {
+                throw new CSVStreamException("Could not verify headers for csv file", e);
+            }
+            final int[] nextColumns = projection.resolve(nextHeaders);
+            final CSVHeaders nextProjectedHeaders = nextHeaders.project(nextColumns);
+            final List<String> projectedHeaders = nextProjectedHeaders.getNames();
+            // Default values must either be empty or the exact length
+            // that the headers (possibly substituteHeaders) were
+            if (!defaultValues.isEmpty() && projectedHeaders.size() != defaultValues.size()) {
+                throw new CSVStreamException(
+                        "Default values list must have the same number of items as the headers: expected "
+                                + projectedHeaders.size() + ", found " + defaultValues.size()
+                                + " headers=" + projectedHeaders + " defaultValues="
+                                + defaultValues);
+            }
+            setHeaders(nextHeaders, nextProjectedHeaders, nextColumns);
+        } else if (lineCount >= headerLineCount) {
+            result = convert(nextLine);
+        }
+        lineCount++;
+        return result;
+    }
+
+    /**
+     * Convert a data line, after the headers have been processed.
+     * 
+     * @param nextLine
+     *            A data line from the file.
+     * @return The result of the lineConverter, which may be null to indicate
+     *         that the line is not to be sent to the consumer.
+     * @throws CSVStreamException
+     *             If the line was not consistent with the headers.
+     */
+    T convert(final List<String> nextLine) throws CSVStreamException {
+        checkLineSize(nextLine);
+
+        final List<String> defaultReplacedLine = defaultValueReplacer
+                .apply(project(nextLine, columns));
+
+        return lineConverter.apply(headers, defaultReplacedLine);
+    }
+
+    /**
+     * Convert a data line, after the headers have been processed, where the
+     * size of the line has already been checked using {@link #getLineSize()},
+     * and the line has already been projected using {@link #getColumns()} and
+     * had default values substituted into it.
+     * 
+     * @param projectedLine
+     *            The projected values from a data line in the file, with
+     *            default values substituted.
+     * @return The result of the lineConverter, which may be null to indicate
+     *         that the line is not to be sent to the consumer.
+     */
+    T convertProjected(final List<String> projectedLine) {
+        return lineConverter.apply(headers, projectedLine);
+    }
+
+    /**
+     * @return True if the headers have been processed and all of the header
+     *         lines have been skipped, so that the next line is a data line.
+     */
+    boolean expectsDataLine() {
+        return headers != null && lineCount >= headerLineCount;
+    }
+
+    /**
+     * @return The default values, which are either empty or the same length
+     *         as each line.
+     */
+    List<String> getDefaultValues() {
+        return defaultValues;
+    }
+
+    /**
+     * Check that a data line has the same number of values as the headers.
+     * 
+     * @param nextLine
+     *            A data line from the file.
+     * @throws CSVStreamException
+     *             If the line was not consistent with the headers.
+     */
+    void checkLineSize(final List<String> nextLine) throws CSVStreamException {
+        final List<String> nextHeaders = fileHeaders;
+        if (nextLine.size() != nextHeaders.size()) {
+            throw new CSVStreamException("Line and header sizes were different: expected "
+                    + nextHeaders.size() + ", found " + nextLine.size() + " headers=" + nextHeaders
+                    + " line=" + nextLine);
+        }
+    }
+
+    /**
+     * @return The projected headers that are given to the lineConverter, or
+     *         null if they have not been processed yet.
+     */
+    List<String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return The number of values expected in each line of the file, after
+     *         the headers have been processed.
+     */
+    int getLineSize() {
+        return fileHeaders.size();
+    }
+
+    /**
+     * @return The indexes of the projected columns in each line of the file,
+     *         or null if all columns are used, after the headers have been
+     *         processed.
+     */
+    int[] getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return The number of header lines expected before data lines start.
+     */
+    int getHeaderLineCount() {
+        return headerLineCount;
+    }
+
+    /**
+     * Verify that the headers were found after all of the lines were
+     * processed.
+     * 
+     * @throws CSVStreamException
+     *             If no headers were found.
+     */
+    void finish() throws CSVStreamException {
+        if (headers == null) {
+            throw new CSVStreamException("CSV file did not contain a valid header line");
+        }
+    }
+
+    private void setHeaders(final CSVHeaders nextHeaders, final CSVHeaders projectedHeaders,
+            final int[] nextColumns) {
+        this.fileHeaders = nextHeaders.getNames();
+        this.columns = nextColumns;
+        // Written last, as the volatile write publishes the other fields. The
+        // projected names refer back to their own headers, so rows do not add
+        // each projection to the cache.
+        this.headers = projectedHeaders.getNames();
+    }
+
+    private static List<String> project(final List<String> line, final int[] columns) {
+        if (columns == null) {
+            return line;
+        }
+        final List<String> result = new ArrayList<>(columns.length);
+        for (final int nextColumn : columns) {
+            result.add(line.get(nextColumn));
+        }
+        return result;
+    }
+
+    private static CSVHeaders canonicaliseHeaders(final List<String> headers) {
+        return CSVHeaderCache.defaultCache().canonicalise(headers);
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema.Column;
+
+/**
+ * A thread-safe cache of the Jackson {@link ObjectReader} and
+ * {@link ObjectWriter} instances used to parse and write CSV lines as
+ * {@code List<String>}, keyed by the {@link CsvSchema} and any additional
+ * parser or generator features.
+ * <p>
+ * Creating a {@link CsvMapper} and deriving readers and writers from it
+ * discards the serializer and deserializer caches that Jackson builds up, so
+ * reusing a cache avoids that setup cost when parsing or writing many small
+ * CSV documents.
+ * <p>
+ * The mapper given to {@link #forMapper(CsvMapper)} is copied, so later
+ * changes to it do not affect the cache.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public final class CSVMapperCache {
+
+    /**
+     * The default maximum number of readers, and separately writers, that
+     * will be cached.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private static final CSVMapperCache DEFAULT = new CSVMapperCache(CSVStream.defaultMapper(),
+            DEFAULT_MAXIMUM_SIZE);
+
+    private final CsvMapper mapper;
+    private final int maximumSize;
+    private final ConcurrentMap<List<Object>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final ConcurrentMap<List<Object>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    private CSVMapperCache(final CsvMapper mapper, final int maximumSize) {
+        this.mapper = mapper;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @return The shared cache using the settings from
+     *         {@link CSVStream#defaultMapper()}.
+     */
+    public static CSVMapperCache defaultCache() {
+        return DEFAULT;
+    }
+
+    /**
+     * Create a cache using a copy of the given mapper.
+     * 
+     * @param mapper
+     *            The {@link CsvMapper} to copy.
+     * @return A new cache using a copy of the given mapper.
+     */
+    public static CSVMapperCache forMapper(final CsvMapper mapper) {
+        return forMapper(mapper, DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Create a cache using a copy of the given mapper.
+     * 
+     * @param mapper
+     *            The {@link CsvMapper} to copy.
+     * @param maximumSize
+     *            The maximum number of readers, and separately writers, to
+     *            cache. Readers and writers for further combinations of
+     *            schema and features are created when they are requested,
+     *            without being cached.
+     * @return A new cache using a copy of the given mapper.
+     */
+    public static CSVMapperCache forMapper(final CsvMapper mapper, final int maximumSize) {
+        Objects.requireNonNull(mapper, "Mapper must not be null");
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Maximum size must not be negative.");
+        }
+        return new CSVMapperCache(mapper.copy(), maximumSize);
+    }
+
+    /**
+     * Returns an {@link ObjectReader} that parses CSV lines as
+     * {@code List<String>} using the given schema.
+     * 
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing.
+     * @param features
+     *            Parser features to enable in addition to those enabled on
+     *            the mapper.
+     * @return A reader for the given schema and features.
+     */
+    public ObjectReader reader(final CsvSchema schema, final CsvParser.Feature... features) {
+        final EnumSet<CsvParser.Feature> featureSet = EnumSet.noneOf(CsvParser.Feature.class);
+        featureSet.addAll(Arrays.asList(features));
+        return get(readers, key(schema, featureSet), k -> mapper.readerFor(List.class)
+                .with(schema).withFeatures(featureSet.toArray(new CsvParser.Feature[0])));
+    }
+
+    /**
+     * Returns an {@link ObjectWriter} that writes {@code List<String>} objects
+     * as CSV lines using the given schema.
+     * 
+     * @param schema
+     *            The {@link CsvSchema} to use when writing.
+     * @param features
+     *            Generator features to enable in addition to those enabled on
+     *            the mapper.
+     * @return A writer for the given schema and features.
+     */
+    public ObjectWriter writer(final CsvSchema schema, final CsvGenerator.Feature... features) {
+        final EnumSet<CsvGenerator.Feature> featureSet = EnumSet
+                .noneOf(CsvGenerator.Feature.class);
+        featureSet.addAll(Arrays.asList(features));
+        return get(writers, key(schema, featureSet),
+                k -> mapper.writerWithDefaultPrettyPrinter().with(schema).forType(List.class)
+                        .withFeatures(featureSet.toArray(new CsvGenerator.Feature[0])));
+    }
+
+    private <V> V get(final ConcurrentMap<List<Object>, V> cache, final List<Object> key,
+            final Function<List<Object>, V> factory) {
+        final V result = cache.get(key);
+        if (result != null) {
+            return result;
+        }
+        if (cache.size() >= maximumSize) {
+            return factory.apply(key);
+        }
+        return cache.computeIfAbsent(key, factory);
+    }
+
+    /**
+     * {@link CsvSchema} does not implement equals or hashCode, so the key is
+     * built from the settings that it exposes.
+     */
+    private static List<Object> key(final CsvSchema schema, final EnumSet<?> features) {
+        final List<Object> key = new ArrayList<>(16 + schema.size() * 3);
+        key.add(features);
+        key.add(schema.usesHeader());
+        key.add(schema.reordersColumns());
+        key.add(schema.skipsFirstDataRow());
+        key.add(schema.allowsComments());
+        key.add(schema.strictHeaders());
+        key.add(schema.getColumnSeparator());
+        key.add(schema.getArrayElementSeparator());
+        key.add(schema.getQuoteChar());
+        key.add(schema.getEscapeChar());
+        key.add(new String(schema.getLineSeparator()));
+        key.add(schema.getNullValueString());
+        key.add(schema.getAnyPropertyName());
+        for (final Column nextColumn : schema) {
+            key.add(nextColumn.getName());
+            key.add(nextColumn.getType());
+            key.add(nextColumn.getArrayElementSeparator());
+        }
+        return key;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+/**
+ * Decodes numbers directly from {@link CharSequence} values, so that the
+ * values in a reusable {@link CSVRow} do not need to be copied into Strings
+ * before they are parsed.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class CSVNumbers {
+
+    /**
+     * The largest number of significant digits that always fit in the 53 bit
+     * mantissa of a double.
+     */
+    private static final int MAX_FAST_DIGITS = 15;
+
+    /**
+     * The powers of ten that are exactly representable as doubles.
+     */
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8,
+            1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    /**
+     * Private constructor for static only class
+     */
+    private CSVNumbers() {
+    }
+
+    /**
+     * Parse a decimal long, with the same rules as
+     * {@link Long#parseLong(String)}.
+     * 
+     * @param value
+     *            The value to parse.
+     * @return The long value.
+     * @throws NumberFormatException
+     *             If the value is not a valid long.
+     */
+    static long parseLong(final CharSequence value) throws NumberFormatException {
+        if (value == null) {
+            throw new NumberFormatException("null");
+        }
+        final int length = value.length();
+        if (length == 0) {
+            throw invalid(value);
+        }
+        // Accumulate negatively, as the magnitude of Long.MIN_VALUE is larger
+        // than Long.MAX_VALUE
+        int i = 0;
+        boolean negative = false;
+        long limit = -Long.MAX_VALUE;
+        final char first = value.charAt(0);
+        if (first == '-' || first == '+') {
+            if (length == 1) {
+                throw invalid(value);
+            }
+            if (first == '-') {
+                negative = true;
+                limit = Long.MIN_VALUE;
+            }
+            i++;
+        }
+        final long multiplyLimit = limit / 10;
+        long result = 0;
+        while (i < length) {
+            final int digit = value.charAt(i++) - '0';
+            if (digit < 0 || digit > 9 || result < multiplyLimit) {
+                throw invalid(value);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw invalid(value);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parse a decimal int, with the same rules as
+     * {@link Integer#parseInt(String)}.
+     * 
+     * @param value
+     *            The value to parse.
+     * @return The int value.
+     * @throws NumberFormatException
+     *             If the value is not a valid int.
+     */
+    static int parseInt(final CharSequence value) throws NumberFormatException {
+        final long result = parseLong(value);
+        if (result < Integer.MIN_VALUE || result > Integer.MAX_VALUE) {
+            throw invalid(value);
+        }
+        return (int) result;
+    }
+
+    /**
+     * Parse a double, with the same rules as
+     * {@link Double#parseDouble(String)}.
+     * <p>
+     * Plain decimal values with up to 15 significant digits and a small
+     * exponent are decoded directly, as the result of a single multiplication
+     * or division of two exactly representable doubles is correctly rounded.
+     * Other values are copied into a String and parsed by
+     * {@link Double#parseDouble(String)}.
+     * 
+     * @param value
+     *            The value to parse.
+     * @return The double value.
+     * @throws NumberFormatException
+     *             If the value is not a valid double.
+     */
+    static double parseDouble(final CharSequence value) throws NumberFormatException {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+        final int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = value.charAt(0) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean sawDigit = false;
+        boolean sawPoint = false;
+        for (; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c == '.' && !sawPoint) {
+                sawPoint = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                break;
+            }
+            sawDigit = true;
+            if (mantissa == 0 && c == '0') {
+                // Leading zeros are not significant
+                if (sawPoint) {
+                    exponent--;
+                }
+                continue;
+            }
+            if (digits == MAX_FAST_DIGITS) {
+                return Double.parseDouble(value.toString());
+            }
+            mantissa = mantissa * 10 + (c - '0');
+            digits++;
+            if (sawPoint) {
+                exponent--;
+            }
+        }
+        if (!sawDigit) {
+            return Double.parseDouble(value.toString());
+        }
+        if (i < length && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+            i++;
+            boolean negativeExponent = false;
+            if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+                negativeExponent = value.charAt(i) == '-';
+                i++;
+            }
+            final int exponentStart = i;
+            int explicitExponent = 0;
+            for (; i < length; i++) {
+                final char c = value.charAt(i);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                if (explicitExponent < 1000) {
+                    explicitExponent = explicitExponent * 10 + (c - '0');
+                }
+            }
+            if (i == exponentStart) {
+                return Double.parseDouble(value.toString());
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (i != length) {
+            // Includes whitespace, type suffixes, and invalid values
+            return Double.parseDouble(value.toString());
+        }
+        if (mantissa == 0) {
+            return negative ? -0.0d : 0.0d;
+        }
+        if (exponent < -22 || exponent > 22) {
+            return Double.parseDouble(value.toString());
+        }
+        final double result = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent]
+                : mantissa * POWERS_OF_TEN[exponent];
+        return negative ? -result : result;
+    }
+
+    private static NumberFormatException invalid(final CharSequence value) {
+        return new NumberFormatException("For input string: \"" + value + "\"");
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * Parses a CSV file in parallel by splitting it into byte ranges that start
+ * and end on record boundaries, and parsing and converting each range on a
+ * {@link ForkJoinPool}.
+ * 
+ * Finding the record boundaries takes a parallel pass over the file to find
+ * how each range changes the state of a quote and comment aware scan, as a line
+ * feed is only a record boundary if it is outside of a quoted value, and
+ * quote characters inside of comment lines do not start quoted values.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class CSVParallelParser {
+
+    /**
+     * Private constructor for static only class
+     */
+    private CSVParallelParser() {
+    }
+
+    static <T> void parse(final FileChannel channel, final CSVLineProcessor<T> processor,
+            final Consumer<T> resultConsumer, final CsvMapper mapper, final CsvSchema schema,
+            final ForkJoinPool pool, final long chunkSize, final boolean ordered)
+            throws IOException, CSVStreamException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+
+        final long size = channel.size();
+        final int quoteChar = schema.usesQuoteChar() ? schema.getQuoteChar() : -1;
+        final boolean allowComments = mapper.isEnabled(JsonParser.Feature.ALLOW_YAML_COMMENTS)
+                || schema.allowsComments();
+
+        // Escape characters and multi-byte quote characters prevent the byte
+        // level scanning from finding record boundaries
+        if (schema.usesEscapeChar() || quoteChar > 0x7F) {
+            parseRange(channel, 0, size, processor, resultConsumer, mapper.readerFor(List.class)
+                    .with(schema));
+            processor.finish();
+            return;
+        }
+
+        final long dataStart = CSVRecordBoundaries.skipRecords(channel, 0, size,
+                processor.getHeaderLineCount(), quoteChar, allowComments);
+
+        // The header lines are small, so they are parsed on this thread
+        parseRange(channel, 0, dataStart, processor, resultConsumer,
+                mapper.readerFor(List.class).with(schema));
+        processor.finish();
+
+        final ObjectReader dataReader = mapper.readerFor(List.class).with(schema.withoutHeader());
+        final List<long[]> ranges = splitOnRecordBoundaries(channel, dataStart, size, chunkSize,
+                quoteChar, allowComments, pool);
+
+        // Bound the number of ranges whose results may be waiting for delivery
+        final int maxInFlight = Math.max(2, pool.getParallelism() * 2);
+        final Deque<ForkJoinTask<List<T>>> inFlight = new ArrayDeque<>();
+        final AtomicBoolean stopped = new AtomicBoolean();
+        try {
+            for (final long[] nextRange : ranges) {
+                if (inFlight.size() >= maxInFlight) {
+                    deliver(inFlight.removeFirst(), resultConsumer);
+                }
+                inFlight.addLast(pool.submit(() -> {
+                    if (ordered) {
+                        final List<T> results = new ArrayList<>();
+                        convertRange(channel, nextRange[0], nextRange[1], processor,
+                                results::add, dataReader, stopped);
+                        return results;
+                    } else {
+                        convertRange(channel, nextRange[0], nextRange[1], processor,
+                                resultConsumer, dataReader, stopped);
+                        return null;
+                    }
+                }));
+            }
+            while (!inFlight.isEmpty()) {
+                deliver(inFlight.removeFirst(), resultConsumer);
+            }
+        } finally {
+            stopped.set(true);
+            awaitAll(inFlight);
+        }
+    }
+
+    /**
+     * Split the range into chunks of approximately the given size, with each
+     * chunk starting and ending on a record boundary.
+     */
+    private static List<long[]> splitOnRecordBoundaries(final FileChannel channel,
+            final long dataStart, final long size, final long chunkSize, final int quoteChar,
+            final boolean allowComments, final ForkJoinPool pool) throws IOException {
+        final List<Long> nominalStarts = new ArrayList<>();
+        for (long nextStart = dataStart; nextStart < size; nextStart += chunkSize) {
+            nominalStarts.add(nextStart);
+        }
+
+        // Without quotes, every line feed is a record boundary
+        final List<ForkJoinTask<int[]>> transitions = new ArrayList<>(nominalStarts.size());
+        if (quoteChar >= 0) {
+            for (final Long nextStart : nominalStarts) {
+                transitions.add(pool.submit(() -> CSVRecordBoundaries.transitions(channel,
+                        nextStart, Math.min(size, nextStart + chunkSize), quoteChar,
+                        allowComments)));
+            }
+        }
+
+        final List<long[]> result = new ArrayList<>(nominalStarts.size());
+        long previousBoundary = dataStart;
+        int state = CSVRecordBoundaries.LINE_START;
+        for (int i = 1; i < nominalStarts.size(); i++) {
+            if (quoteChar >= 0) {
+                state = join(transitions.get(i - 1))[state];
+            }
+            final long nextNominalStart = nominalStarts.get(i);
+            if (nextNominalStart < previousBoundary) {
+                // A single record covered the whole chunk
+                continue;
+            }
+            final long nextBoundary = CSVRecordBoundaries.nextRecordStart(channel,
+                    nextNominalStart, size, state, quoteChar, allowComments);
+            if (nextBoundary > previousBoundary) {
+                result.add(new long[] { previousBoundary, nextBoundary });
+                previousBoundary = nextBoundary;
+            }
+        }
+        if (previousBoundary < size) {
+            result.add(new long[] { previousBoundary, size });
+        }
+        return result;
+    }
+
+    private static <T> void convertRange(final FileChannel channel, final long start,
+            final long end, final CSVLineProcessor<T> processor, final Consumer<T> resultConsumer,
+            final ObjectReader dataReader, final AtomicBoolean stopped) throws IOException {
+        if (stopped.get()) {
+            return;
+        }
+        try (final Reader reader = newReader(channel, start, end);
+                final MappingIterator<List<String>> it = dataReader.readValues(reader);) {
+            while (!stopped.get() && it.hasNext()) {
+                final T apply = processor.convert(it.next());
+
+                // Line checker returning null indicates that a value was
+                // not found, and will not be sent to the consumer.
+                if (apply != null) {
+                    resultConsumer.accept(apply);
+                }
+            }
+        }
+    }
+
+    private static <T> void parseRange(final FileChannel channel, final long start,
+            final long end, final CSVLineProcessor<T> processor, final Consumer<T> resultConsumer,
+            final ObjectReader reader) throws IOException, CSVStreamException {
+        try (final Reader input = newReader(channel, start, end);
+                final MappingIterator<List<String>> it = reader.readValues(input);) {
+            while (it.hasNext()) {
+                final T apply = processor.process(it.next());
+
+                // Line checker returning null indicates that a value was
+                // not found, and will not be sent to the consumer.
+                if (apply != null) {
+                    resultConsumer.accept(apply);
+                }
+            }
+        } catch (IOException | CSVStreamException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CSVStreamException(e);
+        }
+    }
+
+    static Reader newReader(final FileChannel channel, final long start, final long end) {
+        return new BufferedReader(new InputStreamReader(
+                new FileChannelInputStream(channel, start, end), StandardCharsets.UTF_8));
+    }
+
+    static <T> void deliver(final ForkJoinTask<List<T>> task,
+            final Consumer<T> resultConsumer) throws IOException, CSVStreamException {
+        final List<T> results = join(task);
+        if (results != null) {
+            results.forEach(resultConsumer);
+        }
+    }
+
+    /**
+     * Wait for each of the tasks to finish, ignoring any failures, so that no
+     * task is still calling the converter or the consumer after a failure has
+     * been thrown to the caller. The tasks are not cancelled, as a cancelled
+     * task is reported as done while it may still be running. Tasks that
+     * should stop early need to check a flag that the caller sets before
+     * calling this method.
+     * 
+     * @param tasks
+     *            The tasks to wait for.
+     */
+    static void awaitAll(final Iterable<? extends ForkJoinTask<?>> tasks) {
+        for (final ForkJoinTask<?> nextTask : tasks) {
+            nextTask.quietlyJoin();
+        }
+    }
+
+    static <R> R join(final ForkJoinTask<R> task) throws IOException, CSVStreamException {
+        try {
+            return task.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CSVStreamException("Interrupted while waiting for CSV parsing", e);
+        } catch (final ExecutionException e) {
+            Throwable cause = e.getCause();
+            // ForkJoinTask rethrows exceptions from other threads wrapped in a
+            // new exception of the same type
+            if (cause != null && cause.getCause() != null
+                    && cause.getClass() == cause.getCause().getClass()) {
+                cause = cause.getCause();
+            }
+            // Callable tasks wrap checked exceptions in a RuntimeException
+            if (cause != null && cause.getClass() == RuntimeException.class
+                    && cause.getCause() instanceof IOException) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof CSVStreamException) {
+                throw (CSVStreamException) cause;
+            } else {
+                throw new CSVStreamException(cause);
+            }
+        }
+    }
+}
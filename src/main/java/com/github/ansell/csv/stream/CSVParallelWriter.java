@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * Writes a CSV file by converting and serialising chunks of objects on a
+ * {@link ForkJoinPool}, and then writing the serialised chunks to the output
+ * in their original order.
+ * 
+ * The objects are taken from the stream on the calling thread, and the number
+ * of chunks that are being serialised or are waiting to be written is bounded,
+ * so memory use is bounded by the chunk size and the number of chunks in
+ * flight.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class CSVParallelWriter {
+
+    /**
+     * Private constructor for static only class
+     */
+    private CSVParallelWriter() {
+    }
+
+    /**
+     * The destination for serialised chunks.
+     */
+    private interface Target<C> extends Closeable {
+
+        C serialise(ObjectWriter writer, List<List<String>> lines) throws IOException;
+
+        void write(C chunk) throws IOException;
+    }
+
+    static <T> void write(final Writer writer, final Stream<T> objects, final CsvSchema schema,
+            final BiFunction<List<String>, T, List<String>> objectConverter,
+            final ForkJoinPool pool, final int chunkSize, final int maxChunksInFlight)
+            throws IOException, CSVStreamException {
+        write(objects, schema, objectConverter, pool, chunkSize, maxChunksInFlight,
+                new Target<String>() {
+                    @Override
+                    public String serialise(final ObjectWriter objectWriter,
+                            final List<List<String>> lines) throws IOException {
+                        final StringWriter output = new StringWriter();
+                        try (final SequenceWriter csvWriter = objectWriter.writeValues(output);) {
+                            csvWriter.writeAll(lines);
+                        }
+                        return output.toString();
+                    }
+
+                    @Override
+                    public void write(final String chunk) throws IOException {
+                        writer.write(chunk);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        writer.close();
+                    }
+                });
+    }
+
+    static <T> void write(final OutputStream outputStream, final Stream<T> objects,
+            final CsvSchema schema, final BiFunction<List<String>, T, List<String>> objectConverter,
+            final ForkJoinPool pool, final int chunkSize, final int maxChunksInFlight)
+            throws IOException, CSVStreamException {
+        write(objects, schema, objectConverter, pool, chunkSize, maxChunksInFlight,
+                new Target<ByteArrayOutputStream>() {
+                    @Override
+                    public ByteArrayOutputStream serialise(final ObjectWriter objectWriter,
+                            final List<List<String>> lines) throws IOException {
+                        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+                        try (final SequenceWriter csvWriter = objectWriter.writeValues(output);) {
+                            csvWriter.writeAll(lines);
+                        }
+                        return output;
+                    }
+
+                    @Override
+                    public void write(final ByteArrayOutputStream chunk) throws IOException {
+                        chunk.writeTo(outputStream);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        outputStream.close();
+                    }
+                });
+    }
+
+    private static <T, C> void write(final Stream<T> objects, final CsvSchema schema,
+            final BiFunction<List<String>, T, List<String>> objectConverter,
+            final ForkJoinPool pool, final int chunkSize, final int maxChunksInFlight,
+            final Target<C> target) throws IOException, CSVStreamException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        if (maxChunksInFlight < 1) {
+            throw new IllegalArgumentException("Maximum chunks in flight must be positive.");
+        }
+
+        final List<String> headers = new ArrayList<>();
+        schema.iterator().forEachRemaining(c -> headers.add(c.getName()));
+        // The header line is only written with the first chunk, as it is
+        // when the lines are written sequentially
+        final CsvSchema headerSchema = CSVStream.buildSchema(headers);
+        final ObjectWriter headerWriter = CSVMapperCache.defaultCache().writer(headerSchema);
+        final ObjectWriter dataWriter = CSVMapperCache.defaultCache()
+                .writer(headerSchema.withoutHeader());
+
+        final Deque<ForkJoinTask<C>> inFlight = new ArrayDeque<>();
+        final AtomicBoolean stopped = new AtomicBoolean();
+        try {
+            final Iterator<T> iterator = objects.iterator();
+            boolean first = true;
+            while (iterator.hasNext()) {
+                final List<T> chunk = new ArrayList<>(chunkSize);
+                while (chunk.size() < chunkSize && iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                }
+                if (inFlight.size() >= maxChunksInFlight) {
+                    target.write(CSVParallelParser.join(inFlight.removeFirst()));
+                }
+                final ObjectWriter chunkWriter = first ? headerWriter : dataWriter;
+                first = false;
+                inFlight.addLast(pool.submit(() -> {
+                    final List<List<String>> lines = new ArrayList<>(chunk.size());
+                    for (final T nextObject : chunk) {
+                        if (stopped.get()) {
+                            return null;
+                        }
+                        try {
+                            lines.add(objectConverter.apply(headers, nextObject));
+                        } catch (final Exception e) {
+                            throw new CSVStreamException("Could not write object out", e);
+                        }
+                    }
+                    try {
+                        return target.serialise(chunkWriter, lines);
+                    } catch (final Exception e) {
+                        throw new CSVStreamException("Could not write object out", e);
+                    }
+                }));
+            }
+            while (!inFlight.isEmpty()) {
+                target.write(CSVParallelParser.join(inFlight.removeFirst()));
+            }
+            if (first) {
+                // The sequential writer still emits the header line when there
+                // are no objects
+                target.write(target.serialise(headerWriter, Collections.emptyList()));
+            }
+        } finally {
+            // The chunks are stopped and waited for before the target is
+            // closed, so that no converter is still running afterwards
+            stopped.set(true);
+            CSVParallelParser.awaitAll(inFlight);
+            target.close();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Parses a CSV file in three pipelined stages: a background thread reads and
+ * decodes the input, the calling thread tokenises the decoded characters
+ * into batches of lines, and the batches are converted on a
+ * {@link ForkJoinPool}.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class CSVPipelinedParser {
+
+    /**
+     * Private constructor for static only class
+     */
+    private CSVPipelinedParser() {
+    }
+
+    static <T> void parse(final InputStream input, final CSVLineProcessor<T> processor,
+            final Consumer<T> resultConsumer, final ObjectReader objectReader,
+            final ForkJoinPool pool, final int batchSize, final int maxBatchesInFlight,
+            final boolean ordered) throws IOException, CSVStreamException {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive.");
+        }
+        if (maxBatchesInFlight < 1) {
+            throw new IllegalArgumentException("Maximum batches in flight must be positive.");
+        }
+
+        final Deque<ForkJoinTask<List<T>>> inFlight = new ArrayDeque<>();
+        final AtomicBoolean stopped = new AtomicBoolean();
+        try (final Reader reader = new DecodingPipelineReader(input);
+                final MappingIterator<List<String>> it = objectReader.readValues(reader);) {
+            List<List<String>> batch = new ArrayList<>(batchSize);
+            while (it.hasNext()) {
+                final List<String> nextLine = it.next();
+                if (!processor.expectsDataLine()) {
+                    // Header lines are processed on this thread, before any
+                    // data lines are converted
+                    processor.process(nextLine);
+                    continue;
+                }
+                batch.add(nextLine);
+                if (batch.size() == batchSize) {
+                    submit(batch, processor, resultConsumer, pool, maxBatchesInFlight, ordered,
+                            inFlight, stopped);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(batch, processor, resultConsumer, pool, maxBatchesInFlight, ordered,
+                        inFlight, stopped);
+            }
+            while (!inFlight.isEmpty()) {
+                CSVParallelParser.deliver(inFlight.removeFirst(), resultConsumer);
+            }
+        } catch (IOException | CSVStreamException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new CSVStreamException(e);
+        } finally {
+            stopped.set(true);
+            CSVParallelParser.awaitAll(inFlight);
+        }
+
+        processor.finish();
+    }
+
+    private static <T> void submit(final List<List<String>> batch,
+            final CSVLineProcessor<T> processor, final Consumer<T> resultConsumer,
+            final ForkJoinPool pool, final int maxBatchesInFlight, final boolean ordered,
+            final Deque<ForkJoinTask<List<T>>> inFlight, final AtomicBoolean stopped)
+            throws IOException, CSVStreamException {
+        if (inFlight.size() >= maxBatchesInFlight) {
+            CSVParallelParser.deliver(inFlight.removeFirst(), resultConsumer);
+        }
+        inFlight.addLast(pool.submit(() -> {
+            final List<T> results = ordered ? new ArrayList<>(batch.size()) : null;
+            for (final List<String> nextLine : batch) {
+                if (stopped.get()) {
+                    break;
+                }
+                final T apply = processor.convert(nextLine);
+
+                // Line checker returning null indicates that a value was
+                // not found, and will not be sent to the consumer.
+                if (apply != null) {
+                    if (ordered) {
+                        results.add(apply);
+                    } else {
+                        resultConsumer.accept(apply);
+                    }
+                }
+            }
+            return results;
+        }));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A selection of columns to parse from a CSV file, by header name or by
+ * index, in the order that they will be given to the lineConverter.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public final class CSVProjection {
+
+    private static final CSVProjection ALL = new CSVProjection(null, null);
+
+    private final List<String> headers;
+    private final int[] indexes;
+
+    private CSVProjection(final List<String> headers, final int[] indexes) {
+        this.headers = headers;
+        this.indexes = indexes;
+    }
+
+    /**
+     * @return A projection that selects all of the columns in their original
+     *         order.
+     */
+    public static CSVProjection all() {
+        return ALL;
+    }
+
+    /**
+     * @param headers
+     *            The headers for the columns to select, which are matched
+     *            against the substitute headers if they are given, or
+     *            otherwise against the header line in the file.
+     * @return A projection that selects the columns with the given headers.
+     */
+    public static CSVProjection ofHeaders(final String... headers) {
+        return ofHeaders(Arrays.asList(headers));
+    }
+
+    /**
+     * @param headers
+     *            The headers for the columns to select, which are matched
+     *            against the substitute headers if they are given, or
+     *            otherwise against the header line in the file.
+     * @return A projection that selects the columns with the given headers.
+     */
+    public static CSVProjection ofHeaders(final List<String> headers) {
+        final List<String> copy = new ArrayList<>(headers.size());
+        for (final String nextHeader : headers) {
+            copy.add(Objects.requireNonNull(nextHeader, "Projected headers must not be null")
+                    .trim());
+        }
+        return new CSVProjection(Collections.unmodifiableList(copy), null);
+    }
+
+    /**
+     * @param indexes
+     *            The zero-based indexes of the columns to select.
+     * @return A projection that selects the columns with the given indexes.
+     */
+    public static CSVProjection ofIndexes(final int... indexes) {
+        for (final int nextIndex : indexes) {
+            if (nextIndex < 0) {
+                throw new IllegalArgumentException("Projected indexes must be non-negative.");
+            }
+        }
+        return new CSVProjection(null, indexes.clone());
+    }
+
+    /**
+     * @return True if this projection selects all of the columns.
+     */
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    /**
+     * Find the indexes of the selected columns.
+     * 
+     * @param fileHeaders
+     *            The headers for all of the columns in the file.
+     * @return The indexes of the selected columns, or null if all of the
+     *         columns are selected.
+     * @throws CSVStreamException
+     *             If a selected column was not in the headers.
+     */
+    int[] resolve(final CSVHeaders fileHeaders) throws CSVStreamException {
+        if (isAll()) {
+            return null;
+        }
+        if (indexes != null) {
+            for (final int nextIndex : indexes) {
+                if (nextIndex >= fileHeaders.size()) {
+                    throw new CSVStreamException("Projected column index " + nextIndex
+                            + " was not in the headers: " + fileHeaders);
+                }
+            }
+            return indexes.clone();
+        }
+        final int[] result = new int[headers.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = fileHeaders.indexOf(headers.get(i));
+            if (result[i] < 0) {
+                throw new CSVStreamException("Projected column header " + headers.get(i)
+                        + " was not in the headers: " + fileHeaders);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        if (isAll()) {
+            return "CSVProjection[all]";
+        }
+        return "CSVProjection" + (indexes != null ? Arrays.toString(indexes) : headers);
+    }
+}
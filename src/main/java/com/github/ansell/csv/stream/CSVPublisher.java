@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * A {@link Publisher} of the converted lines from a CSV file, which only
+ * parses as many lines as the {@link Subscriber} has requested.
+ * 
+ * Lines are parsed and delivered on the thread that calls
+ * {@link Subscription#request(long)}, so no threads or queues are used. The
+ * {@link Reader} is closed when the end of the file is reached, when an error
+ * occurs, or when the {@link Subscription} is cancelled. As the Reader can only
+ * be read once, only a single {@link Subscriber} is supported.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class CSVPublisher<T> implements Publisher<T> {
+
+    private final Reader reader;
+    private final Consumer<List<String>> headersValidator;
+    private final BiFunction<List<String>, List<String>, T> lineConverter;
+    private final List<String> substituteHeaders;
+    private final List<String> defaultValues;
+    private final int headerLineCount;
+    private final ObjectReader objectReader;
+    private final CSVProjection projection;
+
+    private final AtomicBoolean subscribed = new AtomicBoolean(false);
+
+    CSVPublisher(final Reader reader, final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final List<String> substituteHeaders, final List<String> defaultValues,
+            final int headerLineCount, final ObjectReader objectReader,
+            final CSVProjection projection) {
+        this.reader = reader;
+        this.headersValidator = headersValidator;
+        this.lineConverter = lineConverter;
+        this.substituteHeaders = substituteHeaders;
+        this.defaultValues = defaultValues;
+        this.headerLineCount = headerLineCount;
+        this.objectReader = objectReader;
+        this.projection = projection;
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "Subscriber must not be null");
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(final long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(
+                    new IllegalStateException("CSV publishers only support a single subscriber"));
+            return;
+        }
+        final LineSubscription subscription = new LineSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    /**
+     * Parses lines on demand for a single {@link Subscriber}.
+     * 
+     * All access to the parser is from inside of {@link #drain()}, which is
+     * only ever running on one thread at a time, and which loops again if
+     * more demand or a cancellation arrives while it is running.
+     */
+    private final class LineSubscription implements Subscription {
+
+        private final Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger work = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        private CSVLineProcessor<T> processor;
+        private MappingIterator<List<String>> iterator;
+        private boolean done;
+
+        LineSubscription(final Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(final long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException(
+                        "Requested number of lines must be positive: " + n);
+            } else {
+                requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            drain();
+        }
+
+        private void drain() {
+            if (work.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (done) {
+                    return;
+                }
+                if (cancelled) {
+                    closeQuietly();
+                    return;
+                }
+                if (invalidRequest != null) {
+                    closeQuietly();
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+
+                final long demand = requested.get();
+                long emitted = 0;
+                while (emitted != demand) {
+                    if (cancelled) {
+                        closeQuietly();
+                        return;
+                    }
+                    final T next;
+                    try {
+                        next = nextResult();
+                    } catch (final Throwable e) {
+                        fail(e);
+                        return;
+                    }
+                    if (next == null) {
+                        complete();
+                        return;
+                    }
+                    try {
+                        subscriber.onNext(next);
+                    } catch (final RuntimeException | Error e) {
+                        // The subscriber broke the contract, so give up
+                        closeQuietly();
+                        throw e;
+                    }
+                    emitted++;
+                }
+
+                if (emitted != 0 && demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+                missed = work.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * @return The next non-null result from the lineConverter, or null if
+         *         the end of the file was reached.
+         */
+        private T nextResult() throws IOException, CSVStreamException {
+            if (iterator == null) {
+                processor = new CSVLineProcessor<>(headersValidator, lineConverter,
+                        substituteHeaders, defaultValues, headerLineCount, projection);
+                iterator = objectReader.readValues(reader);
+            }
+            while (iterator.hasNext()) {
+                final T apply = processor.process(iterator.next());
+
+                // Line checker returning null indicates that a value was
+                // not found, and will not be sent to the subscriber.
+                if (apply != null) {
+                    return apply;
+                }
+            }
+            processor.finish();
+            return null;
+        }
+
+        private void complete() {
+            done = true;
+            try {
+                close();
+            } catch (final Throwable e) {
+                subscriber.onError(e);
+                return;
+            }
+            subscriber.onComplete();
+        }
+
+        private void fail(final Throwable e) {
+            done = true;
+            try {
+                close();
+            } catch (final Throwable closeException) {
+                e.addSuppressed(closeException);
+            }
+            if (e instanceof IOException || e instanceof CSVStreamException) {
+                subscriber.onError(e);
+            } else {
+                subscriber.onError(new CSVStreamException(e));
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                close();
+            } catch (final CSVStreamException e) {
+                // There is no way to report errors to the subscriber here
+            }
+        }
+
+        private void close() {
+            done = true;
+            try {
+                if (iterator != null) {
+                    iterator.close();
+                }
+                reader.close();
+            } catch (final IOException e) {
+                throw new CSVStreamException("Could not close CSV reader", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,400 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Byte level scanning of UTF-8 or ASCII CSV files to find positions that are
+ * on record boundaries, so that a file can be split into ranges that can each
+ * be parsed independently.
+ * 
+ * The scanning relies on quote characters only appearing as the first and last
+ * characters of quoted values, or doubled inside of quoted values, as
+ * specified by RFC 4180. Given that, a record boundary is any line feed that is
+ * not inside of a quoted value, which is tracked using a small state machine
+ * that also skips over comment lines, as quote characters inside of comments
+ * do not follow those rules.
+ * 
+ * The state at an arbitrary position can only be found by scanning from a
+ * known record boundary, so ranges of a file can be scanned independently
+ * using {@link #transitions(FileChannel, long, long, int, boolean)}, which
+ * finds the state at the end of the range for each possible state at the
+ * start of the range, and the results combined in order afterwards.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class CSVRecordBoundaries {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * At the start of a line, before any characters other than spaces.
+     */
+    static final int LINE_START = 0;
+    /**
+     * Inside of a record, outside of quoted values.
+     */
+    static final int IN_RECORD = 1;
+    /**
+     * Inside of a comment line.
+     */
+    static final int IN_COMMENT = 2;
+    /**
+     * Inside of a quoted value.
+     */
+    static final int IN_QUOTES = 3;
+
+    private static final int STATE_COUNT = 4;
+
+    private static final int OTHER = 0;
+    private static final int QUOTE = 1;
+    private static final int NEWLINE = 2;
+    private static final int SPACE = 3;
+    private static final int COMMENT = 4;
+    private static final int CLASS_COUNT = 5;
+
+    /**
+     * The next state, indexed by the current state and the class of the next
+     * byte.
+     */
+    private static final int[] NEXT_STATE = new int[STATE_COUNT * CLASS_COUNT];
+
+    /**
+     * The next states for each of the possible start states, packed into two
+     * bits per start state, indexed by the current packed states and the class
+     * of the next byte, so that all of the start states are tracked with a
+     * single lookup for each byte.
+     */
+    private static final int[] NEXT_STATES = new int[(1 << (2 * STATE_COUNT)) * CLASS_COUNT];
+
+    /**
+     * The packed states where each start state maps to itself.
+     */
+    private static final int START_STATES;
+
+    static {
+        for (int state = 0; state < STATE_COUNT; state++) {
+            for (int byteClass = 0; byteClass < CLASS_COUNT; byteClass++) {
+                NEXT_STATE[state * CLASS_COUNT + byteClass] = next(state, byteClass);
+            }
+        }
+        for (int states = 0; states < 1 << (2 * STATE_COUNT); states++) {
+            for (int byteClass = 0; byteClass < CLASS_COUNT; byteClass++) {
+                int nextStates = 0;
+                for (int i = 0; i < STATE_COUNT; i++) {
+                    final int state = (states >>> (2 * i)) & 3;
+                    nextStates |= NEXT_STATE[state * CLASS_COUNT + byteClass] << (2 * i);
+                }
+                NEXT_STATES[states * CLASS_COUNT + byteClass] = nextStates;
+            }
+        }
+        int startStates = 0;
+        for (int i = 0; i < STATE_COUNT; i++) {
+            startStates |= i << (2 * i);
+        }
+        START_STATES = startStates;
+    }
+
+    /**
+     * Private constructor for static only class
+     */
+    private CSVRecordBoundaries() {
+    }
+
+    /**
+     * Find the position after the given number of records, skipping over blank
+     * lines and comment lines in the same way as the Jackson CSV parser.
+     * 
+     * @param channel
+     *            The channel to scan.
+     * @param start
+     *            The position to start scanning from, which must be at the
+     *            start of a line.
+     * @param end
+     *            The position to stop scanning at.
+     * @param records
+     *            The number of records to skip.
+     * @param quoteChar
+     *            The quote character, or -1 if quotes are not used.
+     * @param allowComments
+     *            True if lines starting with '#' are comments.
+     * @return The position after the last byte of the given number of
+     *         records, or end if there were fewer records.
+     * @throws IOException
+     *             If there was an error reading from the channel.
+     */
+    static long skipRecords(final FileChannel channel, final long start, final long end,
+            final int records, final int quoteChar, final boolean allowComments)
+            throws IOException {
+        if (records == 0) {
+            return start;
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        final int[] classes = classes(quoteChar, allowComments);
+        int state = LINE_START;
+        int recordCount = 0;
+        long position = start;
+        while (position < end) {
+            final int count = read(channel, buffer, position, end);
+            final byte[] bytes = buffer.array();
+            for (int i = 0; i < count; i++) {
+                final int previousState = state;
+                state = NEXT_STATE[state * CLASS_COUNT + classes[bytes[i] & 0xFF]];
+                if (previousState == IN_RECORD && state == LINE_START) {
+                    recordCount++;
+                    if (recordCount == records) {
+                        // A trailing line feed after a carriage return is
+                        // left behind as a blank line, which is ignored
+                        return position + i + 1;
+                    }
+                }
+            }
+            position += count;
+        }
+        return end;
+    }
+
+    /**
+     * Find the state at the end of the given range, given the state at the
+     * start of the range.
+     * 
+     * @param channel
+     *            The channel to scan.
+     * @param start
+     *            The first position to scan, inclusive.
+     * @param end
+     *            The last position to scan, exclusive.
+     * @param state
+     *            The state at the start position, which is {@link #LINE_START}
+     *            for a position on a record boundary.
+     * @param quoteChar
+     *            The quote character, or -1 if quotes are not used.
+     * @param allowComments
+     *            True if lines starting with '#' are comments.
+     * @return The state at the end position.
+     * @throws IOException
+     *             If there was an error reading from the channel.
+     */
+    static int scan(final FileChannel channel, final long start, final long end, final int state,
+            final int quoteChar, final boolean allowComments) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        final int[] classes = classes(quoteChar, allowComments);
+        int result = state;
+        long position = start;
+        while (position < end) {
+            final int count = read(channel, buffer, position, end);
+            final byte[] bytes = buffer.array();
+            for (int i = 0; i < count; i++) {
+                result = NEXT_STATE[result * CLASS_COUNT + classes[bytes[i] & 0xFF]];
+            }
+            position += count;
+        }
+        return result;
+    }
+
+    /**
+     * Find the state at the end of the given range for each of the possible
+     * states at the start of the range, so that the range can be scanned
+     * before the state at its start is known.
+     * 
+     * @param channel
+     *            The channel to scan.
+     * @param start
+     *            The first position to scan, inclusive.
+     * @param end
+     *            The last position to scan, exclusive.
+     * @param quoteChar
+     *            The quote character, or -1 if quotes are not used.
+     * @param allowComments
+     *            True if lines starting with '#' are comments.
+     * @return An array containing the state at the end position, indexed by
+     *         the state at the start position.
+     * @throws IOException
+     *             If there was an error reading from the channel.
+     */
+    static int[] transitions(final FileChannel channel, final long start, final long end,
+            final int quoteChar, final boolean allowComments) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        final int[] classes = classes(quoteChar, allowComments);
+        int states = START_STATES;
+        long position = start;
+        while (position < end) {
+            final int count = read(channel, buffer, position, end);
+            final byte[] bytes = buffer.array();
+            for (int i = 0; i < count; i++) {
+                states = NEXT_STATES[states * CLASS_COUNT + classes[bytes[i] & 0xFF]];
+            }
+            position += count;
+        }
+        final int[] result = new int[STATE_COUNT];
+        for (int i = 0; i < STATE_COUNT; i++) {
+            result[i] = (states >>> (2 * i)) & 3;
+        }
+        return result;
+    }
+
+    /**
+     * Find the first record boundary at or after the given position.
+     * 
+     * @param channel
+     *            The channel to scan.
+     * @param start
+     *            The position to start scanning from.
+     * @param end
+     *            The position to stop scanning at.
+     * @param inQuotes
+     *            True if the start position is inside of a quoted value.
+     * @param quoteChar
+     *            The quote character, or -1 if quotes are not used.
+     * @return The position after the next line feed that is not inside of a
+     *         quoted value, or end if there were none.
+     * @throws IOException
+     *             If there was an error reading from the channel.
+     */
+    static long nextRecordStart(final FileChannel channel, final long start, final long end,
+            final boolean inQuotes, final int quoteChar) throws IOException {
+        return nextRecordStart(channel, start, end, inQuotes ? IN_QUOTES : IN_RECORD, quoteChar,
+                false);
+    }
+
+    /**
+     * Find the first record boundary at or after the given position.
+     * 
+     * @param channel
+     *            The channel to scan.
+     * @param start
+     *            The position to start scanning from.
+     * @param end
+     *            The position to stop scanning at.
+     * @param state
+     *            The state at the start position.
+     * @param quoteChar
+     *            The quote character, or -1 if quotes are not used.
+     * @param allowComments
+     *            True if lines starting with '#' are comments.
+     * @return The position after the next line feed that is not inside of a
+     *         quoted value, or end if there were none.
+     * @throws IOException
+     *             If there was an error reading from the channel.
+     */
+    static long nextRecordStart(final FileChannel channel, final long start, final long end,
+            final int state, final int quoteChar, final boolean allowComments)
+            throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        final int[] classes = classes(quoteChar, allowComments);
+        int current = state;
+        long position = start;
+        while (position < end) {
+            final int count = read(channel, buffer, position, end);
+            final byte[] bytes = buffer.array();
+            for (int i = 0; i < count; i++) {
+                if (bytes[i] == '\n' && current != IN_QUOTES) {
+                    return position + i + 1;
+                }
+                current = NEXT_STATE[current * CLASS_COUNT + classes[bytes[i] & 0xFF]];
+            }
+            position += count;
+        }
+        return end;
+    }
+
+    /**
+     * @return The class of each byte value, using the given quote character
+     *         and comment setting.
+     */
+    private static int[] classes(final int quoteChar, final boolean allowComments) {
+        final int[] result = new int[256];
+        for (int i = 0; i <= ' '; i++) {
+            result[i] = SPACE;
+        }
+        result['\n'] = NEWLINE;
+        result['\r'] = NEWLINE;
+        if (allowComments) {
+            result['#'] = COMMENT;
+        }
+        if (quoteChar >= 0) {
+            result[quoteChar] = QUOTE;
+        }
+        return result;
+    }
+
+    /**
+     * @return The state after a byte of the given class, given the state
+     *         before it.
+     */
+    private static int next(final int state, final int byteClass) {
+        switch (state) {
+        case IN_QUOTES:
+            // Doubled quotes leave and then re-enter the quoted value
+            return byteClass == QUOTE ? IN_RECORD : IN_QUOTES;
+        case IN_COMMENT:
+            return byteClass == NEWLINE ? LINE_START : IN_COMMENT;
+        case LINE_START:
+            switch (byteClass) {
+            case NEWLINE:
+            case SPACE:
+                return LINE_START;
+            case COMMENT:
+                return IN_COMMENT;
+            case QUOTE:
+                return IN_QUOTES;
+            default:
+                return IN_RECORD;
+            }
+        default:
+            switch (byteClass) {
+            case QUOTE:
+                return IN_QUOTES;
+            case NEWLINE:
+                return LINE_START;
+            default:
+                return IN_RECORD;
+            }
+        }
+    }
+
+    private static int read(final FileChannel channel, final ByteBuffer buffer,
+            final long position, final long end) throws IOException {
+        buffer.clear();
+        buffer.limit((int) Math.min(buffer.capacity(), end - position));
+        int count = 0;
+        while (buffer.hasRemaining()) {
+            final int nextCount = channel.read(buffer, position + count);
+            if (nextCount < 0) {
+                break;
+            }
+            count += nextCount;
+        }
+        if (count == 0) {
+            throw new IOException("File was truncated while it was being read: expected "
+                    + (end - position) + " more bytes at position " + position);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema.ColumnType;
+
+/**
+ * A view of a single row from a CSV file, as passed to the row converters used
+ * by the {@link CSVStream} parseRows methods.
+ * 
+ * The same instance is reused for every row, and the {@link CharSequence}
+ * values returned by {@link #get(int)} may also be reused, so neither may be
+ * retained or used after the row converter returns. Use
+ * {@link #getString(int)} or {@link #toList()} to copy values out of the row.
+ * 
+ * Numeric values can be decoded using {@link #getLong(int)},
+ * {@link #getInt(int)} and {@link #getDouble(int)} without copying them into
+ * Strings first.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public interface CSVRow {
+
+    /**
+     * @return The number of values in the row.
+     */
+    int size();
+
+    /**
+     * Get a value from the row, which is only valid until the row converter
+     * returns.
+     * 
+     * @param index
+     *            The index of the value.
+     * @return The value, with the default value substituted if the value was
+     *         empty.
+     * @throws IndexOutOfBoundsException
+     *             If the index is not in the row.
+     */
+    CharSequence get(int index);
+
+    /**
+     * @return The headers for the CSV file.
+     */
+    List<String> getHeaders();
+
+    /**
+     * @return The headers for the CSV file, with a constant time lookup from
+     *         each header to the index of its first column.
+     */
+    default CSVHeaders getHeaderIndex() {
+        return CSVHeaders.of(getHeaders());
+    }
+
+    /**
+     * @param header
+     *            The name of a header.
+     * @return The index of the first column with the given header, or -1 if
+     *         there is no column with the header.
+     */
+    int indexOf(String header);
+
+    /**
+     * Get a value from the row using the name of its header, which is only
+     * valid until the row converter returns.
+     * 
+     * @param header
+     *            The name of a header.
+     * @return The value for the first column with the given header, or null if
+     *         there is no column with the header.
+     */
+    default CharSequence get(final String header) {
+        final int index = indexOf(header);
+        return index < 0 ? null : get(index);
+    }
+
+    /**
+     * @param index
+     *            The index of the value.
+     * @return A copy of the value that can be retained after the row converter
+     *         returns.
+     * @throws IndexOutOfBoundsException
+     *             If the index is not in the row.
+     */
+    default String getString(final int index) {
+        return get(index).toString();
+    }
+
+    /**
+     * @param header
+     *            The name of a header.
+     * @return A copy of the value for the first column with the given header,
+     *         or null if there is no column with the header.
+     */
+    default String getString(final String header) {
+        final int index = indexOf(header);
+        return index < 0 ? null : getString(index);
+    }
+
+    /**
+     * @param index
+     *            The index of the value.
+     * @return The type of the column as declared in the {@link CsvSchema}
+     *         used to parse the file, matched using the header for the
+     *         column, or {@link ColumnType#STRING} if the schema did not
+     *         declare the column.
+     * @throws IndexOutOfBoundsException
+     *             If the index is not in the row.
+     */
+    default ColumnType getColumnType(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return ColumnType.STRING;
+    }
+
+    /**
+     * Decode a value from the row as a long, using the same rules as
+     * {@link Long#parseLong(String)}.
+     * 
+     * @param index
+     *            The index of the value.
+     * @return The value as a long.
+     * @throws IndexOutOfBoundsException
+     *             If the index is not in the row.
+     * @throws NumberFormatException
+     *             If the value is not a valid long.
+     */
+    default long getLong(final int index) {
+        return CSVNumbers.parseLong(get(index));
+    }
+
+    /**
+     * Decode a value from the row as a long, using the same rules as
+     * {@link Long#parseLong(String)}.
+     * 
+     * @param header
+     *            The name of a header.
+     * @return The value for the first column with the given header as a long.
+     * @throws IllegalArgumentException
+     *             If there is no column with the header.
+     * @throws NumberFormatException
+     *             If the value is not a valid long.
+     */
+    default long getLong(final String header) {
+        return getLong(requireIndexOf(header));
+    }
+
+    /**
+     * Decode a value from the row as an int, using the same rules as
+     * {@link Integer#parseInt(String)}.
+     * 
+     * @param index
+     *            The index of the value.
+     * @return The value as an int.
+     * @throws IndexOutOfBoundsException
+     *             If the index is not in the row.
+     * @throws NumberFormatException
+     *             If the value is not a valid int.
+     */
+    default int getInt(final int index) {
+        return CSVNumbers.parseInt(get(index));
+    }
+
+    /**
+     * Decode a value from the row as an int, using the same rules as
+     * {@link Integer#parseInt(String)}.
+     * 
+     * @param header
+     *            The name of a header.
+     * @return The value for the first column with the given header as an
+     *         int.
+     * @throws IllegalArgumentException
+     *             If there is no column with the header.
+     * @throws NumberFormatException
+     *             If the value is not a valid int.
+     */
+    default int getInt(final String header) {
+        return getInt(requireIndexOf(header));
+    }
+
+    /**
+     * Decode a value from the row as a double, using the same rules as
+     * {@link Double#parseDouble(String)}.
+     * 
+     * @param index
+     *            The index of the value.
+     * @return The value as a double.
+     * @throws IndexOutOfBoundsException
+     *             If the index is not in the row.
+     * @throws NumberFormatException
+     *             If the value is not a valid double.
+     */
+    default double getDouble(final int index) {
+        return CSVNumbers.parseDouble(get(index));
+    }
+
+    /**
+     * Decode a value from the row as a double, using the same rules as
+     * {@link Double#parseDouble(String)}.
+     * 
+     * @param header
+     *            The name of a header.
+     * @return The value for the first column with the given header as a
+     *         double.
+     * @throws IllegalArgumentException
+     *             If there is no column with the header.
+     * @throws NumberFormatException
+     *             If the value is not a valid double.
+     */
+    default double getDouble(final String header) {
+        return getDouble(requireIndexOf(header));
+    }
+
+    /**
+     * @param header
+     *            The name of a header.
+     * @return The index of the first column with the given header.
+     * @throws IllegalArgumentException
+     *             If there is no column with the header.
+     */
+    default int requireIndexOf(final String header) {
+        final int index = indexOf(header);
+        if (index < 0) {
+            throw new IllegalArgumentException("No column with the header: " + header);
+        }
+        return index;
+    }
+
+    /**
+     * @return A new list containing copies of all of the values in the row.
+     */
+    default List<String> toList() {
+        final int size = size();
+        final List<String> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(getString(i));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * A {@link Spliterator} over the converted lines from a CSV file in a
+ * {@link Reader}, which parses each line when it is requested.
+ * 
+ * A Reader can only be read in order, so splitting uses the batching from
+ * {@link Spliterators.AbstractSpliterator}.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class CSVSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+    private final Reader reader;
+    private final CSVLineProcessor<T> processor;
+    private final ObjectReader objectReader;
+
+    private MappingIterator<List<String>> iterator;
+    private boolean done;
+
+    /**
+     * @param reader
+     *            The reader containing the CSV file.
+     * @param processor
+     *            The processor for the lines.
+     * @param objectReader
+     *            The reader to parse lines with.
+     */
+    CSVSpliterator(final Reader reader, final CSVLineProcessor<T> processor,
+            final ObjectReader objectReader) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+        this.reader = reader;
+        this.processor = processor;
+        this.objectReader = objectReader;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super T> action) {
+        final T next = next();
+        if (next == null) {
+            return false;
+        }
+        action.accept(next);
+        return true;
+    }
+
+    /**
+     * @return The next non-null result from the lineConverter, or null if
+     *         the end of the file was reached.
+     */
+    private T next() {
+        if (done) {
+            return null;
+        }
+        try {
+            if (iterator == null) {
+                iterator = objectReader.readValues(reader);
+            }
+            while (iterator.hasNext()) {
+                final T apply = processor.process(iterator.next());
+
+                // Line checker returning null indicates that a value was
+                // not found, and will not be sent to the stream.
+                if (apply != null) {
+                    return apply;
+                }
+            }
+            done = true;
+            processor.finish();
+            return null;
+        } catch (final IOException e) {
+            done = true;
+            throw new UncheckedIOException(e);
+        } catch (final CSVStreamException e) {
+            done = true;
+            throw e;
+        } catch (final RuntimeException e) {
+            done = true;
+            throw new CSVStreamException(e);
+        }
+    }
+
+    /**
+     * Close the iterator and the reader.
+     * 
+     * @throws UncheckedIOException
+     *             If there was an error closing the reader.
+     */
+    void close() {
+        done = true;
+        try {
+            if (iterator != null) {
+                iterator.close();
+            }
+            reader.close();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
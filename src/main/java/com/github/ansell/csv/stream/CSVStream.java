@@ -31,20 +31,31 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
 import com.fasterxml.jackson.dataformat.csv.CsvParser;
@@ -61,6 +72,26 @@ public final class CSVStream {
 
     public static final int DEFAULT_HEADER_COUNT = 1;
 
+    /**
+     * The default approximate size, in bytes, of the chunks that are parsed
+     * concurrently by {@link #parseParallel(Path, Consumer, BiFunction, Consumer, boolean)}.
+     */
+    public static final long DEFAULT_PARALLEL_CHUNK_SIZE = 16L * 1024L * 1024L;
+
+    /**
+     * The default number of objects in each chunk that is converted and
+     * serialised concurrently by
+     * {@link #writeParallel(Writer, Stream, List, BiFunction)}.
+     */
+    public static final int DEFAULT_PARALLEL_WRITE_CHUNK_SIZE = 1024;
+
+    /**
+     * The default number of lines in each batch that is converted
+     * concurrently by
+     * {@link #parsePipelined(InputStream, Consumer, BiFunction, Consumer, boolean)}.
+     */
+    public static final int DEFAULT_PIPELINE_BATCH_SIZE = 1024;
+
     /**
      * Private constructor for static only class
      */
@@ -103,6 +134,106 @@ public final class CSVStream {
         }
     }
 
+    /**
+     * Stream a gzip compressed UTF-8 CSV file from the given InputStream
+     * through the header validator, line checker, and if the line checker
+     * succeeds, send the checked/converted line to the consumer. The file is
+     * decompressed in the background using
+     * {@link CSVGzip#newInputStream(InputStream)}.
+     * 
+     * @param inputStream
+     *            The {@link InputStream} containing the compressed CSV file,
+     *            which is closed when parsing completes.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing or decompressing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseGzip(final InputStream inputStream,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer) throws IOException, CSVStreamException {
+        parseGzip(inputStream, headersValidator, lineConverter, resultConsumer, null,
+                Collections.emptyList(), DEFAULT_HEADER_COUNT, CSVMapperCache.defaultCache(),
+                defaultSchema(), CSVProjection.all());
+    }
+
+    /**
+     * Stream a gzip compressed UTF-8 CSV file from the given InputStream
+     * through the header validator, line checker, and if the line checker
+     * succeeds, send the checked/converted line to the consumer. The file is
+     * decompressed in the background using
+     * {@link CSVGzip#newInputStream(InputStream)}.
+     * 
+     * @param inputStream
+     *            The {@link InputStream} containing the compressed CSV file,
+     *            which is closed when parsing completes.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as each row in the
+     *            CSV file being parsed. The default values are substituted in
+     *            before the lineConverter function is called.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param cache
+     *            The {@link CSVMapperCache} to get the reader for the schema
+     *            from.
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param projection
+     *            The columns to give to the lineConverter, by header or
+     *            index.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing or decompressing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseGzip(final InputStream inputStream,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount,
+            final CSVMapperCache cache, final CsvSchema schema, final CSVProjection projection)
+            throws IOException, CSVStreamException {
+        try (final Reader reader = new BufferedReader(new InputStreamReader(
+                CSVGzip.newInputStream(inputStream), StandardCharsets.UTF_8));) {
+            parse(reader, headersValidator, lineConverter, resultConsumer, substituteHeaders,
+                    defaultValues, headerLineCount, cache, schema, projection);
+        }
+    }
+
     /**
      * Stream a CSV file from the given Reader through the header validator,
      * line checker, and if the line checker succeeds, send the
@@ -209,11 +340,9 @@ public final class CSVStream {
             final BiFunction<List<String>, List<String>, T> lineConverter,
             final Consumer<T> resultConsumer, final List<String> substituteHeaders,
             int headerLineCount) throws IOException, CSVStreamException {
-        final CsvMapper mapper = defaultMapper();
-        final CsvSchema schema = defaultSchema();
-
         parse(reader, headersValidator, lineConverter, resultConsumer, substituteHeaders,
-                headerLineCount, mapper, schema);
+                Collections.emptyList(), headerLineCount, CSVMapperCache.defaultCache(),
+                defaultSchema(), CSVProjection.all());
     }
 
     /**
@@ -310,203 +439,2009 @@ public final class CSVStream {
             final Consumer<T> resultConsumer, final List<String> substituteHeaders,
             final List<String> defaultValues, int headerLineCount, CsvMapper mapper,
             CsvSchema schema) throws IOException, CSVStreamException {
-        if (headerLineCount < 0) {
-            throw new IllegalArgumentException("Header line count must be non-negative.");
-        }
-
-        if (headerLineCount < 1 && substituteHeaders == null) {
-            throw new IllegalArgumentException(
-                    "If there are no header lines, a substitute set of headers must be defined.");
-        }
-
-        List<String> headers = substituteHeaders;
-
-        if (headers != null) {
-            try {
-                headers = headers.stream().map(String::trim).map(String::intern)
-                        .collect(Collectors.toList());
-                headersValidator.accept(headers);
-            } catch (final Exception e) {
-                throw new CSVStreamException("Could not verify substituted headers for csv file",
-                        e);
-            }
-        }
-
-        final Function<List<String>, List<String>> defaultValueReplacer;
-        // Trivial non-replacer if there were no default values set
-        if (defaultValues.isEmpty()) {
-            defaultValueReplacer = l -> l;
-        } else {
-            defaultValueReplacer = l -> {
-                List<String> changedResult = null;
-                for (int i = 0; i < l.size(); i++) {
-                    if (l.get(i).isEmpty() && !defaultValues.get(i).isEmpty()) {
-                        if (changedResult == null) {
-                            changedResult = new ArrayList<>(l);
-                        }
-                        changedResult.set(i, defaultValues.get(i));
-                    }
-                }
-                if (changedResult == null) {
-                    return l;
-                } else {
-                    return changedResult;
-                }
-            };
-        }
-
-        int lineCount = 0;
-        try (final MappingIterator<List<String>> it = mapper.readerFor(List.class).with(schema)
-                .readValues(reader);) {
-            while (it.hasNext()) {
-                List<String> nextLine = it.next();
-                // System.out.println("CSVStream.parse: nextLine.size()=" +
-                // nextLine.size());
-                // System.out.println("CSVStream.parse: nextLine=" + nextLine);
-                // System.out.println("CSVStream.parse:
-                // schema.getColumnSeparator()=" +
-                // schema.getColumnSeparator());
-                // System.out.println(
-                // "CSVStream.parse: (int)schema.getColumnSeparator()=" + (int)
-                // schema.getColumnSeparator());
-                if (headers == null) {
-                    headers = nextLine.stream().map(String::trim).map(String::intern)
-                            .collect(Collectors.toList());
-                    try {
-                        headersValidator.accept(headers);
-                    } catch (final Exception e) {
-                        throw new CSVStreamException("Could not verify headers for csv file", e);
-                    }
-                    // Default values must either be empty or the exact length
-                    // that the headers (possibly substituteHeaders) were
-                    if (!defaultValues.isEmpty() && headers.size() != defaultValues.size()) {
-                        throw new CSVStreamException(
-                                "Default values list must have the same number of items as the headers: expected "
-                                        + headers.size() + ", found " + defaultValues.size()
-                                        + " headers=" + headers + " defaultValues="
-                                        + defaultValues);
-                    }
-                } else if (lineCount >= headerLineCount) {
-                    if (nextLine.size() != headers.size()) {
-                        throw new CSVStreamException(
-                                "Line and header sizes were different: expected " + headers.size()
-                                        + ", found " + nextLine.size() + " headers=" + headers
-                                        + " line=" + nextLine);
-                    }
-
-                    final List<String> defaultReplacedLine = defaultValueReplacer.apply(nextLine);
-
-                    final T apply = lineConverter.apply(headers, defaultReplacedLine);
-
-                    // Line checker returning null indicates that a value was
-                    // not found, and will not be sent to the consumer.
-                    if (apply != null) {
-                        resultConsumer.accept(apply);
-                    }
-                } else {
-                    // System.out.println("CSVStream.parse: skipping header line
-                    // number " +
-                    // (lineCount + 1) + " out of "
-                    // + headerLineCount + " : " + nextLine);
-                }
-                lineCount++;
-            }
-        } catch (IOException | CSVStreamException e) {
-            throw e;
-        } catch (Exception e) {
-            throw new CSVStreamException(e);
-        }
-
-        if (headers == null) {
-            throw new CSVStreamException("CSV file did not contain a valid header line");
-        }
+        parse(reader, headersValidator, lineConverter, resultConsumer, substituteHeaders,
+                defaultValues, headerLineCount, mapper, schema, CSVProjection.all());
     }
 
     /**
-     * Writes objects from the given {@link Stream} to the given {@link Writer}
-     * in CSV format, converting them to a {@link List} of String's using the
-     * given {@link BiFunction}.
+     * Stream a CSV file from the given Reader through the header validator,
+     * line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer.
      * 
-     * @param writer
-     *            The Writer that will receive the CSV file.
-     * @param objects
-     *            The Stream of objects to be written
-     * @param headers
-     *            The headers to use for the resulting CSV file.
-     * @param objectConverter
-     *            The function to convert an individual object to a line in the
-     *            resulting CSV file, represented as a List of String's.
+     * @param reader
+     *            The {@link Reader} containing the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as each row in the
+     *            CSV file being parsed. If the values for a field are
+     *            empty/missing, and a non-null, non-empty value appears in this
+     *            list, it will be substituted in when calculating the
+     *            statistics. The default values are substituted in before the
+     *            lineConverter function is called.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param mapper
+     *            The {@link CsvMapper} to use to parse the CSV document.
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param projection
+     *            The columns to give to the lineConverter, by header or
+     *            index. The headers given to the lineConverter only contain
+     *            the projected columns, and the defaultValues must either be
+     *            empty or the same length as the projected columns. Named
+     *            columns are matched against the substituteHeaders if they
+     *            are given.
      * @param <T>
-     *            The type of the objects to be converted.
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
      * @throws IOException
-     *             If an error occurred accessing the output stream.
+     *             If an error occurred accessing the input.
      * @throws CSVStreamException
-     *             If an error occurred converting or serialising the objects.
+     *             If an error occurred validating the input.
      */
-    public static <T> void write(final Writer writer, final Stream<T> objects,
-            final List<String> headers,
-            final BiFunction<List<String>, T, List<String>> objectConverter)
+    public static <T> void parse(final Reader reader, final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, int headerLineCount, CsvMapper mapper,
+            CsvSchema schema, final CSVProjection projection)
             throws IOException, CSVStreamException {
-        write(writer, objects, buildSchema(headers), objectConverter);
+        parse(reader, headersValidator, lineConverter, resultConsumer, substituteHeaders,
+                defaultValues, headerLineCount, mapper.readerFor(List.class).with(schema),
+                projection);
     }
 
     /**
-     * Writes objects from the given {@link Stream} to the given {@link Writer}
-     * in CSV format, converting them to a {@link List} of String's using the
-     * given {@link BiFunction}.
+     * Stream a CSV file from the given Reader through the header validator,
+     * line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer.
      * 
-     * @param writer
-     *            The Writer that will receive the CSV file.
-     * @param objects
-     *            The Stream of objects to be written
+     * @param reader
+     *            The {@link Reader} containing the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as each row in the
+     *            CSV file being parsed. The default values are substituted in
+     *            before the lineConverter function is called.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param cache
+     *            The {@link CSVMapperCache} to get the reader for the schema
+     *            from.
      * @param schema
-     *            The {@link CsvSchema} to use for the resulting CSV file.
-     * @param objectConverter
-     *            The function to convert an individual object to a line in the
-     *            resulting CSV file, represented as a List of String's.
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param projection
+     *            The columns to give to the lineConverter, by header or
+     *            index.
      * @param <T>
-     *            The type of the objects to be converted.
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
      * @throws IOException
-     *             If an error occurred accessing the output stream.
+     *             If an error occurred accessing the input.
      * @throws CSVStreamException
-     *             If an error occurred converting or serialising the objects.
+     *             If an error occurred validating the input.
      */
-    public static <T> void write(final Writer writer, final Stream<T> objects,
-            final CsvSchema schema, final BiFunction<List<String>, T, List<String>> objectConverter)
+    public static <T> void parse(final Reader reader, final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount,
+            final CSVMapperCache cache, final CsvSchema schema, final CSVProjection projection)
             throws IOException, CSVStreamException {
-        List<String> headers = new ArrayList<>();
-        schema.iterator().forEachRemaining(c -> headers.add(c.getName()));
-        try (SequenceWriter csvWriter = newCSVWriter(writer, headers);) {
-            objects.forEachOrdered(o -> {
-                try {
-                    csvWriter.write(objectConverter.apply(headers, o));
-                } catch (Exception e) {
-                    throw new CSVStreamException("Could not write object out", e);
-                }
-            });
-        }
+        parse(reader, headersValidator, lineConverter, resultConsumer, substituteHeaders,
+                defaultValues, headerLineCount, cache.reader(schema), projection);
     }
 
     /**
-     * Returns a Jackson {@link SequenceWriter} which will write CSV lines to
-     * the given {@link OutputStream} using the headers provided.
+     * Stream a CSV file from the given Reader through the header validator,
+     * line checker, and if the line checker succeeds, collect the
+     * checked/converted lines into batches for the batch consumer.
      * 
-     * @param outputStream
-     *            The writer which will receive the CSV file.
-     * @param headers
-     *            The column headers that will be used by the returned Jackson
-     *            {@link SequenceWriter}.
-     * @return A Jackson {@link SequenceWriter} that can have
-     *         {@link SequenceWriter#write(Object)} called on it to emit CSV
-     *         lines to the given {@link OutputStream}.
-     * @throws IOException
-     *             If there is a problem writing the CSV header line to the
-     *             {@link OutputStream}.
-     */
-    public static SequenceWriter newCSVWriter(final OutputStream outputStream, List<String> headers)
-            throws IOException {
-        return newCSVWriter(outputStream, buildSchema(headers));
-    }
+     * @param reader
+     *            The {@link Reader} containing the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param batchConsumer
+     *            The consumer of each batch of checked lines. The batch is an
+     *            unmodifiable view of a list that is reused for a later
+     *            batch, so it must be copied if it is needed after the
+     *            consumer returns.
+     * @param batchSize
+     *            The number of lines in each batch other than the last.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the batch {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     * @see BatchingConsumer
+     */
+    public static <T> void parseBatched(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<List<T>> batchConsumer, final int batchSize)
+            throws IOException, CSVStreamException {
+        parseBatched(reader, headersValidator, lineConverter, batchConsumer, null,
+                Collections.emptyList(), DEFAULT_HEADER_COUNT, CSVMapperCache.defaultCache(),
+                defaultSchema(), CSVProjection.all(), batchSize, null);
+    }
+
+    /**
+     * Stream a CSV file from the given Reader through the header validator,
+     * line checker, and if the line checker succeeds, collect the
+     * checked/converted lines into batches for the batch consumer.
+     * 
+     * @param reader
+     *            The {@link Reader} containing the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param batchConsumer
+     *            The consumer of each batch of checked lines. The batch is an
+     *            unmodifiable view of a list that is reused for a later
+     *            batch, so it must be copied if it is needed after the
+     *            consumer returns.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list of default values to substitute during line parsing
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param cache
+     *            The {@link CSVMapperCache} to get the reader for the schema
+     *            from.
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param projection
+     *            The columns to give to the lineConverter, by header or
+     *            index.
+     * @param batchSize
+     *            The maximum number of lines in each batch.
+     * @param maxLatency
+     *            The longest time that a line waits before a partial batch
+     *            containing it is passed to the batch consumer, or null to
+     *            only pass on partial batches at the end of the input. If it
+     *            is given, the batch consumer may be called from a background
+     *            thread, although never concurrently with itself.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the batch {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     * @see BatchingConsumer
+     */
+    public static <T> void parseBatched(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<List<T>> batchConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount,
+            final CSVMapperCache cache, final CsvSchema schema, final CSVProjection projection,
+            final int batchSize, final Duration maxLatency) throws IOException, CSVStreamException {
+        try (final BatchingConsumer<T> batcher = BatchingConsumer.of(batchConsumer, batchSize,
+                maxLatency);) {
+            parse(reader, headersValidator, lineConverter, batcher, substituteHeaders,
+                    defaultValues, headerLineCount, cache.reader(schema), projection);
+        }
+    }
+
+    /**
+     * Stream a CSV file from the given Reader using an {@link ObjectReader}
+     * that has already been configured with the schema.
+     */
+    private static <T> void parse(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount,
+            final ObjectReader objectReader, final CSVProjection projection)
+            throws IOException, CSVStreamException {
+        final CSVLineProcessor<T> processor = new CSVLineProcessor<>(headersValidator,
+                lineConverter, substituteHeaders, defaultValues, headerLineCount, projection);
+
+        try (final MappingIterator<List<String>> it = objectReader.readValues(reader);) {
+            while (it.hasNext()) {
+                final T apply = processor.process(it.next());
+
+                // Line checker returning null indicates that a value was
+                // not found, and will not be sent to the consumer.
+                if (apply != null) {
+                    resultConsumer.accept(apply);
+                }
+            }
+        } catch (IOException | CSVStreamException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CSVStreamException(e);
+        }
+
+        processor.finish();
+    }
+
+    /**
+     * Create a {@link Publisher} that streams a CSV file from the given Reader
+     * through the header validator, line checker, and if the line checker
+     * succeeds, publishes the checked/converted line to its
+     * {@link Subscriber}.
+     * 
+     * @param reader
+     *            The {@link Reader} containing the CSV file, which is closed
+     *            when the end of the file is reached, when an error occurs, or
+     *            when the subscription is cancelled.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            publisher to signal a CSVStreamException to the subscriber.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            published.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and published to the {@link Subscriber}.
+     * @return A publisher for a single subscriber.
+     * @see #publisher(Reader, Consumer, BiFunction, List, List, int,
+     *      CsvMapper, CsvSchema, CSVProjection)
+     */
+    public static <T> Publisher<T> publisher(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter) {
+        return publisher(reader, headersValidator, lineConverter, null, Collections.emptyList(),
+                DEFAULT_HEADER_COUNT, CSVMapperCache.defaultCache().reader(defaultSchema()),
+                CSVProjection.all());
+    }
+
+    /**
+     * Create a {@link Publisher} that streams a CSV file from the given Reader
+     * through the header validator, line checker, and if the line checker
+     * succeeds, publishes the checked/converted line to its
+     * {@link Subscriber}.
+     * 
+     * Lines are only parsed when the subscriber has requested them, on the
+     * thread that calls {@link Subscription#request(long)}, so parsing is
+     * paced by the subscriber without any buffering. Errors, including
+     * {@link CSVStreamException}s from validating the input and
+     * {@link IOException}s from reading it, are signalled using
+     * {@link Subscriber#onError(Throwable)}. As the Reader can only be read
+     * once, the publisher only supports a single subscriber.
+     * 
+     * @param reader
+     *            The {@link Reader} containing the CSV file, which is closed
+     *            when the end of the file is reached, when an error occurs, or
+     *            when the subscription is cancelled.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            publisher to signal a CSVStreamException to the subscriber.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            published.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as each row in the
+     *            CSV file being parsed. The default values are substituted in
+     *            before the lineConverter function is called.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param mapper
+     *            The {@link CsvMapper} to use to parse the CSV document.
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param projection
+     *            The columns to give to the lineConverter, by header or
+     *            index.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and published to the {@link Subscriber}.
+     * @return A publisher for a single subscriber.
+     */
+    public static <T> Publisher<T> publisher(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final List<String> substituteHeaders, final List<String> defaultValues,
+            final int headerLineCount, final CsvMapper mapper, final CsvSchema schema,
+            final CSVProjection projection) {
+        return publisher(reader, headersValidator, lineConverter, substituteHeaders,
+                defaultValues, headerLineCount, mapper.readerFor(List.class).with(schema),
+                projection);
+    }
+
+    /**
+     * Create a {@link Publisher} using an {@link ObjectReader} that has
+     * already been configured with the schema.
+     */
+    private static <T> Publisher<T> publisher(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final List<String> substituteHeaders, final List<String> defaultValues,
+            final int headerLineCount, final ObjectReader objectReader,
+            final CSVProjection projection) {
+        if (headerLineCount < 0) {
+            throw new IllegalArgumentException("Header line count must be non-negative.");
+        }
+        if (headerLineCount < 1 && substituteHeaders == null) {
+            throw new IllegalArgumentException(
+                    "If there are no header lines, a substitute set of headers must be defined.");
+        }
+        return new CSVPublisher<>(reader, headersValidator, lineConverter, substituteHeaders,
+                defaultValues, headerLineCount, objectReader, projection);
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given Path through the header
+     * validator, line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer.
+     * 
+     * @param path
+     *            The {@link Path} to the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     * @see #parse(Path, Consumer, BiFunction, Consumer, List, List, int,
+     *      CsvSchema)
+     */
+    public static <T> void parse(final Path path, final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer) throws IOException, CSVStreamException {
+        parse(path, headersValidator, lineConverter, resultConsumer, null, Collections.emptyList(),
+                DEFAULT_HEADER_COUNT, defaultSchema());
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given Path through the header
+     * validator, line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer.
+     * 
+     * The file is memory mapped and tokenised directly from the mapped bytes,
+     * using the same rules as {@link #defaultMapper()}. The bytes of each
+     * line are copied out of the mapping, so lines remain valid after parsing
+     * completes, but each value is only decoded into a String when it is
+     * requested from the line, and empty values are replaced with default
+     * values without decoding them. Schemas that use an escape character, a header, or non-ASCII
+     * separator or quote characters are parsed using
+     * {@link #parse(Reader, Consumer, BiFunction, Consumer, List, List, int, CsvMapper, CsvSchema)}
+     * instead.
+     * 
+     * @param path
+     *            The {@link Path} to the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as each row in the
+     *            CSV file being parsed. The default values are substituted in
+     *            before the lineConverter function is called.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parse(final Path path, final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount, final CsvSchema schema)
+            throws IOException, CSVStreamException {
+        parse(path, headersValidator, lineConverter, resultConsumer, substituteHeaders,
+                defaultValues, headerLineCount, schema, CSVProjection.all());
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given Path through the header
+     * validator, line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer.
+     * 
+     * The file is memory mapped and tokenised directly from the mapped bytes,
+     * using the same rules as {@link #defaultMapper()}. The bytes of each
+     * line are copied out of the mapping, so lines remain valid after parsing
+     * completes, but each value is only decoded into a String when it is
+     * requested from the line, and empty values are replaced with default
+     * values without decoding them. Schemas that use an escape character, a header, or non-ASCII
+     * separator or quote characters are parsed using
+     * {@link #parse(Reader, Consumer, BiFunction, Consumer, List, List, int, CsvMapper, CsvSchema)}
+     * instead.
+     * 
+     * @param path
+     *            The {@link Path} to the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as each row in the
+     *            CSV file being parsed. The default values are substituted in
+     *            before the lineConverter function is called.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param projection
+     *            The columns to give to the lineConverter, by header or
+     *            index. The headers given to the lineConverter only contain
+     *            the projected columns, and the defaultValues must either be
+     *            empty or the same length as the projected columns. Named
+     *            columns are matched against the substituteHeaders if they
+     *            are given.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parse(final Path path, final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount, final CsvSchema schema,
+            final CSVProjection projection) throws IOException, CSVStreamException {
+        if (!CSVByteTokenizer.supports(schema)) {
+            try (final Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);) {
+                parse(reader, headersValidator, lineConverter, resultConsumer, substituteHeaders,
+                        defaultValues, headerLineCount, CSVMapperCache.defaultCache(), schema,
+                        projection);
+            }
+            return;
+        }
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                final ByteWindow window = new MappedByteWindow(channel, 0, channel.size(),
+                        MappedByteWindow.DEFAULT_WINDOW_SIZE);) {
+            parse(CSVByteTokenizer.forSchema(window, schema), headersValidator, lineConverter,
+                    resultConsumer, substituteHeaders, defaultValues, headerLineCount, projection);
+        }
+    }
+
+    /**
+     * Stream records from the given tokenizer through the header validator,
+     * line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer.
+     */
+    static <T> void parse(final CSVByteTokenizer tokenizer,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount,
+            final CSVProjection projection) throws IOException, CSVStreamException {
+        final CSVLineProcessor<T> processor = new CSVLineProcessor<>(headersValidator,
+                lineConverter, substituteHeaders, defaultValues, headerLineCount, projection);
+
+        try {
+            while (tokenizer.next()) {
+                final T apply;
+                if (processor.expectsDataLine()) {
+                    if (tokenizer.fieldCount() != processor.getLineSize()) {
+                        processor.checkLineSize(tokenizer.toList());
+                    }
+                    apply = processor.convertProjected(
+                            tokenizer.snapshot(processor.getColumns(), defaultValues));
+                } else {
+                    apply = processor.process(tokenizer.toList());
+                }
+
+                // Line checker returning null indicates that a value was
+                // not found, and will not be sent to the consumer.
+                if (apply != null) {
+                    resultConsumer.accept(apply);
+                }
+            }
+        } catch (IOException | CSVStreamException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CSVStreamException(e);
+        }
+
+        processor.finish();
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given InputStream through the header
+     * validator and row converter, and if the row converter returns a
+     * non-null result, send it to the consumer.
+     * 
+     * @param inputStream
+     *            The {@link InputStream} containing the CSV file, which is
+     *            closed when parsing completes.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param rowConverter
+     *            The validator and converter of rows, based on the header
+     *            line. The row is reused for each line, and is only valid
+     *            until the rowConverter returns. If the rowConverter returns
+     *            null, the row will not be passed to the consumer.
+     * @param resultConsumer
+     *            The consumer of the converted rows.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            rowConverter and pushed into the {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     * @see #parseRows(InputStream, Consumer, BiFunction, Consumer, List, List,
+     *      int, CsvSchema)
+     */
+    public static <T> void parseRows(final InputStream inputStream,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, CSVRow, T> rowConverter,
+            final Consumer<T> resultConsumer) throws IOException, CSVStreamException {
+        parseRows(inputStream, headersValidator, rowConverter, resultConsumer, null,
+                Collections.emptyList(), DEFAULT_HEADER_COUNT, defaultSchema());
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given InputStream through the header
+     * validator and row converter, and if the row converter returns a
+     * non-null result, send it to the consumer.
+     * 
+     * The bytes are tokenised directly using the same rules as
+     * {@link #defaultMapper()}, and the rowConverter is given a reusable
+     * {@link CSVRow} whose values are read from the bytes on request, so no
+     * objects are created for each line unless the rowConverter creates
+     * them. Schemas that use an escape character, a header, or non-ASCII
+     * separator or quote characters are parsed using
+     * {@link #parse(Reader, Consumer, BiFunction, Consumer, List, List, int, CsvMapper, CsvSchema)}
+     * instead, with each parsed line wrapped in the {@link CSVRow}.
+     * 
+     * @param inputStream
+     *            The {@link InputStream} containing the CSV file, which is
+     *            closed when parsing completes.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param rowConverter
+     *            The validator and converter of rows, based on the header
+     *            line. The row is reused for each line, and is only valid
+     *            until the rowConverter returns. If the rowConverter returns
+     *            null, the row will not be passed to the consumer.
+     * @param resultConsumer
+     *            The consumer of the converted rows.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as each row in the
+     *            CSV file being parsed. The default values are returned from
+     *            the row in place of empty values.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            rowConverter and pushed into the {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseRows(final InputStream inputStream,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, CSVRow, T> rowConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount, final CsvSchema schema)
+            throws IOException, CSVStreamException {
+        parseRows(inputStream, headersValidator, rowConverter, resultConsumer, substituteHeaders,
+                defaultValues, headerLineCount, schema, CSVProjection.all());
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given InputStream through the header
+     * validator and row converter, and if the row converter returns a
+     * non-null result, send it to the consumer.
+     * 
+     * The bytes are tokenised directly using the same rules as
+     * {@link #defaultMapper()}, and the rowConverter is given a reusable
+     * {@link CSVRow} whose values are read from the bytes on request, so no
+     * objects are created for each line unless the rowConverter creates
+     * them. Schemas that use an escape character, a header, or non-ASCII
+     * separator or quote characters are parsed using
+     * {@link #parse(Reader, Consumer, BiFunction, Consumer, List, List, int, CsvMapper, CsvSchema)}
+     * instead, with each parsed line wrapped in the {@link CSVRow}.
+     * 
+     * @param inputStream
+     *            The {@link InputStream} containing the CSV file, which is
+     *            closed when parsing completes.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param rowConverter
+     *            The validator and converter of rows, based on the header
+     *            line. The row is reused for each line, and is only valid
+     *            until the rowConverter returns. If the rowConverter returns
+     *            null, the row will not be passed to the consumer.
+     * @param resultConsumer
+     *            The consumer of the converted rows.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as each row in the
+     *            CSV file being parsed. The default values are returned from
+     *            the row in place of empty values.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param projection
+     *            The columns to give to the rowConverter, by header or
+     *            index. The headers given to the rowConverter only contain
+     *            the projected columns, and the defaultValues must either be
+     *            empty or the same length as the projected columns. Named
+     *            columns are matched against the substituteHeaders if they
+     *            are given.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            rowConverter and pushed into the {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseRows(final InputStream inputStream,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, CSVRow, T> rowConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount, final CsvSchema schema,
+            final CSVProjection projection) throws IOException, CSVStreamException {
+        if (!CSVByteTokenizer.supports(schema)) {
+            try (final Reader reader = new BufferedReader(
+                    new InputStreamReader(inputStream, StandardCharsets.UTF_8));) {
+                parseRows(reader, headersValidator, rowConverter, resultConsumer,
+                        substituteHeaders, defaultValues, headerLineCount, schema, projection);
+            }
+            return;
+        }
+
+        try (final ByteWindow window = new StreamByteWindow(inputStream,
+                StreamByteWindow.DEFAULT_WINDOW_SIZE);) {
+            parseRows(CSVByteTokenizer.forSchema(window, schema), headersValidator, rowConverter,
+                    resultConsumer, substituteHeaders, defaultValues, headerLineCount, schema,
+                    projection);
+        }
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given Path through the header
+     * validator and row converter, and if the row converter returns a
+     * non-null result, send it to the consumer.
+     * 
+     * The file is memory mapped and the rowConverter is given a reusable
+     * {@link CSVRow} whose values are read from the mapped bytes on request.
+     * 
+     * @param path
+     *            The {@link Path} to the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param rowConverter
+     *            The validator and converter of rows, based on the header
+     *            line. The row is reused for each line, and is only valid
+     *            until the rowConverter returns. If the rowConverter returns
+     *            null, the row will not be passed to the consumer.
+     * @param resultConsumer
+     *            The consumer of the converted rows.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            rowConverter and pushed into the {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     * @see #parseRows(Path, Consumer, BiFunction, Consumer, List, List, int,
+     *      CsvSchema)
+     */
+    public static <T> void parseRows(final Path path,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, CSVRow, T> rowConverter,
+            final Consumer<T> resultConsumer) throws IOException, CSVStreamException {
+        parseRows(path, headersValidator, rowConverter, resultConsumer, null,
+                Collections.emptyList(), DEFAULT_HEADER_COUNT, defaultSchema());
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given Path through the header
+     * validator and row converter, and if the row converter returns a
+     * non-null result, send it to the consumer.
+     * 
+     * The file is memory mapped and tokenised directly from the mapped bytes,
+     * using the same rules as {@link #defaultMapper()}, and the rowConverter
+     * is given a reusable {@link CSVRow} whose values are read from the
+     * mapped bytes on request, so no objects are created for each line unless
+     * the rowConverter creates them. Schemas that use an escape character, a
+     * header, or non-ASCII separator or quote characters are parsed from a
+     * {@link Reader} over the file instead, with each parsed line wrapped in
+     * the {@link CSVRow}.
+     * 
+     * @param path
+     *            The {@link Path} to the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param rowConverter
+     *            The validator and converter of rows, based on the header
+     *            line. The row is reused for each line, and is only valid
+     *            until the rowConverter returns. If the rowConverter returns
+     *            null, the row will not be passed to the consumer.
+     * @param resultConsumer
+     *            The consumer of the converted rows.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as each row in the
+     *            CSV file being parsed. The default values are returned from
+     *            the row in place of empty values.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            rowConverter and pushed into the {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseRows(final Path path,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, CSVRow, T> rowConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount, final CsvSchema schema)
+            throws IOException, CSVStreamException {
+        parseRows(path, headersValidator, rowConverter, resultConsumer, substituteHeaders,
+                defaultValues, headerLineCount, schema, CSVProjection.all());
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given Path through the header
+     * validator and row converter, and if the row converter returns a
+     * non-null result, send it to the consumer.
+     * 
+     * The file is memory mapped and tokenised directly from the mapped bytes,
+     * using the same rules as {@link #defaultMapper()}, and the rowConverter
+     * is given a reusable {@link CSVRow} whose values are read from the
+     * mapped bytes on request, so no objects are created for each line unless
+     * the rowConverter creates them. Schemas that use an escape character, a
+     * header, or non-ASCII separator or quote characters are parsed from a
+     * {@link Reader} over the file instead, with each parsed line wrapped in
+     * the {@link CSVRow}.
+     * 
+     * @param path
+     *            The {@link Path} to the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param rowConverter
+     *            The validator and converter of rows, based on the header
+     *            line. The row is reused for each line, and is only valid
+     *            until the rowConverter returns. If the rowConverter returns
+     *            null, the row will not be passed to the consumer.
+     * @param resultConsumer
+     *            The consumer of the converted rows.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as each row in the
+     *            CSV file being parsed. The default values are returned from
+     *            the row in place of empty values.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param projection
+     *            The columns to give to the rowConverter, by header or
+     *            index. The headers given to the rowConverter only contain
+     *            the projected columns, and the defaultValues must either be
+     *            empty or the same length as the projected columns. Named
+     *            columns are matched against the substituteHeaders if they
+     *            are given.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            rowConverter and pushed into the {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseRows(final Path path,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, CSVRow, T> rowConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount, final CsvSchema schema,
+            final CSVProjection projection) throws IOException, CSVStreamException {
+        if (!CSVByteTokenizer.supports(schema)) {
+            try (final Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8);) {
+                parseRows(reader, headersValidator, rowConverter, resultConsumer,
+                        substituteHeaders, defaultValues, headerLineCount, schema, projection);
+            }
+            return;
+        }
+
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                final ByteWindow window = new MappedByteWindow(channel, 0, channel.size(),
+                        MappedByteWindow.DEFAULT_WINDOW_SIZE);) {
+            parseRows(CSVByteTokenizer.forSchema(window, schema), headersValidator, rowConverter,
+                    resultConsumer, substituteHeaders, defaultValues, headerLineCount, schema,
+                    projection);
+        }
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given InputStream through the header
+     * validator and row converter, and if the row converter returns a
+     * non-null result, send it to the consumer.
+     * 
+     * @param inputStream
+     *            The {@link InputStream} containing the CSV file, which is
+     *            closed when parsing completes.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param rowConverter
+     *            The validator and converter of rows, given the
+     *            {@link CSVHeaders} for the projected columns, which are built
+     *            once and can be used to look up columns by name in constant
+     *            time, both directly and through {@link CSVRow#get(String)}.
+     *            The row is reused for each line, and is only valid until the
+     *            rowConverter returns. If the rowConverter returns null, the
+     *            row will not be passed to the consumer.
+     * @param resultConsumer
+     *            The consumer of the converted rows.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            rowConverter and pushed into the {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     * @see #parseWithHeaders(InputStream, Consumer, BiFunction, Consumer, List,
+     *      List, int, CsvSchema, CSVProjection)
+     */
+    public static <T> void parseWithHeaders(final InputStream inputStream,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<CSVHeaders, CSVRow, T> rowConverter,
+            final Consumer<T> resultConsumer) throws IOException, CSVStreamException {
+        parseWithHeaders(inputStream, headersValidator, rowConverter, resultConsumer, null,
+                Collections.emptyList(), DEFAULT_HEADER_COUNT, defaultSchema(),
+                CSVProjection.all());
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given InputStream through the header
+     * validator and row converter, and if the row converter returns a
+     * non-null result, send it to the consumer.
+     * 
+     * This parses in the same way as
+     * {@link #parseRows(InputStream, Consumer, BiFunction, Consumer, List, List, int, CsvSchema, CSVProjection)},
+     * but gives the rowConverter the {@link CSVHeaders} instead of a list of
+     * headers, so that it does not need to search the list for each column.
+     * 
+     * @param inputStream
+     *            The {@link InputStream} containing the CSV file, which is
+     *            closed when parsing completes.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param rowConverter
+     *            The validator and converter of rows, given the
+     *            {@link CSVHeaders} for the projected columns, which are built
+     *            once and can be used to look up columns by name in constant
+     *            time, both directly and through {@link CSVRow#get(String)}.
+     *            The row is reused for each line, and is only valid until the
+     *            rowConverter returns. If the rowConverter returns null, the
+     *            row will not be passed to the consumer.
+     * @param resultConsumer
+     *            The consumer of the converted rows.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as the projected
+     *            columns. The default values are returned from the row in
+     *            place of empty values.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param projection
+     *            The columns to give to the rowConverter, by header or index.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            rowConverter and pushed into the {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseWithHeaders(final InputStream inputStream,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<CSVHeaders, CSVRow, T> rowConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount, final CsvSchema schema,
+            final CSVProjection projection) throws IOException, CSVStreamException {
+        parseRows(inputStream, headersValidator,
+                (h, r) -> rowConverter.apply(r.getHeaderIndex(), r), resultConsumer,
+                substituteHeaders, defaultValues, headerLineCount, schema, projection);
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given Path through the header
+     * validator and row converter, and if the row converter returns a
+     * non-null result, send it to the consumer.
+     * 
+     * The file is memory mapped and the rowConverter is given a reusable
+     * {@link CSVRow} whose values are read from the mapped bytes on request.
+     * 
+     * @param path
+     *            The {@link Path} to the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param rowConverter
+     *            The validator and converter of rows, given the
+     *            {@link CSVHeaders} for the projected columns, which are built
+     *            once and can be used to look up columns by name in constant
+     *            time, both directly and through {@link CSVRow#get(String)}.
+     *            The row is reused for each line, and is only valid until the
+     *            rowConverter returns. If the rowConverter returns null, the
+     *            row will not be passed to the consumer.
+     * @param resultConsumer
+     *            The consumer of the converted rows.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            rowConverter and pushed into the {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     * @see #parseWithHeaders(Path, Consumer, BiFunction, Consumer, List, List,
+     *      int, CsvSchema, CSVProjection)
+     */
+    public static <T> void parseWithHeaders(final Path path,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<CSVHeaders, CSVRow, T> rowConverter,
+            final Consumer<T> resultConsumer) throws IOException, CSVStreamException {
+        parseWithHeaders(path, headersValidator, rowConverter, resultConsumer, null,
+                Collections.emptyList(), DEFAULT_HEADER_COUNT, defaultSchema(),
+                CSVProjection.all());
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given Path through the header
+     * validator and row converter, and if the row converter returns a
+     * non-null result, send it to the consumer.
+     * 
+     * This parses in the same way as
+     * {@link #parseRows(Path, Consumer, BiFunction, Consumer, List, List, int, CsvSchema, CSVProjection)},
+     * but gives the rowConverter the {@link CSVHeaders} instead of a list of
+     * headers, so that it does not need to search the list for each column.
+     * 
+     * @param path
+     *            The {@link Path} to the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param rowConverter
+     *            The validator and converter of rows, given the
+     *            {@link CSVHeaders} for the projected columns, which are built
+     *            once and can be used to look up columns by name in constant
+     *            time, both directly and through {@link CSVRow#get(String)}.
+     *            The row is reused for each line, and is only valid until the
+     *            rowConverter returns. If the rowConverter returns null, the
+     *            row will not be passed to the consumer.
+     * @param resultConsumer
+     *            The consumer of the converted rows.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as the projected
+     *            columns. The default values are returned from the row in
+     *            place of empty values.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param projection
+     *            The columns to give to the rowConverter, by header or index.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            rowConverter and pushed into the {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseWithHeaders(final Path path,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<CSVHeaders, CSVRow, T> rowConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount, final CsvSchema schema,
+            final CSVProjection projection) throws IOException, CSVStreamException {
+        parseRows(path, headersValidator, (h, r) -> rowConverter.apply(r.getHeaderIndex(), r),
+                resultConsumer, substituteHeaders, defaultValues, headerLineCount, schema,
+                projection);
+    }
+
+    /**
+     * Parse using the Jackson CSV parser, wrapping each line in a reusable
+     * {@link CSVRow}, for schemas that are not supported by
+     * {@link CSVByteTokenizer}. The columns in the schema only declare the types
+     * reported by the row, as Jackson would otherwise map each line to an
+     * object.
+     */
+    private static <T> void parseRows(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, CSVRow, T> rowConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount, final CsvSchema schema,
+            final CSVProjection projection) throws IOException, CSVStreamException {
+        final CSVListRow[] row = new CSVListRow[1];
+        parse(reader, headersValidator, (h, l) -> {
+            if (row[0] == null) {
+                row[0] = new CSVListRow(h, schema);
+            }
+            return rowConverter.apply(h, row[0].reset(l));
+        }, resultConsumer, substituteHeaders, defaultValues, headerLineCount,
+                CSVMapperCache.defaultCache(), schema.withoutColumns(), projection);
+    }
+
+    /**
+     * Stream records from the given tokenizer through the header validator and
+     * row converter, and if the row converter returns a non-null result, send
+     * it to the consumer.
+     */
+    static <T> void parseRows(final CSVByteTokenizer tokenizer,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, CSVRow, T> rowConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount, final CsvSchema schema,
+            final CSVProjection projection) throws IOException, CSVStreamException {
+        // Data lines are converted here, so the processor only handles headers
+        final CSVLineProcessor<T> processor = new CSVLineProcessor<>(headersValidator, null,
+                substituteHeaders, defaultValues, headerLineCount, projection);
+
+        try {
+            CSVByteRowView row = null;
+            while (tokenizer.next()) {
+                if (!processor.expectsDataLine()) {
+                    processor.process(tokenizer.toList());
+                    continue;
+                }
+                final List<String> headers = processor.getHeaders();
+                if (row == null) {
+                    row = new CSVByteRowView(tokenizer, headers, processor.getColumns(),
+                            defaultValues, schema);
+                }
+                if (tokenizer.fieldCount() != processor.getLineSize()) {
+                    processor.checkLineSize(tokenizer.toList());
+                }
+                final T apply = rowConverter.apply(headers, row);
+
+                // Row converter returning null indicates that a value was
+                // not found, and will not be sent to the consumer.
+                if (apply != null) {
+                    resultConsumer.accept(apply);
+                }
+            }
+        } catch (IOException | CSVStreamException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CSVStreamException(e);
+        }
+
+        processor.finish();
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given InputStream through the header
+     * validator, line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer, with reading, tokenising and
+     * converting running in a pipeline, using the common {@link ForkJoinPool}
+     * to convert the lines.
+     * 
+     * @param inputStream
+     *            The {@link InputStream} containing the CSV file, which is
+     *            closed when parsing completes.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer. This function is called concurrently
+     *            from multiple threads.
+     * @param resultConsumer
+     *            The consumer of the checked lines. If ordered is false, this
+     *            consumer is called concurrently from multiple threads.
+     * @param ordered
+     *            True to send the results to the resultConsumer in the order
+     *            of the lines in the file, on the calling thread, and false to
+     *            send the results to the resultConsumer as soon as they are
+     *            available, from the threads in the pool.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     * @see #parsePipelined(InputStream, Consumer, BiFunction, Consumer, List,
+     *      List, int, CSVMapperCache, CsvSchema, CSVProjection, ForkJoinPool,
+     *      int, int, boolean)
+     */
+    public static <T> void parsePipelined(final InputStream inputStream,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final boolean ordered)
+            throws IOException, CSVStreamException {
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        parsePipelined(inputStream, headersValidator, lineConverter, resultConsumer, null,
+                Collections.emptyList(), DEFAULT_HEADER_COUNT, CSVMapperCache.defaultCache(),
+                defaultSchema(), CSVProjection.all(), pool, DEFAULT_PIPELINE_BATCH_SIZE,
+                Math.max(2, pool.getParallelism() * 2), ordered);
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given InputStream through the header
+     * validator, line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer, with reading, tokenising and
+     * converting running in a pipeline.
+     * 
+     * A background thread reads the input and decodes it into buffers of
+     * characters, which are handed over through a bounded queue to the
+     * calling thread. The calling thread tokenises the lines, processes the
+     * header lines, and hands the data lines over in batches to the pool,
+     * where they are converted. A slow lineConverter therefore does not stop
+     * the input from being read, and slow input does not stop lines that have
+     * already been read from being converted.
+     * 
+     * @param inputStream
+     *            The {@link InputStream} containing the CSV file, which is
+     *            closed when parsing completes.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer. This function is called concurrently
+     *            from multiple threads.
+     * @param resultConsumer
+     *            The consumer of the checked lines. If ordered is false, this
+     *            consumer is called concurrently from multiple threads.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as each row in the
+     *            CSV file being parsed. The default values are substituted in
+     *            before the lineConverter function is called.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param cache
+     *            The {@link CSVMapperCache} to get the reader for the schema
+     *            from.
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param projection
+     *            The columns to give to the lineConverter, by header or
+     *            index.
+     * @param pool
+     *            The {@link ForkJoinPool} to convert the batches of lines on.
+     * @param batchSize
+     *            The number of lines in each batch.
+     * @param maxBatchesInFlight
+     *            The maximum number of batches that are being converted, or
+     *            are waiting for their results to be delivered, at any time.
+     * @param ordered
+     *            True to send the results to the resultConsumer in the order
+     *            of the lines in the file, on the calling thread, and false to
+     *            send the results to the resultConsumer as soon as they are
+     *            available, from the threads in the pool.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parsePipelined(final InputStream inputStream,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount,
+            final CSVMapperCache cache, final CsvSchema schema, final CSVProjection projection,
+            final ForkJoinPool pool, final int batchSize, final int maxBatchesInFlight,
+            final boolean ordered) throws IOException, CSVStreamException {
+        final CSVLineProcessor<T> processor = new CSVLineProcessor<>(headersValidator,
+                lineConverter, substituteHeaders, defaultValues, headerLineCount, projection);
+
+        CSVPipelinedParser.parse(inputStream, processor, resultConsumer, cache.reader(schema),
+                pool, batchSize, maxBatchesInFlight, ordered);
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given Path through the header
+     * validator, line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer, parsing and converting chunks of
+     * the file concurrently using the common {@link ForkJoinPool}.
+     * 
+     * @param path
+     *            The {@link Path} to the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer. This function is called concurrently
+     *            from multiple threads.
+     * @param resultConsumer
+     *            The consumer of the checked lines. If ordered is false, this
+     *            consumer is called concurrently from multiple threads.
+     * @param ordered
+     *            True to send the results to the resultConsumer in the order
+     *            of the lines in the file, on the calling thread, and false to
+     *            send the results to the resultConsumer as soon as they are
+     *            available, from the threads in the pool.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     * @see #parseParallel(FileChannel, Consumer, BiFunction, Consumer, List,
+     *      List, int, CsvMapper, CsvSchema, ForkJoinPool, long, boolean)
+     */
+    public static <T> void parseParallel(final Path path,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final boolean ordered)
+            throws IOException, CSVStreamException {
+        parseParallel(path, headersValidator, lineConverter, resultConsumer, null,
+                Collections.emptyList(), DEFAULT_HEADER_COUNT, defaultMapper(), defaultSchema(),
+                ForkJoinPool.commonPool(), DEFAULT_PARALLEL_CHUNK_SIZE, ordered);
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given Path through the header
+     * validator, line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer, parsing and converting chunks of
+     * the file concurrently.
+     * 
+     * @param path
+     *            The {@link Path} to the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer. This function is called concurrently
+     *            from multiple threads.
+     * @param resultConsumer
+     *            The consumer of the checked lines. If ordered is false, this
+     *            consumer is called concurrently from multiple threads.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as each row in the
+     *            CSV file being parsed. The default values are substituted in
+     *            before the lineConverter function is called.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param mapper
+     *            The {@link CsvMapper} to use to parse the CSV document.
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param pool
+     *            The {@link ForkJoinPool} to parse and convert the chunks on.
+     * @param chunkSize
+     *            The approximate size, in bytes, of each chunk.
+     * @param ordered
+     *            True to send the results to the resultConsumer in the order
+     *            of the lines in the file, on the calling thread, and false to
+     *            send the results to the resultConsumer as soon as they are
+     *            available, from the threads in the pool.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     * @see #parseParallel(FileChannel, Consumer, BiFunction, Consumer, List,
+     *      List, int, CsvMapper, CsvSchema, ForkJoinPool, long, boolean)
+     */
+    public static <T> void parseParallel(final Path path,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount, final CsvMapper mapper,
+            final CsvSchema schema, final ForkJoinPool pool, final long chunkSize,
+            final boolean ordered) throws IOException, CSVStreamException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);) {
+            parseParallel(channel, headersValidator, lineConverter, resultConsumer,
+                    substituteHeaders, defaultValues, headerLineCount, mapper, schema, pool,
+                    chunkSize, ordered);
+        }
+    }
+
+    /**
+     * Stream a UTF-8 CSV file from the given FileChannel through the header
+     * validator, line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer, parsing and converting chunks of
+     * the file concurrently.
+     * 
+     * The file is split into chunks of approximately chunkSize bytes, with
+     * each chunk adjusted to start and end on a record boundary, including
+     * where quoted values contain line breaks. Finding the boundaries requires
+     * quote characters to only appear at the start and end of quoted values,
+     * or doubled inside of quoted values, and not in comment lines. If the
+     * schema uses an escape character the file is parsed on the calling
+     * thread instead.
+     * 
+     * The header lines are parsed and validated on the calling thread before
+     * any chunks are parsed. The channel is read using positional reads and is
+     * not closed by this method.
+     * 
+     * @param channel
+     *            The {@link FileChannel} for the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer. This function is called concurrently
+     *            from multiple threads.
+     * @param resultConsumer
+     *            The consumer of the checked lines. If ordered is false, this
+     *            consumer is called concurrently from multiple threads.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as each row in the
+     *            CSV file being parsed. The default values are substituted in
+     *            before the lineConverter function is called.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param mapper
+     *            The {@link CsvMapper} to use to parse the CSV document.
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param pool
+     *            The {@link ForkJoinPool} to parse and convert the chunks on.
+     * @param chunkSize
+     *            The approximate size, in bytes, of each chunk.
+     * @param ordered
+     *            True to send the results to the resultConsumer in the order
+     *            of the lines in the file, on the calling thread, and false to
+     *            send the results to the resultConsumer as soon as they are
+     *            available, from the threads in the pool.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseParallel(final FileChannel channel,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final List<String> substituteHeaders,
+            final List<String> defaultValues, final int headerLineCount, final CsvMapper mapper,
+            final CsvSchema schema, final ForkJoinPool pool, final long chunkSize,
+            final boolean ordered) throws IOException, CSVStreamException {
+        final CSVLineProcessor<T> processor = new CSVLineProcessor<>(headersValidator,
+                lineConverter, substituteHeaders, defaultValues, headerLineCount,
+                CSVProjection.all());
+
+        CSVParallelParser.parse(channel, processor, resultConsumer, mapper, schema, pool,
+                chunkSize, ordered);
+    }
+
+    /**
+     * Create a lazily evaluated {@link Stream} of the checked/converted lines
+     * from a CSV file in the given Reader.
+     * 
+     * @param reader
+     *            The {@link Reader} containing the CSV file, which is closed
+     *            when the stream is closed.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            stream to throw a CSVStreamException.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            included in the stream.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and included in the {@link Stream}.
+     * @return A stream of the converted lines, which must be closed to close
+     *         the reader.
+     * @throws CSVStreamException
+     *             If the stream could not be created.
+     * @see #stream(Reader, Consumer, BiFunction, List, List, int, CsvMapper,
+     *      CsvSchema, CSVProjection)
+     */
+    public static <T> Stream<T> stream(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter)
+            throws CSVStreamException {
+        return stream(reader, headersValidator, lineConverter, null, Collections.emptyList(),
+                DEFAULT_HEADER_COUNT, CSVMapperCache.defaultCache().reader(defaultSchema()),
+                CSVProjection.all());
+    }
+
+    /**
+     * Create a lazily evaluated {@link Stream} of the checked/converted lines
+     * from a CSV file in the given Reader.
+     * 
+     * Lines are parsed as they are pulled through the stream, so short
+     * circuiting operations such as {@link Stream#findFirst()} stop parsing
+     * early. Errors reading the input are thrown as
+     * {@link java.io.UncheckedIOException}s, and other errors are thrown as
+     * {@link CSVStreamException}s, from the terminal operation.
+     * 
+     * @param reader
+     *            The {@link Reader} containing the CSV file, which is closed
+     *            when the stream is closed.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            stream to throw a CSVStreamException.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            included in the stream.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as each row in the
+     *            CSV file being parsed. The default values are substituted in
+     *            before the lineConverter function is called.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param mapper
+     *            The {@link CsvMapper} to use to parse the CSV document.
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param projection
+     *            The columns to give to the lineConverter, by header or
+     *            index.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and included in the {@link Stream}.
+     * @return A stream of the converted lines, which must be closed to close
+     *         the reader.
+     * @throws CSVStreamException
+     *             If the substitute headers did not pass validation.
+     */
+    public static <T> Stream<T> stream(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final List<String> substituteHeaders, final List<String> defaultValues,
+            final int headerLineCount, final CsvMapper mapper, final CsvSchema schema,
+            final CSVProjection projection) throws CSVStreamException {
+        return stream(reader, headersValidator, lineConverter, substituteHeaders, defaultValues,
+                headerLineCount, mapper.readerFor(List.class).with(schema), projection);
+    }
+
+    /**
+     * Create a lazily evaluated {@link Stream} using an {@link ObjectReader}
+     * that has already been configured with the schema.
+     */
+    private static <T> Stream<T> stream(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final List<String> substituteHeaders, final List<String> defaultValues,
+            final int headerLineCount, final ObjectReader objectReader,
+            final CSVProjection projection) throws CSVStreamException {
+        final CSVLineProcessor<T> processor = new CSVLineProcessor<>(headersValidator,
+                lineConverter, substituteHeaders, defaultValues, headerLineCount, projection);
+        final CSVSpliterator<T> spliterator = new CSVSpliterator<>(reader, processor,
+                objectReader);
+        return StreamSupport.stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * Create a lazily evaluated {@link Stream} of the checked/converted lines
+     * from a UTF-8 CSV file at the given Path.
+     * 
+     * @param path
+     *            The {@link Path} to the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            stream to throw a CSVStreamException.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            included in the stream.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and included in the {@link Stream}.
+     * @return A stream of the converted lines, which must be closed to close
+     *         the file.
+     * @throws IOException
+     *             If the file could not be opened.
+     * @throws CSVStreamException
+     *             If the stream could not be created.
+     * @see #stream(Path, Consumer, BiFunction, List, List, int, CsvMapper,
+     *      CsvSchema, CSVProjection)
+     */
+    public static <T> Stream<T> stream(final Path path,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter)
+            throws IOException, CSVStreamException {
+        return stream(path, headersValidator, lineConverter, null, Collections.emptyList(),
+                DEFAULT_HEADER_COUNT, defaultMapper(), defaultSchema(), CSVProjection.all());
+    }
+
+    /**
+     * Create a lazily evaluated {@link Stream} of the checked/converted lines
+     * from a UTF-8 CSV file at the given Path.
+     * 
+     * Lines are parsed as they are pulled through the stream, and the header
+     * lines are parsed by the terminal operation. When the stream is
+     * {@link Stream#parallel() parallel}, the file is split into byte ranges
+     * that start on record boundaries, which are parsed and converted
+     * concurrently. Schemas that use an escape character or a non-ASCII quote
+     * character can not be split. Errors reading the input are thrown as
+     * {@link java.io.UncheckedIOException}s, and other errors are thrown as
+     * {@link CSVStreamException}s, from the terminal operation.
+     * 
+     * @param path
+     *            The {@link Path} to the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            stream to throw a CSVStreamException.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            included in the stream. Lines may be converted concurrently
+     *            if the stream is parallel.
+     * @param substituteHeaders
+     *            A substitute set of headers or null to use the headers from
+     *            the file. If this is null and headerLineCount is set to 0, an
+     *            IllegalArgumentException ill be thrown.
+     * @param defaultValues
+     *            A list that is either empty, signifying there are no default
+     *            values known, or exactly the same length as each row in the
+     *            CSV file being parsed. The default values are substituted in
+     *            before the lineConverter function is called.
+     * @param headerLineCount
+     *            The number of header lines to expect
+     * @param mapper
+     *            The {@link CsvMapper} to use to parse the CSV document.
+     * @param schema
+     *            The {@link CsvSchema} to use when parsing the CSV document.
+     * @param projection
+     *            The columns to give to the lineConverter, by header or
+     *            index.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and included in the {@link Stream}.
+     * @return A stream of the converted lines, which must be closed to close
+     *         the file.
+     * @throws IOException
+     *             If the file could not be opened.
+     * @throws CSVStreamException
+     *             If the substitute headers did not pass validation.
+     */
+    public static <T> Stream<T> stream(final Path path,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final List<String> substituteHeaders, final List<String> defaultValues,
+            final int headerLineCount, final CsvMapper mapper, final CsvSchema schema,
+            final CSVProjection projection) throws IOException, CSVStreamException {
+        return stream(path, headersValidator, lineConverter, substituteHeaders, defaultValues,
+                headerLineCount, mapper, schema, projection,
+                CSVFileSpliterator.DEFAULT_MINIMUM_SPLIT_SIZE);
+    }
+
+    /**
+     * Create a stream from a file, only splitting ranges of the file that
+     * contain at least twice the given minimum split size.
+     */
+    static <T> Stream<T> stream(final Path path, final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final List<String> substituteHeaders, final List<String> defaultValues,
+            final int headerLineCount, final CsvMapper mapper, final CsvSchema schema,
+            final CSVProjection projection, final long minimumSplitSize)
+            throws IOException, CSVStreamException {
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            final CSVLineProcessor<T> processor = new CSVLineProcessor<>(headersValidator,
+                    lineConverter, substituteHeaders, defaultValues, headerLineCount,
+                    projection);
+            final boolean allowComments = mapper.isEnabled(JsonParser.Feature.ALLOW_YAML_COMMENTS)
+                    || schema.allowsComments();
+            final CSVFileSpliterator<T> spliterator = new CSVFileSpliterator<>(channel,
+                    processor, mapper.readerFor(List.class).with(schema), schema, allowComments,
+                    minimumSplitSize);
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                try {
+                    channel.close();
+                } catch (final IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Writes objects from the given {@link Stream} to the given {@link Writer}
+     * in CSV format, converting them to a {@link List} of String's using the
+     * given {@link BiFunction}.
+     * 
+     * @param writer
+     *            The Writer that will receive the CSV file.
+     * @param objects
+     *            The Stream of objects to be written
+     * @param headers
+     *            The headers to use for the resulting CSV file.
+     * @param objectConverter
+     *            The function to convert an individual object to a line in the
+     *            resulting CSV file, represented as a List of String's.
+     * @param <T>
+     *            The type of the objects to be converted.
+     * @throws IOException
+     *             If an error occurred accessing the output stream.
+     * @throws CSVStreamException
+     *             If an error occurred converting or serialising the objects.
+     */
+    public static <T> void write(final Writer writer, final Stream<T> objects,
+            final List<String> headers,
+            final BiFunction<List<String>, T, List<String>> objectConverter)
+            throws IOException, CSVStreamException {
+        write(writer, objects, buildSchema(headers), objectConverter);
+    }
+
+    /**
+     * Writes objects from the given {@link Stream} to the given {@link Writer}
+     * in CSV format, converting them to a {@link List} of String's using the
+     * given {@link BiFunction}.
+     * 
+     * @param writer
+     *            The Writer that will receive the CSV file.
+     * @param objects
+     *            The Stream of objects to be written
+     * @param schema
+     *            The {@link CsvSchema} to use for the resulting CSV file.
+     * @param objectConverter
+     *            The function to convert an individual object to a line in the
+     *            resulting CSV file, represented as a List of String's.
+     * @param <T>
+     *            The type of the objects to be converted.
+     * @throws IOException
+     *             If an error occurred accessing the output stream.
+     * @throws CSVStreamException
+     *             If an error occurred converting or serialising the objects.
+     */
+    public static <T> void write(final Writer writer, final Stream<T> objects,
+            final CsvSchema schema, final BiFunction<List<String>, T, List<String>> objectConverter)
+            throws IOException, CSVStreamException {
+        List<String> headers = new ArrayList<>();
+        schema.iterator().forEachRemaining(c -> headers.add(c.getName()));
+        try (SequenceWriter csvWriter = newCSVWriter(writer, headers);) {
+            objects.forEachOrdered(o -> {
+                try {
+                    csvWriter.write(objectConverter.apply(headers, o));
+                } catch (Exception e) {
+                    throw new CSVStreamException("Could not write object out", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Writes objects from the given {@link Stream} to the given {@link Writer}
+     * in CSV format, converting them to a {@link List} of String's using the
+     * given {@link BiFunction}, and converting and serialising chunks of the
+     * objects concurrently using the common {@link ForkJoinPool}.
+     * 
+     * @param writer
+     *            The Writer that will receive the CSV file.
+     * @param objects
+     *            The Stream of objects to be written
+     * @param headers
+     *            The headers to use for the resulting CSV file.
+     * @param objectConverter
+     *            The function to convert an individual object to a line in the
+     *            resulting CSV file, represented as a List of String's. It may
+     *            be called concurrently for different objects.
+     * @param <T>
+     *            The type of the objects to be converted.
+     * @throws IOException
+     *             If an error occurred accessing the output stream.
+     * @throws CSVStreamException
+     *             If an error occurred converting or serialising the objects.
+     * @see #writeParallel(Writer, Stream, CsvSchema, BiFunction, ForkJoinPool,
+     *      int, int)
+     */
+    public static <T> void writeParallel(final Writer writer, final Stream<T> objects,
+            final List<String> headers,
+            final BiFunction<List<String>, T, List<String>> objectConverter)
+            throws IOException, CSVStreamException {
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        writeParallel(writer, objects, buildSchema(headers), objectConverter, pool,
+                DEFAULT_PARALLEL_WRITE_CHUNK_SIZE, Math.max(2, pool.getParallelism() * 2));
+    }
+
+    /**
+     * Writes objects from the given {@link Stream} to the given {@link Writer}
+     * in CSV format, converting them to a {@link List} of String's using the
+     * given {@link BiFunction}, and converting and serialising chunks of the
+     * objects concurrently using the given {@link ForkJoinPool}.
+     * 
+     * The objects are taken from the stream in order on the calling thread,
+     * and the serialised chunks are written to the Writer in the same order,
+     * so the output is the same as
+     * {@link #write(Writer, Stream, CsvSchema, BiFunction)}. At most
+     * maxChunksInFlight chunks are held in memory at any time.
+     * 
+     * @param writer
+     *            The Writer that will receive the CSV file, which is closed
+     *            after the objects are written.
+     * @param objects
+     *            The Stream of objects to be written
+     * @param schema
+     *            The {@link CsvSchema} to use for the resulting CSV file.
+     * @param objectConverter
+     *            The function to convert an individual object to a line in the
+     *            resulting CSV file, represented as a List of String's. It may
+     *            be called concurrently for different objects.
+     * @param pool
+     *            The pool to convert and serialise chunks on.
+     * @param chunkSize
+     *            The number of objects in each chunk.
+     * @param maxChunksInFlight
+     *            The maximum number of chunks that may be converting or
+     *            waiting to be written at any time.
+     * @param <T>
+     *            The type of the objects to be converted.
+     * @throws IOException
+     *             If an error occurred accessing the output stream.
+     * @throws CSVStreamException
+     *             If an error occurred converting or serialising the objects.
+     */
+    public static <T> void writeParallel(final Writer writer, final Stream<T> objects,
+            final CsvSchema schema, final BiFunction<List<String>, T, List<String>> objectConverter,
+            final ForkJoinPool pool, final int chunkSize, final int maxChunksInFlight)
+            throws IOException, CSVStreamException {
+        CSVParallelWriter.write(writer, objects, schema, objectConverter, pool, chunkSize,
+                maxChunksInFlight);
+    }
+
+    /**
+     * Writes objects from the given {@link Stream} to the given
+     * {@link OutputStream} in UTF-8 CSV format, converting them to a
+     * {@link List} of String's using the given {@link BiFunction}, and
+     * converting, serialising and encoding chunks of the objects concurrently
+     * using the given {@link ForkJoinPool}.
+     * 
+     * The objects are taken from the stream in order on the calling thread,
+     * and the serialised chunks are written to the OutputStream in the same
+     * order. At most maxChunksInFlight chunks are held in memory at any time.
+     * 
+     * @param outputStream
+     *            The OutputStream that will receive the CSV file, which is
+     *            closed after the objects are written.
+     * @param objects
+     *            The Stream of objects to be written
+     * @param schema
+     *            The {@link CsvSchema} to use for the resulting CSV file.
+     * @param objectConverter
+     *            The function to convert an individual object to a line in the
+     *            resulting CSV file, represented as a List of String's. It may
+     *            be called concurrently for different objects.
+     * @param pool
+     *            The pool to convert and serialise chunks on.
+     * @param chunkSize
+     *            The number of objects in each chunk.
+     * @param maxChunksInFlight
+     *            The maximum number of chunks that may be converting or
+     *            waiting to be written at any time.
+     * @param <T>
+     *            The type of the objects to be converted.
+     * @throws IOException
+     *             If an error occurred accessing the output stream.
+     * @throws CSVStreamException
+     *             If an error occurred converting or serialising the objects.
+     */
+    public static <T> void writeParallel(final OutputStream outputStream,
+            final Stream<T> objects, final CsvSchema schema,
+            final BiFunction<List<String>, T, List<String>> objectConverter,
+            final ForkJoinPool pool, final int chunkSize, final int maxChunksInFlight)
+            throws IOException, CSVStreamException {
+        CSVParallelWriter.write(outputStream, objects, schema, objectConverter, pool, chunkSize,
+                maxChunksInFlight);
+    }
+
+    /**
+     * Returns a Jackson {@link SequenceWriter} which will write CSV lines to
+     * the given {@link OutputStream} using the headers provided.
+     * 
+     * @param outputStream
+     *            The writer which will receive the CSV file.
+     * @param headers
+     *            The column headers that will be used by the returned Jackson
+     *            {@link SequenceWriter}.
+     * @return A Jackson {@link SequenceWriter} that can have
+     *         {@link SequenceWriter#write(Object)} called on it to emit CSV
+     *         lines to the given {@link OutputStream}.
+     * @throws IOException
+     *             If there is a problem writing the CSV header line to the
+     *             {@link OutputStream}.
+     */
+    public static SequenceWriter newCSVWriter(final OutputStream outputStream, List<String> headers)
+            throws IOException {
+        return newCSVWriter(outputStream, buildSchema(headers));
+    }
 
     /**
      * Returns a Jackson {@link SequenceWriter} which will write CSV lines to
@@ -526,8 +2461,84 @@ public final class CSVStream {
      */
     public static SequenceWriter newCSVWriter(final OutputStream outputStream, CsvSchema schema)
             throws IOException {
-        return defaultMapper().writerWithDefaultPrettyPrinter().with(schema).forType(List.class)
-                .writeValues(outputStream);
+        return newCSVWriter(outputStream, schema, CSVMapperCache.defaultCache());
+    }
+
+    /**
+     * Returns a Jackson {@link SequenceWriter} which will write CSV lines to
+     * the given {@link OutputStream} using the {@link CsvSchema} and a writer
+     * from the given {@link CSVMapperCache}.
+     * 
+     * @param outputStream
+     *            The writer which will receive the CSV file.
+     * @param schema
+     *            The {@link CsvSchema} that will be used by the returned
+     *            Jackson {@link SequenceWriter}.
+     * @param cache
+     *            The {@link CSVMapperCache} to get the writer for the schema
+     *            from.
+     * @return A Jackson {@link SequenceWriter} that can have
+     *         {@link SequenceWriter#write(Object)} called on it to emit CSV
+     *         lines to the given {@link OutputStream}.
+     * @throws IOException
+     *             If there is a problem writing the CSV header line to the
+     *             {@link OutputStream}.
+     */
+    public static SequenceWriter newCSVWriter(final OutputStream outputStream, CsvSchema schema,
+            CSVMapperCache cache) throws IOException {
+        return cache.writer(schema).writeValues(outputStream);
+    }
+
+    /**
+     * Returns a Jackson {@link SequenceWriter} which will write gzip
+     * compressed CSV lines to the given {@link OutputStream} using the
+     * headers provided. The lines are compressed concurrently using
+     * {@link CSVGzip#newOutputStream(OutputStream)}, and the output is not
+     * complete until the {@link SequenceWriter} is closed.
+     * 
+     * @param outputStream
+     *            The stream which will receive the compressed CSV file.
+     * @param headers
+     *            The column headers that will be used by the returned Jackson
+     *            {@link SequenceWriter}.
+     * @return A Jackson {@link SequenceWriter} that can have
+     *         {@link SequenceWriter#write(Object)} called on it to emit CSV
+     *         lines to the given {@link OutputStream}.
+     * @throws IOException
+     *             If there is a problem writing the CSV header line to the
+     *             {@link OutputStream}.
+     */
+    public static SequenceWriter newGzipCSVWriter(final OutputStream outputStream,
+            List<String> headers) throws IOException {
+        return newGzipCSVWriter(outputStream, buildSchema(headers), CSVMapperCache.defaultCache());
+    }
+
+    /**
+     * Returns a Jackson {@link SequenceWriter} which will write gzip
+     * compressed CSV lines to the given {@link OutputStream} using the
+     * {@link CsvSchema} and a writer from the given {@link CSVMapperCache}.
+     * The lines are compressed concurrently using
+     * {@link CSVGzip#newOutputStream(OutputStream)}, and the output is not
+     * complete until the {@link SequenceWriter} is closed.
+     * 
+     * @param outputStream
+     *            The stream which will receive the compressed CSV file.
+     * @param schema
+     *            The {@link CsvSchema} that will be used by the returned
+     *            Jackson {@link SequenceWriter}.
+     * @param cache
+     *            The {@link CSVMapperCache} to get the writer for the schema
+     *            from.
+     * @return A Jackson {@link SequenceWriter} that can have
+     *         {@link SequenceWriter#write(Object)} called on it to emit CSV
+     *         lines to the given {@link OutputStream}.
+     * @throws IOException
+     *             If there is a problem writing the CSV header line to the
+     *             {@link OutputStream}.
+     */
+    public static SequenceWriter newGzipCSVWriter(final OutputStream outputStream,
+            CsvSchema schema, CSVMapperCache cache) throws IOException {
+        return newCSVWriter(CSVGzip.newOutputStream(outputStream), schema, cache);
     }
 
     /**
@@ -569,8 +2580,32 @@ public final class CSVStream {
      */
     public static SequenceWriter newCSVWriter(final Writer writer, CsvSchema schema)
             throws IOException {
-        return defaultMapper().writerWithDefaultPrettyPrinter().with(schema).forType(List.class)
-                .writeValues(writer);
+        return newCSVWriter(writer, schema, CSVMapperCache.defaultCache());
+    }
+
+    /**
+     * Returns a Jackson {@link SequenceWriter} which will write CSV lines to
+     * the given {@link Writer} using the {@link CsvSchema} and a writer from
+     * the given {@link CSVMapperCache}.
+     * 
+     * @param writer
+     *            The writer which will receive the CSV file.
+     * @param schema
+     *            The {@link CsvSchema} that will be used by the returned
+     *            Jackson {@link SequenceWriter}.
+     * @param cache
+     *            The {@link CSVMapperCache} to get the writer for the schema
+     *            from.
+     * @return A Jackson {@link SequenceWriter} that can have
+     *         {@link SequenceWriter#write(Object)} called on it to emit CSV
+     *         lines to the given {@link Writer}.
+     * @throws IOException
+     *             If there is a problem writing the CSV header line to the
+     *             {@link Writer}.
+     */
+    public static SequenceWriter newCSVWriter(final Writer writer, CsvSchema schema,
+            CSVMapperCache cache) throws IOException {
+        return cache.writer(schema).writeValues(writer);
     }
 
     /**
@@ -599,6 +2634,39 @@ public final class CSVStream {
                 .build();
     }
 
+    /**
+     * Build a {@link CsvSchema} object using the given headers and column
+     * types. The types are reported by {@link CSVRow#getColumnType(int)} to
+     * the rowConverter given to the parseRows methods, so that numeric
+     * columns can be decoded using methods such as
+     * {@link CSVRow#getLong(int)}.
+     * 
+     * @param headers
+     *            The list of strings in the header.
+     * @param columnTypes
+     *            The types of the columns, in the same order as the headers.
+     * @param useHeader
+     *            Set to false to avoid writing the header line, which is
+     *            necessary if appending to an existing file, or to parse the
+     *            header lines without the schema using the headerLineCount.
+     * @return A {@link CsvSchema} object including the given header items.
+     * @throws IllegalArgumentException
+     *             If the number of column types does not match the number of
+     *             headers.
+     */
+    public static CsvSchema buildSchema(List<String> headers, List<ColumnType> columnTypes,
+            boolean useHeader) {
+        if (headers.size() != columnTypes.size()) {
+            throw new IllegalArgumentException("Expected " + headers.size()
+                    + " column types but found " + columnTypes.size());
+        }
+        final CsvSchema.Builder builder = CsvSchema.builder().setUseHeader(useHeader);
+        for (int i = 0; i < headers.size(); i++) {
+            builder.addColumn(headers.get(i), columnTypes.get(i));
+        }
+        return builder.build();
+    }
+
     /**
      * Returns a {@link CsvMapper} that contains the default settings used by
      * csvstream.
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A {@link Reader} over a UTF-8 {@link InputStream} that is read and decoded
+ * by a background thread, with the decoded characters handed over in buffers
+ * through a {@link BufferPipeline}.
+ * 
+ * Each buffer holds the characters from a single read, merged with further
+ * reads only while more input is available without blocking, so that lines
+ * from a slow source are handed over as soon as they arrive.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class DecodingPipelineReader extends Reader {
+
+    /**
+     * The maximum number of characters in each buffer that is handed over.
+     */
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The number of decoded buffers that can be waiting to be read.
+     */
+    static final int MAX_BUFFERS_IN_FLIGHT = 4;
+
+    private static final char[] EMPTY = new char[0];
+
+    private final BufferPipeline<char[]> pipeline = new BufferPipeline<>("csvstream-decoder",
+            MAX_BUFFERS_IN_FLIGHT, "Could not read input");
+    private char[] current = EMPTY;
+    private int position;
+    private boolean closed;
+
+    /**
+     * @param input
+     *            The UTF-8 input, which is closed by the background thread
+     *            when it is exhausted or this reader is closed.
+     */
+    DecodingPipelineReader(final InputStream input) {
+        pipeline.start(() -> produce(input));
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        final int result = Math.min(len, current.length - position);
+        System.arraycopy(current, position, cbuf, off, result);
+        position += result;
+        return result;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return current[position++];
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        return position < current.length || pipeline.ready();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            current = EMPTY;
+            position = 0;
+            pipeline.close();
+        }
+    }
+
+    /**
+     * Take the next buffer from the pipeline if the current buffer has been
+     * read.
+     * 
+     * @return False if the end of the decoded data has been reached.
+     */
+    private boolean fill() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (position == current.length) {
+            final char[] next = pipeline.take();
+            if (next == null) {
+                return false;
+            }
+            current = next;
+            position = 0;
+        }
+        return true;
+    }
+
+    private void produce(final InputStream input) throws IOException, InterruptedException {
+        try (final Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8);) {
+            char[] buffer = new char[BUFFER_SIZE];
+            int length;
+            while ((length = reader.read(buffer, 0, buffer.length)) >= 0) {
+                // Only merge further reads that will not block
+                int read = 0;
+                while (length < buffer.length && reader.ready()
+                        && (read = reader.read(buffer, length, buffer.length - length)) >= 0) {
+                    length += read;
+                }
+                if (length == buffer.length) {
+                    pipeline.put(buffer);
+                    buffer = new char[BUFFER_SIZE];
+                } else if (length > 0) {
+                    // The buffer is reused, as only a copy of it is handed over
+                    pipeline.put(Arrays.copyOf(buffer, length));
+                }
+                if (read < 0) {
+                    break;
+                }
+            }
+        }
+    }
+}
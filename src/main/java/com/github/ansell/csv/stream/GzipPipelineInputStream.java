@@ -0,0 +1,289 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * An {@link InputStream} over the decompressed bytes of a gzip stream, which
+ * is decompressed by a background thread, and handed over in buffers through
+ * a {@link BufferPipeline}.
+ * 
+ * BGZF blocks are read by the background thread and inflated concurrently on
+ * a {@link ForkJoinPool}, in order. If a gzip member that is not a BGZF block
+ * is found, the rest of the stream is inflated on the background thread.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class GzipPipelineInputStream extends InputStream {
+
+    /**
+     * The size of the header of a BGZF block, including the BC extra field
+     * that records the size of the block.
+     */
+    static final int BGZF_HEADER_SIZE = 18;
+
+    /**
+     * The size of the CRC32 and ISIZE trailer of each gzip member.
+     */
+    static final int GZIP_TRAILER_SIZE = 8;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final BufferPipeline<byte[]> pipeline;
+    private byte[] current = EMPTY;
+    private int position;
+    private boolean closed;
+
+    GzipPipelineInputStream(final InputStream compressed, final ForkJoinPool pool,
+            final int maxBlocksInFlight) {
+        this.pipeline = new BufferPipeline<>("csvstream-gzip-decompressor", maxBlocksInFlight,
+                "Could not decompress gzip input");
+        this.pipeline.start(() -> produce(compressed, pool, maxBlocksInFlight));
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return current[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        final int result = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, result);
+        position += result;
+        return result;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return current.length - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            current = EMPTY;
+            position = 0;
+            pipeline.close();
+        }
+    }
+
+    /**
+     * Take the next buffer from the pipeline if the current buffer has been
+     * read.
+     * 
+     * @return False if the end of the decompressed data has been reached.
+     */
+    private boolean fill() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        while (position == current.length) {
+            final byte[] next = pipeline.take();
+            if (next == null) {
+                return false;
+            }
+            current = next;
+            position = 0;
+        }
+        return true;
+    }
+
+    private void produce(final InputStream compressed, final ForkJoinPool pool,
+            final int maxBlocksInFlight) throws IOException, InterruptedException {
+        final ArrayDeque<ForkJoinTask<byte[]>> inFlight = new ArrayDeque<>();
+        try (final InputStream input = compressed;) {
+            final byte[] header = new byte[BGZF_HEADER_SIZE];
+            int headerLength;
+            while ((headerLength = readFully(input, header, 0, header.length)) > 0) {
+                final int blockSize = bgzfBlockSize(header, headerLength);
+                if (blockSize < 0) {
+                    // Not a BGZF block, so inflate the rest of the stream on
+                    // this thread, after the blocks before it
+                    while (!inFlight.isEmpty()) {
+                        put(CSVGzip.join(inFlight.removeFirst()));
+                    }
+                    inflateSequentially(new SequenceInputStream(
+                            new ByteArrayInputStream(header, 0, headerLength), input));
+                    break;
+                }
+                final byte[] block = Arrays.copyOf(header, blockSize);
+                if (readFully(input, block, BGZF_HEADER_SIZE,
+                        blockSize - BGZF_HEADER_SIZE) < blockSize - BGZF_HEADER_SIZE) {
+                    throw new EOFException("Unexpected end of BGZF block");
+                }
+                if (inFlight.size() >= maxBlocksInFlight) {
+                    put(CSVGzip.join(inFlight.removeFirst()));
+                }
+                inFlight.addLast(pool.submit(() -> {
+                    try {
+                        return inflateBlock(block);
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            }
+            while (!inFlight.isEmpty()) {
+                put(CSVGzip.join(inFlight.removeFirst()));
+            }
+        } finally {
+            // Blocks that are being inflated are waited for, so that no
+            // worker is still running after the pipeline has ended
+            CSVParallelParser.awaitAll(inFlight);
+        }
+    }
+
+    private void inflateSequentially(final InputStream compressed)
+            throws IOException, InterruptedException {
+        try (final InputStream input = new GZIPInputStream(compressed, BUFFER_SIZE);) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int length;
+            while ((length = readFully(input, buffer, 0, buffer.length)) > 0) {
+                if (length < buffer.length) {
+                    buffer = Arrays.copyOf(buffer, length);
+                }
+                put(buffer);
+                buffer = new byte[BUFFER_SIZE];
+            }
+        }
+    }
+
+    private void put(final byte[] buffer) throws InterruptedException {
+        if (buffer.length > 0) {
+            pipeline.put(buffer);
+        }
+    }
+
+    /**
+     * @return The total size of the BGZF block with the given header, or -1
+     *         if the header is not for a BGZF block.
+     */
+    static int bgzfBlockSize(final byte[] header, final int headerLength) {
+        if (headerLength < BGZF_HEADER_SIZE || (header[0] & 0xFF) != 0x1f
+                || (header[1] & 0xFF) != 0x8b || header[2] != 8 || header[3] != 4
+                || readShort(header, 10) != 6 || header[12] != 'B' || header[13] != 'C'
+                || readShort(header, 14) != 2) {
+            return -1;
+        }
+        final int blockSize = readShort(header, 16) + 1;
+        return blockSize < BGZF_HEADER_SIZE + GZIP_TRAILER_SIZE ? -1 : blockSize;
+    }
+
+    /**
+     * Inflate a single BGZF block, checking its CRC32 and size.
+     */
+    static byte[] inflateBlock(final byte[] block) throws IOException {
+        final int trailer = block.length - GZIP_TRAILER_SIZE;
+        final int size = readInt(block, trailer + 4);
+        if (size < 0 || size > 0x10000) {
+            throw new ZipException("Invalid BGZF block size: " + Integer.toUnsignedString(size));
+        }
+        final byte[] result = new byte[size];
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(block, BGZF_HEADER_SIZE, trailer - BGZF_HEADER_SIZE);
+            // Once the expected size has been inflated, any further output is
+            // inflated into a scratch buffer to detect blocks that are too
+            // large
+            final byte[] scratch = new byte[1];
+            int length = 0;
+            while (!inflater.finished()) {
+                final int inflated = length < size
+                        ? inflater.inflate(result, length, size - length)
+                        : inflater.inflate(scratch);
+                if (inflated == 0 && !inflater.finished()
+                        && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new ZipException("Corrupt BGZF block: deflated data was truncated");
+                }
+                length += inflated;
+                if (length > size) {
+                    break;
+                }
+            }
+            if (length != size) {
+                throw new ZipException("Corrupt BGZF block: size did not match");
+            }
+        } catch (final DataFormatException e) {
+            throw new ZipException("Corrupt BGZF block: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(result, 0, size);
+        if ((int) crc.getValue() != readInt(block, trailer)) {
+            throw new ZipException("Corrupt BGZF block: CRC32 did not match");
+        }
+        return result;
+    }
+
+    private static int readFully(final InputStream input, final byte[] buffer, final int offset,
+            final int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            final int read = input.read(buffer, offset + total, length - total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static int readShort(final byte[] buffer, final int offset) {
+        return (buffer[offset] & 0xFF) | (buffer[offset + 1] & 0xFF) << 8;
+    }
+
+    private static int readInt(final byte[] buffer, final int offset) {
+        return readShort(buffer, offset) | readShort(buffer, offset + 2) << 16;
+    }
+}
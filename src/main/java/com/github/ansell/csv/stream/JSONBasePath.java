@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * A base path in a JSON document, along with the field paths, header
+ * validator, line converter and consumer for the records that are found
+ * under it. Multiple base paths can be parsed from a single pass over a
+ * document using
+ * {@link JSONStream#parse(java.io.Reader, List, ObjectMapper)}.
+ * 
+ * @param <T>
+ *            The type of the results that will be created by the line
+ *            converter and pushed into the result consumer.
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public final class JSONBasePath<T> {
+
+    private final JsonPointer basePath;
+    private final Consumer<List<String>> headersValidator;
+    private final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter;
+    private final Consumer<T> resultConsumer;
+    private final JSONExtractionPlan plan;
+    private final Map<String, String> defaultValues;
+
+    private JSONBasePath(final JsonPointer basePath,
+            final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JSONExtractionPlan plan,
+            final Map<String, String> defaultValues) {
+        this.basePath = Objects.requireNonNull(basePath, "Base path must not be null");
+        this.headersValidator = Objects.requireNonNull(headersValidator,
+                "Headers validator must not be null");
+        this.lineConverter = Objects.requireNonNull(lineConverter,
+                "Line converter must not be null");
+        this.resultConsumer = Objects.requireNonNull(resultConsumer,
+                "Result consumer must not be null");
+        this.plan = Objects.requireNonNull(plan, "Extraction plan must not be null");
+        this.defaultValues = Objects.requireNonNull(defaultValues,
+                "Default values must not be null");
+    }
+
+    /**
+     * Create a base path using the given field relative paths and output
+     * headers.
+     * 
+     * @param basePath
+     *            The path to the records. Set to "/" to use the top of the
+     *            document. If the basePath points to an array, each of the
+     *            array elements are matched separately with the
+     *            fieldRelativePaths, up to the first element that is not an
+     *            object. If it points to an object, the object is
+     *            directly matched to obtain a single result row. Otherwise an
+     *            exception is thrown while parsing.
+     * @param headersValidator
+     *            The validator of the output headers.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineConverter returns null, the line will not be
+     *            passed to the resultConsumer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param fieldRelativePaths
+     *            The relative paths underneath the basePath to select field
+     *            values from.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields.
+     * @param outputHeaders
+     *            The header list to use in the output.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineConverter and pushed into the resultConsumer.
+     * @return A new base path.
+     */
+    public static <T> JSONBasePath<T> of(final JsonPointer basePath,
+            final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer,
+            final Map<String, Optional<JsonPointer>> fieldRelativePaths,
+            final Map<String, String> defaultValues, final List<String> outputHeaders) {
+        return of(basePath, headersValidator, lineConverter, resultConsumer,
+                JSONExtractionPlan.compile(outputHeaders, fieldRelativePaths), defaultValues);
+    }
+
+    /**
+     * Create a base path using a precompiled {@link JSONExtractionPlan}.
+     * 
+     * @param basePath
+     *            The path to the records. Set to "/" to use the top of the
+     *            document. If the basePath points to an array, each of the
+     *            array elements are matched separately with the plan, up to
+     *            the first element that is not an object. If it points to an
+     *            object, the object is directly matched to obtain a single
+     *            result row. Otherwise an exception is thrown while parsing.
+     * @param headersValidator
+     *            The validator of the output headers.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineConverter returns null, the line will not be
+     *            passed to the resultConsumer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param plan
+     *            The compiled output headers and field relative paths.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineConverter and pushed into the resultConsumer.
+     * @return A new base path.
+     */
+    public static <T> JSONBasePath<T> of(final JsonPointer basePath,
+            final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JSONExtractionPlan plan,
+            final Map<String, String> defaultValues) {
+        return new JSONBasePath<>(basePath, headersValidator, lineConverter, resultConsumer, plan,
+                defaultValues);
+    }
+
+    /**
+     * @return The path to the records.
+     */
+    public JsonPointer getBasePath() {
+        return basePath;
+    }
+
+    /**
+     * @return The compiled output headers and field relative paths.
+     */
+    public JSONExtractionPlan getPlan() {
+        return plan;
+    }
+
+    Consumer<List<String>> getHeadersValidator() {
+        return headersValidator;
+    }
+
+    TriFunction<JsonNode, List<String>, List<String>, T> getLineConverter() {
+        return lineConverter;
+    }
+
+    Consumer<T> getResultConsumer() {
+        return resultConsumer;
+    }
+
+    Map<String, String> getDefaultValues() {
+        return defaultValues;
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Finds the records under several base paths in a single streaming pass over
+ * a JSON document.
+ * 
+ * The base paths are compiled into a trie, and subtrees of the document that
+ * are not on the way to any base path are skipped without being read as
+ * trees. As with {@link com.fasterxml.jackson.core.filter.JsonPointerBasedFilter},
+ * only the first match for each base path is used. If a base path is inside
+ * another base path, the outer value is read as a single tree so that both
+ * can be served from it.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class JSONBasePathParser {
+
+    /**
+     * Private constructor for static only class
+     */
+    private JSONBasePathParser() {
+    }
+
+    /**
+     * A base path and the handler for each of the records found under it.
+     */
+    static final class Target {
+
+        private final JsonPointer basePath;
+        private final Consumer<JsonNode> handler;
+
+        Target(final JsonPointer basePath, final Consumer<JsonNode> handler) {
+            this.basePath = basePath;
+            this.handler = handler;
+        }
+    }
+
+    static void parse(final Reader reader, final List<Target> targets, final ObjectMapper mapper)
+            throws IOException, CSVStreamException {
+        final Node root = new Node(null, -1);
+        for (final Target nextTarget : targets) {
+            Node node = root;
+            final String serialisedBasePath = nextTarget.basePath.toString();
+            // Match the single path behaviour, where "/" is the top of the
+            // document rather than the property with an empty name
+            if (!serialisedBasePath.isEmpty() && !serialisedBasePath.equals("/")) {
+                for (JsonPointer segment = nextTarget.basePath; !segment.matches();
+                        segment = segment.tail()) {
+                    final int elementIndex = segment.getMatchingIndex();
+                    node = node.children.computeIfAbsent(segment.getMatchingProperty(),
+                            k -> new Node(k, elementIndex));
+                }
+            }
+            if (node.handlers.isEmpty()) {
+                node.basePath = serialisedBasePath;
+            }
+            node.handlers.add(nextTarget.handler);
+        }
+
+        try (final JsonParser parser = mapper.getFactory().createParser(reader);) {
+            if (parser.nextToken() != null) {
+                walk(parser, root, mapper);
+            }
+        } catch (IOException | CSVStreamException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new CSVStreamException(e);
+        }
+
+        final Node unmatched = firstUnmatched(root);
+        if (unmatched != null) {
+            throw new CSVStreamException(
+                    "Base JSONPointer must point to either an Array or an Object: "
+                            + "instead found null (path was " + unmatched.basePath + ")");
+        }
+    }
+
+    /**
+     * Walk the value that the parser is positioned on, which is at the
+     * location of the given node in the trie.
+     */
+    private static void walk(final JsonParser parser, final Node node, final ObjectMapper mapper)
+            throws IOException, CSVStreamException {
+        if (!node.handlers.isEmpty()) {
+            if (node.matched) {
+                // Only the first match is used, as for the single path parse
+                parser.skipChildren();
+            } else if (node.children.isEmpty()) {
+                node.matched = true;
+                stream(parser, node, mapper);
+            } else {
+                dispatch(mapper.readTree(parser), node);
+            }
+            return;
+        }
+        final JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final Node child = node.children.get(parser.getCurrentName());
+                parser.nextToken();
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    walk(parser, child, mapper);
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                final Node child = node.element(index++);
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    walk(parser, child, mapper);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read each of the records for a base path as a separate tree, so that
+     * large arrays are not read into memory at once.
+     */
+    private static void stream(final JsonParser parser, final Node node, final ObjectMapper mapper)
+            throws IOException, CSVStreamException {
+        final JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_ARRAY) {
+            boolean records = true;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                // As with the single path parse, the records end at the first
+                // element that is not an object
+                records = records && parser.currentToken() == JsonToken.START_OBJECT;
+                if (records) {
+                    node.accept(mapper.readTree(parser));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } else if (token == JsonToken.START_OBJECT) {
+            node.accept(mapper.readTree(parser));
+        } else {
+            throw notArrayOrObject(token, node);
+        }
+    }
+
+    /**
+     * Serve the base path for the given node, and any base paths inside it,
+     * from a tree that has already been read.
+     */
+    private static void dispatch(final JsonNode value, final Node node)
+            throws CSVStreamException {
+        if (!node.handlers.isEmpty()) {
+            node.matched = true;
+            if (value.isArray()) {
+                for (final JsonNode nextElement : value) {
+                    if (!nextElement.isObject()) {
+                        break;
+                    }
+                    node.accept(nextElement);
+                }
+            } else if (value.isObject()) {
+                node.accept(value);
+            } else {
+                throw notArrayOrObject(value.asToken(), node);
+            }
+        }
+        for (final Node nextChild : node.children.values()) {
+            final JsonNode childValue;
+            if (value.isObject()) {
+                childValue = value.get(nextChild.property);
+            } else if (value.isArray() && nextChild.elementIndex >= 0) {
+                childValue = value.get(nextChild.elementIndex);
+            } else {
+                childValue = null;
+            }
+            if (childValue != null) {
+                dispatch(childValue, nextChild);
+            }
+        }
+    }
+
+    private static CSVStreamException notArrayOrObject(final JsonToken token, final Node node) {
+        return new CSVStreamException(
+                "Base JSONPointer must point to either an Array or an Object: instead found "
+                        + token + " (path was " + node.basePath + ")");
+    }
+
+    private static Node firstUnmatched(final Node node) {
+        if (!node.handlers.isEmpty() && !node.matched) {
+            return node;
+        }
+        final Iterator<Node> children = node.children.values().iterator();
+        while (children.hasNext()) {
+            final Node result = firstUnmatched(children.next());
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A node in the trie of base paths, which also records whether the base
+     * paths that end at it have been matched during the current parse.
+     */
+    private static final class Node {
+
+        private final String property;
+        private final int elementIndex;
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Consumer<JsonNode>> handlers = new ArrayList<>(1);
+        private String basePath;
+        private boolean matched;
+
+        Node(final String property, final int elementIndex) {
+            this.property = property;
+            this.elementIndex = elementIndex;
+        }
+
+        /**
+         * @return The child for the array element with the given index, or
+         *         null if no base paths go through the element.
+         */
+        Node element(final int index) {
+            final Node child = children.get(Integer.toString(index));
+            return child != null && child.elementIndex == index ? child : null;
+        }
+
+        void accept(final JsonNode record) {
+            for (final Consumer<JsonNode> nextHandler : handlers) {
+                nextHandler.accept(record);
+            }
+        }
+    }
+}
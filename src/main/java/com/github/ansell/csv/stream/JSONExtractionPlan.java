@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.NumberOutput;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * The output headers and field relative paths for a JSON parse, compiled once
+ * into a trie of pointer segments so that fields with a common prefix share
+ * the traversal of that prefix.
+ * 
+ * Plans are immutable and can be reused across many calls to
+ * {@link JSONStream#parse(java.io.Reader, java.util.function.Consumer, TriFunction, java.util.function.Consumer, JsonPointer, JSONExtractionPlan, Map, ObjectMapper)}
+ * and
+ * {@link JSONStream#parseFields(java.io.Reader, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, JsonPointer, JSONExtractionPlan, Map, ObjectMapper)}
+ * , including concurrently. Values can be taken from a {@link JsonNode} tree,
+ * or pulled directly from the {@link JsonParser} token stream, skipping
+ * subtrees that do not contain any of the fields.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public final class JSONExtractionPlan {
+
+    private static final int[] NO_INDEXES = new int[0];
+
+    /**
+     * Array elements with indexes below this are looked up without creating a
+     * String for the index.
+     */
+    private static final int MAX_DIRECT_ELEMENT = 1024;
+
+    private final List<String> headers;
+    private final List<Optional<JsonPointer>> fieldRelativePointers;
+    private final boolean noFieldPaths;
+    private final Node root;
+
+    private JSONExtractionPlan(final List<String> headers,
+            final List<Optional<JsonPointer>> fieldRelativePointers, final boolean noFieldPaths,
+            final Node root) {
+        this.headers = headers;
+        this.fieldRelativePointers = fieldRelativePointers;
+        this.noFieldPaths = noFieldPaths;
+        this.root = root;
+    }
+
+    /**
+     * Compile the paths for the given headers.
+     * 
+     * @param outputHeaders
+     *            The headers, in the order that their values will be
+     *            returned.
+     * @param fieldRelativePaths
+     *            The paths relative to each record for the headers. Headers
+     *            without a present path always have empty values.
+     * @return A plan for extracting the values for the headers.
+     */
+    public static JSONExtractionPlan compile(final List<String> outputHeaders,
+            final Map<String, Optional<JsonPointer>> fieldRelativePaths) {
+        final List<Optional<JsonPointer>> pointers = new ArrayList<>(outputHeaders.size());
+        final NodeBuilder root = new NodeBuilder(-1);
+        for (int i = 0; i < outputHeaders.size(); i++) {
+            Optional<JsonPointer> nextPath = fieldRelativePaths.get(outputHeaders.get(i));
+            if (nextPath == null) {
+                nextPath = Optional.empty();
+            }
+            pointers.add(nextPath);
+            if (nextPath.isPresent()) {
+                NodeBuilder node = root;
+                for (JsonPointer segment = nextPath.get(); !segment.matches(); segment = segment
+                        .tail()) {
+                    final int elementIndex = segment.getMatchingIndex();
+                    node = node.children.computeIfAbsent(segment.getMatchingProperty(),
+                            k -> new NodeBuilder(elementIndex));
+                }
+                node.valueIndexes.add(i);
+            }
+        }
+        return new JSONExtractionPlan(Collections.unmodifiableList(new ArrayList<>(outputHeaders)),
+                Collections.unmodifiableList(pointers), fieldRelativePaths.isEmpty(),
+                root.build());
+    }
+
+    /**
+     * @return The output headers, in the order that values are extracted.
+     */
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @return The field relative pointer for each of the output headers, or
+     *         an empty Optional for headers that always have empty values.
+     */
+    public List<Optional<JsonPointer>> getFieldRelativePointers() {
+        return fieldRelativePointers;
+    }
+
+    /**
+     * @return True if the plan was compiled without any field relative paths.
+     */
+    boolean hasNoFieldPaths() {
+        return noFieldPaths;
+    }
+
+    /**
+     * Extract the values for a single record from a tree, with the same
+     * results as calling {@link JsonNode#at(JsonPointer)} for each of the
+     * field relative pointers.
+     * 
+     * @param record
+     *            The node for the record.
+     * @return A new list containing the text of each matched value node, or
+     *         an empty string for headers that did not match a value node.
+     */
+    List<String> extract(final JsonNode record) {
+        final List<String> result = newResult();
+        extractNode(record, root, result);
+        return result;
+    }
+
+    private void extractNode(final JsonNode node, final Node planNode,
+            final List<String> result) {
+        if (planNode.valueIndexes.length > 0 && node.isValueNode()) {
+            final String text = node.asText();
+            for (final int nextIndex : planNode.valueIndexes) {
+                result.set(nextIndex, text);
+            }
+        }
+        if (planNode.isLeafOnly() || !node.isContainerNode()) {
+            return;
+        }
+        for (final Map.Entry<String, Node> nextChild : planNode.children.entrySet()) {
+            final JsonNode childNode;
+            if (node.isObject()) {
+                childNode = node.get(nextChild.getKey());
+            } else {
+                final int index = nextChild.getValue().elementIndex;
+                childNode = index < 0 ? null : node.get(index);
+            }
+            if (childNode != null) {
+                extractNode(childNode, nextChild.getValue(), result);
+            }
+        }
+    }
+
+    /**
+     * Extract the values for a single record from the parser, which must be
+     * positioned on the START_OBJECT or START_ARRAY token for the record. The
+     * parser is left on the matching END_OBJECT or END_ARRAY token.
+     * 
+     * @param parser
+     *            The parser.
+     * @param bigDecimalFactory
+     *            The node factory used to convert floating point values to
+     *            text, if the mapper is configured to use BigDecimal for
+     *            them, or null to use doubles, so that the text matches
+     *            {@link JsonNode#asText()} for the nodes that the mapper would
+     *            create.
+     * @return A new list containing the text of each matched scalar value, or
+     *         an empty string for headers that did not match a scalar value.
+     * @throws IOException
+     *             If there was an error reading from the parser.
+     */
+    List<String> extract(final JsonParser parser, final JsonNodeFactory bigDecimalFactory)
+            throws IOException {
+        final List<String> result = newResult();
+        if (root.isLeafOnly()) {
+            parser.skipChildren();
+        } else {
+            extractChildren(parser, root, result, bigDecimalFactory);
+        }
+        return result;
+    }
+
+    /**
+     * @return The node factory to give to
+     *         {@link #extract(JsonParser, JsonNodeFactory)} for the mapper.
+     */
+    static JsonNodeFactory bigDecimalFactory(final ObjectMapper mapper) {
+        return mapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+                ? mapper.getNodeFactory()
+                : null;
+    }
+
+    private List<String> newResult() {
+        final int fieldCount = headers.size();
+        final List<String> result = new ArrayList<>(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            result.add("");
+        }
+        return result;
+    }
+
+    private void extractChildren(final JsonParser parser, final Node node,
+            final List<String> result, final JsonNodeFactory bigDecimalFactory)
+            throws IOException {
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final Node child = node.children.get(parser.getCurrentName());
+                parser.nextToken();
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    extractValue(parser, child, result, bigDecimalFactory);
+                }
+            }
+        } else {
+            int index = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                final Node child = node.element(index++);
+                if (child == null) {
+                    parser.skipChildren();
+                } else {
+                    extractValue(parser, child, result, bigDecimalFactory);
+                }
+            }
+        }
+    }
+
+    private void extractValue(final JsonParser parser, final Node node,
+            final List<String> result, final JsonNodeFactory bigDecimalFactory)
+            throws IOException {
+        final JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            // Paths that point to objects or arrays do not have values, and a
+            // later duplicate field replaces everything extracted from an
+            // earlier one, including the values below it
+            for (final int nextIndex : node.subtreeIndexes) {
+                result.set(nextIndex, "");
+            }
+            if (node.isLeafOnly()) {
+                parser.skipChildren();
+            } else {
+                extractChildren(parser, node, result, bigDecimalFactory);
+            }
+            return;
+        }
+        if (!node.isLeafOnly()) {
+            // A scalar duplicate field also replaces the values below an
+            // earlier object or array
+            for (final int nextIndex : node.subtreeIndexes) {
+                result.set(nextIndex, "");
+            }
+        }
+        if (node.valueIndexes.length > 0) {
+            final String text = scalarText(parser, token, bigDecimalFactory);
+            for (final int nextIndex : node.valueIndexes) {
+                result.set(nextIndex, text);
+            }
+        }
+    }
+
+    /**
+     * @return The text for the scalar value at the current token, matching
+     *         {@link JsonNode#asText()} for the node that would be created for
+     *         it.
+     */
+    private static String scalarText(final JsonParser parser, final JsonToken token,
+            final JsonNodeFactory bigDecimalFactory) throws IOException {
+        switch (token) {
+        case VALUE_NUMBER_INT:
+            switch (parser.getNumberType()) {
+            case INT:
+                return NumberOutput.toString(parser.getIntValue());
+            case LONG:
+                return NumberOutput.toString(parser.getLongValue());
+            default:
+                return parser.getBigIntegerValue().toString();
+            }
+        case VALUE_NUMBER_FLOAT:
+            if (bigDecimalFactory != null && !parser.isNaN()) {
+                // The node factory decides whether trailing zeros are kept
+                return bigDecimalFactory.numberNode(parser.getDecimalValue()).asText();
+            }
+            return NumberOutput.toString(parser.getDoubleValue());
+        case VALUE_TRUE:
+            return "true";
+        case VALUE_FALSE:
+            return "false";
+        case VALUE_NULL:
+            return "null";
+        default:
+            return parser.getText();
+        }
+    }
+
+    /**
+     * A compiled node in the trie.
+     */
+    private static final class Node {
+
+        private final int elementIndex;
+        private final Map<String, Node> children;
+        private final Node[] elements;
+        private final int maxElement;
+        private final int[] valueIndexes;
+        private final int[] subtreeIndexes;
+
+        Node(final int elementIndex, final Map<String, Node> children, final Node[] elements,
+                final int maxElement, final int[] valueIndexes, final int[] subtreeIndexes) {
+            this.elementIndex = elementIndex;
+            this.children = children;
+            this.elements = elements;
+            this.maxElement = maxElement;
+            this.valueIndexes = valueIndexes;
+            this.subtreeIndexes = subtreeIndexes;
+        }
+
+        /**
+         * @return The child for the array element with the given index, or
+         *         null if no paths go through the element.
+         */
+        Node element(final int index) {
+            if (index < elements.length) {
+                return elements[index];
+            }
+            return index <= maxElement ? children.get(Integer.toString(index)) : null;
+        }
+
+        boolean isLeafOnly() {
+            return children.isEmpty();
+        }
+    }
+
+    /**
+     * A mutable node used while compiling the trie.
+     */
+    private static final class NodeBuilder {
+
+        private final int elementIndex;
+        private final Map<String, NodeBuilder> children = new HashMap<>();
+        private final List<Integer> valueIndexes = new ArrayList<>();
+
+        NodeBuilder(final int elementIndex) {
+            this.elementIndex = elementIndex;
+        }
+
+        Node build() {
+            final Map<String, Node> builtChildren = new HashMap<>(children.size() * 2);
+            int maxElement = -1;
+            for (final NodeBuilder nextChild : children.values()) {
+                maxElement = Math.max(maxElement, nextChild.elementIndex);
+            }
+            // Segments that are valid indexes also match array elements, as
+            // they do for JsonNode.at
+            final Node[] elements = new Node[Math.min(maxElement + 1, MAX_DIRECT_ELEMENT)];
+            for (final Map.Entry<String, NodeBuilder> nextChild : children.entrySet()) {
+                final Node child = nextChild.getValue().build();
+                builtChildren.put(nextChild.getKey(), child);
+                final int index = nextChild.getValue().elementIndex;
+                if (index >= 0 && index < elements.length) {
+                    elements[index] = child;
+                }
+            }
+            return new Node(elementIndex, builtChildren, elements, maxElement,
+                    toArray(valueIndexes), toArray(subtreeIndexes()));
+        }
+
+        /**
+         * @return The value indexes of this node and all of its descendants.
+         */
+        private List<Integer> subtreeIndexes() {
+            final List<Integer> result = new ArrayList<>(valueIndexes);
+            for (final NodeBuilder nextChild : children.values()) {
+                result.addAll(nextChild.subtreeIndexes());
+            }
+            return result;
+        }
+
+        private static int[] toArray(final List<Integer> indexes) {
+            if (indexes.isEmpty()) {
+                return NO_INDEXES;
+            }
+            final int[] result = new int[indexes.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = indexes.get(i);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * Parses the records under a JSON base path by slicing each record out of the
+ * document on the calling thread into a {@link TokenBuffer}, and then building
+ * the trees, extracting the fields and converting chunks of records on a
+ * {@link ForkJoinPool}.
+ * 
+ * JSON Lines files are instead split into byte ranges that end on line feeds,
+ * and each range is parsed and converted on the {@link ForkJoinPool}.
+ * 
+ * The number of chunks that are being converted or are waiting to be
+ * delivered is bounded, so a large input is not buffered in memory if the
+ * workers or the consumer are slower than the parser.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class JSONParallelParser {
+
+    /**
+     * Private constructor for static only class
+     */
+    private JSONParallelParser() {
+    }
+
+    static <T> void parse(final Reader reader,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JsonPointer basePath,
+            final JSONExtractionPlan plan,
+            final Function<List<String>, List<String>> defaultValueReplacer,
+            final ObjectMapper mapper, final ForkJoinPool pool, final int chunkSize,
+            final int maxChunksInFlight, final boolean ordered)
+            throws IOException, CSVStreamException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        if (maxChunksInFlight < 1) {
+            throw new IllegalArgumentException("Maximum chunks in flight must be positive.");
+        }
+
+        final boolean useBigDecimal = mapper
+                .isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        final List<String> headers = plan.getHeaders();
+        final Deque<ForkJoinTask<List<T>>> inFlight = new ArrayDeque<>();
+        final AtomicBoolean stopped = new AtomicBoolean();
+        try {
+            final List<List<TokenBuffer>> pending = new ArrayList<>(1);
+            pending.add(new ArrayList<>(chunkSize));
+            final JSONStream.ParserFactory input = factory -> factory.createParser(reader);
+            JSONStream.parseRecords(input, basePath, mapper, parser -> {
+                final TokenBuffer nextRecord = new TokenBuffer(parser, null);
+                // Keep the exact decimal values if the mapper would have kept
+                // them when reading the tree directly from the parser
+                nextRecord.forceUseOfBigDecimal(useBigDecimal);
+                nextRecord.copyCurrentStructure(parser);
+                final List<TokenBuffer> chunk = pending.get(0);
+                chunk.add(nextRecord);
+                if (chunk.size() >= chunkSize) {
+                    submit(chunk, inFlight, lineConverter, resultConsumer, plan, headers,
+                            defaultValueReplacer, mapper, pool, maxChunksInFlight, ordered,
+                            stopped);
+                    pending.set(0, new ArrayList<>(chunkSize));
+                }
+            });
+            if (!pending.get(0).isEmpty()) {
+                submit(pending.get(0), inFlight, lineConverter, resultConsumer, plan, headers,
+                        defaultValueReplacer, mapper, pool, maxChunksInFlight, ordered, stopped);
+            }
+            while (!inFlight.isEmpty()) {
+                deliver(inFlight.removeFirst(), resultConsumer);
+            }
+        } finally {
+            stopped.set(true);
+            CSVParallelParser.awaitAll(inFlight);
+        }
+    }
+
+    static <T> void parseLines(final FileChannel channel,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JSONExtractionPlan plan,
+            final Function<List<String>, List<String>> defaultValueReplacer,
+            final ObjectMapper mapper, final ForkJoinPool pool, final long chunkSize,
+            final boolean ordered) throws IOException, CSVStreamException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+
+        final long size = channel.size();
+        // Bound the number of ranges whose results may be waiting for delivery
+        final int maxInFlight = Math.max(2, pool.getParallelism() * 2);
+        final Deque<ForkJoinTask<List<T>>> inFlight = new ArrayDeque<>();
+        final AtomicBoolean stopped = new AtomicBoolean();
+        // Records after a failure are skipped, as the line handler parses
+        // each range to the end
+        final TriFunction<JsonNode, List<String>, List<String>, T> stoppableConverter = (
+                nextNode, nextHeaders, nextLine) -> stopped.get() ? null
+                        : lineConverter.apply(nextNode, nextHeaders, nextLine);
+        try {
+            long nextStart = 0;
+            while (nextStart < size) {
+                // Raw line feeds are not valid inside JSON strings, so the
+                // next line feed is always a record boundary
+                final long start = nextStart;
+                final long end = CSVRecordBoundaries.nextRecordStart(channel,
+                        Math.min(size, start + chunkSize), size, false, -1);
+                nextStart = end;
+                if (inFlight.size() >= maxInFlight) {
+                    deliver(inFlight.removeFirst(), resultConsumer);
+                }
+                inFlight.addLast(pool.submit(() -> {
+                    final List<T> results = ordered ? new ArrayList<>() : null;
+                    if (stopped.get()) {
+                        return results;
+                    }
+                    JSONStream.parseLineRecords(
+                            mapper.getFactory()
+                                    .createParser(new FileChannelInputStream(channel, start, end)),
+                            JSONStream.lineRecordHandler(stoppableConverter,
+                                    ordered ? results::add : resultConsumer, plan,
+                                    defaultValueReplacer, mapper));
+                    return results;
+                }));
+            }
+            while (!inFlight.isEmpty()) {
+                deliver(inFlight.removeFirst(), resultConsumer);
+            }
+        } finally {
+            stopped.set(true);
+            CSVParallelParser.awaitAll(inFlight);
+        }
+    }
+
+    private static <T> void submit(final List<TokenBuffer> chunk,
+            final Deque<ForkJoinTask<List<T>>> inFlight,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JSONExtractionPlan plan,
+            final List<String> headers,
+            final Function<List<String>, List<String>> defaultValueReplacer,
+            final ObjectMapper mapper, final ForkJoinPool pool, final int maxChunksInFlight,
+            final boolean ordered, final AtomicBoolean stopped)
+            throws IOException, CSVStreamException {
+        if (inFlight.size() >= maxChunksInFlight) {
+            deliver(inFlight.removeFirst(), resultConsumer);
+        }
+        inFlight.addLast(pool.submit(() -> {
+            final List<T> results = ordered ? new ArrayList<>(chunk.size()) : null;
+            for (final TokenBuffer nextRecord : chunk) {
+                if (stopped.get()) {
+                    break;
+                }
+                final JsonNode nextNode;
+                try (final JsonParser recordParser = nextRecord.asParser();) {
+                    nextNode = mapper.readTree(recordParser);
+                }
+                final T apply = lineConverter.apply(nextNode, headers,
+                        defaultValueReplacer.apply(plan.extract(nextNode)));
+
+                // Line checker returning null indicates that a value was
+                // not found, and will not be sent to the consumer.
+                if (apply != null) {
+                    if (ordered) {
+                        results.add(apply);
+                    } else {
+                        resultConsumer.accept(apply);
+                    }
+                }
+            }
+            return results;
+        }));
+    }
+
+    private static <T> void deliver(final ForkJoinTask<List<T>> task,
+            final Consumer<T> resultConsumer) throws IOException, CSVStreamException {
+        final List<T> results = CSVParallelParser.join(task);
+        if (results != null) {
+            results.forEach(resultConsumer);
+        }
+    }
+}
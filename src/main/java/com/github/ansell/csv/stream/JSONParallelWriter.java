@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes a JSON array of objects, or JSON Lines, by converting and
+ * serialising chunks of objects on a {@link ForkJoinPool}, and then writing
+ * the serialised chunks to the output in their original order.
+ * 
+ * The objects are taken from the stream on the calling thread, and the number
+ * of chunks that are being serialised or are waiting to be written is bounded,
+ * so memory use is bounded by the chunk size and the number of chunks in
+ * flight.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class JSONParallelWriter {
+
+    /**
+     * Private constructor for static only class
+     */
+    private JSONParallelWriter() {
+    }
+
+    /**
+     * The destination for serialised chunks.
+     */
+    private interface Target<C> extends Closeable {
+
+        JsonGenerator createGenerator(C chunk) throws IOException;
+
+        C newChunk();
+
+        boolean isEmpty(C chunk);
+
+        void write(C chunk) throws IOException;
+
+        void write(char separator) throws IOException;
+    }
+
+    static <T> void write(final Writer writer, final Stream<T> objects,
+            final List<String> headers,
+            final BiFunction<List<String>, T, List<String>> objectConverter,
+            final ObjectMapper mapper, final boolean lines, final ForkJoinPool pool,
+            final int chunkSize, final int maxChunksInFlight)
+            throws IOException, CSVStreamException {
+        write(objects, headers, objectConverter, mapper, lines, pool, chunkSize,
+                maxChunksInFlight, new Target<StringWriter>() {
+                    @Override
+                    public JsonGenerator createGenerator(final StringWriter chunk)
+                            throws IOException {
+                        return mapper.getFactory().createGenerator(chunk);
+                    }
+
+                    @Override
+                    public StringWriter newChunk() {
+                        return new StringWriter();
+                    }
+
+                    @Override
+                    public boolean isEmpty(final StringWriter chunk) {
+                        return chunk.getBuffer().length() == 0;
+                    }
+
+                    @Override
+                    public void write(final StringWriter chunk) throws IOException {
+                        writer.append(chunk.getBuffer());
+                    }
+
+                    @Override
+                    public void write(final char separator) throws IOException {
+                        writer.write(separator);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        writer.close();
+                    }
+                });
+    }
+
+    static <T> void write(final OutputStream outputStream, final Stream<T> objects,
+            final List<String> headers,
+            final BiFunction<List<String>, T, List<String>> objectConverter,
+            final ObjectMapper mapper, final boolean lines, final ForkJoinPool pool,
+            final int chunkSize, final int maxChunksInFlight)
+            throws IOException, CSVStreamException {
+        write(objects, headers, objectConverter, mapper, lines, pool, chunkSize,
+                maxChunksInFlight, new Target<ByteArrayOutputStream>() {
+                    @Override
+                    public JsonGenerator createGenerator(final ByteArrayOutputStream chunk)
+                            throws IOException {
+                        return mapper.getFactory().createGenerator(chunk);
+                    }
+
+                    @Override
+                    public ByteArrayOutputStream newChunk() {
+                        return new ByteArrayOutputStream();
+                    }
+
+                    @Override
+                    public boolean isEmpty(final ByteArrayOutputStream chunk) {
+                        return chunk.size() == 0;
+                    }
+
+                    @Override
+                    public void write(final ByteArrayOutputStream chunk) throws IOException {
+                        chunk.writeTo(outputStream);
+                    }
+
+                    @Override
+                    public void write(final char separator) throws IOException {
+                        outputStream.write(separator);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        outputStream.close();
+                    }
+                });
+    }
+
+    private static <T, C> void write(final Stream<T> objects, final List<String> headers,
+            final BiFunction<List<String>, T, List<String>> objectConverter,
+            final ObjectMapper mapper, final boolean lines, final ForkJoinPool pool,
+            final int chunkSize, final int maxChunksInFlight, final Target<C> target)
+            throws IOException, CSVStreamException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        if (maxChunksInFlight < 1) {
+            throw new IllegalArgumentException("Maximum chunks in flight must be positive.");
+        }
+        // The chunks are joined using text separators
+        if (!JsonFactory.FORMAT_NAME_JSON.equals(mapper.getFactory().getFormatName())) {
+            throw new IllegalArgumentException(
+                    "Parallel writing requires a JSON factory: found "
+                            + mapper.getFactory().getFormatName());
+        }
+
+        final SerializableString[] fieldNames = JSONStream.fieldNames(headers);
+        final Deque<ForkJoinTask<C>> inFlight = new ArrayDeque<>();
+        final AtomicBoolean stopped = new AtomicBoolean();
+        try {
+            if (!lines) {
+                target.write('[');
+            }
+            boolean empty = true;
+            final Iterator<T> iterator = objects.iterator();
+            while (iterator.hasNext()) {
+                final List<T> chunk = new ArrayList<>(chunkSize);
+                while (chunk.size() < chunkSize && iterator.hasNext()) {
+                    chunk.add(iterator.next());
+                }
+                if (inFlight.size() >= maxChunksInFlight) {
+                    empty = write(target, CSVParallelParser.join(inFlight.removeFirst()), empty,
+                            lines);
+                }
+                inFlight.addLast(pool.submit(() -> {
+                    final C output = target.newChunk();
+                    try (final JsonGenerator generator = target.createGenerator(output);) {
+                        generator.setRootValueSeparator(null);
+                        boolean first = true;
+                        for (final T nextObject : chunk) {
+                            if (stopped.get()) {
+                                break;
+                            }
+                            final List<String> record = objectConverter.apply(headers,
+                                    nextObject);
+                            if (record != null) {
+                                if (!lines && !first) {
+                                    generator.writeRaw(',');
+                                }
+                                JSONStream.writeRecord(generator, fieldNames, record);
+                                if (lines) {
+                                    generator.writeRaw('\n');
+                                }
+                                first = false;
+                            }
+                        }
+                    } catch (final Exception e) {
+                        throw new CSVStreamException("Could not write object out", e);
+                    }
+                    return output;
+                }));
+            }
+            while (!inFlight.isEmpty()) {
+                empty = write(target, CSVParallelParser.join(inFlight.removeFirst()), empty, lines);
+            }
+            if (!lines) {
+                target.write(']');
+            }
+        } finally {
+            // The chunks are stopped and waited for before the target is
+            // closed, so that no converter is still running afterwards
+            stopped.set(true);
+            CSVParallelParser.awaitAll(inFlight);
+            target.close();
+        }
+    }
+
+    /**
+     * Write a serialised chunk, separating it from the previous records in
+     * an array.
+     * 
+     * @return True if no records have been written yet.
+     */
+    private static <C> boolean write(final Target<C> target, final C chunk, final boolean empty,
+            final boolean lines) throws IOException {
+        if (target.isEmpty(chunk)) {
+            return empty;
+        }
+        if (!lines && !empty) {
+            target.write(',');
+        }
+        target.write(chunk);
+        return false;
+    }
+}
@@ -26,44 +26,1041 @@
 package com.github.ansell.csv.stream;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
 import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
 import com.fasterxml.jackson.core.filter.JsonPointerBasedFilter;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 
 /**
- * Implements streaming of JSON files for parsing using Java-8 Lambda functions
- * such as {@link Consumer} and {@link BiFunction}.
+ * Implements streaming of JSON files for parsing and writing using Java-8
+ * Lambda functions such as {@link Consumer} and {@link BiFunction}.
  *
  * @author Peter Ansell p_ansell@yahoo.com
  */
 public final class JSONStream {
 
+    /**
+     * The default number of records in each chunk that is converted
+     * concurrently by
+     * {@link #parseParallel(Reader, Consumer, TriFunction, Consumer,
+     * JsonPointer, Map, Map, ObjectMapper, List, boolean)}.
+     */
+    public static final int DEFAULT_PARALLEL_CHUNK_SIZE = 256;
+
+    /**
+     * The default approximate size, in bytes, of the chunks of a JSON Lines
+     * file that are parsed concurrently by
+     * {@link #parseLinesParallel(Path, Consumer, TriFunction, Consumer, Map,
+     * Map, ObjectMapper, List, boolean)}.
+     */
+    public static final long DEFAULT_PARALLEL_LINES_CHUNK_SIZE = 16L * 1024L * 1024L;
+
+    /**
+     * The mapper used by the write methods that do not take an
+     * {@link ObjectMapper}.
+     */
+    static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper();
+
     /**
      * Private constructor for static only class
      */
-    private JSONStream() {
+    private JSONStream() {
+    }
+
+    /**
+     * Stream a JSON file from the given Reader through the header validator,
+     * line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer.
+     *
+     * @param reader
+     *            The {@link Reader} containing the CSV file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param basePath
+     *            The path to go to before checking the field paths. Set to "/"
+     *            to start at the top of the document. If the basePath points to
+     *            an array, each of the array elements are matched separately
+     *            with the fieldRelativePaths. If it points to an object, the
+     *            object is directly matched to obtain a single result row.
+     *            Otherwise an exception is thrown. Use
+     *            {@link #parse(Reader, List, ObjectMapper)} to parse multiple
+     *            base paths in a single pass.
+     * @param fieldRelativePaths
+     *            The relative paths underneath the basePath to select field
+     *            values from.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the JSON document.
+     * @param outputHeaders
+     *            The header list to use in the output.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parse(final Reader reader, final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JsonPointer basePath,
+            final Map<String, Optional<JsonPointer>> fieldRelativePaths,
+            final Map<String, String> defaultValues, final ObjectMapper mapper,
+            final List<String> outputHeaders) throws IOException, CSVStreamException {
+        parse(reader, headersValidator, lineConverter, resultConsumer, basePath,
+                JSONExtractionPlan.compile(outputHeaders, fieldRelativePaths), defaultValues,
+                mapper);
+    }
+
+    /**
+     * Stream a JSON file from the given Reader through the header validator,
+     * line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer, using a precompiled
+     * {@link JSONExtractionPlan}.
+     *
+     * @param reader
+     *            The {@link Reader} containing the JSON file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param basePath
+     *            The path to go to before checking the field paths. If the
+     *            basePath points to an array, each of the array elements are
+     *            matched separately with the fieldRelativePaths. If it points
+     *            to an object, the object is directly matched to obtain a
+     *            single result row. Otherwise an exception is thrown.
+     * @param plan
+     *            The compiled output headers and field relative paths, which
+     *            may be reused across calls.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the JSON document.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parse(final Reader reader, final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JsonPointer basePath,
+            final JSONExtractionPlan plan, final Map<String, String> defaultValues,
+            final ObjectMapper mapper) throws IOException, CSVStreamException {
+        parseTrees(factory -> factory.createParser(reader), headersValidator, lineConverter,
+                resultConsumer, basePath, plan, defaultValues, mapper);
+    }
+
+    /**
+     * Stream a JSON file from the given Reader through the header validator,
+     * line checker, and if the line checker succeeds, collect the
+     * checked/converted lines into batches for the batch consumer, using a
+     * precompiled {@link JSONExtractionPlan}.
+     *
+     * @param reader
+     *            The {@link Reader} containing the JSON file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param batchConsumer
+     *            The consumer of each batch of checked lines. The batch is an
+     *            unmodifiable view of a list that is reused for a later
+     *            batch, so it must be copied if it is needed after the
+     *            consumer returns.
+     * @param basePath
+     *            The path to go to before checking the field paths. If the
+     *            basePath points to an array, each of the array elements are
+     *            matched separately with the fieldRelativePaths. If it points
+     *            to an object, the object is directly matched to obtain a
+     *            single result row. Otherwise an exception is thrown.
+     * @param plan
+     *            The compiled output headers and field relative paths, which
+     *            may be reused across calls.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the JSON document.
+     * @param batchSize
+     *            The number of lines in each batch other than the last.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the batch {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     * @see BatchingConsumer
+     */
+    public static <T> void parseBatched(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<List<T>> batchConsumer, final JsonPointer basePath,
+            final JSONExtractionPlan plan, final Map<String, String> defaultValues,
+            final ObjectMapper mapper, final int batchSize) throws IOException, CSVStreamException {
+        parseBatched(reader, headersValidator, lineConverter, batchConsumer, basePath, plan,
+                defaultValues, mapper, batchSize, null);
+    }
+
+    /**
+     * Stream a JSON file from the given Reader through the header validator,
+     * line checker, and if the line checker succeeds, collect the
+     * checked/converted lines into batches for the batch consumer, using a
+     * precompiled {@link JSONExtractionPlan}.
+     *
+     * @param reader
+     *            The {@link Reader} containing the JSON file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param batchConsumer
+     *            The consumer of each batch of checked lines. The batch is an
+     *            unmodifiable view of a list that is reused for a later
+     *            batch, so it must be copied if it is needed after the
+     *            consumer returns.
+     * @param basePath
+     *            The path to go to before checking the field paths. If the
+     *            basePath points to an array, each of the array elements are
+     *            matched separately with the fieldRelativePaths. If it points
+     *            to an object, the object is directly matched to obtain a
+     *            single result row. Otherwise an exception is thrown.
+     * @param plan
+     *            The compiled output headers and field relative paths, which
+     *            may be reused across calls.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the JSON document.
+     * @param batchSize
+     *            The maximum number of lines in each batch.
+     * @param maxLatency
+     *            The longest time that a line waits before a partial batch
+     *            containing it is passed to the batch consumer, or null to
+     *            only pass on partial batches at the end of the input. If it
+     *            is given, the batch consumer may be called from a background
+     *            thread, although never concurrently with itself.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the batch {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     * @see BatchingConsumer
+     */
+    public static <T> void parseBatched(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<List<T>> batchConsumer, final JsonPointer basePath,
+            final JSONExtractionPlan plan, final Map<String, String> defaultValues,
+            final ObjectMapper mapper, final int batchSize, final Duration maxLatency)
+            throws IOException, CSVStreamException {
+        try (final BatchingConsumer<T> batcher = BatchingConsumer.of(batchConsumer, batchSize,
+                maxLatency);) {
+            parse(reader, headersValidator, lineConverter, batcher, basePath, plan,
+                    defaultValues, mapper);
+        }
+    }
+
+    /**
+     * Stream a JSON document from the given InputStream through the header
+     * validator, line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer, using a precompiled
+     * {@link JSONExtractionPlan}.
+     *
+     * @param inputStream
+     *            The {@link InputStream} containing the document, which is
+     *            closed after parsing. The encoding of textual JSON is
+     *            detected from the bytes.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param basePath
+     *            The path to go to before checking the field paths. If the
+     *            basePath points to an array, each of the array elements are
+     *            matched separately with the fieldRelativePaths. If it points
+     *            to an object, the object is directly matched to obtain a
+     *            single result row. Otherwise an exception is thrown.
+     * @param plan
+     *            The compiled output headers and field relative paths, which
+     *            may be reused across calls.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the document. Its
+     *            {@link JsonFactory} determines the format, so a mapper created
+     *            with a binary factory such as Smile or CBOR parses that format.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parse(final InputStream inputStream,
+            final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JsonPointer basePath,
+            final JSONExtractionPlan plan, final Map<String, String> defaultValues,
+            final ObjectMapper mapper) throws IOException, CSVStreamException {
+        parseTrees(factory -> factory.createParser(inputStream),
+                headersValidator, lineConverter, resultConsumer, basePath, plan, defaultValues,
+                mapper);
+    }
+
+    /**
+     * Stream a JSON document from the given ByteBuffer through the header
+     * validator, line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer, using a precompiled
+     * {@link JSONExtractionPlan}.
+     *
+     * @param buffer
+     *            The {@link ByteBuffer} containing the document, from its
+     *            position to its limit. The position of the buffer is not
+     *            changed. The encoding of textual JSON is detected from the
+     *            bytes.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param basePath
+     *            The path to go to before checking the field paths. If the
+     *            basePath points to an array, each of the array elements are
+     *            matched separately with the fieldRelativePaths. If it points
+     *            to an object, the object is directly matched to obtain a
+     *            single result row. Otherwise an exception is thrown.
+     * @param plan
+     *            The compiled output headers and field relative paths, which
+     *            may be reused across calls.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the document. Its
+     *            {@link JsonFactory} determines the format, so a mapper created
+     *            with a binary factory such as Smile or CBOR parses that format.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parse(final ByteBuffer buffer,
+            final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JsonPointer basePath,
+            final JSONExtractionPlan plan, final Map<String, String> defaultValues,
+            final ObjectMapper mapper) throws IOException, CSVStreamException {
+        parseTrees(factory -> createParser(factory, buffer),
+                headersValidator, lineConverter, resultConsumer, basePath, plan, defaultValues,
+                mapper);
+    }
+
+    /**
+     * Stream a JSON document from the given Path through the header validator,
+     * line checker, and if the line checker succeeds, send the checked/converted
+     * line to the consumer, using a precompiled {@link JSONExtractionPlan}.
+     *
+     * @param path
+     *            The {@link Path} to the document. The encoding of textual
+     *            JSON is detected from the bytes.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param basePath
+     *            The path to go to before checking the field paths. If the
+     *            basePath points to an array, each of the array elements are
+     *            matched separately with the fieldRelativePaths. If it points
+     *            to an object, the object is directly matched to obtain a
+     *            single result row. Otherwise an exception is thrown.
+     * @param plan
+     *            The compiled output headers and field relative paths, which
+     *            may be reused across calls.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the document. Its
+     *            {@link JsonFactory} determines the format, so a mapper created
+     *            with a binary factory such as Smile or CBOR parses that format.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parse(final Path path,
+            final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JsonPointer basePath,
+            final JSONExtractionPlan plan, final Map<String, String> defaultValues,
+            final ObjectMapper mapper) throws IOException, CSVStreamException {
+        parseTrees(factory -> factory.createParser(Files.newInputStream(path)),
+                headersValidator, lineConverter, resultConsumer, basePath, plan, defaultValues,
+                mapper);
+    }
+
+    private static <T> void parseTrees(final ParserFactory input,
+            final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JsonPointer basePath,
+            final JSONExtractionPlan plan, final Map<String, String> defaultValues,
+            final ObjectMapper mapper) throws IOException, CSVStreamException {
+        final Function<List<String>, List<String>> defaultValueReplacer = validate(
+                headersValidator, plan, defaultValues);
+        final List<String> headers = plan.getHeaders();
+
+        parseRecords(input, basePath, mapper, parser -> {
+            // read everything from this START_OBJECT to the matching
+            // END_OBJECT and return it as a tree model JsonNode
+            final JsonNode nextNode = mapper.readTree(parser);
+            if (nextNode == null) {
+                throw new CSVStreamException(
+                        "Path did not match anything: path='" + basePath.toString() + "'");
+            }
+
+            final T apply = lineConverter.apply(nextNode, headers,
+                    defaultValueReplacer.apply(plan.extract(nextNode)));
+
+            // Line checker returning null indicates that a value was
+            // not found, and will not be sent to the consumer.
+            if (apply != null) {
+                resultConsumer.accept(apply);
+            }
+        });
+    }
+
+    /**
+     * Stream a JSON file from the given Reader through the header validator,
+     * line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer.
+     * 
+     * Unlike
+     * {@link #parse(Reader, Consumer, TriFunction, Consumer, JsonPointer, Map,
+     * Map, ObjectMapper, List)},
+     * no {@link JsonNode} tree is built for each result row. The field values
+     * are pulled directly from the parser tokens, and objects and arrays that
+     * do not contain any of the fields are skipped. The values are the same
+     * as those given to the lineConverter by the tree based parse method.
+     *
+     * @param reader
+     *            The {@link Reader} containing the JSON file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param basePath
+     *            The path to go to before checking the field paths. If the
+     *            basePath points to an array, each of the array elements are
+     *            matched separately with the fieldRelativePaths. If it points
+     *            to an object, the object is directly matched to obtain a
+     *            single result row. Otherwise an exception is thrown.
+     * @param fieldRelativePaths
+     *            The relative paths underneath the basePath to select field
+     *            values from.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the JSON document.
+     * @param outputHeaders
+     *            The header list to use in the output.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseFields(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JsonPointer basePath,
+            final Map<String, Optional<JsonPointer>> fieldRelativePaths,
+            final Map<String, String> defaultValues, final ObjectMapper mapper,
+            final List<String> outputHeaders) throws IOException, CSVStreamException {
+        parseFields(reader, headersValidator, lineConverter, resultConsumer, basePath,
+                JSONExtractionPlan.compile(outputHeaders, fieldRelativePaths), defaultValues,
+                mapper);
+    }
+
+    /**
+     * Stream a JSON file from the given Reader, sending the records under each
+     * of the given base paths through the header validator and line checker
+     * for that base path, and if the line checker succeeds, sending the
+     * checked/converted line to the consumer for that base path.
+     * 
+     * The document is only tokenised once, and subtrees that are not on the
+     * way to any of the base paths are skipped without being read as trees.
+     * The headers for all of the base paths are validated before the document
+     * is read. Records are sent to the consumers in document order.
+     *
+     * @param reader
+     *            The {@link Reader} containing the JSON file.
+     * @param basePaths
+     *            The base paths to find records under, along with the field
+     *            paths, validators, converters and consumers for each of them.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the JSON document.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input, or if any of the
+     *             base paths did not point to an array or an object.
+     */
+    public static void parse(final Reader reader, final List<JSONBasePath<?>> basePaths,
+            final ObjectMapper mapper) throws IOException, CSVStreamException {
+        if (basePaths.isEmpty()) {
+            throw new CSVStreamException("No base paths were set for JSONStream.parse");
+        }
+        final List<JSONBasePathParser.Target> targets = new ArrayList<>(basePaths.size());
+        for (final JSONBasePath<?> nextBasePath : basePaths) {
+            targets.add(target(nextBasePath));
+        }
+
+        JSONBasePathParser.parse(reader, targets, mapper);
+    }
+
+    private static <T> JSONBasePathParser.Target target(final JSONBasePath<T> basePath)
+            throws CSVStreamException {
+        final JSONExtractionPlan plan = basePath.getPlan();
+        final Function<List<String>, List<String>> defaultValueReplacer = validate(
+                basePath.getHeadersValidator(), plan, basePath.getDefaultValues());
+        final List<String> headers = plan.getHeaders();
+        final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter = basePath
+                .getLineConverter();
+        final Consumer<T> resultConsumer = basePath.getResultConsumer();
+
+        return new JSONBasePathParser.Target(basePath.getBasePath(), nextNode -> {
+            final T apply = lineConverter.apply(nextNode, headers,
+                    defaultValueReplacer.apply(plan.extract(nextNode)));
+
+            // Line checker returning null indicates that a value was
+            // not found, and will not be sent to the consumer.
+            if (apply != null) {
+                resultConsumer.accept(apply);
+            }
+        });
+    }
+
+    /**
+     * Stream a JSON Lines document, with one JSON object on each line, from
+     * the given Reader through the header validator, line checker, and if the
+     * line checker succeeds, send the checked/converted line to the consumer.
+     * 
+     * Each non-blank line must contain a single JSON object, which is matched
+     * with the field relative paths to create one result row.
+     *
+     * @param reader
+     *            The {@link Reader} containing the JSON Lines document.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param fieldRelativePaths
+     *            The relative paths inside each record to select field values
+     *            from.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the JSON records.
+     * @param outputHeaders
+     *            The header list to use in the output.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseLines(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer,
+            final Map<String, Optional<JsonPointer>> fieldRelativePaths,
+            final Map<String, String> defaultValues, final ObjectMapper mapper,
+            final List<String> outputHeaders) throws IOException, CSVStreamException {
+        parseLines(reader, headersValidator, lineConverter, resultConsumer,
+                JSONExtractionPlan.compile(outputHeaders, fieldRelativePaths), defaultValues,
+                mapper);
+    }
+
+    /**
+     * Stream a JSON Lines document, with one JSON object on each line, from
+     * the given Reader through the header validator, line checker, and if the
+     * line checker succeeds, send the checked/converted line to the consumer,
+     * using a precompiled {@link JSONExtractionPlan}.
+     * 
+     * Each non-blank line must contain a single JSON object, which is matched
+     * with the field relative paths to create one result row.
+     *
+     * @param reader
+     *            The {@link Reader} containing the JSON Lines document.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param plan
+     *            The compiled output headers and field relative paths, which
+     *            may be reused across calls.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the JSON records.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseLines(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JSONExtractionPlan plan,
+            final Map<String, String> defaultValues, final ObjectMapper mapper)
+            throws IOException, CSVStreamException {
+        final Function<List<String>, List<String>> defaultValueReplacer = validate(
+                headersValidator, plan, defaultValues);
+
+        parseLineRecords(mapper.getFactory().createParser(reader), lineRecordHandler(
+                lineConverter, resultConsumer, plan, defaultValueReplacer, mapper));
+    }
+
+    /**
+     * Stream a UTF-8 JSON Lines file from the given Path through the header
+     * validator, line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer, parsing and converting chunks of
+     * lines concurrently using the common {@link ForkJoinPool}.
+     * 
+     * Each non-blank line must contain a single JSON object, which is matched
+     * with the field relative paths to create one result row.
+     *
+     * @param path
+     *            The {@link Path} to the JSON Lines file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     *            It is called concurrently from multiple threads.
+     * @param resultConsumer
+     *            The consumer of the checked lines. If ordered is false, this
+     *            consumer is called concurrently from multiple threads.
+     * @param fieldRelativePaths
+     *            The relative paths inside each record to select field values
+     *            from.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the JSON records.
+     * @param outputHeaders
+     *            The header list to use in the output.
+     * @param ordered
+     *            True to send the results to the resultConsumer in the order
+     *            of the lines in the file, on the calling thread, and false to
+     *            send the results to the resultConsumer as soon as they are
+     *            available, from the threads in the pool.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     * @see #parseLinesParallel(FileChannel, Consumer, TriFunction, Consumer,
+     *      JSONExtractionPlan, Map, ObjectMapper, ForkJoinPool, long, boolean)
+     */
+    public static <T> void parseLinesParallel(final Path path,
+            final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer,
+            final Map<String, Optional<JsonPointer>> fieldRelativePaths,
+            final Map<String, String> defaultValues, final ObjectMapper mapper,
+            final List<String> outputHeaders, final boolean ordered)
+            throws IOException, CSVStreamException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);) {
+            parseLinesParallel(channel, headersValidator, lineConverter, resultConsumer,
+                    JSONExtractionPlan.compile(outputHeaders, fieldRelativePaths), defaultValues,
+                    mapper, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_LINES_CHUNK_SIZE,
+                    ordered);
+        }
+    }
+
+    /**
+     * Stream a UTF-8 JSON Lines file from the given FileChannel through the
+     * header validator, line checker, and if the line checker succeeds, send
+     * the checked/converted line to the consumer, parsing and converting chunks
+     * of lines concurrently using the given {@link ForkJoinPool}.
+     * 
+     * Each non-blank line must contain a single JSON object, which is matched
+     * with the field relative paths to create one result row.
+     * 
+     * The file is split into chunks of approximately chunkSize bytes that end
+     * on line feeds. A line feed can never occur inside a JSON string, so each
+     * chunk contains only complete records. The channel is read using
+     * positional reads, so it is not closed by this method.
+     *
+     * @param channel
+     *            The {@link FileChannel} for the JSON Lines file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     *            It is called concurrently from multiple threads.
+     * @param resultConsumer
+     *            The consumer of the checked lines. If ordered is false, this
+     *            consumer is called concurrently from multiple threads.
+     * @param plan
+     *            The compiled output headers and field relative paths, which
+     *            may be reused across calls.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the JSON records.
+     * @param pool
+     *            The {@link ForkJoinPool} to parse and convert the chunks on.
+     * @param chunkSize
+     *            The approximate size, in bytes, of each chunk.
+     * @param ordered
+     *            True to send the results to the resultConsumer in the order
+     *            of the lines in the file, on the calling thread, and false to
+     *            send the results to the resultConsumer as soon as they are
+     *            available, from the threads in the pool.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseLinesParallel(final FileChannel channel,
+            final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JSONExtractionPlan plan,
+            final Map<String, String> defaultValues, final ObjectMapper mapper,
+            final ForkJoinPool pool, final long chunkSize, final boolean ordered)
+            throws IOException, CSVStreamException {
+        final Function<List<String>, List<String>> defaultValueReplacer = validate(
+                headersValidator, plan, defaultValues);
+
+        JSONParallelParser.parseLines(channel, lineConverter, resultConsumer, plan,
+                defaultValueReplacer, mapper, pool, chunkSize, ordered);
+    }
+
+    /**
+     * Stream a JSON file from the given Reader through the header validator,
+     * line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer, building the trees and
+     * converting the records concurrently using the common
+     * {@link ForkJoinPool}.
+     *
+     * @param reader
+     *            The {@link Reader} containing the JSON file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer. It is called concurrently from multiple
+     *            threads.
+     * @param resultConsumer
+     *            The consumer of the checked lines. If ordered is false, this
+     *            consumer is called concurrently from multiple threads.
+     * @param basePath
+     *            The path to go to before checking the field paths. If the
+     *            basePath points to an array, each of the array elements are
+     *            matched separately with the fieldRelativePaths. If it points
+     *            to an object, the object is directly matched to obtain a
+     *            single result row. Otherwise an exception is thrown.
+     * @param fieldRelativePaths
+     *            The relative paths underneath the basePath to select field
+     *            values from.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the JSON document.
+     * @param outputHeaders
+     *            The header list to use in the output.
+     * @param ordered
+     *            True to send the results to the resultConsumer in the order
+     *            of the records in the document, on the calling thread, and
+     *            false to send the results to the resultConsumer as soon as
+     *            they are available, from the threads in the pool.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     * @see #parseParallel(Reader, Consumer, TriFunction, Consumer, JsonPointer,
+     *      JSONExtractionPlan, Map, ObjectMapper, ForkJoinPool, int, int,
+     *      boolean)
+     */
+    public static <T> void parseParallel(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JsonPointer basePath,
+            final Map<String, Optional<JsonPointer>> fieldRelativePaths,
+            final Map<String, String> defaultValues, final ObjectMapper mapper,
+            final List<String> outputHeaders, final boolean ordered)
+            throws IOException, CSVStreamException {
+        final ForkJoinPool pool = ForkJoinPool.commonPool();
+        parseParallel(reader, headersValidator, lineConverter, resultConsumer, basePath,
+                JSONExtractionPlan.compile(outputHeaders, fieldRelativePaths), defaultValues,
+                mapper, pool, DEFAULT_PARALLEL_CHUNK_SIZE, Math.max(2, pool.getParallelism() * 2),
+                ordered);
+    }
+
+    /**
+     * Stream a JSON file from the given Reader through the header validator,
+     * line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer, building the trees and
+     * converting chunks of records concurrently using the given
+     * {@link ForkJoinPool}.
+     * 
+     * The calling thread only tokenises the document and copies the tokens
+     * for each record into a buffer. If maxChunksInFlight chunks are waiting
+     * to be converted or delivered, the calling thread waits for the oldest
+     * chunk before reading further.
+     *
+     * @param reader
+     *            The {@link Reader} containing the JSON file.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer. It is called concurrently from multiple
+     *            threads.
+     * @param resultConsumer
+     *            The consumer of the checked lines. If ordered is false, this
+     *            consumer is called concurrently from multiple threads.
+     * @param basePath
+     *            The path to go to before checking the field paths. If the
+     *            basePath points to an array, each of the array elements are
+     *            matched separately with the fieldRelativePaths. If it points
+     *            to an object, the object is directly matched to obtain a
+     *            single result row. Otherwise an exception is thrown.
+     * @param plan
+     *            The compiled output headers and field relative paths, which
+     *            may be reused across calls.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the JSON document.
+     * @param pool
+     *            The {@link ForkJoinPool} to convert the chunks on.
+     * @param chunkSize
+     *            The number of records in each chunk.
+     * @param maxChunksInFlight
+     *            The maximum number of chunks that may be waiting to be
+     *            converted or delivered at any time.
+     * @param ordered
+     *            True to send the results to the resultConsumer in the order
+     *            of the records in the document, on the calling thread, and
+     *            false to send the results to the resultConsumer as soon as
+     *            they are available, from the threads in the pool.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseParallel(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JsonPointer basePath,
+            final JSONExtractionPlan plan, final Map<String, String> defaultValues,
+            final ObjectMapper mapper, final ForkJoinPool pool, final int chunkSize,
+            final int maxChunksInFlight, final boolean ordered)
+            throws IOException, CSVStreamException {
+        final Function<List<String>, List<String>> defaultValueReplacer = validate(
+                headersValidator, plan, defaultValues);
+
+        JSONParallelParser.parse(reader, lineConverter, resultConsumer, basePath, plan,
+                defaultValueReplacer, mapper, pool, chunkSize, maxChunksInFlight, ordered);
     }
 
     /**
      * Stream a JSON file from the given Reader through the header validator,
      * line checker, and if the line checker succeeds, send the
-     * checked/converted line to the consumer.
+     * checked/converted line to the consumer, using a precompiled
+     * {@link JSONExtractionPlan} and without building a {@link JsonNode} tree
+     * for each result row.
      *
      * @param reader
-     *            The {@link Reader} containing the CSV file.
+     *            The {@link Reader} containing the JSON file.
      * @param headersValidator
      *            The validator of the header line. Throwing
      *            IllegalArgumentException or other RuntimeExceptions causes the
@@ -76,16 +1073,14 @@ public final class JSONStream {
      * @param resultConsumer
      *            The consumer of the checked lines.
      * @param basePath
-     *            The path to go to before checking the field paths (only
-     *            supports a single point of entry at this point in time). Set
-     *            to "/" to start at the top of the document. If the basePath
-     *            points to an array, each of the array elements are matched
-     *            separately with the fieldRelativePaths. If it points to an
-     *            object, the object is directly matched to obtain a single
-     *            result row. Otherwise an exception is thrown.
-     * @param fieldRelativePaths
-     *            The relative paths underneath the basePath to select field
-     *            values from.
+     *            The path to go to before checking the field paths. If the
+     *            basePath points to an array, each of the array elements are
+     *            matched separately with the fieldRelativePaths. If it points
+     *            to an object, the object is directly matched to obtain a
+     *            single result row. Otherwise an exception is thrown.
+     * @param plan
+     *            The compiled output headers and field relative paths, which
+     *            may be reused across calls.
      * @param defaultValues
      *            Default values for fields to use if there are either no, or
      *            empty, values discovered in the document for given fields. The
@@ -93,8 +1088,6 @@ public final class JSONStream {
      *            function is called.
      * @param mapper
      *            The {@link ObjectMapper} to use to parse the JSON document.
-     * @param outputHeaders
-     *            The header list to use in the output.
      * @param <T>
      *            The type of the results that will be created by the
      *            lineChecker and pushed into the writer {@link Consumer}.
@@ -103,14 +1096,225 @@ public final class JSONStream {
      * @throws CSVStreamException
      *             If an error occurred validating the input.
      */
-    public static <T> void parse(final Reader reader, final Consumer<List<String>> headersValidator,
-            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+    public static <T> void parseFields(final Reader reader,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
             final Consumer<T> resultConsumer, final JsonPointer basePath,
-            final Map<String, Optional<JsonPointer>> fieldRelativePaths,
-            final Map<String, String> defaultValues, final ObjectMapper mapper,
-            final List<String> outputHeaders) throws IOException, CSVStreamException {
+            final JSONExtractionPlan plan, final Map<String, String> defaultValues,
+            final ObjectMapper mapper) throws IOException, CSVStreamException {
+        parseFieldValues(factory -> factory.createParser(reader), headersValidator, lineConverter,
+                resultConsumer, basePath, plan, defaultValues, mapper);
+    }
+
+    /**
+     * Stream a JSON document from the given InputStream through the header
+     * validator, line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer, using a precompiled
+     * {@link JSONExtractionPlan} and without building a {@link JsonNode} tree
+     * for each result row.
+     *
+     * @param inputStream
+     *            The {@link InputStream} containing the document, which is
+     *            closed after parsing. The encoding of textual JSON is
+     *            detected from the bytes.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param basePath
+     *            The path to go to before checking the field paths. If the
+     *            basePath points to an array, each of the array elements are
+     *            matched separately with the fieldRelativePaths. If it points
+     *            to an object, the object is directly matched to obtain a
+     *            single result row. Otherwise an exception is thrown.
+     * @param plan
+     *            The compiled output headers and field relative paths, which
+     *            may be reused across calls.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the document. Its
+     *            {@link JsonFactory} determines the format, so a mapper created
+     *            with a binary factory such as Smile or CBOR parses that format.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseFields(final InputStream inputStream,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JsonPointer basePath,
+            final JSONExtractionPlan plan, final Map<String, String> defaultValues,
+            final ObjectMapper mapper) throws IOException, CSVStreamException {
+        parseFieldValues(factory -> factory.createParser(inputStream),
+                headersValidator, lineConverter, resultConsumer, basePath, plan, defaultValues,
+                mapper);
+    }
+
+    /**
+     * Stream a JSON document from the given ByteBuffer through the header
+     * validator, line checker, and if the line checker succeeds, send the
+     * checked/converted line to the consumer, using a precompiled
+     * {@link JSONExtractionPlan} and without building a {@link JsonNode} tree
+     * for each result row.
+     *
+     * @param buffer
+     *            The {@link ByteBuffer} containing the document, from its
+     *            position to its limit. The position of the buffer is not
+     *            changed. The encoding of textual JSON is detected from the
+     *            bytes.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param basePath
+     *            The path to go to before checking the field paths. If the
+     *            basePath points to an array, each of the array elements are
+     *            matched separately with the fieldRelativePaths. If it points
+     *            to an object, the object is directly matched to obtain a
+     *            single result row. Otherwise an exception is thrown.
+     * @param plan
+     *            The compiled output headers and field relative paths, which
+     *            may be reused across calls.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the document. Its
+     *            {@link JsonFactory} determines the format, so a mapper created
+     *            with a binary factory such as Smile or CBOR parses that format.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseFields(final ByteBuffer buffer,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JsonPointer basePath,
+            final JSONExtractionPlan plan, final Map<String, String> defaultValues,
+            final ObjectMapper mapper) throws IOException, CSVStreamException {
+        parseFieldValues(factory -> createParser(factory, buffer),
+                headersValidator, lineConverter, resultConsumer, basePath, plan, defaultValues,
+                mapper);
+    }
+
+    /**
+     * Stream a JSON document from the given Path through the header validator,
+     * line checker, and if the line checker succeeds, send the checked/converted
+     * line to the consumer, using a precompiled
+     * {@link JSONExtractionPlan} and without building a {@link JsonNode} tree
+     * for each result row.
+     *
+     * @param path
+     *            The {@link Path} to the document. The encoding of textual
+     *            JSON is detected from the bytes.
+     * @param headersValidator
+     *            The validator of the header line. Throwing
+     *            IllegalArgumentException or other RuntimeExceptions causes the
+     *            parsing process to short-circuit after parsing the header
+     *            line, with a CSVStreamException being rethrown by this code.
+     * @param lineConverter
+     *            The validator and converter of lines, based on the header
+     *            line. If the lineChecker returns null, the line will not be
+     *            passed to the writer.
+     * @param resultConsumer
+     *            The consumer of the checked lines.
+     * @param basePath
+     *            The path to go to before checking the field paths. If the
+     *            basePath points to an array, each of the array elements are
+     *            matched separately with the fieldRelativePaths. If it points
+     *            to an object, the object is directly matched to obtain a
+     *            single result row. Otherwise an exception is thrown.
+     * @param plan
+     *            The compiled output headers and field relative paths, which
+     *            may be reused across calls.
+     * @param defaultValues
+     *            Default values for fields to use if there are either no, or
+     *            empty, values discovered in the document for given fields. The
+     *            default values are substituted in before the lineConverter
+     *            function is called.
+     * @param mapper
+     *            The {@link ObjectMapper} to use to parse the document. Its
+     *            {@link JsonFactory} determines the format, so a mapper created
+     *            with a binary factory such as Smile or CBOR parses that format.
+     * @param <T>
+     *            The type of the results that will be created by the
+     *            lineChecker and pushed into the writer {@link Consumer}.
+     * @throws IOException
+     *             If an error occurred accessing the input.
+     * @throws CSVStreamException
+     *             If an error occurred validating the input.
+     */
+    public static <T> void parseFields(final Path path,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JsonPointer basePath,
+            final JSONExtractionPlan plan, final Map<String, String> defaultValues,
+            final ObjectMapper mapper) throws IOException, CSVStreamException {
+        parseFieldValues(factory -> factory.createParser(Files.newInputStream(path)),
+                headersValidator, lineConverter, resultConsumer, basePath, plan, defaultValues,
+                mapper);
+    }
+
+    private static <T> void parseFieldValues(final ParserFactory input,
+            final Consumer<List<String>> headersValidator,
+            final BiFunction<List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JsonPointer basePath,
+            final JSONExtractionPlan plan, final Map<String, String> defaultValues,
+            final ObjectMapper mapper) throws IOException, CSVStreamException {
+        final Function<List<String>, List<String>> defaultValueReplacer = validate(
+                headersValidator, plan, defaultValues);
+        final List<String> headers = plan.getHeaders();
+        final JsonNodeFactory bigDecimalFactory = JSONExtractionPlan.bigDecimalFactory(mapper);
 
-        if (fieldRelativePaths.isEmpty()) {
+        parseRecords(input, basePath, mapper, parser -> {
+            final T apply = lineConverter.apply(headers,
+                    defaultValueReplacer.apply(plan.extract(parser, bigDecimalFactory)));
+
+            // Line checker returning null indicates that a value was
+            // not found, and will not be sent to the consumer.
+            if (apply != null) {
+                resultConsumer.accept(apply);
+            }
+        });
+    }
+
+    /**
+     * Check the field paths and headers before parsing.
+     * 
+     * @return A function that substitutes the default values into a line.
+     */
+    static Function<List<String>, List<String>> validate(
+            final Consumer<List<String>> headersValidator, final JSONExtractionPlan plan,
+            final Map<String, String> defaultValues) throws CSVStreamException {
+        if (plan.hasNoFieldPaths()) {
             throw new CSVStreamException("No field paths were set for JSONStream.parse");
         }
 
@@ -120,23 +1324,13 @@ public final class JSONStream {
         // .collect(Collectors.toCollection(ArrayList::new));
         // Collections.sort(headers, String::compareTo);
 
+        final List<String> outputHeaders = plan.getHeaders();
         try {
             headersValidator.accept(outputHeaders);
         } catch (final Exception e) {
             throw new CSVStreamException("Could not verify substituted headers for json file", e);
         }
 
-        final List<JsonPointer> fieldRelativePointers = new ArrayList<>(outputHeaders.size());
-        for (final String nextHeader : outputHeaders) {
-            if (fieldRelativePaths.containsKey(nextHeader)) {
-                final Optional<JsonPointer> optionalFieldRelativePath = fieldRelativePaths
-                        .get(nextHeader);
-                if (optionalFieldRelativePath.isPresent()) {
-                    fieldRelativePointers.add(optionalFieldRelativePath.get());
-                }
-            }
-        }
-
         final Function<List<String>, List<String>> defaultValueReplacer;
         // Trivial non-replacer if there were no default values set
         if (defaultValues.isEmpty()) {
@@ -169,15 +1363,56 @@ public final class JSONStream {
             };
         }
 
-        int lineCount = 0;
+        return defaultValueReplacer;
+    }
+
+    /**
+     * Creates the parser for the input using the {@link JsonFactory} from the
+     * mapper, so that the input is only opened after the headers have been
+     * validated.
+     */
+    interface ParserFactory {
+
+        JsonParser create(JsonFactory factory) throws IOException;
+    }
+
+    /**
+     * Create a parser for the remaining bytes in the buffer, without changing
+     * the position of the buffer.
+     */
+    static JsonParser createParser(final JsonFactory factory, final ByteBuffer buffer)
+            throws IOException {
+        if (buffer.hasArray()) {
+            return factory.createParser(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                    buffer.remaining());
+        }
+        return factory.createParser(new ByteBufferBackedInputStream(buffer.duplicate()));
+    }
+
+    /**
+     * Callback for each result record, with the parser positioned on the
+     * START_OBJECT token for the record. The callback must leave the parser
+     * on the matching END_OBJECT token.
+     */
+    interface RecordHandler {
+
+        void accept(JsonParser parser) throws IOException, CSVStreamException;
+    }
 
+    /**
+     * Find the records under the base path and send each of them to the
+     * handler.
+     */
+    static void parseRecords(final ParserFactory input, final JsonPointer basePath,
+            final ObjectMapper mapper, final RecordHandler handler)
+            throws IOException, CSVStreamException {
         // Parent must not be shown, so we can know whether it is an array or
         // object
         // after a single call to nextToken and to avoid encoding the last part
         // of the
         // base path into the fieldRelativePaths
         final boolean includeParent = false;
-        try (JsonParser baseParser = mapper.getFactory().createParser(reader);) {
+        try (JsonParser baseParser = input.create(mapper.getFactory());) {
             final String serialisedBasePath = basePath.toString();
             final JsonParser filteredParser;
             // Only use FilteringParserDelegate if the base path isn't the start
@@ -207,27 +1442,10 @@ public final class JSONStream {
                 // process the node as a whole
                 if (basePathToken == JsonToken.START_ARRAY) {
                     while (filteredParser.nextToken() == JsonToken.START_OBJECT) {
-                        // read everything from this START_OBJECT to the
-                        // matching END_OBJECT
-                        // and return it as a tree model JsonNode
-                        final JsonNode nextNode = mapper.readTree(filteredParser);
-
-                        convertNodeToResult(lineConverter, resultConsumer, basePath,
-                                fieldRelativePaths, outputHeaders, fieldRelativePointers,
-                                defaultValueReplacer, nextNode);
-                        lineCount++;
+                        handler.accept(filteredParser);
                     }
                 } else if (basePathToken == JsonToken.START_OBJECT) {
-                    final JsonNode baseNode = filteredParser.readValueAsTree();
-
-                    if (baseNode == null) {
-                        throw new CSVStreamException(
-                                "Path did not match anything: path='" + basePath.toString() + "'");
-                    }
-
-                    convertNodeToResult(lineConverter, resultConsumer, basePath, fieldRelativePaths,
-                            outputHeaders, fieldRelativePointers, defaultValueReplacer, baseNode);
-                    lineCount++;
+                    handler.accept(filteredParser);
                 } else {
                     throw new CSVStreamException(
                             "Base JSONPointer must point to either an Array or an Object: instead found "
@@ -243,6 +1461,372 @@ public final class JSONStream {
         }
     }
 
+    /**
+     * Create a handler that reads each JSON Lines record as a tree and sends
+     * the converted result to the consumer.
+     */
+    static <T> RecordHandler lineRecordHandler(
+            final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
+            final Consumer<T> resultConsumer, final JSONExtractionPlan plan,
+            final Function<List<String>, List<String>> defaultValueReplacer,
+            final ObjectMapper mapper) {
+        final List<String> headers = plan.getHeaders();
+        return parser -> {
+            final JsonNode nextNode = mapper.readTree(parser);
+            final T apply = lineConverter.apply(nextNode, headers,
+                    defaultValueReplacer.apply(plan.extract(nextNode)));
+
+            // Line checker returning null indicates that a value was
+            // not found, and will not be sent to the consumer.
+            if (apply != null) {
+                resultConsumer.accept(apply);
+            }
+        };
+    }
+
+    /**
+     * Send each of the top level objects from the given parser to the handler,
+     * closing the parser when it is exhausted.
+     */
+    static void parseLineRecords(final JsonParser parser, final RecordHandler handler)
+            throws IOException, CSVStreamException {
+        try {
+            JsonToken nextToken;
+            while ((nextToken = parser.nextToken()) != null) {
+                if (nextToken != JsonToken.START_OBJECT) {
+                    throw new CSVStreamException(
+                            "JSON Lines records must be objects: instead found " + nextToken
+                                    + " (line was " + parser.getTokenLocation().getLineNr()
+                                    + ")");
+                }
+                handler.accept(parser);
+            }
+        } catch (IOException | CSVStreamException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new CSVStreamException(e);
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * Writes objects from the given {@link Stream} to the given {@link Writer}
+     * as a JSON array of objects, converting them to a {@link List} of
+     * String's using the given {@link BiFunction}.
+     * 
+     * @param writer
+     *            The Writer that will receive the JSON document.
+     * @param objects
+     *            The Stream of objects to be written
+     * @param headers
+     *            The headers to use as the field names of the records.
+     * @param objectConverter
+     *            The function to convert an individual object to a record,
+     *            represented as a List of String's in the same order as the
+     *            headers. If it returns null, no record is written for the
+     *            object.
+     * @param <T>
+     *            The type of the objects to be converted.
+     * @throws IOException
+     *             If an error occurred accessing the output stream.
+     * @throws CSVStreamException
+     *             If an error occurred converting or serialising the objects.
+     */
+    public static <T> void write(final Writer writer, final Stream<T> objects,
+            final List<String> headers,
+            final BiFunction<List<String>, T, List<String>> objectConverter)
+            throws IOException, CSVStreamException {
+        write(writer, objects, headers, objectConverter, DEFAULT_MAPPER, false);
+    }
+
+    /**
+     * Writes objects from the given {@link Stream} to the given {@link Writer}
+     * as a JSON array of objects or as JSON Lines, converting them to a
+     * {@link List} of String's using the given {@link BiFunction}.
+     * 
+     * The records are written incrementally through a single
+     * {@link JsonGenerator}, without creating a tree for each record.
+     * 
+     * @param writer
+     *            The Writer that will receive the JSON document.
+     * @param objects
+     *            The Stream of objects to be written
+     * @param headers
+     *            The headers to use as the field names of the records.
+     * @param objectConverter
+     *            The function to convert an individual object to a record,
+     *            represented as a List of String's in the same order as the
+     *            headers. If it returns null, no record is written for the
+     *            object.
+     * @param mapper
+     *            The {@link ObjectMapper} whose {@link JsonFactory} creates the
+     *            {@link JsonGenerator}.
+     * @param lines
+     *            True to write one JSON object on each line, and false to
+     *            write a JSON array of objects.
+     * @param <T>
+     *            The type of the objects to be converted.
+     * @throws IOException
+     *             If an error occurred accessing the output stream.
+     * @throws CSVStreamException
+     *             If an error occurred converting or serialising the objects.
+     */
+    public static <T> void write(final Writer writer, final Stream<T> objects,
+            final List<String> headers,
+            final BiFunction<List<String>, T, List<String>> objectConverter,
+            final ObjectMapper mapper, final boolean lines)
+            throws IOException, CSVStreamException {
+        write(mapper.getFactory().createGenerator(writer), objects, headers, objectConverter,
+                lines);
+    }
+
+    /**
+     * Writes objects from the given {@link Stream} to the given {@link Writer}
+     * as a JSON array of objects or as JSON Lines, converting them to a
+     * {@link List} of String's using the given {@link BiFunction}, and
+     * converting and serialising chunks of the objects concurrently using the
+     * given {@link ForkJoinPool}.
+     * 
+     * The objects are taken from the stream on the calling thread, and the
+     * serialised chunks are written in their original order. The number of
+     * chunks that are being serialised or are waiting to be written is
+     * bounded by maxChunksInFlight.
+     * 
+     * @param writer
+     *            The Writer that will receive the JSON document.
+     * @param objects
+     *            The Stream of objects to be written
+     * @param headers
+     *            The headers to use as the field names of the records.
+     * @param objectConverter
+     *            The function to convert an individual object to a record,
+     *            represented as a List of String's in the same order as the
+     *            headers. If it returns null, no record is written for the
+     *            object.
+     *            It may be called concurrently for different objects.
+     * @param mapper
+     *            The {@link ObjectMapper} whose {@link JsonFactory} creates the
+     *            {@link JsonGenerator}.
+     * @param lines
+     *            True to write one JSON object on each line, and false to
+     *            write a JSON array of objects.
+     * @param pool
+     *            The {@link ForkJoinPool} to convert and serialise the chunks
+     *            on.
+     * @param chunkSize
+     *            The number of objects in each chunk.
+     * @param maxChunksInFlight
+     *            The maximum number of chunks that may be waiting to be
+     *            serialised or written at any time.
+     * @param <T>
+     *            The type of the objects to be converted.
+     * @throws IOException
+     *             If an error occurred accessing the output stream.
+     * @throws CSVStreamException
+     *             If an error occurred converting or serialising the objects.
+     */
+    public static <T> void writeParallel(final Writer writer, final Stream<T> objects,
+            final List<String> headers,
+            final BiFunction<List<String>, T, List<String>> objectConverter,
+            final ObjectMapper mapper, final boolean lines, final ForkJoinPool pool,
+            final int chunkSize, final int maxChunksInFlight)
+            throws IOException, CSVStreamException {
+        JSONParallelWriter.write(writer, objects, headers, objectConverter, mapper, lines, pool,
+                chunkSize, maxChunksInFlight);
+    }
+
+    /**
+     * Writes objects from the given {@link Stream} to the given {@link OutputStream}
+     * as a JSON array of objects, converting them to a {@link List} of
+     * String's using the given {@link BiFunction}.
+     * 
+     * @param outputStream
+     *            The OutputStream that will receive the UTF-8 JSON document.
+     * @param objects
+     *            The Stream of objects to be written
+     * @param headers
+     *            The headers to use as the field names of the records.
+     * @param objectConverter
+     *            The function to convert an individual object to a record,
+     *            represented as a List of String's in the same order as the
+     *            headers. If it returns null, no record is written for the
+     *            object.
+     * @param <T>
+     *            The type of the objects to be converted.
+     * @throws IOException
+     *             If an error occurred accessing the output stream.
+     * @throws CSVStreamException
+     *             If an error occurred converting or serialising the objects.
+     */
+    public static <T> void write(final OutputStream outputStream, final Stream<T> objects,
+            final List<String> headers,
+            final BiFunction<List<String>, T, List<String>> objectConverter)
+            throws IOException, CSVStreamException {
+        write(outputStream, objects, headers, objectConverter, DEFAULT_MAPPER, false);
+    }
+
+    /**
+     * Writes objects from the given {@link Stream} to the given {@link OutputStream}
+     * as a JSON array of objects or as JSON Lines, converting them to a
+     * {@link List} of String's using the given {@link BiFunction}.
+     * 
+     * The records are written incrementally through a single
+     * {@link JsonGenerator}, without creating a tree for each record.
+     * 
+     * @param outputStream
+     *            The OutputStream that will receive the UTF-8 JSON document.
+     * @param objects
+     *            The Stream of objects to be written
+     * @param headers
+     *            The headers to use as the field names of the records.
+     * @param objectConverter
+     *            The function to convert an individual object to a record,
+     *            represented as a List of String's in the same order as the
+     *            headers. If it returns null, no record is written for the
+     *            object.
+     * @param mapper
+     *            The {@link ObjectMapper} whose {@link JsonFactory} creates the
+     *            {@link JsonGenerator}.
+     * @param lines
+     *            True to write one JSON object on each line, and false to
+     *            write a JSON array of objects.
+     * @param <T>
+     *            The type of the objects to be converted.
+     * @throws IOException
+     *             If an error occurred accessing the output stream.
+     * @throws CSVStreamException
+     *             If an error occurred converting or serialising the objects.
+     */
+    public static <T> void write(final OutputStream outputStream, final Stream<T> objects,
+            final List<String> headers,
+            final BiFunction<List<String>, T, List<String>> objectConverter,
+            final ObjectMapper mapper, final boolean lines)
+            throws IOException, CSVStreamException {
+        write(mapper.getFactory().createGenerator(outputStream), objects, headers, objectConverter,
+                lines);
+    }
+
+    /**
+     * Writes objects from the given {@link Stream} to the given {@link OutputStream}
+     * as a JSON array of objects or as JSON Lines, converting them to a
+     * {@link List} of String's using the given {@link BiFunction}, and
+     * converting and serialising chunks of the objects concurrently using the
+     * given {@link ForkJoinPool}.
+     * 
+     * The objects are taken from the stream on the calling thread, and the
+     * serialised chunks are written in their original order. The number of
+     * chunks that are being serialised or are waiting to be written is
+     * bounded by maxChunksInFlight.
+     * 
+     * @param outputStream
+     *            The OutputStream that will receive the UTF-8 JSON document.
+     * @param objects
+     *            The Stream of objects to be written
+     * @param headers
+     *            The headers to use as the field names of the records.
+     * @param objectConverter
+     *            The function to convert an individual object to a record,
+     *            represented as a List of String's in the same order as the
+     *            headers. If it returns null, no record is written for the
+     *            object.
+     *            It may be called concurrently for different objects.
+     * @param mapper
+     *            The {@link ObjectMapper} whose {@link JsonFactory} creates the
+     *            {@link JsonGenerator}.
+     * @param lines
+     *            True to write one JSON object on each line, and false to
+     *            write a JSON array of objects.
+     * @param pool
+     *            The {@link ForkJoinPool} to convert and serialise the chunks
+     *            on.
+     * @param chunkSize
+     *            The number of objects in each chunk.
+     * @param maxChunksInFlight
+     *            The maximum number of chunks that may be waiting to be
+     *            serialised or written at any time.
+     * @param <T>
+     *            The type of the objects to be converted.
+     * @throws IOException
+     *             If an error occurred accessing the output stream.
+     * @throws CSVStreamException
+     *             If an error occurred converting or serialising the objects.
+     */
+    public static <T> void writeParallel(final OutputStream outputStream, final Stream<T> objects,
+            final List<String> headers,
+            final BiFunction<List<String>, T, List<String>> objectConverter,
+            final ObjectMapper mapper, final boolean lines, final ForkJoinPool pool,
+            final int chunkSize, final int maxChunksInFlight)
+            throws IOException, CSVStreamException {
+        JSONParallelWriter.write(outputStream, objects, headers, objectConverter, mapper, lines,
+                pool, chunkSize, maxChunksInFlight);
+    }
+
+    private static <T> void write(final JsonGenerator generator, final Stream<T> objects,
+            final List<String> headers,
+            final BiFunction<List<String>, T, List<String>> objectConverter, final boolean lines)
+            throws IOException, CSVStreamException {
+        final SerializableString[] fieldNames = fieldNames(headers);
+        try {
+            if (lines) {
+                generator.setRootValueSeparator(null);
+            } else {
+                generator.writeStartArray();
+            }
+            objects.forEachOrdered(o -> {
+                try {
+                    if (writeRecord(generator, fieldNames, objectConverter.apply(headers, o))
+                            && lines) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (Exception e) {
+                    throw new CSVStreamException("Could not write object out", e);
+                }
+            });
+            if (!lines) {
+                generator.writeEndArray();
+            }
+        } finally {
+            generator.close();
+        }
+    }
+
+    /**
+     * Serialise the headers once, so that they are not escaped again for
+     * each record.
+     */
+    static SerializableString[] fieldNames(final List<String> headers) {
+        final SerializableString[] result = new SerializableString[headers.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new SerializedString(headers.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Write a single record as a JSON object with the given field names.
+     * 
+     * @return True if a record was written, and false if the record was null.
+     */
+    static boolean writeRecord(final JsonGenerator generator,
+            final SerializableString[] fieldNames, final List<String> record)
+            throws IOException, CSVStreamException {
+        if (record == null) {
+            return false;
+        }
+        if (record.size() != fieldNames.length) {
+            throw new CSVStreamException("Record did not match the number of headers: expected "
+                    + fieldNames.length + " but found " + record.size());
+        }
+        generator.writeStartObject();
+        for (int i = 0; i < fieldNames.length; i++) {
+            generator.writeFieldName(fieldNames[i]);
+            generator.writeString(record.get(i));
+        }
+        generator.writeEndObject();
+        return true;
+    }
+
     public static <T> void convertNodeToResult(
             final TriFunction<JsonNode, List<String>, List<String>, T> lineConverter,
             final Consumer<T> resultConsumer, final JsonPointer basePath,
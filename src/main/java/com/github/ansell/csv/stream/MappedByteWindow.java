@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * A {@link ByteWindow} over a memory mapped range of a {@link FileChannel}.
+ * Each window is a separate read only mapping, so earlier buffers stay valid
+ * after the window moves.
+ * 
+ * Closing this window does not close the underlying channel.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class MappedByteWindow extends ByteWindow {
+
+    /**
+     * The default maximum size of each mapping. Mappings are lazily paged in
+     * by the operating system, so this only limits the address space in use.
+     */
+    static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final long end;
+    private int windowSize;
+
+    /**
+     * @param channel
+     *            The channel to map.
+     * @param start
+     *            The first byte offset, inclusive, to map.
+     * @param end
+     *            The last byte offset, exclusive, to map.
+     * @param windowSize
+     *            The maximum size of each mapping.
+     * @throws IOException
+     *             If there was an error mapping the channel.
+     */
+    MappedByteWindow(final FileChannel channel, final long start, final long end,
+            final int windowSize) throws IOException {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be positive.");
+        }
+        this.channel = channel;
+        this.end = end;
+        this.windowSize = windowSize;
+        map(start);
+    }
+
+    @Override
+    boolean isEnd() {
+        return offset + buffer.limit() >= end;
+    }
+
+    @Override
+    boolean advance(final int from) throws IOException {
+        final boolean more = !isEnd();
+        if (more && from == 0 && buffer.limit() >= windowSize) {
+            windowSize = growWindowSize(windowSize);
+        }
+        map(offset + from);
+        return more;
+    }
+
+    @Override
+    public void close() {
+        // Mappings are released when they are garbage collected
+        buffer = null;
+    }
+
+    private void map(final long start) throws IOException {
+        offset = start;
+        buffer = channel.map(MapMode.READ_ONLY, start, Math.min(windowSize, end - start));
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link ByteWindow} that reads from an {@link InputStream} into a single
+ * heap buffer, which is compacted and reused as the window moves, and grown if
+ * a single record does not fit into it.
+ * 
+ * Closing this window closes the underlying stream.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class StreamByteWindow extends ByteWindow {
+
+    /**
+     * The default initial size of the buffer.
+     */
+    static final int DEFAULT_WINDOW_SIZE = 64 * 1024;
+
+    private final InputStream input;
+    private boolean end;
+
+    /**
+     * @param input
+     *            The stream to read from.
+     * @param windowSize
+     *            The initial size of the buffer.
+     * @throws IOException
+     *             If there was an error reading from the stream.
+     */
+    StreamByteWindow(final InputStream input, final int windowSize) throws IOException {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be positive.");
+        }
+        this.input = input;
+        this.buffer = ByteBuffer.allocate(windowSize);
+        this.buffer.limit(0);
+        fill();
+    }
+
+    @Override
+    boolean isEnd() {
+        return end;
+    }
+
+    @Override
+    boolean advance(final int from) throws IOException {
+        final byte[] bytes = buffer.array();
+        final int remaining = buffer.limit() - from;
+        if (from > 0) {
+            System.arraycopy(bytes, from, bytes, 0, remaining);
+        } else if (remaining == bytes.length) {
+            final ByteBuffer grown = ByteBuffer.allocate(growWindowSize(bytes.length));
+            System.arraycopy(bytes, 0, grown.array(), 0, remaining);
+            buffer = grown;
+        }
+        buffer.limit(remaining);
+        offset += from;
+        return fill();
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    private boolean fill() throws IOException {
+        if (end) {
+            return false;
+        }
+        final byte[] bytes = buffer.array();
+        final int limit = buffer.limit();
+        int count = 0;
+        while (count == 0) {
+            count = input.read(bytes, limit, bytes.length - limit);
+        }
+        if (count < 0) {
+            end = true;
+            return false;
+        }
+        buffer.limit(limit + count);
+        return true;
+    }
+}
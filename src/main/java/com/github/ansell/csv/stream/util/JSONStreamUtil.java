@@ -25,6 +25,8 @@
  */
 package com.github.ansell.csv.stream.util;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringWriter;
@@ -32,6 +34,13 @@ import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import com.fasterxml.jackson.core.JsonFactory;
@@ -39,8 +48,13 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonPointer;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.filter.JsonPointerBasedFilter;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
 
 /**
  * JSON utilities used by CSV and JSON processors.
@@ -55,6 +69,19 @@ public class JSONStreamUtil {
     private JSONStreamUtil() {
     }
     
+	/**
+	 * The default number of spaces that
+	 * {@link #toPrettyPrint(Reader, Writer)} indents each level of nested
+	 * objects by.
+	 */
+	public static final int DEFAULT_PRETTY_PRINT_INDENT = 2;
+
+	/**
+	 * The default size, in characters, of the input and output buffers for
+	 * {@link #toPrettyPrint(Reader, Writer)}.
+	 */
+	public static final int DEFAULT_PRETTY_PRINT_BUFFER_SIZE = 64 * 1024;
+
 	private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
 	private static final JsonFactory JSON_FACTORY = new JsonFactory(JSON_MAPPER);
 	public static JsonNode loadJSON(Path path) throws JsonProcessingException, IOException {
@@ -71,9 +98,209 @@ public class JSONStreamUtil {
 		return queryJSON(input, JsonPointer.compile(jpath));
 	}
 
+	/**
+	 * Find the value at the given pointer in a JSON document, reading only as
+	 * far into the document as is needed to find the value.
+	 * 
+	 * @param input
+	 *            The {@link Reader} containing the JSON document.
+	 * @param jpath
+	 *            The pointer to the value.
+	 * @return The text of the value, as given by {@link JsonNode#asText()}.
+	 *         Missing values and containers give an empty string.
+	 * @throws IOException
+	 *             If there was an error reading the document.
+	 */
 	public static String queryJSON(Reader input, JsonPointer jpath) throws JsonProcessingException, IOException {
-		JsonNode root = JSON_MAPPER.readTree(input);
-		return queryJSONNode(root, jpath).asText();
+		return queryJSONNode(input, jpath).asText();
+	}
+
+	/**
+	 * Find the values at several pointers in a single pass over a JSON
+	 * document, stopping as soon as all of them have been found.
+	 * 
+	 * @param input
+	 *            The {@link Reader} containing the JSON document.
+	 * @param jpaths
+	 *            The pointers to the values.
+	 * @return A map from each of the pointers, in iteration order, to the
+	 *         text of its value, as given by {@link JsonNode#asText()}.
+	 * @throws IOException
+	 *             If there was an error reading the document.
+	 */
+	public static Map<JsonPointer, String> queryJSON(Reader input, Collection<JsonPointer> jpaths)
+			throws JsonProcessingException, IOException {
+		final Map<JsonPointer, JsonNode> nodes = queryJSONNodes(input, jpaths);
+		final Map<JsonPointer, String> result = new LinkedHashMap<>();
+		nodes.forEach((k, v) -> result.put(k, v.asText()));
+		return result;
+	}
+
+	/**
+	 * Find the value at the given pointer in a JSON document, returning as
+	 * soon as the value has been read. Only the value itself is read as a
+	 * tree, and the rest of the document is skipped.
+	 * 
+	 * @param input
+	 *            The {@link Reader} containing the JSON document.
+	 * @param jpath
+	 *            The pointer to the value.
+	 * @return The value, or a {@link MissingNode} if the pointer did not match
+	 *         a value in the document.
+	 * @throws IOException
+	 *             If there was an error reading the document.
+	 */
+	public static JsonNode queryJSONNode(Reader input, JsonPointer jpath)
+			throws JsonProcessingException, IOException {
+		// A FilteringParserDelegate would keep searching through any values
+		// after the first root value, so the trie walk is used instead
+		return queryJSONNodes(input, Collections.singletonList(jpath)).get(jpath);
+	}
+
+	/**
+	 * Find the values at several pointers in a single pass over a JSON
+	 * document, stopping as soon as all of them have been found. Subtrees of
+	 * the document that do not contain any of the values are skipped without
+	 * being read as trees. As with {@link JsonPointerBasedFilter}, only the
+	 * first match for each pointer is used.
+	 * 
+	 * @param input
+	 *            The {@link Reader} containing the JSON document.
+	 * @param jpaths
+	 *            The pointers to the values.
+	 * @return A map from each of the pointers, in iteration order, to its
+	 *         value, or to a {@link MissingNode} if the pointer did not match a
+	 *         value in the document.
+	 * @throws IOException
+	 *             If there was an error reading the document.
+	 */
+	public static Map<JsonPointer, JsonNode> queryJSONNodes(Reader input,
+			Collection<JsonPointer> jpaths) throws JsonProcessingException, IOException {
+		final Map<JsonPointer, JsonNode> result = new LinkedHashMap<>();
+		final QueryNode root = new QueryNode(-1);
+		for (final JsonPointer nextPath : jpaths) {
+			result.put(nextPath, MissingNode.getInstance());
+			QueryNode node = root;
+			for (JsonPointer segment = nextPath; !segment.matches(); segment = segment.tail()) {
+				final int elementIndex = segment.getMatchingIndex();
+				node = node.children.computeIfAbsent(segment.getMatchingProperty(),
+						k -> new QueryNode(elementIndex));
+			}
+			if (node.paths.isEmpty()) {
+				root.remaining++;
+			}
+			node.paths.add(nextPath);
+		}
+		if (root.remaining > 0) {
+			try (final JsonParser parser = JSON_FACTORY.createParser(input);) {
+				if (parser.nextToken() != null) {
+					query(parser, root, root, result);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Query the value that the parser is positioned on, which is at the
+	 * location of the given node in the trie.
+	 */
+	private static void query(JsonParser parser, QueryNode node, QueryNode root,
+			Map<JsonPointer, JsonNode> result) throws IOException {
+		if (!node.paths.isEmpty()) {
+			if (node.matched) {
+				// Only the first match is used, as for JsonPointerBasedFilter
+				parser.skipChildren();
+			} else {
+				resolve(JSON_MAPPER.readTree(parser), node, root, result);
+			}
+			return;
+		}
+		final JsonToken token = parser.currentToken();
+		if (token == JsonToken.START_OBJECT) {
+			while (root.remaining > 0 && parser.nextToken() == JsonToken.FIELD_NAME) {
+				final QueryNode child = node.children.get(parser.getCurrentName());
+				parser.nextToken();
+				if (child == null) {
+					parser.skipChildren();
+				} else {
+					query(parser, child, root, result);
+				}
+			}
+		} else if (token == JsonToken.START_ARRAY) {
+			int index = 0;
+			while (root.remaining > 0 && parser.nextToken() != JsonToken.END_ARRAY) {
+				final QueryNode child = node.element(index++);
+				if (child == null) {
+					parser.skipChildren();
+				} else {
+					query(parser, child, root, result);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Set the results for the node, and any nodes inside it, from a tree that
+	 * has already been read.
+	 */
+	private static void resolve(JsonNode value, QueryNode node, QueryNode root,
+			Map<JsonPointer, JsonNode> result) {
+		if (!node.paths.isEmpty()) {
+			if (node.matched) {
+				// Only the first match is used, as for JsonPointerBasedFilter
+				return;
+			}
+			node.matched = true;
+			root.remaining--;
+			for (final JsonPointer nextPath : node.paths) {
+				result.put(nextPath, value);
+			}
+		}
+		node.children.forEach((k, v) -> {
+			final JsonNode childValue;
+			if (value.isObject()) {
+				childValue = value.get(k);
+			} else if (value.isArray() && v.elementIndex >= 0) {
+				childValue = value.get(v.elementIndex);
+			} else {
+				childValue = null;
+			}
+			if (childValue != null) {
+				resolve(childValue, v, root, result);
+			}
+		});
+	}
+
+	/**
+	 * A node in the trie of query pointers. The root node also counts the
+	 * nodes with pointers that have not been matched yet.
+	 */
+	private static final class QueryNode {
+
+		private final int elementIndex;
+		private final Map<String, QueryNode> children = new HashMap<>();
+		private final List<JsonPointer> paths = new ArrayList<>(1);
+		private boolean matched;
+		private int remaining;
+
+		QueryNode(int elementIndex) {
+			this.elementIndex = elementIndex;
+		}
+
+		/**
+		 * @return The child for the array element with the given index, or null
+		 *         if no pointers go through the element.
+		 */
+		QueryNode element(int index) {
+			final QueryNode child = children.get(Integer.toString(index));
+			return child != null && child.elementIndex == index ? child : null;
+		}
+	}
+
+	public static JsonNode queryJSONNode(Reader input, String jpath)
+			throws JsonProcessingException, IOException {
+		return queryJSONNode(input, JsonPointer.compile(jpath));
 	}
 
 	public static JsonNode queryJSONNode(JsonNode input, String jpath) throws JsonProcessingException, IOException {
@@ -94,11 +321,71 @@ public class JSONStreamUtil {
 		return queryJSONNode(input, jpath).asText();
 	}
 
+	/**
+	 * Reformat a JSON document using the default indent, copying tokens from
+	 * the input to the output so that documents of any size can be formatted
+	 * in constant memory.
+	 * 
+	 * @param input
+	 *            The {@link Reader} containing the JSON document. It is not
+	 *            closed by this method.
+	 * @param output
+	 *            The {@link Writer} to write the formatted document to. It is
+	 *            flushed, but not closed, by this method.
+	 * @throws IOException
+	 *             If there was an error reading or writing the document.
+	 * @see #toPrettyPrint(Reader, Writer, int, int)
+	 */
 	public static void toPrettyPrint(Reader input, Writer output) throws IOException {
-		final JsonGenerator jw = JSON_FACTORY.createGenerator(output);
-		jw.useDefaultPrettyPrinter();
-		JsonParser parser = JSON_FACTORY.createParser(input);
-		jw.writeObject(parser.readValueAsTree());
+		toPrettyPrint(input, output, DEFAULT_PRETTY_PRINT_INDENT, DEFAULT_PRETTY_PRINT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Reformat a JSON document, copying tokens from the input to the output so
+	 * that documents of any size can be formatted in constant memory. If the
+	 * input contains more than one root level value, such as in a JSON Lines
+	 * file, each value is formatted starting on a new line.
+	 * 
+	 * @param input
+	 *            The {@link Reader} containing the JSON document. It is not
+	 *            closed by this method.
+	 * @param output
+	 *            The {@link Writer} to write the formatted document to. It is
+	 *            flushed, but not closed, by this method.
+	 * @param indent
+	 *            The number of spaces to indent each level of nested objects
+	 *            by.
+	 * @param bufferSize
+	 *            The size, in characters, of the buffers used to read from the
+	 *            input and write to the output.
+	 * @throws IOException
+	 *             If there was an error reading or writing the document.
+	 */
+	public static void toPrettyPrint(Reader input, Writer output, int indent, int bufferSize)
+			throws IOException {
+		if (indent < 0) {
+			throw new IllegalArgumentException("Indent must not be negative: " + indent);
+		}
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+		}
+		final char[] spaces = new char[indent];
+		Arrays.fill(spaces, ' ');
+		final DefaultPrettyPrinter prettyPrinter = new DefaultPrettyPrinter(DefaultIndenter.SYS_LF)
+				.withObjectIndenter(
+						new DefaultIndenter(new String(spaces), DefaultIndenter.SYS_LF));
+		final Writer bufferedOutput = new BufferedWriter(output, bufferSize);
+		try (final JsonParser parser = JSON_FACTORY
+				.createParser(new BufferedReader(input, bufferSize))
+				.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+				final JsonGenerator generator = JSON_FACTORY.createGenerator(bufferedOutput)
+						.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+						.setPrettyPrinter(prettyPrinter);) {
+			while (parser.nextToken() != null) {
+				generator.copyCurrentEvent(parser);
+			}
+		}
+		bufferedOutput.flush();
 	}
 
 	public static void toPrettyPrint(Map<String, Object> input, Writer output) throws IOException {
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * 
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import static org.junit.Assert.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Tests for {@link BatchingConsumer}.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public class BatchingConsumerTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public final void testBatches() throws Exception {
+		List<List<Integer>> batches = new ArrayList<>();
+		try (BatchingConsumer<Integer> batcher = BatchingConsumer.of(b -> batches.add(new ArrayList<>(b)), 3);) {
+			for (int i = 0; i < 8; i++) {
+				batcher.accept(i);
+			}
+			assertEquals(2, batches.size());
+		}
+		assertEquals(Arrays.asList(Arrays.asList(0, 1, 2), Arrays.asList(3, 4, 5), Arrays.asList(6, 7)), batches);
+	}
+
+	@Test
+	public final void testBatchListIsReused() throws Exception {
+		List<List<Integer>> seen = new ArrayList<>();
+		try (BatchingConsumer<Integer> batcher = BatchingConsumer.of(seen::add, 2);) {
+			for (int i = 0; i < 6; i++) {
+				batcher.accept(i);
+			}
+		}
+		assertEquals(3, seen.size());
+		for (List<Integer> nextBatch : seen) {
+			assertTrue(nextBatch.isEmpty());
+		}
+	}
+
+	@Test
+	public final void testBatchIsUnmodifiable() throws Exception {
+		thrown.expect(UnsupportedOperationException.class);
+		try (BatchingConsumer<Integer> batcher = BatchingConsumer.of(b -> b.clear(), 1);) {
+			batcher.accept(1);
+		}
+	}
+
+	@Test
+	public final void testBatchDeliveredOnceWhenConsumerFails() throws Exception {
+		AtomicBoolean failNext = new AtomicBoolean(true);
+		List<List<Integer>> delivered = new ArrayList<>();
+		List<List<Integer>> batches = new ArrayList<>();
+		BatchingConsumer<Integer> batcher = BatchingConsumer.of(b -> {
+			delivered.add(new ArrayList<>(b));
+			if (failNext.getAndSet(false)) {
+				throw new IllegalStateException("Could not write batch");
+			}
+			batches.add(new ArrayList<>(b));
+		}, 2);
+		batcher.accept(1);
+		try {
+			batcher.accept(2);
+			fail("Batch consumer failure was not rethrown");
+		} catch (IllegalStateException e) {
+			assertEquals("Could not write batch", e.getMessage());
+		}
+		assertTrue(batches.isEmpty());
+		batcher.accept(3);
+		batcher.close();
+		assertEquals(Arrays.asList(Arrays.asList(1, 2), Collections.singletonList(3)), delivered);
+		assertEquals(Arrays.asList(Collections.singletonList(3)), batches);
+	}
+
+	@Test
+	public final void testAcceptWhileBatchConsumerRuns() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch accepted = new CountDownLatch(1);
+		AtomicBoolean blocked = new AtomicBoolean();
+		List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+		BatchingConsumer<Integer> batcher = BatchingConsumer.of(b -> {
+			batches.add(new ArrayList<>(b));
+			started.countDown();
+			try {
+				if (!accepted.await(10, TimeUnit.SECONDS)) {
+					blocked.set(true);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, 2);
+		Thread producer = new Thread(() -> {
+			batcher.accept(1);
+			batcher.accept(2);
+		});
+		producer.start();
+		assertTrue("Batch consumer was not called", started.await(10, TimeUnit.SECONDS));
+		batcher.accept(3);
+		accepted.countDown();
+		producer.join();
+		assertFalse("Accept was blocked by the batch consumer", blocked.get());
+		batcher.close();
+		assertEquals(Arrays.asList(Arrays.asList(1, 2), Collections.singletonList(3)), batches);
+	}
+
+	@Test
+	public final void testFlush() throws Exception {
+		List<List<Integer>> batches = new ArrayList<>();
+		try (BatchingConsumer<Integer> batcher = BatchingConsumer.of(b -> batches.add(new ArrayList<>(b)), 10);) {
+			batcher.flush();
+			assertTrue(batches.isEmpty());
+			batcher.accept(1);
+			batcher.flush();
+			batcher.accept(2);
+		}
+		assertEquals(Arrays.asList(Collections.singletonList(1), Collections.singletonList(2)), batches);
+	}
+
+	@Test
+	public final void testMaxLatency() throws Exception {
+		CountDownLatch flushed = new CountDownLatch(1);
+		List<List<Integer>> batches = Collections.synchronizedList(new ArrayList<>());
+		try (BatchingConsumer<Integer> batcher = BatchingConsumer.of(b -> {
+			batches.add(new ArrayList<>(b));
+			flushed.countDown();
+		}, 100, Duration.ofMillis(20));) {
+			batcher.accept(1);
+			batcher.accept(2);
+			// Nothing else flushes before close, so the timer flushed the
+			// partial batch, possibly before the second value was accepted
+			assertTrue("Partial batch was not flushed", flushed.await(10, TimeUnit.SECONDS));
+			batcher.accept(3);
+		}
+		assertEquals(Arrays.asList(1, 2, 3), batches.stream().flatMap(List::stream).collect(Collectors.toList()));
+	}
+
+	@Test
+	public final void testMaxLatencyFailure() throws Exception {
+		CountDownLatch flushed = new CountDownLatch(1);
+		BatchingConsumer<Integer> batcher = BatchingConsumer.of(b -> {
+			flushed.countDown();
+			throw new IllegalStateException("Could not write batch");
+		}, 100, Duration.ofMillis(1));
+		batcher.accept(1);
+		assertTrue("Partial batch was not flushed", flushed.await(10, TimeUnit.SECONDS));
+		thrown.expect(IllegalStateException.class);
+		thrown.expectMessage("Could not write batch");
+		// The failure is recorded after the batch consumer throws, so it may
+		// not be visible immediately after the latch is released
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (System.nanoTime() < deadline) {
+			batcher.flush();
+			Thread.sleep(1);
+		}
+	}
+
+	@Test
+	public final void testClosed() throws Exception {
+		BatchingConsumer<Integer> batcher = BatchingConsumer.of(b -> {
+		}, 1);
+		batcher.close();
+		batcher.close();
+		thrown.expect(IllegalStateException.class);
+		thrown.expectMessage("Batching consumer was closed");
+		batcher.accept(1);
+	}
+
+	@Test
+	public final void testInvalidBatchSize() throws Exception {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Batch size must be positive.");
+		BatchingConsumer.of(b -> {
+		}, 0);
+	}
+
+	@Test
+	public final void testInvalidMaxLatency() throws Exception {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Maximum latency must be positive");
+		BatchingConsumer.of(b -> {
+		}, 10, Duration.ZERO);
+	}
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * 
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * Tests for {@link CSVByteTokenizer}, verifying that it tokenises records in
+ * the same way as the Jackson CSV parser configured by
+ * {@link CSVStream#defaultMapper()}.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public class CSVByteTokenizerTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	private static final int[] WINDOW_SIZES = { 1, 2, 3, 5, 8, 64, MappedByteWindow.DEFAULT_WINDOW_SIZE };
+
+	private static final List<String> EDGE_CASES = Arrays.asList("", "h1", "h1,h2\n", "h1,h2\n\nx,y\n",
+			"h1,h2\n# comment, \"q\nx,y\n", "h1,h2\n  # indented comment\nx,y\n", "h1,h2\n  a  , \" b \" \nx,y",
+			"h1,h2\r\na,b\r\n\r\n", "h1,h2\n a\tb\t, c\n", "h1,h2\n\"a\"\"b\",\"c\nd\"\n", "h1,h2\nx#y,z\n#\n",
+			"h1\n\"\"\nx\n", "h1\n\"\" \nx", "h1,h2\n,\n", "h1\rx\ry\r", "h1\nx\"y\n", "h1\n\"\"\"\"\n",
+			"h1,h2\na,b,\n", "h1,h2\n   \n", "h1,h2\n\"a\" ,b\n", "\uFEFFh1,h2\na,b\n", "h1\n\u00e9t\u00e9 \n",
+			"h1,h2\n\"\u00e9\"\"t\u00e9\",\u4e2d\u6587\n", "h1,h2\na,b", "h1,h2\na,\"b\"",
+			"h1\n\"\uD83D\uDE00\"\"x\"\n");
+
+	@Test
+	public final void testEdgeCases() throws Exception {
+		for (String nextInput : EDGE_CASES) {
+			assertSameAsJackson(nextInput);
+		}
+	}
+
+	@Test
+	public final void testRandomDocuments() throws Exception {
+		Random random = new Random(42);
+		String[] pieces = { "a", "bc", " ", "\t", ",", "\"", "\n", "\r\n", "#", "\u00e9", "\u4e2d", "xyz" };
+		for (int document = 0; document < 200; document++) {
+			StringBuilder input = new StringBuilder("h1,h2,h3\n");
+			int rows = random.nextInt(10);
+			for (int r = 0; r < rows; r++) {
+				for (int c = 0; c < 3; c++) {
+					if (c > 0) {
+						input.append(',');
+					}
+					StringBuilder value = new StringBuilder();
+					int length = random.nextInt(5);
+					for (int i = 0; i < length; i++) {
+						value.append(pieces[random.nextInt(pieces.length)]);
+					}
+					if (random.nextBoolean()) {
+						input.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+					} else {
+						input.append(value.toString().replaceAll("[\",\r\n#]", ""));
+					}
+				}
+				input.append(random.nextBoolean() ? "\n" : "\r\n");
+				if (random.nextInt(5) == 0) {
+					input.append(random.nextBoolean() ? "\n" : "# comment \"\n");
+				}
+			}
+			assertSameAsJackson(input.toString());
+		}
+	}
+
+	@Test
+	public final void testMissingClosingQuote() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Missing closing quote for value at byte 3");
+		tokenize("h1\n\"a\nb", CSVStream.defaultSchema(), 64);
+	}
+
+	@Test
+	public final void testCharactersAfterClosingQuote() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Expected column separator character or end-of-line after quoted value at byte 11");
+		tokenize("h1,h2\na,\"b\"c\n", CSVStream.defaultSchema(), 64);
+	}
+
+	@Test
+	public final void testTabSeparatorWithoutQuotes() throws Exception {
+		CsvSchema schema = CsvSchema.builder().disableQuoteChar().setColumnSeparator('\t').build();
+		assertEquals(Arrays.asList(Arrays.asList("h1", "h2"), Arrays.asList("\"a\"", "b,c")),
+				tokenize("h1\th2\n\"a\"\tb,c\n", schema, 3));
+	}
+
+	@Test
+	public final void testSupports() throws Exception {
+		assertTrue(CSVByteTokenizer.supports(CSVStream.defaultSchema()));
+		assertTrue(CSVByteTokenizer.supports(CSVStream.defaultSchema().withColumnSeparator('|')));
+		assertFalse(CSVByteTokenizer.supports(CSVStream.defaultSchema().withEscapeChar('\\')));
+		assertFalse(CSVByteTokenizer.supports(CSVStream.defaultSchema().withColumnSeparator('\u00a7')));
+		assertFalse(CSVByteTokenizer.supports(CSVStream.buildSchema(Arrays.asList("h1"))));
+	}
+
+	private void assertSameAsJackson(String input) throws Exception {
+		List<List<String>> expected = new ArrayList<>();
+		Exception expectedException = null;
+		try (MappingIterator<List<String>> it = CSVStream.defaultMapper().readerFor(List.class)
+				.with(CSVStream.defaultSchema()).readValues(new StringReader(input))) {
+			while (it.hasNext()) {
+				expected.add(it.next());
+			}
+		} catch (RuntimeException e) {
+			expectedException = e;
+		}
+
+		for (int nextWindowSize : WINDOW_SIZES) {
+			String message = "Window size " + nextWindowSize + " input: " + input.replace("\n", "\\n").replace("\r", "\\r");
+			try {
+				List<List<String>> actual = tokenize(input, CSVStream.defaultSchema(), nextWindowSize);
+				assertNull(message + " expected exception " + expectedException, expectedException);
+				// Jackson does not skip the byte order mark
+				if (!expected.isEmpty() && expected.get(0).get(0).startsWith("\uFEFF")) {
+					expected.get(0).set(0, expected.get(0).get(0).substring(1));
+				}
+				assertEquals(message, expected, actual);
+			} catch (CSVStreamException e) {
+				assertNotNull(message + " unexpected exception " + e, expectedException);
+			}
+			try {
+				List<List<String>> actual = tokenizeStreamRows(input, CSVStream.defaultSchema(),
+						Math.min(nextWindowSize, StreamByteWindow.DEFAULT_WINDOW_SIZE));
+				assertNull(message + " expected exception " + expectedException, expectedException);
+				assertEquals(message, expected, actual);
+			} catch (CSVStreamException e) {
+				assertNotNull(message + " unexpected exception " + e, expectedException);
+			}
+		}
+	}
+
+	private List<List<String>> tokenize(String input, CsvSchema schema, int windowSize) throws Exception {
+		Path testFile = tempDir.newFile().toPath();
+		Files.write(testFile, input.getBytes(StandardCharsets.UTF_8));
+		List<List<String>> result = new ArrayList<>();
+		try (FileChannel channel = FileChannel.open(testFile, StandardOpenOption.READ);
+				ByteWindow window = new MappedByteWindow(channel, 0, channel.size(), windowSize);) {
+			CSVByteTokenizer tokenizer = CSVByteTokenizer.forSchema(window, schema);
+			while (tokenizer.next()) {
+				result.add(tokenizer.toList());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Tokenise from a {@link StreamByteWindow}, reading each value through the
+	 * reusable {@link CharSequence} from a {@link CSVByteRowView}.
+	 */
+	private List<List<String>> tokenizeStreamRows(String input, CsvSchema schema, int windowSize) throws Exception {
+		List<List<String>> result = new ArrayList<>();
+		try (ByteWindow window = new StreamByteWindow(
+				new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), windowSize);) {
+			CSVByteTokenizer tokenizer = CSVByteTokenizer.forSchema(window, schema);
+			CSVRow row = new CSVByteRowView(tokenizer, Collections.emptyList(), null,
+					Collections.emptyList(), schema);
+			while (tokenizer.next()) {
+				List<String> values = new ArrayList<>();
+				for (int i = 0; i < row.size(); i++) {
+					CharSequence value = row.get(i);
+					StringBuilder copy = new StringBuilder(value.length());
+					for (int c = 0; c < value.length(); c++) {
+						copy.append(value.charAt(c));
+					}
+					assertEquals(copy.toString(), value.toString());
+					assertEquals(copy.toString(), row.getString(i));
+					values.add(copy.toString());
+				}
+				result.add(values);
+			}
+		}
+		return result;
+	}
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * 
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+/**
+ * Tests for {@link CSVGzip}.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public class CSVGzipTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	@Test
+	public final void testBGZFRoundTrip() throws Exception {
+		byte[] data = csvBytes(20000);
+		byte[] compressed = bgzf(data, Deflater.DEFAULT_COMPRESSION);
+		assertTrue("Expected several blocks", data.length > 4 * BGZFOutputStream.MAX_BLOCK_INPUT);
+		assertTrue(compressed.length < data.length);
+
+		assertArrayEquals(data, readAll(new GZIPInputStream(new ByteArrayInputStream(compressed))));
+		assertArrayEquals(data, readAll(CSVGzip.newInputStream(new ByteArrayInputStream(compressed))));
+		assertArrayEquals(data,
+				readAll(CSVGzip.newInputStream(new ByteArrayInputStream(compressed), new ForkJoinPool(3), 1)));
+	}
+
+	@Test
+	public final void testBGZFIncompressible() throws Exception {
+		byte[] data = new byte[3 * BGZFOutputStream.MAX_BLOCK_INPUT + 17];
+		new Random(42).nextBytes(data);
+		for (int nextLevel : Arrays.asList(Deflater.NO_COMPRESSION, Deflater.BEST_COMPRESSION)) {
+			byte[] compressed = bgzf(data, nextLevel);
+			assertArrayEquals(data, readAll(new GZIPInputStream(new ByteArrayInputStream(compressed))));
+			assertArrayEquals(data, readAll(CSVGzip.newInputStream(new ByteArrayInputStream(compressed))));
+		}
+	}
+
+	@Test
+	public final void testBGZFEmpty() throws Exception {
+		byte[] compressed = bgzf(new byte[0], Deflater.DEFAULT_COMPRESSION);
+		assertEquals(28, compressed.length);
+		assertArrayEquals(new byte[0], readAll(new GZIPInputStream(new ByteArrayInputStream(compressed))));
+		assertArrayEquals(new byte[0], readAll(CSVGzip.newInputStream(new ByteArrayInputStream(compressed))));
+	}
+
+	@Test
+	public final void testBGZFFlush() throws Exception {
+		byte[] data = csvBytes(20000);
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (OutputStream gzip = CSVGzip.newOutputStream(output);) {
+			gzip.write(data, 0, BGZFOutputStream.MAX_BLOCK_INPUT + 100);
+			gzip.flush();
+			// Only complete blocks are written by flush, so the partial block
+			// is never cut early
+			if (output.size() > 0) {
+				assertEquals(BGZFOutputStream.MAX_BLOCK_INPUT,
+						readAll(new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))).length);
+			}
+			int offset = BGZFOutputStream.MAX_BLOCK_INPUT + 100;
+			gzip.write(data, offset, data.length - offset);
+		}
+		assertArrayEquals(data, readAll(CSVGzip.newInputStream(new ByteArrayInputStream(output.toByteArray()))));
+	}
+
+	@Test
+	public final void testGzipCSVWriterBlocks() throws Exception {
+		List<String> headers = Arrays.asList("id", "name");
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		// SequenceWriter flushes after every row, which must not cut a block
+		// for each row
+		try (SequenceWriter csvWriter = CSVStream.newGzipCSVWriter(output, headers);) {
+			for (int i = 0; i < 20000; i++) {
+				csvWriter.write(Arrays.asList(Integer.toString(i), "name " + (i * 31)));
+			}
+		}
+		byte[] compressed = output.toByteArray();
+		byte[] data = readAll(CSVGzip.newInputStream(new ByteArrayInputStream(compressed)));
+
+		int blocks = 0;
+		for (int offset = 0; offset < compressed.length; blocks++) {
+			offset += ((compressed[offset + 16] & 0xff) | (compressed[offset + 17] & 0xff) << 8) + 1;
+		}
+		int fullBlocks = (data.length + BGZFOutputStream.MAX_BLOCK_INPUT - 1) / BGZFOutputStream.MAX_BLOCK_INPUT;
+		// The data blocks and the end of file block
+		assertEquals(fullBlocks + 1, blocks);
+		assertTrue("Compressed size " + compressed.length + " was too large compared to gzip",
+				compressed.length < gzip(data).length * 3 / 2);
+	}
+
+	@Test
+	public final void testGzipMultipleMembers() throws Exception {
+		byte[] first = csvBytes(5000);
+		byte[] second = "extra,line\n".getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		compressed.write(gzip(first));
+		compressed.write(gzip(second));
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		expected.write(first);
+		expected.write(second);
+		assertArrayEquals(expected.toByteArray(),
+				readAll(CSVGzip.newInputStream(new ByteArrayInputStream(compressed.toByteArray()))));
+	}
+
+	@Test
+	public final void testBGZFFollowedByGzip() throws Exception {
+		byte[] first = csvBytes(5000);
+		byte[] second = csvBytes(100);
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		compressed.write(bgzf(first, Deflater.DEFAULT_COMPRESSION));
+		compressed.write(gzip(second));
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		expected.write(first);
+		expected.write(second);
+		assertArrayEquals(expected.toByteArray(),
+				readAll(CSVGzip.newInputStream(new ByteArrayInputStream(compressed.toByteArray()))));
+	}
+
+	@Test
+	public final void testBGZFCorruptCRC() throws Exception {
+		byte[] compressed = bgzf(csvBytes(100), Deflater.DEFAULT_COMPRESSION);
+		// The CRC32 of the first block is just before the end of the block
+		int firstBlockSize = GzipPipelineInputStream.bgzfBlockSize(compressed, compressed.length);
+		compressed[firstBlockSize - 8] ^= 1;
+		thrown.expect(IOException.class);
+		thrown.expectMessage("Could not decompress gzip input");
+		readAll(CSVGzip.newInputStream(new ByteArrayInputStream(compressed)));
+	}
+
+	@Test
+	public final void testNotGzip() throws Exception {
+		thrown.expect(IOException.class);
+		thrown.expectMessage("Could not decompress gzip input");
+		readAll(CSVGzip.newInputStream(new ByteArrayInputStream(csvBytes(10))));
+	}
+
+	@Test(timeout = 30000)
+	public final void testSourceError() throws Exception {
+		byte[] compressed = bgzf(csvBytes(20000), Deflater.DEFAULT_COMPRESSION);
+		InputStream source = new SequenceInputStream(new ByteArrayInputStream(compressed, 0, 100),
+				new InputStream() {
+					@Override
+					public int read() throws IOException {
+						throw new AssertionError("Could not read input");
+					}
+				});
+		thrown.expect(IOException.class);
+		thrown.expectMessage("Could not decompress gzip input");
+		readAll(CSVGzip.newInputStream(source));
+	}
+
+	@Test
+	public final void testCloseBeforeEnd() throws Exception {
+		byte[] compressed = bgzf(csvBytes(20000), Deflater.DEFAULT_COMPRESSION);
+		InputStream input = CSVGzip.newInputStream(new ByteArrayInputStream(compressed), ForkJoinPool.commonPool(), 1);
+		assertEquals('i', input.read());
+		input.close();
+		thrown.expect(IOException.class);
+		thrown.expectMessage("Stream closed");
+		input.read();
+	}
+
+	@Test
+	public final void testInvalidBlocksInFlight() throws Exception {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Maximum blocks in flight must be positive.");
+		CSVGzip.newInputStream(new ByteArrayInputStream(new byte[0]), ForkJoinPool.commonPool(), 0);
+	}
+
+	@Test
+	public final void testInvalidLevel() throws Exception {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Invalid compression level: 10");
+		CSVGzip.newOutputStream(new ByteArrayOutputStream(), ForkJoinPool.commonPool(), 2, 10);
+	}
+
+	@Test
+	public final void testParseGzipRoundTrip() throws Exception {
+		List<String> headers = Arrays.asList("id", "name", "value");
+		List<List<String>> lines = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			lines.add(Arrays.asList(Integer.toString(i), "name, " + i, "é" + (i * 7)));
+		}
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (SequenceWriter csvWriter = CSVStream.newGzipCSVWriter(output, headers);) {
+			for (List<String> nextLine : lines) {
+				csvWriter.write(nextLine);
+			}
+		}
+
+		List<List<String>> results = new ArrayList<>();
+		List<String> resultHeaders = new ArrayList<>();
+		CSVStream.parseGzip(new ByteArrayInputStream(output.toByteArray()), resultHeaders::addAll, (h, l) -> l,
+				results::add);
+		assertEquals(headers, resultHeaders);
+		assertEquals(lines, results);
+
+		List<List<String>> plainResults = new ArrayList<>();
+		CSVStream.parse(new GZIPInputStream(new ByteArrayInputStream(output.toByteArray())), h -> {
+		}, (h, l) -> l, plainResults::add);
+		assertEquals(lines, plainResults);
+	}
+
+	private static byte[] csvBytes(int rows) {
+		StringBuilder result = new StringBuilder("id,name\n");
+		for (int i = 0; i < rows; i++) {
+			result.append(i).append(",\"name ").append(i * 31).append("\"\n");
+		}
+		return result.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] bgzf(byte[] data, int level) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (OutputStream gzip = CSVGzip.newOutputStream(output, ForkJoinPool.commonPool(), 2, level);) {
+			// Write in uneven pieces to cross block boundaries
+			int offset = 0;
+			while (offset < data.length) {
+				int length = Math.min(data.length - offset, 10007);
+				gzip.write(data, offset, length);
+				offset += length;
+			}
+		}
+		return output.toByteArray();
+	}
+
+	private static byte[] gzip(byte[] data) throws IOException {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		try (OutputStream gzip = new GZIPOutputStream(output);) {
+			gzip.write(data);
+		}
+		return output.toByteArray();
+	}
+
+	private static byte[] readAll(InputStream input) throws IOException {
+		try {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			int length;
+			while ((length = input.read(buffer)) >= 0) {
+				output.write(buffer, 0, length);
+			}
+			return output.toByteArray();
+		} finally {
+			input.close();
+		}
+	}
+}
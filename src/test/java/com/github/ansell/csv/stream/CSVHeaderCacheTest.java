@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * 
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * Tests for {@link CSVHeaderCache}.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public class CSVHeaderCacheTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVHeaderCache#canonicalise(List)}
+	 * .
+	 */
+	@Test
+	public final void testCanonicalise() throws Exception {
+		CSVHeaderCache cache = CSVHeaderCache.withMaximumSize(16);
+		CSVHeaders headers = cache.canonicalise(Arrays.asList(" A", "B ", "C", "A"));
+		assertEquals(Arrays.asList("A", "B", "C", "A"), headers.getNames());
+		assertEquals(4, headers.size());
+		assertEquals(0, headers.indexOf("A"));
+		assertEquals(1, headers.indexOf("B"));
+		assertEquals(2, headers.indexOf("C"));
+		assertEquals(-1, headers.indexOf(" A"));
+		assertEquals(-1, headers.indexOf("D"));
+		assertEquals(Arrays.asList("A", "B", "C"), new ArrayList<>(headers.getIndexes().keySet()));
+		assertEquals("[A, B, C, A]", headers.toString());
+
+		assertSame(headers, cache.canonicalise(new ArrayList<>(Arrays.asList(" A", "B ", "C", "A"))));
+		assertNotSame(headers, cache.canonicalise(Arrays.asList("A", "B", "C", "A")));
+		assertEquals(2, cache.size());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVHeaders#indexOf(String)} .
+	 */
+	@Test
+	public final void testIndexOfWideHeaders() throws Exception {
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			names.add("Column" + i);
+		}
+		// "Aa" and "BB" have the same hash code
+		names.add("Aa");
+		names.add("BB");
+		names.add("Column7");
+		CSVHeaders headers = CSVHeaderCache.withMaximumSize(0).canonicalise(names);
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i, headers.indexOf("Column" + i));
+			assertEquals(Integer.valueOf(i), headers.getIndexes().get("Column" + i));
+		}
+		assertEquals(1000, headers.indexOf("Aa"));
+		assertEquals(1001, headers.indexOf("BB"));
+		assertEquals(-1, headers.indexOf("C#"));
+		assertEquals(-1, headers.indexOf("Column1000"));
+		assertEquals(-1, headers.indexOf(null));
+		assertEquals(1002, headers.getIndexes().size());
+	}
+
+	@Test
+	public final void testIndexOfEmptyHeaders() throws Exception {
+		CSVHeaders headers = CSVHeaderCache.withMaximumSize(0).canonicalise(Collections.emptyList());
+		assertEquals(0, headers.size());
+		assertEquals(-1, headers.indexOf(""));
+	}
+
+	@Test
+	public final void testCanonicaliseCopiesKey() throws Exception {
+		CSVHeaderCache cache = CSVHeaderCache.withMaximumSize(16);
+		List<String> line = new ArrayList<>(Arrays.asList("A", "B"));
+		CSVHeaders headers = cache.canonicalise(line);
+		line.set(1, "C");
+		assertEquals(Arrays.asList("A", "B"), headers.getNames());
+		assertSame(headers, cache.canonicalise(Arrays.asList("A", "B")));
+		assertNotSame(headers, cache.canonicalise(line));
+	}
+
+	@Test
+	public final void testHeadersAreImmutable() throws Exception {
+		CSVHeaders headers = CSVHeaderCache.defaultCache().canonicalise(Arrays.asList("A", "B"));
+		thrown.expect(UnsupportedOperationException.class);
+		headers.getNames().set(0, "C");
+	}
+
+	@Test
+	public final void testEviction() throws Exception {
+		CSVHeaderCache cache = CSVHeaderCache.withMaximumSize(1);
+		CSVHeaders first = cache.canonicalise(Arrays.asList("A"));
+		assertSame(first, cache.canonicalise(Arrays.asList("A")));
+		CSVHeaders second = cache.canonicalise(Arrays.asList("B"));
+		assertEquals(1, cache.size());
+		assertSame(second, cache.canonicalise(Arrays.asList("B")));
+		assertNotSame(first, cache.canonicalise(Arrays.asList("A")));
+
+		cache = CSVHeaderCache.withMaximumSize(64);
+		for (int i = 0; i < 1000; i++) {
+			cache.canonicalise(Arrays.asList("A" + i, "B" + i));
+		}
+		assertEquals(64, cache.size());
+	}
+
+	@Test
+	public final void testMaximumSizeZero() throws Exception {
+		CSVHeaderCache cache = CSVHeaderCache.withMaximumSize(0);
+		CSVHeaders headers = cache.canonicalise(Arrays.asList(" A"));
+		assertEquals(Collections.singletonList("A"), headers.getNames());
+		assertNotSame(headers, cache.canonicalise(Arrays.asList(" A")));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public final void testNegativeMaximumSize() throws Exception {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Maximum size must not be negative.");
+		CSVHeaderCache.withMaximumSize(-1);
+	}
+
+	@Test
+	public final void testConcurrentCanonicalise() throws Exception {
+		CSVHeaderCache cache = CSVHeaderCache.withMaximumSize(CSVHeaderCache.DEFAULT_MAXIMUM_SIZE);
+		ConcurrentLinkedQueue<CSVHeaders> results = new ConcurrentLinkedQueue<>();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (int i = 0; i < 1000; i++) {
+				final int next = i % 10;
+				pool.execute(() -> results.add(cache.canonicalise(Arrays.asList("A", "B" + next))));
+			}
+			pool.shutdown();
+			assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+		} finally {
+			pool.shutdownNow();
+		}
+		assertEquals(1000, results.size());
+		assertEquals(10, cache.size());
+		for (CSVHeaders nextHeaders : results) {
+			assertSame(nextHeaders, cache.canonicalise(nextHeaders.getNames()));
+		}
+	}
+
+	@Test
+	public final void testParseSharesHeaders() throws Exception {
+		List<List<String>> headers = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			CSVStream.parse(new StringReader("CacheHeader1 , CacheHeader2\na,b\n"), headers::add, (h, l) -> l,
+					l -> {
+					});
+		}
+		assertEquals(Arrays.asList("CacheHeader1", "CacheHeader2"), headers.get(0));
+		assertSame(headers.get(0), headers.get(1));
+	}
+
+	@Test
+	public final void testParseProjectionsNotCached() throws Exception {
+		byte[] input = "ProjectedA,ProjectedB,ProjectedC\na,b,c\n".getBytes(StandardCharsets.UTF_8);
+		int initialSize = CSVHeaderCache.defaultCache().size();
+		List<String> results = new ArrayList<>();
+		List<List<String>> projections = Arrays.asList(Arrays.asList("ProjectedC", "ProjectedA"),
+				Arrays.asList("ProjectedB"), Arrays.asList("ProjectedA", "ProjectedB"),
+				Arrays.asList("ProjectedC", "ProjectedB", "ProjectedA"));
+		for (List<String> nextProjection : projections) {
+			CSVStream.parseWithHeaders(new ByteArrayInputStream(input), h -> {
+			}, (h, r) -> {
+				assertEquals(nextProjection, h.getNames());
+				assertSame(h, r.getHeaderIndex());
+				assertEquals(nextProjection.size() - 1, h.indexOf(nextProjection.get(nextProjection.size() - 1)));
+				return r.getString("ProjectedB");
+			}, results::add, null, Collections.emptyList(), 1, CsvSchema.emptySchema(),
+					CSVProjection.ofHeaders(nextProjection));
+		}
+		// The converter returns null for the projection without ProjectedB
+		assertEquals(Arrays.asList("b", "b", "b"), results);
+		// Only the header line from the file is cached, not each projection
+		assertEquals(initialSize + 1, CSVHeaderCache.defaultCache().size());
+	}
+}
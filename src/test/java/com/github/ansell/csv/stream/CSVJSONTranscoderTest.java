@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * 
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+/**
+ * Tests for {@link CSVJSONTranscoder}.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public class CSVJSONTranscoderTest {
+
+	@Rule
+	public ExpectedException thrown = ExpectedException.none();
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	public final void testCSVToJSON() throws Exception {
+		StringWriter output = new StringWriter();
+		CSVJSONTranscoder.csvToJSON(new StringReader("name, quote \"field\"\nAlice, 5\n\"B\"\"o\nb\",\n"), output);
+		assertEquals("[{\"name\":\"Alice\",\"quote \\\"field\\\"\":\"5\"},"
+				+ "{\"name\":\"B\\\"o\\nb\",\"quote \\\"field\\\"\":\"\"}]", output.toString());
+	}
+
+	@Test
+	public final void testCSVToJSONEmpty() throws Exception {
+		StringWriter output = new StringWriter();
+		CSVJSONTranscoder.csvToJSON(new StringReader("name,score\n"), output);
+		assertEquals("[]", output.toString());
+	}
+
+	@Test
+	public final void testCSVToJSONLinesProjectionDefaults() throws Exception {
+		Map<String, String> fieldNames = new HashMap<>();
+		fieldNames.put("score", "points");
+		StringWriter output = new StringWriter();
+		CSVJSONTranscoder.csvToJSON(new StringReader("name,ignored,score\nAlice,x,5\nBob,y,\n"), output, h -> {
+		}, null, Arrays.asList("unknown", "0"), CSVStream.DEFAULT_HEADER_COUNT, CSVMapperCache.defaultCache(),
+				CSVStream.defaultSchema(), CSVProjection.ofHeaders("name", "score"), fieldNames, mapper, true);
+		assertEquals("{\"name\":\"Alice\",\"points\":\"5\"}\n{\"name\":\"Bob\",\"points\":\"0\"}\n",
+				output.toString());
+	}
+
+	@Test
+	public final void testCSVToJSONSubstituteHeaders() throws Exception {
+		StringWriter output = new StringWriter();
+		CSVJSONTranscoder.csvToJSON(new StringReader("# comment\nAlice,5\n"), output, h -> {
+		}, Arrays.asList("name", "score"), Collections.emptyList(), 0, CSVMapperCache.defaultCache(),
+				CSVStream.defaultSchema(), CSVProjection.all(), Collections.emptyMap(), mapper, false);
+		assertEquals("[{\"name\":\"Alice\",\"score\":\"5\"}]", output.toString());
+	}
+
+	@Test
+	public final void testCSVToJSONMatchesParseAndWrite() throws Exception {
+		StringBuilder csv = new StringBuilder("id,name,score,empty\n");
+		for (int i = 0; i < 50; i++) {
+			csv.append(i).append(",\"name, ").append(i).append("é\",").append(i * 3).append(",\n");
+		}
+		List<String> defaultValues = Arrays.asList("", "", "", "none");
+
+		List<List<String>> lines = new ArrayList<>();
+		List<String> headers = new ArrayList<>();
+		CSVStream.parse(new StringReader(csv.toString()), headers::addAll, (h, l) -> l, lines::add, null,
+				defaultValues, CSVStream.DEFAULT_HEADER_COUNT, CSVMapperCache.defaultCache(), CSVStream.defaultSchema(),
+				CSVProjection.all());
+		StringWriter expected = new StringWriter();
+		JSONStream.write(expected, lines.stream(), headers, (h, l) -> l);
+
+		StringWriter output = new StringWriter();
+		CSVJSONTranscoder.csvToJSON(new StringReader(csv.toString()), output, h -> {
+		}, null, defaultValues, CSVStream.DEFAULT_HEADER_COUNT, CSVMapperCache.defaultCache(),
+				CSVStream.defaultSchema(), CSVProjection.all(), Collections.emptyMap(), mapper, false);
+		assertEquals(expected.toString(), output.toString());
+	}
+
+	@Test
+	public final void testCSVToJSONLineSizeMismatch() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Line and header sizes were different");
+		CSVJSONTranscoder.csvToJSON(new StringReader("name,score\nAlice,5\nBob\n"), new StringWriter());
+	}
+
+	@Test
+	public final void testCSVToJSONNoHeader() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("CSV file did not contain a valid header line");
+		CSVJSONTranscoder.csvToJSON(new StringReader(""), new StringWriter());
+	}
+
+	@Test
+	public final void testCSVToJSONHeaderValidationFailure() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Could not verify headers for csv file");
+		CSVJSONTranscoder.csvToJSON(new StringReader("name\nAlice\n"), new StringWriter(), h -> {
+			throw new IllegalArgumentException("Bad headers");
+		}, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT, CSVMapperCache.defaultCache(),
+				CSVStream.defaultSchema(), CSVProjection.all(), Collections.emptyMap(), mapper, false);
+	}
+
+	@Test
+	public final void testJSONToCSV() throws Exception {
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		fieldRelativePaths.put("city", Optional.of(JsonPointer.compile("/address/city")));
+		fieldRelativePaths.put("score", Optional.of(JsonPointer.compile("/score")));
+		Map<String, String> defaultValues = new HashMap<>();
+		defaultValues.put("city", "unknown");
+		StringWriter output = new StringWriter();
+		CSVJSONTranscoder.jsonToCSV(
+				new StringReader("{\"results\":[{\"name\":\"Alice, A\",\"address\":{\"city\":\"Brisbane\"},\"score\":1.5},"
+						+ "{\"name\":\"Bob\",\"score\":2}]}"),
+				output, JsonPointer.compile("/results"), fieldRelativePaths, defaultValues,
+				Arrays.asList("name", "city", "score"));
+		assertEquals("name,city,score\n\"Alice, A\",Brisbane,1.5\nBob,unknown,2\n", output.toString());
+	}
+
+	@Test
+	public final void testJSONToCSVEmpty() throws Exception {
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		StringWriter output = new StringWriter();
+		CSVJSONTranscoder.jsonToCSV(new StringReader("[]"), output, JsonPointer.compile("/"), fieldRelativePaths,
+				Collections.emptyMap(), Arrays.asList("name"));
+		assertEquals("name\n", output.toString());
+	}
+
+	@Test
+	public final void testJSONToCSVMatchesParseAndWrite() throws Exception {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < 50; i++) {
+			if (i > 0) {
+				json.append(",");
+			}
+			json.append("{\"id\":").append(i).append(",\"name\":\"name \\\"").append(i)
+					.append("\\\"\",\"tags\":{\"first\":").append(i % 2 == 0).append("}}");
+		}
+		json.append("]");
+		List<String> headers = Arrays.asList("id", "name", "first");
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("id", Optional.of(JsonPointer.compile("/id")));
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		fieldRelativePaths.put("first", Optional.of(JsonPointer.compile("/tags/first")));
+		JSONExtractionPlan plan = JSONExtractionPlan.compile(headers, fieldRelativePaths);
+
+		StringWriter expected = new StringWriter();
+		try (SequenceWriter csvWriter = CSVStream.newCSVWriter(expected, headers);) {
+			JSONStream.parseFields(new StringReader(json.toString()), h -> {
+			}, (h, l) -> l, l -> {
+				try {
+					csvWriter.write(l);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			}, JsonPointer.compile("/"), plan, Collections.emptyMap(), mapper);
+		}
+
+		StringWriter output = new StringWriter();
+		CSVJSONTranscoder.jsonToCSV(new StringReader(json.toString()), output, h -> {
+		}, JsonPointer.compile("/"), plan, Collections.emptyMap(), mapper, CSVMapperCache.defaultCache());
+		assertEquals(expected.toString(), output.toString());
+	}
+
+	@Test
+	public final void testJSONToCSVNoFieldPaths() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("No field paths were set for JSONStream.parse");
+		CSVJSONTranscoder.jsonToCSV(new StringReader("[]"), new StringWriter(), JsonPointer.compile("/"),
+				Collections.emptyMap(), Collections.emptyMap(), Collections.emptyList());
+	}
+
+	@Test
+	public final void testRoundTrip() throws Exception {
+		String csv = "name,score\n\"Alice, A\",5\n\"B\"\"ob\",\n";
+		StringWriter json = new StringWriter();
+		CSVJSONTranscoder.csvToJSON(new StringReader(csv), json);
+
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		fieldRelativePaths.put("score", Optional.of(JsonPointer.compile("/score")));
+		StringWriter output = new StringWriter();
+		CSVJSONTranscoder.jsonToCSV(new StringReader(json.toString()), output, JsonPointer.compile("/"),
+				fieldRelativePaths, Collections.emptyMap(), Arrays.asList("name", "score"));
+		assertEquals(csv, output.toString());
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * 
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvGenerator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+/**
+ * Tests for {@link CSVMapperCache}.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public class CSVMapperCacheTest {
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVMapperCache#reader(CsvSchema, CsvParser.Feature...)}
+	 * .
+	 */
+	@Test
+	public final void testReaderReusedForEquivalentSchemas() throws Exception {
+		CSVMapperCache cache = CSVMapperCache.defaultCache();
+		assertSame(cache, CSVMapperCache.defaultCache());
+		assertSame(cache.reader(CSVStream.buildSchema(Arrays.asList("A", "B"))),
+				cache.reader(CSVStream.buildSchema(Arrays.asList("A", "B"))));
+		assertSame(cache.reader(CSVStream.defaultSchema()), cache.reader(CSVStream.defaultSchema()));
+		assertSame(cache.reader(CSVStream.defaultSchema(), CsvParser.Feature.SKIP_EMPTY_LINES),
+				cache.reader(CSVStream.defaultSchema(), CsvParser.Feature.SKIP_EMPTY_LINES));
+
+		assertNotSame(cache.reader(CSVStream.buildSchema(Arrays.asList("A", "B"))),
+				cache.reader(CSVStream.buildSchema(Arrays.asList("A", "C"))));
+		assertNotSame(cache.reader(CSVStream.buildSchema(Arrays.asList("A", "B"))),
+				cache.reader(CSVStream.buildSchema(Arrays.asList("A", "B"), false)));
+		assertNotSame(cache.reader(CSVStream.defaultSchema()),
+				cache.reader(CSVStream.defaultSchema().withColumnSeparator('\t')));
+		assertNotSame(cache.reader(CSVStream.defaultSchema()),
+				cache.reader(CSVStream.defaultSchema(), CsvParser.Feature.SKIP_EMPTY_LINES));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVMapperCache#writer(CsvSchema, CsvGenerator.Feature...)}
+	 * .
+	 */
+	@Test
+	public final void testWriterReusedForEquivalentSchemas() throws Exception {
+		CSVMapperCache cache = CSVMapperCache.defaultCache();
+		assertSame(cache.writer(CSVStream.buildSchema(Arrays.asList("A", "B"))),
+				cache.writer(CSVStream.buildSchema(Arrays.asList("A", "B"))));
+		assertNotSame(cache.writer(CSVStream.buildSchema(Arrays.asList("A", "B"))),
+				cache.writer(CSVStream.buildSchema(Arrays.asList("A", "B")), CsvGenerator.Feature.ALWAYS_QUOTE_STRINGS));
+
+		StringWriter output = new StringWriter();
+		try (SequenceWriter csvWriter = CSVStream.newCSVWriter(output,
+				CSVStream.buildSchema(Arrays.asList("A", "B")), cache);) {
+			csvWriter.write(Arrays.asList("a1", "b1"));
+		}
+		assertEquals("A,B\na1,b1\n", output.toString());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVMapperCache#forMapper(CsvMapper)}
+	 * .
+	 */
+	@Test
+	public final void testForMapperCopiesMapper() throws Exception {
+		CsvMapper mapper = CSVStream.defaultMapper();
+		CSVMapperCache cache = CSVMapperCache.forMapper(mapper);
+		mapper.disable(CsvParser.Feature.TRIM_SPACES);
+
+		List<List<String>> results = new ArrayList<>();
+		CSVStream.parse(new StringReader("A,B\n a1 , b1 \n"), h -> {
+		}, (h, l) -> l, results::add, null, new ArrayList<>(), CSVStream.DEFAULT_HEADER_COUNT, cache,
+				CSVStream.defaultSchema(), CSVProjection.all());
+		assertEquals(Arrays.asList(Arrays.asList("a1", "b1")), results);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVMapperCache#forMapper(CsvMapper, int)}
+	 * .
+	 */
+	@Test
+	public final void testMaximumSize() throws Exception {
+		CSVMapperCache cache = CSVMapperCache.forMapper(CSVStream.defaultMapper(), 1);
+		assertSame(cache.reader(CSVStream.defaultSchema()), cache.reader(CSVStream.defaultSchema()));
+		CsvSchema uncached = CSVStream.buildSchema(Arrays.asList("A"));
+		assertNotSame(cache.reader(uncached), cache.reader(uncached));
+
+		List<List<String>> results = new ArrayList<>();
+		CSVStream.parse(new StringReader("a1\na2\n"), h -> {
+		}, (h, l) -> l, results::add, Arrays.asList("A"), new ArrayList<>(), 0,
+				CSVMapperCache.forMapper(CSVStream.defaultMapper(), 0), CSVStream.defaultSchema(),
+				CSVProjection.all());
+		assertEquals(Arrays.asList(Arrays.asList("a1"), Arrays.asList("a2")), results);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public final void testNegativeMaximumSize() throws Exception {
+		CSVMapperCache.forMapper(CSVStream.defaultMapper(), -1);
+	}
+}
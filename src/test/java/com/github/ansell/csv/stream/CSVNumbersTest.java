@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * 
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link CSVNumbers}.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public class CSVNumbersTest {
+
+	private static final List<String> LONGS = Arrays.asList("0", "-0", "+0", "1", "-1", "+1", "00012",
+			"9223372036854775807", "-9223372036854775808", "9223372036854775808", "-9223372036854775809",
+			"92233720368547758070", "2147483647", "-2147483648", "2147483648", "", "-", "+", "1.0", " 1", "1 ",
+			"1a", "a1", "--1", "0x10");
+
+	private static final List<String> DOUBLES = Arrays.asList("0", "-0", "0.0", "-0.0", "1", "-1", "+1", "1.5",
+			".5", "5.", "-.5", "0.1", "0.3", "123.456", "1e10", "1E10", "1e-10", "1.5e+3", "-2.5E-3",
+			"123456789012345", "1234567890123456", "12345678901234567890", "0.000000000000000000001",
+			"1e22", "1e23", "1e-22", "1e-23", "9007199254740993", "1.7976931348623157e308", "4.9e-324", "1e400",
+			"00001.2500", "0.00000123", "NaN", "-Infinity", "Infinity", "0x1p3", "1d", "1f", " 1.5", "1.5 ", "",
+			".", "-", "e5", "1e", "1e+", "1.2.3", "1..2", "abc");
+
+	@Test
+	public final void testParseLong() {
+		for (String next : LONGS) {
+			assertEquals(next, parse(() -> Long.parseLong(next)), parse(() -> CSVNumbers.parseLong(next)));
+			assertEquals(next, parse(() -> Long.parseLong(next)),
+					parse(() -> CSVNumbers.parseLong(new StringBuilder(next))));
+		}
+	}
+
+	@Test
+	public final void testParseInt() {
+		for (String next : LONGS) {
+			assertEquals(next, parse(() -> Integer.parseInt(next)), parse(() -> CSVNumbers.parseInt(next)));
+		}
+	}
+
+	@Test
+	public final void testParseDouble() {
+		for (String next : DOUBLES) {
+			assertEquals(next, parse(() -> Double.parseDouble(next)), parse(() -> CSVNumbers.parseDouble(next)));
+		}
+	}
+
+	@Test
+	public final void testParseDoubleRandom() {
+		Random random = new Random(42);
+		for (int i = 0; i < 100000; i++) {
+			String next;
+			switch (i % 3) {
+			case 0:
+				next = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20));
+				break;
+			case 1:
+				next = String.format("%.6f", (random.nextDouble() - 0.5) * 1000000);
+				break;
+			default:
+				next = Long.toString(random.nextLong() % 1000000000000000L) + "e"
+						+ (random.nextInt(60) - 30);
+				break;
+			}
+			assertEquals(next, Double.doubleToLongBits(Double.parseDouble(next)),
+					Double.doubleToLongBits(CSVNumbers.parseDouble(next)));
+		}
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public final void testParseLongNull() {
+		CSVNumbers.parseLong(null);
+	}
+
+	/**
+	 * @return The result, or the class of the exception that was thrown, so
+	 *         that values and failures can both be compared.
+	 */
+	private static Object parse(ThrowingSupplier supplier) {
+		try {
+			Object result = supplier.get();
+			if (result instanceof Double) {
+				return Double.doubleToLongBits((Double) result);
+			}
+			return result;
+		} catch (RuntimeException e) {
+			return e.getClass();
+		}
+	}
+
+	private interface ThrowingSupplier {
+		Object get();
+	}
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * 
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Tests for {@link CSVPublisher}.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+public class CSVPublisherTest {
+
+	private static final String CSV = "TestHeader1,TestHeader2\na1,b1\na2,b2\na3,b3\na4,b4\n";
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#publisher(java.io.Reader, java.util.function.Consumer, java.util.function.BiFunction)}
+	 * .
+	 */
+	@Test
+	public final void testRequestDemand() throws Exception {
+		ClosingReader reader = new ClosingReader(CSV);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		CSVStream.publisher(reader, h -> {
+		}, (h, l) -> l.get(0)).subscribe(subscriber);
+		assertTrue(subscriber.events.isEmpty());
+
+		subscriber.subscription.request(2);
+		assertEquals(Arrays.asList("a1", "a2"), subscriber.events);
+		assertFalse(reader.closed.get());
+
+		subscriber.subscription.request(Long.MAX_VALUE);
+		subscriber.subscription.request(Long.MAX_VALUE);
+		assertEquals(Arrays.asList("a1", "a2", "a3", "a4", "complete"), subscriber.events);
+		assertTrue(reader.closed.get());
+	}
+
+	@Test
+	public final void testRequestFromOnNext() throws Exception {
+		RecordingSubscriber subscriber = new RecordingSubscriber() {
+			@Override
+			public void onNext(String next) {
+				super.onNext(next);
+				subscription.request(1);
+			}
+		};
+		CSVStream.publisher(new StringReader(CSV), h -> {
+		}, (h, l) -> l.get(1)).subscribe(subscriber);
+		subscriber.subscription.request(1);
+		assertEquals(Arrays.asList("b1", "b2", "b3", "b4", "complete"), subscriber.events);
+	}
+
+	@Test
+	public final void testCancel() throws Exception {
+		ClosingReader reader = new ClosingReader(CSV);
+		RecordingSubscriber subscriber = new RecordingSubscriber() {
+			@Override
+			public void onNext(String next) {
+				super.onNext(next);
+				subscription.cancel();
+			}
+		};
+		CSVStream.publisher(reader, h -> {
+		}, (h, l) -> l.get(0)).subscribe(subscriber);
+		subscriber.subscription.request(3);
+		assertEquals(Arrays.asList("a1"), subscriber.events);
+		assertTrue(reader.closed.get());
+
+		subscriber.subscription.request(3);
+		assertEquals(Arrays.asList("a1"), subscriber.events);
+	}
+
+	@Test
+	public final void testLineSizeMismatch() throws Exception {
+		ClosingReader reader = new ClosingReader("TestHeader1,TestHeader2\na,b\nc,d,e\nf,g\n");
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		CSVStream.publisher(reader, h -> {
+		}, (h, l) -> l.get(0)).subscribe(subscriber);
+		subscriber.subscription.request(Long.MAX_VALUE);
+		assertEquals(Arrays.asList("a", "error"), subscriber.events);
+		assertTrue(subscriber.error instanceof CSVStreamException);
+		assertTrue(subscriber.error.getMessage().startsWith("Line and header sizes were different"));
+		assertTrue(reader.closed.get());
+	}
+
+	@Test
+	public final void testLineConverterException() throws Exception {
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		CSVStream.publisher(new StringReader(CSV), h -> {
+		}, (h, l) -> l.get(2)).subscribe(subscriber);
+		subscriber.subscription.request(1);
+		assertEquals(Arrays.asList("error"), subscriber.events);
+		assertTrue(subscriber.error instanceof CSVStreamException);
+		assertTrue(subscriber.error.getCause() instanceof IndexOutOfBoundsException);
+	}
+
+	@Test
+	public final void testEmpty() throws Exception {
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		CSVStream.publisher(new StringReader(""), h -> {
+		}, (h, l) -> l.get(0)).subscribe(subscriber);
+		subscriber.subscription.request(1);
+		assertEquals(Arrays.asList("error"), subscriber.events);
+		assertEquals("CSV file did not contain a valid header line", subscriber.error.getMessage());
+	}
+
+	@Test
+	public final void testNonPositiveRequest() throws Exception {
+		ClosingReader reader = new ClosingReader(CSV);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		CSVStream.publisher(reader, h -> {
+		}, (h, l) -> l.get(0)).subscribe(subscriber);
+		subscriber.subscription.request(0);
+		assertEquals(Arrays.asList("error"), subscriber.events);
+		assertTrue(subscriber.error instanceof IllegalArgumentException);
+		assertTrue(reader.closed.get());
+	}
+
+	@Test
+	public final void testSecondSubscriber() throws Exception {
+		Publisher<String> publisher = CSVStream.publisher(new StringReader(CSV), h -> {
+		}, (h, l) -> l.get(0));
+		publisher.subscribe(new RecordingSubscriber());
+		RecordingSubscriber second = new RecordingSubscriber();
+		publisher.subscribe(second);
+		assertEquals(Arrays.asList("error"), second.events);
+		assertTrue(second.error instanceof IllegalStateException);
+	}
+
+	private static class RecordingSubscriber implements Subscriber<String> {
+
+		final List<String> events = new ArrayList<>();
+		Subscription subscription;
+		Throwable error;
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(String next) {
+			events.add(next);
+		}
+
+		@Override
+		public void onError(Throwable error) {
+			this.error = error;
+			events.add("error");
+		}
+
+		@Override
+		public void onComplete() {
+			events.add("complete");
+		}
+	}
+
+	private static class ClosingReader extends StringReader {
+
+		final AtomicBoolean closed = new AtomicBoolean(false);
+
+		ClosingReader(String input) {
+			super(input);
+		}
+
+		@Override
+		public void close() {
+			closed.set(true);
+			super.close();
+		}
+	}
+}
@@ -29,24 +29,45 @@ import static org.junit.Assert.*;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.Reader;
+import java.io.SequenceInputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.hamcrest.CoreMatchers;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 import com.fasterxml.jackson.databind.SequenceWriter;
 import com.fasterxml.jackson.dataformat.csv.CsvMapper;
 import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema.ColumnType;
 import com.github.ansell.csv.stream.CSVStream;
 
 /**
@@ -59,6 +80,21 @@ public class CSVStreamTest {
 	@Rule
 	public ExpectedException thrown = ExpectedException.none();
 
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
+	/**
+	 * Comment lines with an odd number of quotes in the data section, which
+	 * must not be counted when finding record boundaries.
+	 */
+	private static final String COMMENT_QUOTE_CSV = "TestHeader1,TestHeader2,TestHeader3\n" + "a1,b1,c1\n"
+			+ "# it\"s a comment\n" + "a2,\"b2\nwith\nmany\nmore\nlines\",c2\n" + "a3,b3,c3\n" + "  # another \" comment\n"
+			+ "\"a4\",b4,\"c4\nend\"\n" + "a5,b5,c5\n" + "a6,\"b6\",c6\n";
+
+	private static final String MULTILINE_CSV = "TestHeader1,TestHeader2,TestHeader3\n"
+			+ "a1,\"b1\nwith, \"\"line\"\" break\",c1\n" + "\n" + "# comment line\n" + "a2,b2,c2\r\n"
+			+ "\"a3\",\"\",\"c3\"\"\"\n" + "a4,\"b4\n\n\n\",c4\n" + "a5,,c5\n" + "a6,b6,\"c6\nend\"";
+
 	/**
 	 * Test method for
 	 * {@link com.github.ansell.csv.util.CSVStream#parse(java.io.Reader, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, int)}
@@ -1103,4 +1139,1482 @@ public class CSVStreamTest {
 		assertFalse("Too many lines", lineError.get());
 	}
 
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseParallel(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParseParallelMatchesParse() throws Exception {
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(new StringReader(MULTILINE_CSV), h -> {
+		}, (h, l) -> l, expected::add);
+		assertEquals(6, expected.size());
+
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, MULTILINE_CSV.getBytes(StandardCharsets.UTF_8));
+
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			for (int chunkSize = 1; chunkSize < MULTILINE_CSV.length() + 2; chunkSize++) {
+				List<String> headers = new ArrayList<>();
+				List<List<String>> ordered = new ArrayList<>();
+				CSVStream.parseParallel(testFile, headers::addAll, (h, l) -> l, ordered::add, null,
+						Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT, CSVStream.defaultMapper(),
+						CSVStream.defaultSchema(), pool, chunkSize, true);
+				assertEquals(Arrays.asList("TestHeader1", "TestHeader2", "TestHeader3"), headers);
+				assertEquals("Chunk size: " + chunkSize, expected, ordered);
+
+				ConcurrentLinkedQueue<List<String>> unordered = new ConcurrentLinkedQueue<>();
+				CSVStream.parseParallel(testFile, h -> {
+				}, (h, l) -> l, unordered::add, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT,
+						CSVStream.defaultMapper(), CSVStream.defaultSchema(), pool, chunkSize, false);
+				assertEquals("Chunk size: " + chunkSize, expected.size(), unordered.size());
+				assertTrue("Chunk size: " + chunkSize, unordered.containsAll(expected));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseParallel(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvMapper, CsvSchema, ForkJoinPool, long, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParseParallelCommentWithQuote() throws Exception {
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(new StringReader(COMMENT_QUOTE_CSV), h -> {
+		}, (h, l) -> l, expected::add);
+		assertEquals(6, expected.size());
+
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, COMMENT_QUOTE_CSV.getBytes(StandardCharsets.UTF_8));
+
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			for (int chunkSize = 1; chunkSize < COMMENT_QUOTE_CSV.length() + 2; chunkSize++) {
+				List<List<String>> results = new ArrayList<>();
+				CSVStream.parseParallel(testFile, h -> {
+				}, (h, l) -> l, results::add, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT,
+						CSVStream.defaultMapper(), CSVStream.defaultSchema(), pool, chunkSize, true);
+				assertEquals("Chunk size: " + chunkSize, expected, results);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseParallel(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvMapper, CsvSchema, ForkJoinPool, long, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParseParallelSubstituteHeadersAndDefaults() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, MULTILINE_CSV.getBytes(StandardCharsets.UTF_8));
+
+		List<String> substituteHeaders = Arrays.asList("A", "B", "C");
+		List<String> defaultValues = Arrays.asList("", "default-b", "");
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(Files.newBufferedReader(testFile), h -> {
+		}, (h, l) -> l, expected::add, substituteHeaders, defaultValues, 2, CSVStream.defaultMapper(),
+				CSVStream.defaultSchema());
+		assertEquals(5, expected.size());
+		assertEquals("default-b", expected.get(1).get(1));
+
+		List<List<String>> results = new ArrayList<>();
+		CSVStream.parseParallel(testFile, h -> assertEquals(substituteHeaders, h), (h, l) -> l, results::add,
+				substituteHeaders, defaultValues, 2, CSVStream.defaultMapper(), CSVStream.defaultSchema(),
+				ForkJoinPool.commonPool(), 16, true);
+		assertEquals(expected, results);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseParallel(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvMapper, CsvSchema, ForkJoinPool, long, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParseParallelEscapeCharacter() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile,
+				"TestHeader1,TestHeader2\nTest\\,Value1,TestValue2\nTestValue3,TestValue4\n".getBytes(StandardCharsets.UTF_8));
+
+		List<List<String>> results = new ArrayList<>();
+		CSVStream.parseParallel(testFile, h -> {
+		}, (h, l) -> l, results::add, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT,
+				CSVStream.defaultMapper(), CSVStream.defaultSchema().withEscapeChar('\\'), ForkJoinPool.commonPool(),
+				8, true);
+		assertEquals(Arrays.asList(Arrays.asList("Test,Value1", "TestValue2"), Arrays.asList("TestValue3", "TestValue4")),
+				results);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseParallel(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParseParallelEmpty() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("CSV file did not contain a valid header line");
+		CSVStream.parseParallel(testFile, h -> {
+		}, (h, l) -> l, l -> {
+		}, true);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseParallel(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParseParallelHeaderOnly() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, "TestHeader1,TestHeader2".getBytes(StandardCharsets.UTF_8));
+
+		List<String> headers = new ArrayList<>();
+		List<List<String>> results = new ArrayList<>();
+		CSVStream.parseParallel(testFile, headers::addAll, (h, l) -> l, results::add, true);
+		assertEquals(Arrays.asList("TestHeader1", "TestHeader2"), headers);
+		assertTrue(results.isEmpty());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseParallel(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvMapper, CsvSchema, ForkJoinPool, long, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParseParallelLineSizeMismatch() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, "TestHeader1,TestHeader2\na,b\nc,d\ne,f,g\nh,i\n".getBytes(StandardCharsets.UTF_8));
+
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage(CoreMatchers.equalTo(
+				"Line and header sizes were different: expected 2, found 3 headers=[TestHeader1, TestHeader2] line=[e, f, g]"));
+		CSVStream.parseParallel(testFile, h -> {
+		}, (h, l) -> l, l -> {
+		}, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT, CSVStream.defaultMapper(),
+				CSVStream.defaultSchema(), ForkJoinPool.commonPool(), 4, true);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseParallel(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParseParallelLineConverterException() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, "TestHeader1,TestHeader2\na,b\n".getBytes(StandardCharsets.UTF_8));
+
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Could not convert line");
+		CSVStream.parseParallel(testFile, h -> {
+		}, (h, l) -> {
+			throw new IllegalStateException("Could not convert line");
+		}, l -> {
+		}, true);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseParallel(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvMapper, CsvSchema, ForkJoinPool, long, boolean)}
+	 * with unordered results, checking that the consumer is not called after
+	 * the exception is thrown.
+	 */
+	@Test
+	public final void testParseParallelLineConverterExceptionStopsConsumer() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, numberedCsv(4000).getBytes(StandardCharsets.UTF_8));
+
+		AtomicBoolean finished = new AtomicBoolean();
+		AtomicInteger lateResults = new AtomicInteger();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			try {
+				CSVStream.parseParallel(testFile, h -> {
+				}, (h, l) -> {
+					if (l.get(0).equals("5")) {
+						throw new IllegalStateException("Could not convert line");
+					}
+					// Keep the other chunks running after the failure
+					slowDown();
+					return l;
+				}, l -> {
+					if (finished.get()) {
+						lateResults.incrementAndGet();
+					}
+				}, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT, CSVStream.defaultMapper(),
+						CSVStream.defaultSchema(), pool, 2000, false);
+				fail("Did not find expected exception");
+			} catch (final CSVStreamException e) {
+				finished.set(true);
+			}
+		} finally {
+			pool.shutdown();
+			assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+		}
+		assertEquals(0, lateResults.get());
+	}
+
+	private static void slowDown() {
+		try {
+			Thread.sleep(1);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * @return A CSV file with a header line and the given number of numbered
+	 *         rows.
+	 */
+	private static String numberedCsv(int rows) {
+		StringBuilder result = new StringBuilder("TestHeader1,TestHeader2\n");
+		for (int i = 0; i < rows; i++) {
+			result.append(i).append(",TestValue").append(i).append('\n');
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVParallelParser#join(ForkJoinTask)}
+	 * with a {@link CSVStreamException} thrown on a worker thread.
+	 */
+	@Test
+	public final void testParallelJoinCSVStreamException() throws Exception {
+		ForkJoinTask<Object> task = failOnWorker(new CSVStreamException("Could not parse chunk"));
+
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage(CoreMatchers.equalTo("Could not parse chunk"));
+		CSVParallelParser.join(task);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVParallelParser#join(ForkJoinTask)}
+	 * with an {@link IOException} thrown on a worker thread.
+	 */
+	@Test
+	public final void testParallelJoinIOException() throws Exception {
+		ForkJoinTask<Object> task = failOnWorker(new IOException("Could not read chunk"));
+
+		thrown.expect(IOException.class);
+		thrown.expectMessage(CoreMatchers.equalTo("Could not read chunk"));
+		CSVParallelParser.join(task);
+	}
+
+	/**
+	 * Run a task that throws the given exception on a pool thread, and wait for
+	 * it to finish without helping, so the exception is always thrown by a
+	 * different thread to the caller of join.
+	 */
+	private ForkJoinTask<Object> failOnWorker(Exception failure) throws InterruptedException {
+		ForkJoinPool pool = new ForkJoinPool(1);
+		ForkJoinTask<Object> task = pool.submit((Callable<Object>) () -> {
+			throw failure;
+		});
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+		return task;
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parsePipelined(InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CSVMapperCache, CsvSchema, CSVProjection, ForkJoinPool, int, int, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParsePipelinedMatchesParse() throws Exception {
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(new StringReader(MULTILINE_CSV), h -> {
+		}, (h, l) -> l, expected::add);
+		byte[] input = MULTILINE_CSV.getBytes(StandardCharsets.UTF_8);
+
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			for (int batchSize = 1; batchSize < expected.size() + 2; batchSize++) {
+				for (int maxBatchesInFlight = 1; maxBatchesInFlight < 4; maxBatchesInFlight++) {
+					List<String> headers = new ArrayList<>();
+					List<List<String>> ordered = new ArrayList<>();
+					CSVStream.parsePipelined(new ByteArrayInputStream(input), headers::addAll, (h, l) -> l,
+							ordered::add, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT,
+							CSVMapperCache.defaultCache(), CSVStream.defaultSchema(), CSVProjection.all(), pool,
+							batchSize, maxBatchesInFlight, true);
+					assertEquals(Arrays.asList("TestHeader1", "TestHeader2", "TestHeader3"), headers);
+					assertEquals("Batch size: " + batchSize, expected, ordered);
+
+					ConcurrentLinkedQueue<List<String>> unordered = new ConcurrentLinkedQueue<>();
+					CSVStream.parsePipelined(new ByteArrayInputStream(input), h -> {
+					}, (h, l) -> l, unordered::add, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT,
+							CSVMapperCache.defaultCache(), CSVStream.defaultSchema(), CSVProjection.all(), pool,
+							batchSize, maxBatchesInFlight, false);
+					assertEquals("Batch size: " + batchSize, expected.size(), unordered.size());
+					assertTrue("Batch size: " + batchSize, unordered.containsAll(expected));
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parsePipelined(InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParsePipelinedLargeInput() throws Exception {
+		// Multi-byte characters on every line, so that some of them cross the
+		// boundaries of the decoded buffers
+		StringBuilder csv = new StringBuilder("id,name,value\n");
+		for (int i = 0; i < 20000; i++) {
+			csv.append(i).append(",\"n\u00e9\u20ac, ").append(i).append("\",v").append(i * 7).append("\n");
+		}
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(new StringReader(csv.toString()), h -> {
+		}, (h, l) -> l, expected::add);
+		assertEquals(20000, expected.size());
+
+		List<List<String>> results = new ArrayList<>();
+		CSVStream.parsePipelined(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), h -> {
+		}, (h, l) -> l, results::add, true);
+		assertEquals(expected, results);
+	}
+
+	/**
+	 * Test that the decoding stage of
+	 * {@link com.github.ansell.csv.stream.CSVStream#parsePipelined(InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, boolean)}
+	 * hands over partial buffers from a slow source without waiting for more
+	 * input.
+	 */
+	@Test(timeout = 30000)
+	public final void testParsePipelinedSlowSource() throws Exception {
+		PipedOutputStream source = new PipedOutputStream();
+		try (Reader reader = new DecodingPipelineReader(new PipedInputStream(source));) {
+			source.write("A,B\n".getBytes(StandardCharsets.UTF_8));
+			source.flush();
+			char[] buffer = new char[16];
+			assertEquals(4, reader.read(buffer));
+			assertEquals("A,B\n", new String(buffer, 0, 4));
+			source.write("a,b\n".getBytes(StandardCharsets.UTF_8));
+			source.close();
+			assertEquals(4, reader.read(buffer));
+			assertEquals(-1, reader.read(buffer));
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parsePipelined(InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CSVMapperCache, CsvSchema, CSVProjection, ForkJoinPool, int, int, boolean)}
+	 * with unordered results, checking that the consumer is not called after
+	 * the exception is thrown.
+	 */
+	@Test
+	public final void testParsePipelinedLineConverterExceptionStopsConsumer() throws Exception {
+		byte[] input = numberedCsv(4000).getBytes(StandardCharsets.UTF_8);
+
+		AtomicBoolean finished = new AtomicBoolean();
+		AtomicInteger lateResults = new AtomicInteger();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			try {
+				CSVStream.parsePipelined(new ByteArrayInputStream(input), h -> {
+				}, (h, l) -> {
+					if (l.get(0).equals("5")) {
+						throw new IllegalStateException("Could not convert line");
+					}
+					// Keep the other batches running after the failure
+					slowDown();
+					return l;
+				}, l -> {
+					if (finished.get()) {
+						lateResults.incrementAndGet();
+					}
+				}, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT, CSVMapperCache.defaultCache(),
+						CSVStream.defaultSchema(), CSVProjection.all(), pool, 100, 8, false);
+				fail("Did not find expected exception");
+			} catch (final CSVStreamException e) {
+				finished.set(true);
+			}
+		} finally {
+			pool.shutdown();
+			assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+		}
+		assertEquals(0, lateResults.get());
+	}
+
+	/**
+	 * Test that an {@link Error} thrown while reading the input for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parsePipelined(InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, boolean)}
+	 * is thrown to the caller instead of leaving it waiting for more input.
+	 */
+	@Test(timeout = 30000)
+	public final void testParsePipelinedSourceError() throws Exception {
+		InputStream input = new SequenceInputStream(
+				new ByteArrayInputStream("A,B\na,b\n".getBytes(StandardCharsets.UTF_8)), new InputStream() {
+					@Override
+					public int read() throws IOException {
+						throw new AssertionError("Could not read input");
+					}
+				});
+		List<List<String>> results = new ArrayList<>();
+		try {
+			CSVStream.parsePipelined(input, h -> {
+			}, (h, l) -> l, results::add, true);
+			fail("Did not find expected exception");
+		} catch (final IOException | CSVStreamException e) {
+			Throwable cause = e;
+			while (cause != null && !(cause instanceof AssertionError)) {
+				cause = cause.getCause();
+			}
+			assertNotNull(cause);
+			assertEquals("Could not read input", cause.getMessage());
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parsePipelined(InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CSVMapperCache, CsvSchema, CSVProjection, ForkJoinPool, int, int, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParsePipelinedSubstituteHeadersAndDefaults() throws Exception {
+		List<String> substituteHeaders = Arrays.asList("A", "B", "C");
+		List<String> defaultValues = Arrays.asList("default-b", "");
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(new StringReader(MULTILINE_CSV), h -> {
+		}, (h, l) -> l, expected::add, substituteHeaders, defaultValues, 2, CSVMapperCache.defaultCache(),
+				CSVStream.defaultSchema(), CSVProjection.ofHeaders("B", "C"));
+		assertEquals(5, expected.size());
+
+		List<List<String>> results = new ArrayList<>();
+		CSVStream.parsePipelined(new ByteArrayInputStream(MULTILINE_CSV.getBytes(StandardCharsets.UTF_8)),
+				h -> assertEquals(substituteHeaders, h), (h, l) -> l, results::add, substituteHeaders, defaultValues,
+				2, CSVMapperCache.defaultCache(), CSVStream.defaultSchema(), CSVProjection.ofHeaders("B", "C"),
+				ForkJoinPool.commonPool(), 2, 2, true);
+		assertEquals(expected, results);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parsePipelined(InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParsePipelinedEmpty() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("CSV file did not contain a valid header line");
+		CSVStream.parsePipelined(new ByteArrayInputStream(new byte[0]), h -> {
+		}, (h, l) -> l, l -> {
+		}, true);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parsePipelined(InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParsePipelinedLineSizeMismatch() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Line and header sizes were different: expected 2, found 3");
+		CSVStream.parsePipelined(
+				new ByteArrayInputStream("TestHeader1,TestHeader2\na,b\nc,d\ne,f,g\nh,i\n".getBytes(StandardCharsets.UTF_8)),
+				h -> {
+				}, (h, l) -> l, l -> {
+				}, true);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parsePipelined(InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParsePipelinedLineConverterException() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Could not convert line");
+		CSVStream.parsePipelined(new ByteArrayInputStream("TestHeader1,TestHeader2\na,b\n".getBytes(StandardCharsets.UTF_8)),
+				h -> {
+				}, (h, l) -> {
+					throw new IllegalStateException("Could not convert line");
+				}, l -> {
+				}, true);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parsePipelined(InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParsePipelinedInputException() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Could not read input");
+		CSVStream.parsePipelined(new SequenceInputStream(
+				new ByteArrayInputStream("TestHeader1,TestHeader2\na,b\n".getBytes(StandardCharsets.UTF_8)),
+				new InputStream() {
+					@Override
+					public int read() throws IOException {
+						throw new IOException("Test input failure");
+					}
+				}), h -> {
+				}, (h, l) -> l, l -> {
+				}, true);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parsePipelined(InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CSVMapperCache, CsvSchema, CSVProjection, ForkJoinPool, int, int, boolean)}
+	 * .
+	 */
+	@Test
+	public final void testParsePipelinedInvalidBatchSize() throws Exception {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Batch size must be positive.");
+		CSVStream.parsePipelined(new ByteArrayInputStream(new byte[0]), h -> {
+		}, (h, l) -> l, l -> {
+		}, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT, CSVMapperCache.defaultCache(),
+				CSVStream.defaultSchema(), CSVProjection.all(), ForkJoinPool.commonPool(), 0, 2, true);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseBatched(java.io.Reader, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, int)}
+	 * .
+	 */
+	@Test
+	public final void testParseBatched() throws Exception {
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(new StringReader(MULTILINE_CSV), h -> {
+		}, (h, l) -> l, expected::add);
+
+		for (int batchSize = 1; batchSize < expected.size() + 2; batchSize++) {
+			List<Integer> batchSizes = new ArrayList<>();
+			List<List<String>> results = new ArrayList<>();
+			CSVStream.parseBatched(new StringReader(MULTILINE_CSV), h -> {
+			}, (h, l) -> l, b -> {
+				batchSizes.add(b.size());
+				results.addAll(b);
+			}, batchSize);
+			assertEquals("Batch size: " + batchSize, expected, results);
+			for (int i = 0; i < batchSizes.size() - 1; i++) {
+				assertEquals("Batch size: " + batchSize, batchSize, batchSizes.get(i).intValue());
+			}
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseBatched(java.io.Reader, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CSVMapperCache, CsvSchema, CSVProjection, int, java.time.Duration)}
+	 * .
+	 */
+	@Test
+	public final void testParseBatchedSubstituteHeadersAndMaxLatency() throws Exception {
+		List<String> substituteHeaders = Arrays.asList("A", "B", "C");
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(new StringReader(MULTILINE_CSV), h -> {
+		}, (h, l) -> l, expected::add, substituteHeaders, Collections.emptyList(), 1,
+				CSVMapperCache.defaultCache(), CSVStream.defaultSchema(), CSVProjection.ofHeaders("C", "A"));
+
+		List<List<String>> results = Collections.synchronizedList(new ArrayList<>());
+		CSVStream.parseBatched(new StringReader(MULTILINE_CSV), h -> assertEquals(substituteHeaders, h),
+				(h, l) -> l, results::addAll, substituteHeaders, Collections.emptyList(), 1,
+				CSVMapperCache.defaultCache(), CSVStream.defaultSchema(), CSVProjection.ofHeaders("C", "A"), 2,
+				Duration.ofSeconds(30));
+		assertEquals(expected, results);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseBatched(java.io.Reader, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, int)}
+	 * .
+	 */
+	@Test
+	public final void testParseBatchedConsumerException() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Could not write batch");
+		CSVStream.parseBatched(new StringReader(MULTILINE_CSV), h -> {
+		}, (h, l) -> l, b -> {
+			throw new IllegalStateException("Could not write batch");
+		}, 2);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseBatched(java.io.Reader, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, int)}
+	 * .
+	 */
+	@Test
+	public final void testParseBatchedConsumerExceptionDeliversBatchOnce() throws Exception {
+		AtomicBoolean failNext = new AtomicBoolean(true);
+		List<List<List<String>>> delivered = new ArrayList<>();
+		try {
+			CSVStream.parseBatched(new StringReader(MULTILINE_CSV), h -> {
+			}, (h, l) -> l, b -> {
+				delivered.add(new ArrayList<>(b));
+				if (failNext.getAndSet(false)) {
+					throw new IllegalStateException("Could not write batch");
+				}
+			}, 2);
+			fail("Batch consumer failure was not rethrown");
+		} catch (CSVStreamException e) {
+			assertTrue(e.getMessage().contains("Could not write batch"));
+			assertEquals(0, e.getSuppressed().length);
+		}
+		assertEquals(1, delivered.size());
+		assertEquals(2, delivered.get(0).size());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parse(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer)}
+	 * .
+	 */
+	@Test
+	public final void testParsePathMatchesParseReader() throws Exception {
+		List<String> expectedHeaders = new ArrayList<>();
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(new StringReader(MULTILINE_CSV), expectedHeaders::addAll, (h, l) -> l, expected::add);
+
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, MULTILINE_CSV.getBytes(StandardCharsets.UTF_8));
+
+		List<String> headers = new ArrayList<>();
+		List<List<String>> results = new ArrayList<>();
+		CSVStream.parse(testFile, headers::addAll, (h, l) -> l, results::add);
+		assertEquals(expectedHeaders, headers);
+		assertEquals(expected, results);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parse(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer)}
+	 * keeping the lines after the parse has closed the file, and the file has
+	 * been overwritten.
+	 */
+	@Test
+	public final void testParsePathLinesOutliveParse() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, "TestHeader1,TestHeader2\nTestValue1,TestValue2\n".getBytes(StandardCharsets.UTF_8));
+
+		List<List<String>> results = new ArrayList<>();
+		CSVStream.parse(testFile, h -> {
+		}, (h, l) -> l, results::add);
+
+		// Same length, so that any views into the old mapping would see the new
+		// bytes
+		Files.write(testFile, "TestHeader1,TestHeader2\nOtherValu1,OtherValu2\n".getBytes(StandardCharsets.UTF_8));
+		assertEquals(Arrays.asList(Arrays.asList("TestValue1", "TestValue2")), results);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parse(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvSchema)}
+	 * .
+	 */
+	@Test
+	public final void testParsePathSubstituteHeadersAndDefaults() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, MULTILINE_CSV.getBytes(StandardCharsets.UTF_8));
+
+		List<String> substituteHeaders = Arrays.asList("A", "B", "C");
+		List<String> defaultValues = Arrays.asList("", "default-b", "");
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(Files.newBufferedReader(testFile), h -> {
+		}, (h, l) -> l, expected::add, substituteHeaders, defaultValues, 2, CSVStream.defaultMapper(),
+				CSVStream.defaultSchema());
+
+		List<List<String>> results = new ArrayList<>();
+		CSVStream.parse(testFile, h -> assertEquals(substituteHeaders, h), (h, l) -> l, results::add,
+				substituteHeaders, defaultValues, 2, CSVStream.defaultSchema());
+		assertEquals(expected, results);
+		assertEquals("default-b", results.get(1).get(1));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parse(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvSchema)}
+	 * .
+	 */
+	@Test
+	public final void testParsePathEscapeCharacter() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile,
+				"TestHeader1,TestHeader2\nTest\\,Value1,TestValue2\n".getBytes(StandardCharsets.UTF_8));
+
+		List<List<String>> results = new ArrayList<>();
+		CSVStream.parse(testFile, h -> {
+		}, (h, l) -> l, results::add, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT,
+				CSVStream.defaultSchema().withEscapeChar('\\'));
+		assertEquals(Arrays.asList(Arrays.asList("Test,Value1", "TestValue2")), results);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parse(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer)}
+	 * .
+	 */
+	@Test
+	public final void testParsePathLineSizeMismatch() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, "TestHeader1,TestHeader2\na,b\nc,d,e\n".getBytes(StandardCharsets.UTF_8));
+
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Line and header sizes were different: expected 2, found 3 headers=[TestHeader1, TestHeader2] line=[c, d, e]");
+		CSVStream.parse(testFile, h -> {
+		}, (h, l) -> l, l -> {
+		});
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parse(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer)}
+	 * .
+	 */
+	@Test
+	public final void testParsePathEmpty() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("CSV file did not contain a valid header line");
+		CSVStream.parse(testFile, h -> {
+		}, (h, l) -> l, l -> {
+		});
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseRows(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer)}
+	 * .
+	 */
+	@Test
+	public final void testParseRowsPathMatchesParse() throws Exception {
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(new StringReader(MULTILINE_CSV), h -> {
+		}, (h, l) -> l, expected::add);
+
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, MULTILINE_CSV.getBytes(StandardCharsets.UTF_8));
+
+		List<List<String>> results = new ArrayList<>();
+		CSVStream.parseRows(testFile, h -> {
+		}, (h, r) -> r.toList(), results::add);
+		assertEquals(expected, results);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseRows(java.io.InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer)}
+	 * .
+	 */
+	@Test
+	public final void testParseRowsUnquotedNonAsciiWithQuoteMatchesParse() throws Exception {
+		String csv = "h1,h2\n5\"2é,x\"y\n";
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(new StringReader(csv), h -> {
+		}, (h, l) -> l, expected::add);
+		assertEquals(Arrays.asList(Arrays.asList("5\"2é", "x\"y")), expected);
+
+		List<List<String>> results = new ArrayList<>();
+		CSVStream.parseRows(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), h -> {
+		}, (h, r) -> {
+			List<String> values = new ArrayList<>();
+			for (int i = 0; i < r.size(); i++) {
+				values.add(r.get(i).toString());
+			}
+			return values;
+		}, results::add);
+		assertEquals(expected, results);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseRows(java.io.InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer)}
+	 * .
+	 */
+	@Test
+	public final void testParseRowsInputStreamHeaderLookup() throws Exception {
+		List<String> results = new ArrayList<>();
+		CSVStream.parseRows(new ByteArrayInputStream(MULTILINE_CSV.getBytes(StandardCharsets.UTF_8)), h -> {
+		}, (h, r) -> {
+			assertEquals(h, r.getHeaders());
+			assertEquals(2, r.indexOf("TestHeader3"));
+			assertEquals(-1, r.indexOf("NotAHeader"));
+			assertNull(r.get("NotAHeader"));
+			return r.get("TestHeader1").toString() + "|" + r.getString("TestHeader3");
+		}, results::add);
+		assertEquals(Arrays.asList("a1|c1", "a2|c2", "a3|c3\"", "a4|c4", "a5|c5", "a6|c6\nend"), results);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseWithHeaders(java.io.InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer)}
+	 * .
+	 */
+	@Test
+	public final void testParseWithHeadersInputStream() throws Exception {
+		List<CSVHeaders> seenHeaders = new ArrayList<>();
+		List<String> results = new ArrayList<>();
+		CSVStream.parseWithHeaders(new ByteArrayInputStream(MULTILINE_CSV.getBytes(StandardCharsets.UTF_8)),
+				h -> {
+				}, (h, r) -> {
+					seenHeaders.add(h);
+					assertEquals(Arrays.asList("TestHeader1", "TestHeader2", "TestHeader3"), h.getNames());
+					assertSame(h, r.getHeaderIndex());
+					assertEquals(2, h.indexOf("TestHeader3"));
+					assertEquals(-1, h.indexOf("NotAHeader"));
+					assertNull(r.get("NotAHeader"));
+					return r.get("TestHeader1").toString() + "|" + r.getString(h.indexOf("TestHeader3"));
+				}, results::add);
+		assertEquals(Arrays.asList("a1|c1", "a2|c2", "a3|c3\"", "a4|c4", "a5|c5", "a6|c6\nend"), results);
+		for (CSVHeaders nextHeaders : seenHeaders) {
+			assertSame(seenHeaders.get(0), nextHeaders);
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseWithHeaders(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvSchema, CSVProjection)}
+	 * .
+	 */
+	@Test
+	public final void testParseWithHeadersPathProjected() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, MULTILINE_CSV.getBytes(StandardCharsets.UTF_8));
+		List<String> substituteHeaders = Arrays.asList("A", "B", "C");
+
+		for (CsvSchema nextSchema : Arrays.asList(CSVStream.defaultSchema(),
+				CSVStream.defaultSchema().withEscapeChar('\\'))) {
+			List<String> expected = new ArrayList<>();
+			CSVStream.parseRows(testFile, h -> {
+			}, (h, r) -> r.getString(h.indexOf("A")) + "|" + r.getString(h.indexOf("C")), expected::add,
+					substituteHeaders, Arrays.asList("", "default-a"), 0, nextSchema, CSVProjection.ofHeaders("C", "A"));
+			assertEquals(7, expected.size());
+			assertEquals("TestHeader1|TestHeader3", expected.get(0));
+
+			List<String> results = new ArrayList<>();
+			CSVStream.parseWithHeaders(testFile, h -> assertEquals(substituteHeaders, h), (h, r) -> {
+				assertEquals(Arrays.asList("C", "A"), h.getNames());
+				assertEquals(-1, h.indexOf("B"));
+				return r.getString("A") + "|" + r.getString("C");
+			}, results::add, substituteHeaders, Arrays.asList("", "default-a"), 0, nextSchema,
+					CSVProjection.ofHeaders("C", "A"));
+			assertEquals(expected, results);
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseRows(java.io.InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvSchema)}
+	 * .
+	 */
+	@Test
+	public final void testParseRowsSubstituteHeadersAndDefaults() throws Exception {
+		List<String> substituteHeaders = Arrays.asList("A", "B", "C");
+		List<String> defaultValues = Arrays.asList("", "default-b", "");
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(new StringReader(MULTILINE_CSV), h -> {
+		}, (h, l) -> l, expected::add, substituteHeaders, defaultValues, 2, CSVStream.defaultMapper(),
+				CSVStream.defaultSchema());
+
+		List<List<String>> results = new ArrayList<>();
+		CSVStream.parseRows(new ByteArrayInputStream(MULTILINE_CSV.getBytes(StandardCharsets.UTF_8)),
+				h -> assertEquals(substituteHeaders, h), (h, r) -> {
+					assertEquals("default-b".equals(r.getString("B")), "default-b".contentEquals(r.get(1)));
+					return r.toList();
+				}, results::add, substituteHeaders, defaultValues, 2, CSVStream.defaultSchema());
+		assertEquals(expected, results);
+		assertEquals("default-b", results.get(1).get(1));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseRows(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvSchema)}
+	 * .
+	 */
+	@Test
+	public final void testParseRowsEscapeCharacter() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile,
+				"TestHeader1,TestHeader2\nTest\\,Value1,TestValue2\n".getBytes(StandardCharsets.UTF_8));
+
+		List<String> results = new ArrayList<>();
+		CSVStream.parseRows(testFile, h -> {
+		}, (h, r) -> r.getString("TestHeader1"), results::add, null, Collections.emptyList(),
+				CSVStream.DEFAULT_HEADER_COUNT, CSVStream.defaultSchema().withEscapeChar('\\'));
+		assertEquals(Arrays.asList("Test,Value1"), results);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#buildSchema(List, List, boolean)}
+	 * and
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseRows(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvSchema)}
+	 * .
+	 */
+	@Test
+	public final void testParseRowsTypedSchema() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, "Name,Count,Value\na,12,1.5\nb,-9223372036854775808,\"-2.5e3\"\nc,,0.1\n"
+				.getBytes(StandardCharsets.UTF_8));
+		List<String> headers = Arrays.asList("Name", "Count", "Value");
+		List<String> defaultValues = Arrays.asList("", "0", "");
+		CsvSchema typedSchema = CSVStream.buildSchema(headers,
+				Arrays.asList(ColumnType.STRING, ColumnType.NUMBER, ColumnType.NUMBER), false);
+
+		for (CsvSchema nextSchema : Arrays.asList(typedSchema, typedSchema.withEscapeChar('\\'))) {
+			List<String> results = new ArrayList<>();
+			CSVStream.parseRows(testFile, h -> {
+			}, (h, r) -> {
+				assertEquals(ColumnType.STRING, r.getColumnType(0));
+				assertEquals(ColumnType.NUMBER, r.getColumnType(r.indexOf("Count")));
+				assertEquals(ColumnType.NUMBER, r.getColumnType(2));
+				assertEquals(r.getLong(1), r.getLong("Count"));
+				return r.getString(0) + "|" + r.getLong(1) + "|" + r.getDouble("Value");
+			}, results::add, null, defaultValues, CSVStream.DEFAULT_HEADER_COUNT, nextSchema);
+			assertEquals(Arrays.asList("a|12|1.5", "b|-9223372036854775808|-2500.0", "c|0|0.1"), results);
+		}
+
+		List<Long> projected = new ArrayList<>();
+		CSVStream.parseRows(testFile, h -> {
+		}, (h, r) -> {
+			assertEquals(ColumnType.STRING, r.getColumnType(0));
+			return r.getLong(0);
+		}, projected::add, null, Arrays.asList("-1"), CSVStream.DEFAULT_HEADER_COUNT, CSVStream.defaultSchema(),
+				CSVProjection.ofHeaders("Count"));
+		assertEquals(Arrays.asList(12L, Long.MIN_VALUE, -1L), projected);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseRows(java.io.InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer)}
+	 * .
+	 */
+	@Test
+	public final void testParseRowsTypedOverflow() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectCause(CoreMatchers.instanceOf(NumberFormatException.class));
+		CSVStream.parseRows(new ByteArrayInputStream("Count\n2147483648\n".getBytes(StandardCharsets.UTF_8)), h -> {
+		}, (h, r) -> r.getInt("Count"), r -> {
+		});
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseRows(java.io.InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer)}
+	 * .
+	 */
+	@Test
+	public final void testParseRowsTypedMissingHeader() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectCause(CoreMatchers.instanceOf(IllegalArgumentException.class));
+		CSVStream.parseRows(new ByteArrayInputStream("Count\n1\n".getBytes(StandardCharsets.UTF_8)), h -> {
+		}, (h, r) -> r.getDouble("NotAHeader"), r -> {
+		});
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseRows(java.io.InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer)}
+	 * .
+	 */
+	@Test
+	public final void testParseRowsLineSizeMismatch() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Line and header sizes were different: expected 2, found 3 headers=[TestHeader1, TestHeader2] line=[c, d, e]");
+		CSVStream.parseRows(
+				new ByteArrayInputStream("TestHeader1,TestHeader2\na,b\nc,d,e\n".getBytes(StandardCharsets.UTF_8)),
+				h -> {
+				}, (h, r) -> r, r -> {
+				});
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseRows(java.io.InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer)}
+	 * .
+	 */
+	@Test
+	public final void testParseRowsRowConverterException() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectCause(CoreMatchers.instanceOf(IndexOutOfBoundsException.class));
+		CSVStream.parseRows(new ByteArrayInputStream(MULTILINE_CSV.getBytes(StandardCharsets.UTF_8)), h -> {
+		}, (h, r) -> r.get(3), r -> {
+		});
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parse(java.io.Reader, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvMapper, CsvSchema, CSVProjection)}
+	 * .
+	 */
+	@Test
+	public final void testParseProjectionByHeader() throws Exception {
+		List<String> validatedHeaders = new ArrayList<>();
+		List<List<String>> converterHeaders = new ArrayList<>();
+		List<List<String>> results = new ArrayList<>();
+		CSVStream.parse(new StringReader(MULTILINE_CSV), validatedHeaders::addAll, (h, l) -> {
+			converterHeaders.add(h);
+			return l;
+		}, results::add, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT, CSVStream.defaultMapper(),
+				CSVStream.defaultSchema(), CSVProjection.ofHeaders("TestHeader3", "TestHeader1"));
+		assertEquals(Arrays.asList("TestHeader1", "TestHeader2", "TestHeader3"), validatedHeaders);
+		assertEquals(Arrays.asList("TestHeader3", "TestHeader1"), converterHeaders.get(0));
+		assertEquals(6, results.size());
+		assertEquals(Arrays.asList("c1", "a1"), results.get(0));
+		assertEquals(Arrays.asList("c6\nend", "a6"), results.get(5));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parse(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvSchema, CSVProjection)}
+	 * .
+	 */
+	@Test
+	public final void testParsePathProjectionMatchesParseReader() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, MULTILINE_CSV.getBytes(StandardCharsets.UTF_8));
+
+		List<String> substituteHeaders = Arrays.asList("A", "B", "C");
+		List<String> defaultValues = Arrays.asList("default-b", "");
+		for (CSVProjection nextProjection : Arrays.asList(CSVProjection.ofHeaders("B", "C"),
+				CSVProjection.ofIndexes(1, 2))) {
+			List<List<String>> expected = new ArrayList<>();
+			CSVStream.parse(new StringReader(MULTILINE_CSV), h -> {
+			}, (h, l) -> l, expected::add, substituteHeaders, defaultValues, 2, CSVStream.defaultMapper(),
+					CSVStream.defaultSchema(), nextProjection);
+
+			List<List<String>> results = new ArrayList<>();
+			CSVStream.parse(testFile, h -> assertEquals(substituteHeaders, h), (h, l) -> {
+				assertEquals(Arrays.asList("B", "C"), h);
+				return l;
+			}, results::add, substituteHeaders, defaultValues, 2, CSVStream.defaultSchema(), nextProjection);
+			assertEquals(expected, results);
+			assertEquals(5, results.size());
+			assertEquals(Arrays.asList("default-b", "c3\""), results.get(1));
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parseRows(java.io.InputStream, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvSchema, CSVProjection)}
+	 * .
+	 */
+	@Test
+	public final void testParseRowsProjection() throws Exception {
+		List<String> results = new ArrayList<>();
+		CSVStream.parseRows(new ByteArrayInputStream(MULTILINE_CSV.getBytes(StandardCharsets.UTF_8)), h -> {
+		}, (h, r) -> {
+			assertEquals(2, r.size());
+			assertEquals(-1, r.indexOf("TestHeader2"));
+			return r.getString("TestHeader1") + "|" + r.get(0);
+		}, results::add, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT, CSVStream.defaultSchema(),
+				CSVProjection.ofIndexes(2, 0));
+		assertEquals(Arrays.asList("a1|c1", "a2|c2", "a3|c3\"", "a4|c4", "a5|c5", "a6|c6\nend"), results);
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parse(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvSchema, CSVProjection)}
+	 * .
+	 */
+	@Test
+	public final void testParseProjectionUnknownHeader() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, MULTILINE_CSV.getBytes(StandardCharsets.UTF_8));
+
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Projected column header TestHeader4 was not in the headers: [TestHeader1, TestHeader2, TestHeader3]");
+		CSVStream.parse(testFile, h -> {
+		}, (h, l) -> l, l -> {
+		}, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT, CSVStream.defaultSchema(),
+				CSVProjection.ofHeaders("TestHeader4"));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#parse(Path, java.util.function.Consumer, java.util.function.BiFunction, java.util.function.Consumer, List, List, int, CsvSchema, CSVProjection)}
+	 * .
+	 */
+	@Test
+	public final void testParseProjectionDefaultValuesSize() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, MULTILINE_CSV.getBytes(StandardCharsets.UTF_8));
+
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Default values list must have the same number of items as the headers: expected 1, found 3");
+		CSVStream.parse(testFile, h -> {
+		}, (h, l) -> l, l -> {
+		}, null, Arrays.asList("", "", ""), CSVStream.DEFAULT_HEADER_COUNT, CSVStream.defaultSchema(),
+				CSVProjection.ofIndexes(1));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#stream(java.io.Reader, java.util.function.Consumer, java.util.function.BiFunction)}
+	 * .
+	 */
+	@Test
+	public final void testStreamReaderMatchesParse() throws Exception {
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(new StringReader(MULTILINE_CSV), h -> {
+		}, (h, l) -> l, expected::add);
+
+		try (Stream<List<String>> stream = CSVStream.stream(new StringReader(MULTILINE_CSV), h -> {
+		}, (h, l) -> l);) {
+			assertEquals(expected, stream.collect(Collectors.toList()));
+		}
+
+		AtomicBoolean closed = new AtomicBoolean(false);
+		StringReader reader = new StringReader(MULTILINE_CSV) {
+			@Override
+			public void close() {
+				closed.set(true);
+				super.close();
+			}
+		};
+		try (Stream<List<String>> stream = CSVStream.stream(reader, h -> {
+		}, (h, l) -> l);) {
+			assertEquals(expected.get(0), stream.findFirst().get());
+			assertFalse(closed.get());
+		}
+		assertTrue(closed.get());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#stream(java.io.Reader, java.util.function.Consumer, java.util.function.BiFunction)}
+	 * .
+	 */
+	@Test
+	public final void testStreamReaderIsLazy() throws Exception {
+		AtomicInteger converted = new AtomicInteger();
+		try (Stream<String> stream = CSVStream.stream(new StringReader("TestHeader1,TestHeader2\na,b\nc,d,e\n"),
+				h -> {
+				}, (h, l) -> {
+					converted.incrementAndGet();
+					return l.get(0);
+				});) {
+			assertEquals(0, converted.get());
+			assertEquals("a", stream.findFirst().get());
+			assertEquals(1, converted.get());
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#stream(java.io.Reader, java.util.function.Consumer, java.util.function.BiFunction)}
+	 * .
+	 */
+	@Test
+	public final void testStreamReaderLineSizeMismatch() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Line and header sizes were different");
+		try (Stream<List<String>> stream = CSVStream.stream(new StringReader("TestHeader1,TestHeader2\na,b\nc,d,e\n"),
+				h -> {
+				}, (h, l) -> l);) {
+			stream.count();
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#stream(Path, java.util.function.Consumer, java.util.function.BiFunction, List, List, int, CsvMapper, CsvSchema, CSVProjection)}
+	 * .
+	 */
+	@Test
+	public final void testStreamPathParallelMatchesParse() throws Exception {
+		StringBuilder input = new StringBuilder(MULTILINE_CSV.substring(0, MULTILINE_CSV.indexOf('\n') + 1));
+		String dataLines = MULTILINE_CSV.substring(MULTILINE_CSV.indexOf('\n') + 1) + "\n";
+		for (int i = 0; i < 20; i++) {
+			input.append(dataLines.replace("a", "a" + i));
+		}
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, input.toString().getBytes(StandardCharsets.UTF_8));
+
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(new StringReader(input.toString()), h -> {
+		}, (h, l) -> l, expected::add);
+		assertEquals(120, expected.size());
+
+		for (long nextSplitSize : new long[] { 1, 7, 64, 1024, CSVFileSpliterator.DEFAULT_MINIMUM_SPLIT_SIZE }) {
+			try (Stream<List<String>> stream = CSVStream.stream(testFile, h -> {
+			}, (h, l) -> l, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT, CSVStream.defaultMapper(),
+					CSVStream.defaultSchema(), CSVProjection.all(), nextSplitSize);) {
+				assertEquals("Split size " + nextSplitSize, expected, stream.parallel().collect(Collectors.toList()));
+			}
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#stream(Path, java.util.function.Consumer, java.util.function.BiFunction, List, List, int, CsvMapper, CsvSchema, CSVProjection, long)}
+	 * .
+	 */
+	@Test
+	public final void testStreamPathParallelCommentWithQuote() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, COMMENT_QUOTE_CSV.getBytes(StandardCharsets.UTF_8));
+
+		List<List<String>> expected = new ArrayList<>();
+		CSVStream.parse(new StringReader(COMMENT_QUOTE_CSV), h -> {
+		}, (h, l) -> l, expected::add);
+		assertEquals(6, expected.size());
+
+		for (long nextSplitSize = 1; nextSplitSize < COMMENT_QUOTE_CSV.length() + 2; nextSplitSize++) {
+			try (Stream<List<String>> stream = CSVStream.stream(testFile, h -> {
+			}, (h, l) -> l, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT, CSVStream.defaultMapper(),
+					CSVStream.defaultSchema(), CSVProjection.all(), nextSplitSize);) {
+				List<List<String>> results = new ArrayList<>();
+				splitFully(stream.spliterator(), results);
+				assertEquals("Split size " + nextSplitSize, expected, results);
+			}
+		}
+	}
+
+	/**
+	 * Split the given spliterator as far as it will go, adding the results
+	 * from each split in order.
+	 */
+	private static <T> void splitFully(Spliterator<T> spliterator, List<T> results) {
+		Spliterator<T> prefix = spliterator.trySplit();
+		if (prefix != null) {
+			splitFully(prefix, results);
+			splitFully(spliterator, results);
+		} else {
+			spliterator.forEachRemaining(results::add);
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#stream(Path, java.util.function.Consumer, java.util.function.BiFunction, List, List, int, CsvMapper, CsvSchema, CSVProjection)}
+	 * .
+	 */
+	@Test
+	public final void testStreamPathSplitsOnRecordBoundaries() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile, MULTILINE_CSV.getBytes(StandardCharsets.UTF_8));
+
+		List<String> substituteHeaders = Arrays.asList("A", "B", "C");
+		List<String> defaultValues = Arrays.asList("default-b");
+		List<String> expected = new ArrayList<>();
+		CSVStream.parse(new StringReader(MULTILINE_CSV), h -> {
+		}, (h, l) -> l.get(0), expected::add, substituteHeaders, defaultValues, 2, CSVStream.defaultMapper(),
+				CSVStream.defaultSchema(), CSVProjection.ofHeaders("B"));
+
+		try (Stream<String> stream = CSVStream.stream(testFile, h -> {
+		}, (h, l) -> l.get(0), substituteHeaders, defaultValues, 2, CSVStream.defaultMapper(), CSVStream.defaultSchema(),
+				CSVProjection.ofHeaders("B"), 8);) {
+			Spliterator<String> suffix = stream.spliterator();
+			Spliterator<String> prefix = suffix.trySplit();
+			assertNotNull(prefix);
+			List<String> results = new ArrayList<>();
+			prefix.forEachRemaining(results::add);
+			assertFalse(results.isEmpty());
+			suffix.forEachRemaining(results::add);
+			assertEquals(expected, results);
+			assertEquals(Arrays.asList("b2", "default-b", "b4\n\n\n", "default-b", "b6"), results);
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#stream(Path, java.util.function.Consumer, java.util.function.BiFunction, List, List, int, CsvMapper, CsvSchema, CSVProjection)}
+	 * .
+	 */
+	@Test
+	public final void testStreamPathEscapeCharacter() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+		Files.write(testFile,
+				"TestHeader1,TestHeader2\nTest\\,Value1,TestValue2\nTest\\,Value3,TestValue4\n".getBytes(StandardCharsets.UTF_8));
+
+		try (Stream<String> stream = CSVStream.stream(testFile, h -> {
+		}, (h, l) -> l.get(0), null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT, CSVStream.defaultMapper(),
+				CSVStream.defaultSchema().withEscapeChar('\\'), CSVProjection.all(), 1);) {
+			assertEquals(Arrays.asList("Test,Value1", "Test,Value3"), stream.parallel().collect(Collectors.toList()));
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#stream(Path, java.util.function.Consumer, java.util.function.BiFunction)}
+	 * .
+	 */
+	@Test
+	public final void testStreamPathEmpty() throws Exception {
+		Path testFile = tempDir.newFile("test.csv").toPath();
+
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("CSV file did not contain a valid header line");
+		try (Stream<List<String>> stream = CSVStream.stream(testFile, h -> {
+		}, (h, l) -> l);) {
+			stream.parallel().count();
+		}
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#writeParallel(java.io.Writer, Stream, CsvSchema, java.util.function.BiFunction, ForkJoinPool, int, int)}
+	 * .
+	 */
+	@Test
+	public final void testWriteParallelMatchesWrite() throws Exception {
+		List<String> headers = Arrays.asList("TestHeader1", "TestHeader2", "TestHeader3");
+		List<Integer> objects = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			objects.add(i);
+		}
+		BiFunction<List<String>, Integer, List<String>> converter = (h, o) -> Arrays.asList("value" + o,
+				"with, \"quotes\" " + o, o % 7 == 0 ? "" : "line\nbreak");
+
+		StringWriter expected = new StringWriter();
+		CSVStream.write(expected, objects.stream(), headers, converter);
+
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			for (int nextChunkSize : new int[] { 1, 3, 100, 500, 1000 }) {
+				for (int nextMaxInFlight : new int[] { 1, 4 }) {
+					StringWriter writer = new StringWriter();
+					CSVStream.writeParallel(writer, objects.parallelStream(), CSVStream.buildSchema(headers), converter,
+							pool, nextChunkSize, nextMaxInFlight);
+					assertEquals("Chunk size " + nextChunkSize + " in flight " + nextMaxInFlight, expected.toString(),
+							writer.toString());
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		StringWriter writer = new StringWriter();
+		CSVStream.writeParallel(writer, objects.stream(), headers, converter);
+		assertEquals(expected.toString(), writer.toString());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#writeParallel(java.io.OutputStream, Stream, CsvSchema, java.util.function.BiFunction, ForkJoinPool, int, int)}
+	 * .
+	 */
+	@Test
+	public final void testWriteParallelOutputStream() throws Exception {
+		List<String> headers = Arrays.asList("TestHeader1", "TestHeader2");
+		List<List<String>> lines = Arrays.asList(Arrays.asList("\u00e9t\u00e9", "\u4e2d\u6587"), Arrays.asList("a", "b"),
+				Arrays.asList("c", "d"));
+
+		StringWriter expected = new StringWriter();
+		CSVStream.write(expected, lines.stream(), headers, (h, l) -> l);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		CSVStream.writeParallel(output, lines.stream(), CSVStream.buildSchema(headers), (h, l) -> l,
+				ForkJoinPool.commonPool(), 2, 2);
+		assertEquals(expected.toString(), new String(output.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#writeParallel(java.io.Writer, Stream, List, java.util.function.BiFunction)}
+	 * .
+	 */
+	@Test
+	public final void testWriteParallelEmpty() throws Exception {
+		List<String> headers = Arrays.asList("TestHeader1");
+		StringWriter expected = new StringWriter();
+		CSVStream.write(expected, Stream.empty(), headers, (h, o) -> Arrays.asList("x"));
+
+		StringWriter writer = new StringWriter();
+		CSVStream.writeParallel(writer, Stream.empty(), headers, (h, o) -> Arrays.asList("x"));
+		assertEquals(expected.toString(), writer.toString());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#writeParallel(java.io.Writer, Stream, CsvSchema, java.util.function.BiFunction, ForkJoinPool, int, int)}
+	 * .
+	 */
+	@Test
+	public final void testWriteParallelBoundsChunksInFlight() throws Exception {
+		int chunkSize = 10;
+		int maxInFlight = 2;
+		AtomicInteger pulled = new AtomicInteger();
+		AtomicInteger converted = new AtomicInteger();
+		AtomicInteger maxPending = new AtomicInteger();
+		StringWriter writer = new StringWriter();
+		CSVStream.writeParallel(writer, Stream.iterate(0, i -> i + 1).limit(1000).peek(i -> {
+			int pending = pulled.incrementAndGet() - converted.get();
+			maxPending.accumulateAndGet(pending, Math::max);
+		}), CSVStream.buildSchema(Arrays.asList("TestHeader1")), (h, o) -> {
+			converted.incrementAndGet();
+			return Arrays.asList(o.toString());
+		}, ForkJoinPool.commonPool(), chunkSize, maxInFlight);
+		assertEquals(1000, converted.get());
+		assertTrue("Pending objects: " + maxPending.get(), maxPending.get() <= chunkSize * (maxInFlight + 1));
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#writeParallel(java.io.Writer, Stream, CsvSchema, java.util.function.BiFunction, ForkJoinPool, int, int)}
+	 * checking that the converter is not called after the writer is closed.
+	 */
+	@Test
+	public final void testWriteParallelConverterExceptionStopsConverter() throws Exception {
+		AtomicBoolean closed = new AtomicBoolean();
+		AtomicInteger lateConversions = new AtomicInteger();
+		StringWriter writer = new StringWriter() {
+			@Override
+			public void close() throws IOException {
+				closed.set(true);
+				super.close();
+			}
+		};
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			try {
+				CSVStream.writeParallel(writer, Stream.iterate(0, i -> i + 1).limit(4000),
+						CSVStream.buildSchema(Arrays.asList("TestHeader1")), (h, o) -> {
+							if (closed.get()) {
+								lateConversions.incrementAndGet();
+							}
+							if (o == 5) {
+								throw new IllegalArgumentException("Bad object: " + o);
+							}
+							// Keep the other chunks running after the failure
+							slowDown();
+							return Arrays.asList(o.toString());
+						}, pool, 100, 8);
+				fail("Did not find expected exception");
+			} catch (final CSVStreamException e) {
+				assertTrue(closed.get());
+			}
+		} finally {
+			pool.shutdown();
+			assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+		}
+		assertEquals(0, lateConversions.get());
+	}
+
+	/**
+	 * Test method for
+	 * {@link com.github.ansell.csv.stream.CSVStream#writeParallel(java.io.Writer, Stream, List, java.util.function.BiFunction)}
+	 * .
+	 */
+	@Test
+	public final void testWriteParallelConverterException() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Could not write object out");
+		CSVStream.writeParallel(new StringWriter(), Stream.of(1, 2, 3), Arrays.asList("TestHeader1"), (h, o) -> {
+			throw new IllegalArgumentException("Bad object: " + o);
+		});
+	}
+
 }
@@ -27,13 +27,22 @@ package com.github.ansell.csv.stream;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -41,14 +50,21 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
@@ -57,8 +73,12 @@ import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.TreeNode;
 import com.fasterxml.jackson.core.filter.FilteringParserDelegate;
 import com.fasterxml.jackson.core.filter.JsonPointerBasedFilter;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.github.ansell.csv.stream.util.JSONStreamUtil;
 
 /**
@@ -71,6 +91,9 @@ public class JSONStreamTest {
 	@Rule
 	public ExpectedException thrown = ExpectedException.none();
 
+	@Rule
+	public TemporaryFolder tempDir = new TemporaryFolder();
+
 	private ObjectMapper mapper = new ObjectMapper();
 
 	@Test
@@ -593,6 +616,918 @@ public class JSONStreamTest {
 
 	}
 
+	@Test
+	public void testParseFieldsMatchesParse() throws Exception {
+		String testString = "{ \"skipped\": {\"records\": [1, 2]}, \"records\": [\n"
+				+ "  {\"name\": \"Alice\", \"age\": 30, \"score\": 1.50, \"big\": 123456789012345678901234567890,"
+				+ " \"exp\": 1e2, \"flag\": true, \"nothing\": null, \"phone\": [{\"home\": \"123\"}, {\"home\": \"456\"}],"
+				+ " \"address\": {\"city\": \"Brisbane\", \"lines\": [\"a\", \"b\"]}, \"ignored\": {\"deep\": [[{}]]}},\n"
+				+ "  {\"name\": \"Bob\", \"phone\": {\"1\": {\"home\": \"789\"}}, \"address\": \"none\", \"long\": 9876543210},\n"
+				+ "  {\"name\": \"Carol\", \"name\": {\"first\": \"Carol\"}, \"flag\": false, \"score\": -0.0},\n"
+				+ "  {}\n" + "] }";
+
+		JsonPointer basePath = JsonPointer.compile("/records");
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		fieldRelativePaths.put("age", Optional.of(JsonPointer.compile("/age")));
+		fieldRelativePaths.put("score", Optional.of(JsonPointer.compile("/score")));
+		fieldRelativePaths.put("big", Optional.of(JsonPointer.compile("/big")));
+		fieldRelativePaths.put("exp", Optional.of(JsonPointer.compile("/exp")));
+		fieldRelativePaths.put("flag", Optional.of(JsonPointer.compile("/flag")));
+		fieldRelativePaths.put("nothing", Optional.of(JsonPointer.compile("/nothing")));
+		fieldRelativePaths.put("secondPhone", Optional.of(JsonPointer.compile("/phone/1/home")));
+		fieldRelativePaths.put("phone", Optional.of(JsonPointer.compile("/phone")));
+		fieldRelativePaths.put("city", Optional.of(JsonPointer.compile("/address/city")));
+		fieldRelativePaths.put("secondLine", Optional.of(JsonPointer.compile("/address/lines/1")));
+		fieldRelativePaths.put("long", Optional.of(JsonPointer.compile("/long")));
+		fieldRelativePaths.put("absent", Optional.empty());
+		Map<String, String> defaultValues = new HashMap<>();
+		defaultValues.put("city", "Unknown");
+		List<String> headers = Arrays.asList("name", "age", "score", "big", "exp", "flag", "nothing", "secondPhone",
+				"phone", "city", "secondLine", "long", "absent", "unmapped", "name");
+
+		for (ObjectMapper nextMapper : Arrays.asList(mapper,
+				new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS))) {
+			List<List<String>> expected = new ArrayList<>();
+			JSONStream.parse(new StringReader(testString), h -> {
+			}, (n, h, l) -> l, expected::add, basePath, fieldRelativePaths, defaultValues, nextMapper, headers);
+
+			List<List<String>> results = new ArrayList<>();
+			JSONStream.parseFields(new StringReader(testString), h -> assertEquals(headers, h), (h, l) -> {
+				assertEquals(headers, h);
+				return l;
+			}, results::add, basePath, fieldRelativePaths, defaultValues, nextMapper, headers);
+
+			assertEquals(4, results.size());
+			assertEquals(expected, results);
+		}
+		assertEquals(Arrays.asList("Alice", "30", "1.5", "123456789012345678901234567890", "100.0", "true", "null",
+				"456", "", "Brisbane", "b", "", "", "", "Alice"), listOf(testString, basePath, fieldRelativePaths,
+						defaultValues, headers).get(0));
+	}
+
+	@Test
+	public void testParseFieldsObjectBasePath() throws Exception {
+		String testString = "{ \"base\": [{\"name\": \"Alice\"}, {\"name\": \"Bob\", \"phone\": [\"1\", \"2\"]}] }";
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		fieldRelativePaths.put("phone", Optional.of(JsonPointer.compile("/phone/0")));
+		List<String> headers = Arrays.asList("name", "phone");
+
+		assertEquals(Arrays.asList(Arrays.asList("Bob", "1")), listOf(testString, JsonPointer.compile("/base/1"),
+				fieldRelativePaths, Collections.emptyMap(), headers));
+	}
+
+	@Test
+	public void testParseFieldsNoFieldPaths() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("No field paths were set for JSONStream.parse");
+		JSONStream.parseFields(new StringReader("{\"base\": []}"), h -> {
+		}, (h, l) -> l, l -> {
+		}, JsonPointer.compile("/base"), Collections.emptyMap(), Collections.emptyMap(), mapper,
+				Arrays.asList("name"));
+	}
+
+	@Test
+	public void testParseFieldsBasePathNotArrayOrObject() throws Exception {
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Base JSONPointer must point to either an Array or an Object");
+		listOf("{\"base\": \"value\"}", JsonPointer.compile("/base"), fieldRelativePaths, Collections.emptyMap(),
+				Arrays.asList("name"));
+	}
+
+	private List<List<String>> listOf(String testString, JsonPointer basePath,
+			Map<String, Optional<JsonPointer>> fieldRelativePaths, Map<String, String> defaultValues,
+			List<String> headers) throws Exception {
+		List<List<String>> results = new ArrayList<>();
+		JSONStream.parseFields(new StringReader(testString), h -> {
+		}, (h, l) -> l, results::add, basePath, fieldRelativePaths, defaultValues, mapper, headers);
+		return results;
+	}
+
+	@Test
+	public void testExtractionPlanReusedAcrossParseCalls() throws Exception {
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("city", Optional.of(JsonPointer.compile("/address/city")));
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		fieldRelativePaths.put("postcode", Optional.of(JsonPointer.compile("/address/postcode")));
+		fieldRelativePaths.put("firstLine", Optional.of(JsonPointer.compile("/address/lines/0")));
+		fieldRelativePaths.put("secondLine", Optional.of(JsonPointer.compile("/address/lines/1")));
+		fieldRelativePaths.put("absent", Optional.empty());
+		List<String> headers = Arrays.asList("name", "city", "postcode", "firstLine", "secondLine", "absent",
+				"unmapped");
+		Map<String, String> defaultValues = new HashMap<>();
+		defaultValues.put("postcode", "0000");
+		JsonPointer basePath = JsonPointer.compile("/records");
+
+		JSONExtractionPlan plan = JSONExtractionPlan.compile(headers, fieldRelativePaths);
+		assertEquals(headers, plan.getHeaders());
+		assertEquals(Arrays.asList(Optional.of(JsonPointer.compile("/name")),
+				Optional.of(JsonPointer.compile("/address/city")), Optional.of(JsonPointer.compile("/address/postcode")),
+				Optional.of(JsonPointer.compile("/address/lines/0")),
+				Optional.of(JsonPointer.compile("/address/lines/1")), Optional.empty(), Optional.empty()),
+				plan.getFieldRelativePointers());
+
+		List<String> documents = Arrays.asList(
+				"{ \"records\": [{\"name\": \"Alice\", \"address\": {\"city\": \"Brisbane\", \"postcode\": 4000,"
+						+ " \"lines\": [\"1 Main St\", \"Unit 2\"]}}, {\"name\": \"Bob\"}] }",
+				"{ \"records\": {\"name\": \"Carol\", \"address\": {\"lines\": {\"1\": \"Rear\"}, \"city\": [\"x\"]}} }",
+				"{ \"records\": [{\"address\": \"none\"}] }");
+		for (String nextDocument : documents) {
+			List<List<String>> expected = new ArrayList<>();
+			JSONStream.parse(new StringReader(nextDocument), h -> {
+			}, (n, h, l) -> l, expected::add, basePath, fieldRelativePaths, defaultValues, mapper, headers);
+
+			List<List<String>> parseResults = new ArrayList<>();
+			JSONStream.parse(new StringReader(nextDocument), h -> assertEquals(headers, h), (n, h, l) -> {
+				assertEquals(headers, h);
+				return l;
+			}, parseResults::add, basePath, plan, defaultValues, mapper);
+			assertEquals(expected, parseResults);
+
+			List<List<String>> parseFieldsResults = new ArrayList<>();
+			JSONStream.parseFields(new StringReader(nextDocument), h -> assertEquals(headers, h), (h, l) -> l,
+					parseFieldsResults::add, basePath, plan, defaultValues, mapper);
+			assertEquals(expected, parseFieldsResults);
+		}
+
+		List<List<String>> results = new ArrayList<>();
+		JSONStream.parseFields(new StringReader(documents.get(0)), h -> {
+		}, (h, l) -> l, results::add, basePath, plan, defaultValues, mapper);
+		assertEquals(Arrays.asList(Arrays.asList("Alice", "Brisbane", "4000", "1 Main St", "Unit 2", "", ""),
+				Arrays.asList("Bob", "", "0000", "", "", "", "")), results);
+	}
+
+	@Test
+	public void testParseFieldsDuplicateKeys() throws Exception {
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("a", Optional.of(JsonPointer.compile("/a")));
+		fieldRelativePaths.put("b", Optional.of(JsonPointer.compile("/a/b")));
+		fieldRelativePaths.put("c", Optional.of(JsonPointer.compile("/a/c")));
+		fieldRelativePaths.put("first", Optional.of(JsonPointer.compile("/a/0")));
+		List<String> headers = Arrays.asList("a", "b", "c", "first");
+		JsonPointer basePath = JsonPointer.compile("/records");
+		JSONExtractionPlan plan = JSONExtractionPlan.compile(headers, fieldRelativePaths);
+
+		List<String> documents = Arrays.asList("{ \"records\": [{\"a\": {\"b\": 1}, \"a\": 2}] }",
+				"{ \"records\": [{\"a\": {\"b\": 1, \"c\": 3}, \"a\": {\"c\": 4}}] }",
+				"{ \"records\": [{\"a\": [6], \"a\": {\"b\": 5}}] }",
+				"{ \"records\": [{\"a\": 2, \"a\": {\"b\": 1}}] }");
+		for (String nextDocument : documents) {
+			List<List<String>> expected = new ArrayList<>();
+			JSONStream.parse(new StringReader(nextDocument), h -> {
+			}, (n, h, l) -> l, expected::add, basePath, plan, Collections.emptyMap(), mapper);
+
+			List<List<String>> results = new ArrayList<>();
+			JSONStream.parseFields(new StringReader(nextDocument), h -> {
+			}, (h, l) -> l, results::add, basePath, plan, Collections.emptyMap(), mapper);
+			assertEquals(nextDocument, expected, results);
+		}
+
+		List<List<String>> results = new ArrayList<>();
+		JSONStream.parseFields(new StringReader(documents.get(0)), h -> {
+		}, (h, l) -> l, results::add, basePath, plan, Collections.emptyMap(), mapper);
+		assertEquals(Arrays.asList(Arrays.asList("2", "", "", "")), results);
+	}
+
+	@Test
+	public void testParseBatched() throws Exception {
+		StringBuilder testString = new StringBuilder("{ \"records\": [\n");
+		for (int i = 0; i < 10; i++) {
+			if (i > 0) {
+				testString.append(",\n");
+			}
+			testString.append("{\"name\": \"name").append(i).append("\", \"score\": ").append(i).append("}");
+		}
+		testString.append("] }");
+		JsonPointer basePath = JsonPointer.compile("/records");
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		fieldRelativePaths.put("score", Optional.of(JsonPointer.compile("/score")));
+		List<String> headers = Arrays.asList("name", "score");
+		JSONExtractionPlan plan = JSONExtractionPlan.compile(headers, fieldRelativePaths);
+
+		List<List<String>> expected = new ArrayList<>();
+		JSONStream.parse(new StringReader(testString.toString()), h -> {
+		}, (n, h, l) -> l, expected::add, basePath, plan, Collections.emptyMap(), mapper);
+		assertEquals(10, expected.size());
+
+		List<List<List<String>>> batches = new ArrayList<>();
+		JSONStream.parseBatched(new StringReader(testString.toString()), h -> assertEquals(headers, h),
+				(n, h, l) -> l, b -> batches.add(new ArrayList<>(b)), basePath, plan, Collections.emptyMap(),
+				mapper, 4);
+		assertEquals(Arrays.asList(expected.subList(0, 4), expected.subList(4, 8), expected.subList(8, 10)),
+				batches);
+	}
+
+	@Test
+	public void testParseParallelMatchesParse() throws Exception {
+		StringBuilder testString = new StringBuilder("{ \"skipped\": [{\"name\": \"x\"}], \"records\": [\n");
+		for (int i = 0; i < 50; i++) {
+			if (i > 0) {
+				testString.append(",\n");
+			}
+			testString.append("{\"name\": \"name").append(i).append("\", \"score\": ").append(i).append(".50")
+					.append(", \"phone\": [{\"home\": \"").append(i).append("\"}], \"nested\": {\"deep\": [[")
+					.append(i).append("]]}}");
+		}
+		testString.append("] }");
+		JsonPointer basePath = JsonPointer.compile("/records");
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		fieldRelativePaths.put("score", Optional.of(JsonPointer.compile("/score")));
+		fieldRelativePaths.put("phone", Optional.of(JsonPointer.compile("/phone/0/home")));
+		fieldRelativePaths.put("deep", Optional.of(JsonPointer.compile("/nested/deep/0/0")));
+		List<String> headers = Arrays.asList("name", "score", "phone", "deep", "missing");
+		Map<String, String> defaultValues = new HashMap<>();
+		defaultValues.put("missing", "default");
+		JSONExtractionPlan plan = JSONExtractionPlan.compile(headers, fieldRelativePaths);
+		// Results are filtered on the worker threads
+		TriFunction<JsonNode, List<String>, List<String>, List<String>> lineConverter = (n, h, l) -> n.get("name")
+				.asText().endsWith("7") ? null : l;
+
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			for (ObjectMapper nextMapper : Arrays.asList(mapper,
+					new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS))) {
+				List<List<String>> expected = new ArrayList<>();
+				JSONStream.parse(new StringReader(testString.toString()), h -> {
+				}, lineConverter, expected::add, basePath, fieldRelativePaths, defaultValues, nextMapper, headers);
+				assertEquals(45, expected.size());
+
+				for (int chunkSize = 1; chunkSize < 60; chunkSize += 7) {
+					for (int maxChunksInFlight = 1; maxChunksInFlight < 4; maxChunksInFlight++) {
+						List<String> validatedHeaders = new ArrayList<>();
+						List<List<String>> ordered = new ArrayList<>();
+						JSONStream.parseParallel(new StringReader(testString.toString()), validatedHeaders::addAll,
+								lineConverter, ordered::add, basePath, plan, defaultValues, nextMapper, pool,
+								chunkSize, maxChunksInFlight, true);
+						assertEquals(headers, validatedHeaders);
+						assertEquals("Chunk size: " + chunkSize, expected, ordered);
+
+						ConcurrentLinkedQueue<List<String>> unordered = new ConcurrentLinkedQueue<>();
+						JSONStream.parseParallel(new StringReader(testString.toString()), h -> {
+						}, lineConverter, unordered::add, basePath, plan, defaultValues, nextMapper, pool,
+								chunkSize, maxChunksInFlight, false);
+						assertEquals("Chunk size: " + chunkSize, expected.size(), unordered.size());
+						assertTrue("Chunk size: " + chunkSize, unordered.containsAll(expected));
+					}
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testParseParallelObjectBasePath() throws Exception {
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		List<List<String>> results = new ArrayList<>();
+		JSONStream.parseParallel(new StringReader("{ \"base\": {\"name\": \"Alice\"} }"), h -> {
+		}, (n, h, l) -> l, results::add, JsonPointer.compile("/base"), fieldRelativePaths, Collections.emptyMap(),
+				mapper, Arrays.asList("name"), true);
+		assertEquals(Arrays.asList(Arrays.asList("Alice")), results);
+	}
+
+	@Test
+	public void testParseParallelLineConverterException() throws Exception {
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Could not convert line");
+		JSONStream.parseParallel(new StringReader("{ \"base\": [{\"name\": \"Alice\"}] }"), h -> {
+		}, (n, h, l) -> {
+			throw new IllegalStateException("Could not convert line");
+		}, l -> {
+		}, JsonPointer.compile("/base"), fieldRelativePaths, Collections.emptyMap(), mapper, Arrays.asList("name"),
+				true);
+	}
+
+	@Test
+	public void testParseParallelLineConverterExceptionStopsConsumer() throws Exception {
+		StringBuilder testString = new StringBuilder("{ \"base\": [");
+		for (int i = 0; i < 4000; i++) {
+			testString.append(i > 0 ? "," : "").append("{\"name\": \"").append(i).append("\"}");
+		}
+		testString.append("] }");
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		JSONExtractionPlan plan = JSONExtractionPlan.compile(Arrays.asList("name"), fieldRelativePaths);
+		assertEquals(0, countLateResults((lineConverter, resultConsumer, pool) -> JSONStream.parseParallel(
+				new StringReader(testString.toString()), h -> {
+				}, lineConverter, resultConsumer, JsonPointer.compile("/base"), plan, Collections.emptyMap(),
+				mapper, pool, 100, 8, false)));
+	}
+
+	@Test
+	public void testParseParallelBasePathNotArrayOrObject() throws Exception {
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Base JSONPointer must point to either an Array or an Object");
+		JSONStream.parseParallel(new StringReader("{\"base\": \"value\"}"), h -> {
+		}, (n, h, l) -> l, l -> {
+		}, JsonPointer.compile("/base"), fieldRelativePaths, Collections.emptyMap(), mapper, Arrays.asList("name"),
+				false);
+	}
+
+	@Test
+	public void testParseLinesMatchesParse() throws Exception {
+		StringBuilder arrayString = new StringBuilder("{ \"records\": [");
+		StringBuilder linesString = new StringBuilder();
+		for (int i = 0; i < 40; i++) {
+			String nextRecord = "{\"name\": \"name" + i + "\", \"score\": " + i + ".50, \"text\": \"line\\nbreak " + i
+					+ "\", \"phone\": [{\"home\": \"" + i + "\"}]}";
+			arrayString.append(i > 0 ? "," : "").append(nextRecord);
+			// Mix line endings and blank lines, which are both ignored
+			linesString.append(nextRecord).append(i % 3 == 0 ? "\r\n" : "\n").append(i % 5 == 0 ? "\n" : "");
+		}
+		arrayString.append("] }");
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		fieldRelativePaths.put("score", Optional.of(JsonPointer.compile("/score")));
+		fieldRelativePaths.put("text", Optional.of(JsonPointer.compile("/text")));
+		fieldRelativePaths.put("phone", Optional.of(JsonPointer.compile("/phone/0/home")));
+		List<String> headers = Arrays.asList("name", "score", "text", "phone", "missing");
+		Map<String, String> defaultValues = new HashMap<>();
+		defaultValues.put("missing", "default");
+		TriFunction<JsonNode, List<String>, List<String>, List<String>> lineConverter = (n, h, l) -> n.get("name")
+				.asText().endsWith("7") ? null : l;
+
+		List<List<String>> expected = new ArrayList<>();
+		JSONStream.parse(new StringReader(arrayString.toString()), h -> {
+		}, lineConverter, expected::add, JsonPointer.compile("/records"), fieldRelativePaths, defaultValues, mapper,
+				headers);
+		assertEquals(36, expected.size());
+
+		List<String> validatedHeaders = new ArrayList<>();
+		List<List<String>> results = new ArrayList<>();
+		JSONStream.parseLines(new StringReader(linesString.toString()), validatedHeaders::addAll, lineConverter,
+				results::add, fieldRelativePaths, defaultValues, mapper, headers);
+		assertEquals(headers, validatedHeaders);
+		assertEquals(expected, results);
+
+		Path testFile = tempDir.newFile("test.jsonl").toPath();
+		Files.write(testFile, linesString.toString().getBytes(StandardCharsets.UTF_8));
+		JSONExtractionPlan plan = JSONExtractionPlan.compile(headers, fieldRelativePaths);
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try (FileChannel channel = FileChannel.open(testFile, StandardOpenOption.READ)) {
+			for (int chunkSize = 1; chunkSize < linesString.length() + 2; chunkSize += 37) {
+				List<List<String>> ordered = new ArrayList<>();
+				JSONStream.parseLinesParallel(channel, h -> {
+				}, lineConverter, ordered::add, plan, defaultValues, mapper, pool, chunkSize, true);
+				assertEquals("Chunk size: " + chunkSize, expected, ordered);
+
+				ConcurrentLinkedQueue<List<String>> unordered = new ConcurrentLinkedQueue<>();
+				JSONStream.parseLinesParallel(channel, h -> {
+				}, lineConverter, unordered::add, plan, defaultValues, mapper, pool, chunkSize, false);
+				assertEquals("Chunk size: " + chunkSize, expected.size(), unordered.size());
+				assertTrue("Chunk size: " + chunkSize, unordered.containsAll(expected));
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		List<List<String>> pathResults = new ArrayList<>();
+		JSONStream.parseLinesParallel(testFile, h -> {
+		}, lineConverter, pathResults::add, fieldRelativePaths, defaultValues, mapper, headers, true);
+		assertEquals(expected, pathResults);
+	}
+
+	@Test
+	public void testParseLinesEmpty() throws Exception {
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		List<String> validatedHeaders = new ArrayList<>();
+		List<List<String>> results = new ArrayList<>();
+		JSONStream.parseLines(new StringReader("\n\n"), validatedHeaders::addAll, (n, h, l) -> l, results::add,
+				fieldRelativePaths, Collections.emptyMap(), mapper, Arrays.asList("name"));
+		assertEquals(Arrays.asList("name"), validatedHeaders);
+		assertTrue(results.isEmpty());
+
+		Path testFile = tempDir.newFile("empty.jsonl").toPath();
+		JSONStream.parseLinesParallel(testFile, h -> {
+		}, (n, h, l) -> l, results::add, fieldRelativePaths, Collections.emptyMap(), mapper, Arrays.asList("name"),
+				true);
+		assertTrue(results.isEmpty());
+	}
+
+	@Test
+	public void testParseLinesNotObject() throws Exception {
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("JSON Lines records must be objects: instead found START_ARRAY (line was 2)");
+		JSONStream.parseLines(new StringReader("{\"name\": \"Alice\"}\n[\"Bob\"]\n"), h -> {
+		}, (n, h, l) -> l, l -> {
+		}, fieldRelativePaths, Collections.emptyMap(), mapper, Arrays.asList("name"));
+	}
+
+	@Test
+	public void testParseLinesParallelLineConverterException() throws Exception {
+		Path testFile = tempDir.newFile("test.jsonl").toPath();
+		Files.write(testFile, "{\"name\": \"Alice\"}\n".getBytes(StandardCharsets.UTF_8));
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Could not convert line");
+		JSONStream.parseLinesParallel(testFile, h -> {
+		}, (n, h, l) -> {
+			throw new IllegalStateException("Could not convert line");
+		}, l -> {
+		}, fieldRelativePaths, Collections.emptyMap(), mapper, Arrays.asList("name"), true);
+	}
+
+	@Test
+	public void testParseLinesParallelLineConverterExceptionStopsConsumer() throws Exception {
+		StringBuilder testString = new StringBuilder();
+		for (int i = 0; i < 4000; i++) {
+			testString.append("{\"name\": \"").append(i).append("\"}\n");
+		}
+		Path testFile = tempDir.newFile("test.jsonl").toPath();
+		Files.write(testFile, testString.toString().getBytes(StandardCharsets.UTF_8));
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		JSONExtractionPlan plan = JSONExtractionPlan.compile(Arrays.asList("name"), fieldRelativePaths);
+		try (FileChannel channel = FileChannel.open(testFile, StandardOpenOption.READ)) {
+			assertEquals(0, countLateResults((lineConverter, resultConsumer, pool) -> JSONStream
+					.parseLinesParallel(channel, h -> {
+					}, lineConverter, resultConsumer, plan, Collections.emptyMap(), mapper, pool, 2000, false)));
+		}
+	}
+
+	/**
+	 * A parallel parse with unordered results, using the given converter,
+	 * consumer and pool.
+	 */
+	private interface ParallelParse {
+		void parse(TriFunction<JsonNode, List<String>, List<String>, List<String>> lineConverter,
+				Consumer<List<String>> resultConsumer, ForkJoinPool pool) throws Exception;
+	}
+
+	/**
+	 * Run the parse with a converter that fails on the record named "5", and
+	 * count the results that are sent to the consumer after the parse throws.
+	 */
+	private static int countLateResults(ParallelParse parse) throws Exception {
+		AtomicBoolean finished = new AtomicBoolean();
+		AtomicInteger lateResults = new AtomicInteger();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			try {
+				parse.parse((n, h, l) -> {
+					if (l.get(0).equals("5")) {
+						throw new IllegalStateException("Could not convert line");
+					}
+					// Keep the other chunks running after the failure
+					try {
+						Thread.sleep(1);
+					} catch (final InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return l;
+				}, l -> {
+					if (finished.get()) {
+						lateResults.incrementAndGet();
+					}
+				}, pool);
+				fail("Did not find expected exception");
+			} catch (final CSVStreamException e) {
+				finished.set(true);
+			}
+		} finally {
+			pool.shutdown();
+			assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+		}
+		return lateResults.get();
+	}
+
+	@Test
+	public void testParseBasePathsMatchesParse() throws Exception {
+		String testString = "{ \"ignored\": {\"orders\": [{\"id\": \"x\"}]},\n"
+				+ "  \"orders\": [{\"id\": \"o1\", \"total\": 10.5, \"items\": [{\"sku\": \"a\"}]},"
+				+ " {\"id\": \"o2\", \"items\": []}, 5, {\"id\": \"o3\"}],\n"
+				+ "  \"meta\": {\"generated\": \"2018-01-19\", \"source\": {\"name\": \"shop\"}},\n"
+				+ "  \"refunds\": {\"list\": [{\"order\": \"o1\", \"amount\": 2}, {\"order\": \"o3\"}]},\n"
+				+ "  \"orders\": [{\"id\": \"duplicate\"}] }";
+		Map<String, Optional<JsonPointer>> orderPaths = new LinkedHashMap<>();
+		orderPaths.put("id", Optional.of(JsonPointer.compile("/id")));
+		orderPaths.put("total", Optional.of(JsonPointer.compile("/total")));
+		orderPaths.put("sku", Optional.of(JsonPointer.compile("/items/0/sku")));
+		List<String> orderHeaders = Arrays.asList("id", "total", "sku");
+		Map<String, Optional<JsonPointer>> refundPaths = new LinkedHashMap<>();
+		refundPaths.put("order", Optional.of(JsonPointer.compile("/order")));
+		refundPaths.put("amount", Optional.of(JsonPointer.compile("/amount")));
+		List<String> refundHeaders = Arrays.asList("order", "amount");
+		Map<String, String> refundDefaults = new HashMap<>();
+		refundDefaults.put("amount", "0");
+		Map<String, Optional<JsonPointer>> metaPaths = new LinkedHashMap<>();
+		metaPaths.put("generated", Optional.of(JsonPointer.compile("/generated")));
+		metaPaths.put("source", Optional.of(JsonPointer.compile("/source/name")));
+		List<String> metaHeaders = Arrays.asList("generated", "source");
+
+		List<List<String>> expectedOrders = new ArrayList<>();
+		JSONStream.parse(new StringReader(testString), h -> {
+		}, (n, h, l) -> l, expectedOrders::add, JsonPointer.compile("/orders"), orderPaths, Collections.emptyMap(),
+				mapper, orderHeaders);
+		List<List<String>> expectedRefunds = new ArrayList<>();
+		JSONStream.parse(new StringReader(testString), h -> {
+		}, (n, h, l) -> l, expectedRefunds::add, JsonPointer.compile("/refunds/list"), refundPaths, refundDefaults,
+				mapper, refundHeaders);
+		List<List<String>> expectedMeta = new ArrayList<>();
+		JSONStream.parse(new StringReader(testString), h -> {
+		}, (n, h, l) -> l, expectedMeta::add, JsonPointer.compile("/meta"), metaPaths, Collections.emptyMap(),
+				mapper, metaHeaders);
+		assertEquals(Arrays.asList(Arrays.asList("o1", "10.5", "a"), Arrays.asList("o2", "", "")), expectedOrders);
+
+		List<List<String>> validatedHeaders = new ArrayList<>();
+		List<String> ordering = new ArrayList<>();
+		List<List<String>> orders = new ArrayList<>();
+		List<List<String>> refunds = new ArrayList<>();
+		List<List<String>> meta = new ArrayList<>();
+		List<JSONBasePath<?>> basePaths = new ArrayList<>();
+		basePaths.add(JSONBasePath.of(JsonPointer.compile("/refunds/list"), validatedHeaders::add, (n, h, l) -> l,
+				l -> {
+					ordering.add("refund");
+					refunds.add(l);
+				}, refundPaths, refundDefaults, refundHeaders));
+		basePaths.add(JSONBasePath.of(JsonPointer.compile("/orders"), validatedHeaders::add, (n, h, l) -> l, l -> {
+			ordering.add("order");
+			orders.add(l);
+		}, JSONExtractionPlan.compile(orderHeaders, orderPaths), Collections.emptyMap()));
+		basePaths.add(JSONBasePath.of(JsonPointer.compile("/meta"), validatedHeaders::add, (n, h, l) -> l, l -> {
+			ordering.add("meta");
+			meta.add(l);
+		}, metaPaths, Collections.emptyMap(), metaHeaders));
+		JSONStream.parse(new StringReader(testString), basePaths, mapper);
+
+		assertEquals(Arrays.asList(refundHeaders, orderHeaders, metaHeaders), validatedHeaders);
+		assertEquals(expectedOrders, orders);
+		assertEquals(expectedRefunds, refunds);
+		assertEquals(expectedMeta, meta);
+		assertEquals(Arrays.asList("order", "order", "meta", "refund", "refund"), ordering);
+	}
+
+	@Test
+	public void testParseBasePathsNestedAndShared() throws Exception {
+		String testString = "{ \"orders\": [{\"id\": \"o1\", \"items\": [{\"sku\": \"a\"}, {\"sku\": \"b\"}]},"
+				+ " {\"id\": \"o2\"}] }";
+		Map<String, Optional<JsonPointer>> orderPaths = new LinkedHashMap<>();
+		orderPaths.put("id", Optional.of(JsonPointer.compile("/id")));
+		Map<String, Optional<JsonPointer>> itemPaths = new LinkedHashMap<>();
+		itemPaths.put("sku", Optional.of(JsonPointer.compile("/sku")));
+		List<List<String>> orders = new ArrayList<>();
+		List<List<String>> sameOrders = new ArrayList<>();
+		List<List<String>> items = new ArrayList<>();
+		List<List<String>> root = new ArrayList<>();
+		JSONStream.parse(new StringReader(testString),
+				Arrays.asList(
+						JSONBasePath.of(JsonPointer.compile("/orders/0/items"), h -> {
+						}, (n, h, l) -> l, items::add, itemPaths, Collections.emptyMap(), Arrays.asList("sku")),
+						JSONBasePath.of(JsonPointer.compile("/orders"), h -> {
+						}, (n, h, l) -> l, orders::add, orderPaths, Collections.emptyMap(), Arrays.asList("id")),
+						JSONBasePath.of(JsonPointer.compile("/orders"), h -> {
+						}, (n, h, l) -> l, sameOrders::add, orderPaths, Collections.emptyMap(), Arrays.asList("id")),
+						JSONBasePath.of(JsonPointer.compile("/"), h -> {
+						}, (n, h, l) -> l, root::add, orderPaths, Collections.emptyMap(), Arrays.asList("id"))),
+				mapper);
+		assertEquals(Arrays.asList(Arrays.asList("o1"), Arrays.asList("o2")), orders);
+		assertEquals(orders, sameOrders);
+		assertEquals(Arrays.asList(Arrays.asList("a"), Arrays.asList("b")), items);
+		assertEquals(Arrays.asList(Arrays.asList("")), root);
+	}
+
+	@Test
+	public void testParseBasePathsUnmatched() throws Exception {
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		List<List<String>> results = new ArrayList<>();
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage(
+				"Base JSONPointer must point to either an Array or an Object: instead found null (path was /missing)");
+		try {
+			JSONStream.parse(new StringReader("{ \"base\": [{\"name\": \"Alice\"}] }"),
+					Arrays.asList(
+							JSONBasePath.of(JsonPointer.compile("/base"), h -> {
+							}, (n, h, l) -> l, results::add, fieldRelativePaths, Collections.emptyMap(),
+									Arrays.asList("name")),
+							JSONBasePath.of(JsonPointer.compile("/missing"), h -> {
+							}, (n, h, l) -> l, results::add, fieldRelativePaths, Collections.emptyMap(),
+									Arrays.asList("name"))),
+					mapper);
+		} finally {
+			assertEquals(Arrays.asList(Arrays.asList("Alice")), results);
+		}
+	}
+
+	@Test
+	public void testParseBasePathsNotArrayOrObject() throws Exception {
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage(
+				"Base JSONPointer must point to either an Array or an Object: instead found VALUE_STRING (path was /base)");
+		JSONStream.parse(new StringReader("{ \"base\": \"value\" }"),
+				Arrays.asList(JSONBasePath.of(JsonPointer.compile("/base"), h -> {
+				}, (n, h, l) -> l, l -> {
+				}, fieldRelativePaths, Collections.emptyMap(), Arrays.asList("name"))), mapper);
+	}
+
+	@Test
+	public void testParseBasePathsEmpty() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("No base paths were set for JSONStream.parse");
+		JSONStream.parse(new StringReader("{}"), Collections.emptyList(), mapper);
+	}
+
+	@Test
+	public void testParseBinaryFormatsMatchReader() throws Exception {
+		String testString = "{ \"records\": [{\"name\": \"Zo\u00eb\", \"city\": \"M\u00fcnchen\", \"score\": 15,"
+				+ " \"flag\": true}, {\"name\": \"\u6771\u4eac\", \"phone\": [\"123\"], \"flag\": null}] }";
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		fieldRelativePaths.put("city", Optional.of(JsonPointer.compile("/city")));
+		fieldRelativePaths.put("score", Optional.of(JsonPointer.compile("/score")));
+		fieldRelativePaths.put("phone", Optional.of(JsonPointer.compile("/phone/0")));
+		fieldRelativePaths.put("flag", Optional.of(JsonPointer.compile("/flag")));
+		List<String> headers = Arrays.asList("name", "city", "score", "phone", "flag");
+		JSONExtractionPlan plan = JSONExtractionPlan.compile(headers, fieldRelativePaths);
+		JsonPointer basePath = JsonPointer.compile("/records");
+
+		List<List<String>> expected = new ArrayList<>();
+		JSONStream.parse(new StringReader(testString), h -> {
+		}, (n, h, l) -> l, expected::add, basePath, plan, Collections.emptyMap(), mapper);
+		assertEquals(2, expected.size());
+
+		JsonNode tree = mapper.readTree(testString);
+		for (ObjectMapper nextMapper : Arrays.asList(new ObjectMapper(new SmileFactory()),
+				new ObjectMapper(new CBORFactory()))) {
+			byte[] nextBytes = nextMapper.writeValueAsBytes(tree);
+			assertEquals(tree, nextMapper.readTree(nextBytes));
+
+			List<List<String>> results = new ArrayList<>();
+			JSONStream.parse(new ByteArrayInputStream(nextBytes), h -> {
+			}, (n, h, l) -> l, results::add, basePath, plan, Collections.emptyMap(), nextMapper);
+			assertEquals(expected, results);
+
+			List<List<String>> fieldResults = new ArrayList<>();
+			JSONStream.parseFields(new ByteArrayInputStream(nextBytes), h -> {
+			}, (h, l) -> l, fieldResults::add, basePath, plan, Collections.emptyMap(), nextMapper);
+			assertEquals(expected, fieldResults);
+
+			List<List<String>> bufferResults = new ArrayList<>();
+			JSONStream.parse(ByteBuffer.wrap(nextBytes), h -> {
+			}, (n, h, l) -> l, bufferResults::add, basePath, plan, Collections.emptyMap(), nextMapper);
+			assertEquals(expected, bufferResults);
+
+			List<List<String>> bufferFieldResults = new ArrayList<>();
+			JSONStream.parseFields(ByteBuffer.wrap(nextBytes), h -> {
+			}, (h, l) -> l, bufferFieldResults::add, basePath, plan, Collections.emptyMap(), nextMapper);
+			assertEquals(expected, bufferFieldResults);
+		}
+	}
+
+	@Test
+	public void testParseByteInputsMatchReader() throws Exception {
+		String testString = "{ \"records\": [{\"name\": \"Zo\u00eb\", \"city\": \"M\u00fcnchen\", \"score\": 1.50},"
+				+ " {\"name\": \"\u6771\u4eac\", \"phone\": [\"123\"]}] }";
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		fieldRelativePaths.put("city", Optional.of(JsonPointer.compile("/city")));
+		fieldRelativePaths.put("score", Optional.of(JsonPointer.compile("/score")));
+		fieldRelativePaths.put("phone", Optional.of(JsonPointer.compile("/phone/0")));
+		List<String> headers = Arrays.asList("name", "city", "score", "phone");
+		JSONExtractionPlan plan = JSONExtractionPlan.compile(headers, fieldRelativePaths);
+		JsonPointer basePath = JsonPointer.compile("/records");
+
+		List<List<String>> expected = new ArrayList<>();
+		JSONStream.parse(new StringReader(testString), h -> {
+		}, (n, h, l) -> l, expected::add, basePath, plan, Collections.emptyMap(), mapper);
+		assertEquals(2, expected.size());
+
+		byte[] utf8 = testString.getBytes(StandardCharsets.UTF_8);
+		for (byte[] nextBytes : Arrays.asList(utf8, testString.getBytes(StandardCharsets.UTF_16BE),
+				testString.getBytes(StandardCharsets.UTF_16LE))) {
+			List<List<String>> results = new ArrayList<>();
+			JSONStream.parse(new ByteArrayInputStream(nextBytes), h -> {
+			}, (n, h, l) -> l, results::add, basePath, plan, Collections.emptyMap(), mapper);
+			assertEquals(expected, results);
+
+			List<List<String>> fieldResults = new ArrayList<>();
+			JSONStream.parseFields(new ByteArrayInputStream(nextBytes), h -> {
+			}, (h, l) -> l, fieldResults::add, basePath, plan, Collections.emptyMap(), mapper);
+			assertEquals(expected, fieldResults);
+		}
+
+		// Heap buffer with a position and limit inside the backing array
+		byte[] padded = new byte[utf8.length + 10];
+		System.arraycopy(utf8, 0, padded, 4, utf8.length);
+		ByteBuffer heapBuffer = ByteBuffer.wrap(padded, 4, utf8.length);
+		ByteBuffer directBuffer = ByteBuffer.allocateDirect(utf8.length);
+		directBuffer.put(utf8).flip();
+		for (ByteBuffer nextBuffer : Arrays.asList(heapBuffer, directBuffer)) {
+			int position = nextBuffer.position();
+			List<List<String>> results = new ArrayList<>();
+			JSONStream.parse(nextBuffer, h -> {
+			}, (n, h, l) -> l, results::add, basePath, plan, Collections.emptyMap(), mapper);
+			assertEquals(expected, results);
+
+			List<List<String>> fieldResults = new ArrayList<>();
+			JSONStream.parseFields(nextBuffer, h -> {
+			}, (h, l) -> l, fieldResults::add, basePath, plan, Collections.emptyMap(), mapper);
+			assertEquals(expected, fieldResults);
+			assertEquals(position, nextBuffer.position());
+		}
+
+		Path testFile = tempDir.newFile("test.json").toPath();
+		Files.write(testFile, utf8);
+		List<List<String>> results = new ArrayList<>();
+		JSONStream.parse(testFile, h -> {
+		}, (n, h, l) -> l, results::add, basePath, plan, Collections.emptyMap(), mapper);
+		assertEquals(expected, results);
+		List<List<String>> fieldResults = new ArrayList<>();
+		JSONStream.parseFields(testFile, h -> {
+		}, (h, l) -> l, fieldResults::add, basePath, plan, Collections.emptyMap(), mapper);
+		assertEquals(expected, fieldResults);
+	}
+
+	@Test
+	public void testParseByteInputUsesMapperFactory() throws Exception {
+		ObjectMapper commentsMapper = new ObjectMapper(
+				new JsonFactory().enable(JsonParser.Feature.ALLOW_COMMENTS));
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		JSONExtractionPlan plan = JSONExtractionPlan.compile(Arrays.asList("name"), fieldRelativePaths);
+		List<List<String>> results = new ArrayList<>();
+		JSONStream.parse(
+				new ByteArrayInputStream(
+						"{ /* comment */ \"records\": [{\"name\": \"Alice\"}] }".getBytes(StandardCharsets.UTF_8)),
+				h -> {
+				}, (n, h, l) -> l, results::add, JsonPointer.compile("/records"), plan, Collections.emptyMap(),
+				commentsMapper);
+		assertEquals(Arrays.asList(Arrays.asList("Alice")), results);
+	}
+
+	@Test
+	public void testWrite() throws Exception {
+		List<String> headers = Arrays.asList("name", "quote \"field\"", "empty");
+		StringWriter writer = new StringWriter();
+		JSONStream.write(writer, Stream.of("Alice", "skip", "B\"o\nb"), headers,
+				(h, o) -> o.equals("skip") ? null : Arrays.asList(o, o.length() + "", ""));
+		assertEquals("[{\"name\":\"Alice\",\"quote \\\"field\\\"\":\"5\",\"empty\":\"\"},"
+				+ "{\"name\":\"B\\\"o\\nb\",\"quote \\\"field\\\"\":\"5\",\"empty\":\"\"}]", writer.toString());
+
+		StringWriter linesWriter = new StringWriter();
+		JSONStream.write(linesWriter, Stream.of("Alice", "skip", "Bob"), Arrays.asList("name"),
+				(h, o) -> o.equals("skip") ? null : Arrays.asList(o), mapper, true);
+		assertEquals("{\"name\":\"Alice\"}\n{\"name\":\"Bob\"}\n", linesWriter.toString());
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		JSONStream.write(output, Stream.of("Zo\u00eb"), Arrays.asList("name"), (h, o) -> Arrays.asList(o));
+		assertEquals("[{\"name\":\"Zo\u00eb\"}]", new String(output.toByteArray(), StandardCharsets.UTF_8));
+
+		StringWriter emptyWriter = new StringWriter();
+		JSONStream.write(emptyWriter, Stream.empty(), Arrays.asList("name"), (h, o) -> Arrays.asList(""));
+		assertEquals("[]", emptyWriter.toString());
+	}
+
+	@Test
+	public void testWriteRoundTrip() throws Exception {
+		List<String> headers = Arrays.asList("name", "score");
+		List<List<String>> records = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			records.add(Arrays.asList("name " + i + "\u00e9", Integer.toString(i)));
+		}
+		Map<String, Optional<JsonPointer>> fieldRelativePaths = new LinkedHashMap<>();
+		fieldRelativePaths.put("name", Optional.of(JsonPointer.compile("/name")));
+		fieldRelativePaths.put("score", Optional.of(JsonPointer.compile("/score")));
+
+		StringWriter writer = new StringWriter();
+		JSONStream.write(writer, records.stream(), headers, (h, l) -> l);
+		List<List<String>> arrayResults = new ArrayList<>();
+		JSONStream.parse(new StringReader(writer.toString()), h -> {
+		}, (n, h, l) -> l, arrayResults::add, JsonPointer.compile("/"), fieldRelativePaths, Collections.emptyMap(),
+				mapper, headers);
+		assertEquals(records, arrayResults);
+
+		StringWriter linesWriter = new StringWriter();
+		JSONStream.write(linesWriter, records.stream(), headers, (h, l) -> l, mapper, true);
+		List<List<String>> linesResults = new ArrayList<>();
+		JSONStream.parseLines(new StringReader(linesWriter.toString()), h -> {
+		}, (n, h, l) -> l, linesResults::add, fieldRelativePaths, Collections.emptyMap(), mapper, headers);
+		assertEquals(records, linesResults);
+	}
+
+	@Test
+	public void testWriteParallelMatchesWrite() throws Exception {
+		List<String> headers = Arrays.asList("name", "value");
+		BiFunction<List<String>, Integer, List<String>> converter = (h, i) -> i % 4 == 0 ? null
+				: Arrays.asList("name" + i, "\u00e9" + i);
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			for (boolean lines : Arrays.asList(false, true)) {
+				for (int count : Arrays.asList(0, 1, 4, 37)) {
+					StringWriter expected = new StringWriter();
+					JSONStream.write(expected, Stream.iterate(0, i -> i + 1).limit(count), headers, converter, mapper,
+							lines);
+					for (int chunkSize = 1; chunkSize < 10; chunkSize += 3) {
+						StringWriter writer = new StringWriter();
+						JSONStream.writeParallel(writer, Stream.iterate(0, i -> i + 1).limit(count), headers, converter,
+								mapper, lines, pool, chunkSize, 2);
+						assertEquals("Chunk size: " + chunkSize, expected.toString(), writer.toString());
+
+						ByteArrayOutputStream output = new ByteArrayOutputStream();
+						JSONStream.writeParallel(output, Stream.iterate(0, i -> i + 1).limit(count), headers,
+								converter, mapper, lines, pool, chunkSize, 1);
+						assertEquals("Chunk size: " + chunkSize, expected.toString(),
+								new String(output.toByteArray(), StandardCharsets.UTF_8));
+					}
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testWriteRecordSizeMismatch() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Could not write object out");
+		JSONStream.write(new StringWriter(), Stream.of("Alice"), Arrays.asList("name", "phone"),
+				(h, o) -> Arrays.asList(o));
+	}
+
+	@Test
+	public void testWriteParallelConverterException() throws Exception {
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("Could not write object out");
+		JSONStream.writeParallel(new StringWriter(), Stream.of(1, 2, 3), Arrays.asList("name"), (h, o) -> {
+			throw new IllegalArgumentException("Bad object: " + o);
+		}, mapper, false, ForkJoinPool.commonPool(), 1, 1);
+	}
+
+	@Test
+	public void testWriteParallelConverterExceptionStopsConverter() throws Exception {
+		AtomicBoolean closed = new AtomicBoolean();
+		AtomicInteger lateConversions = new AtomicInteger();
+		StringWriter writer = new StringWriter() {
+			@Override
+			public void close() throws IOException {
+				closed.set(true);
+				super.close();
+			}
+		};
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			try {
+				JSONStream.writeParallel(writer, Stream.iterate(0, i -> i + 1).limit(4000), Arrays.asList("name"),
+						(h, o) -> {
+							if (closed.get()) {
+								lateConversions.incrementAndGet();
+							}
+							if (o == 5) {
+								throw new IllegalArgumentException("Bad object: " + o);
+							}
+							// Keep the other chunks running after the failure
+							try {
+								Thread.sleep(1);
+							} catch (final InterruptedException e) {
+								Thread.currentThread().interrupt();
+							}
+							return Arrays.asList(o.toString());
+						}, mapper, false, pool, 100, 8);
+				fail("Did not find expected exception");
+			} catch (final CSVStreamException e) {
+				assertTrue(closed.get());
+			}
+		} finally {
+			pool.shutdown();
+			assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+		}
+		assertEquals(0, lateConversions.get());
+	}
+
+	@Test
+	public void testWriteParallelNotJSONFactory() throws Exception {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Parallel writing requires a JSON factory: found CSV");
+		JSONStream.writeParallel(new StringWriter(), Stream.of(1), Arrays.asList("name"),
+				(h, o) -> Arrays.asList(o.toString()), new CsvMapper(), false, ForkJoinPool.commonPool(), 1, 1);
+	}
+
+	@Test
+	public void testExtractionPlanNoFieldPaths() throws Exception {
+		JSONExtractionPlan plan = JSONExtractionPlan.compile(Arrays.asList("name"), Collections.emptyMap());
+		thrown.expect(CSVStreamException.class);
+		thrown.expectMessage("No field paths were set for JSONStream.parse");
+		JSONStream.parse(new StringReader("{\"base\": []}"), h -> {
+		}, (n, h, l) -> l, l -> {
+		}, JsonPointer.compile("/base"), plan, Collections.emptyMap(), mapper);
+	}
+
 	@Test
 	public void testJsonPointerBasedFilterNoArray() throws Exception {
 		ObjectMapper JSON_MAPPER = new ObjectMapper();
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * 
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generators for the synthetic documents used by the
+ * benchmarks.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+final class BenchmarkData {
+
+	private static final long SEED = 0x5EEDL;
+
+	/**
+	 * Private constructor for static only class
+	 */
+	private BenchmarkData() {
+	}
+
+	/**
+	 * Generate the headers for a document with the given number of columns.
+	 * 
+	 * @param columns
+	 *            The number of columns.
+	 * @return A list of column headers.
+	 */
+	static List<String> headers(int columns) {
+		final List<String> result = new ArrayList<>(columns);
+		for (int i = 0; i < columns; i++) {
+			result.add("column" + i);
+		}
+		return result;
+	}
+
+	/**
+	 * Generate rows of values, where the given fraction of the values contain
+	 * characters that force them to be quoted when serialised as CSV.
+	 * 
+	 * @param rows
+	 *            The number of rows.
+	 * @param columns
+	 *            The number of columns in each row.
+	 * @param quotedFraction
+	 *            The fraction, between 0.0 and 1.0, of values that need
+	 *            quoting.
+	 * @return A list of rows.
+	 */
+	static List<List<String>> rows(int rows, int columns, double quotedFraction) {
+		final Random random = new Random(SEED);
+		final List<List<String>> result = new ArrayList<>(rows);
+		for (int r = 0; r < rows; r++) {
+			final List<String> nextRow = new ArrayList<>(columns);
+			for (int c = 0; c < columns; c++) {
+				nextRow.add(value(random, quotedFraction));
+			}
+			result.add(nextRow);
+		}
+		return result;
+	}
+
+	/**
+	 * Generate rows of numeric values, alternating between integers and
+	 * decimals with up to six fraction digits.
+	 * 
+	 * @param rows
+	 *            The number of rows.
+	 * @param columns
+	 *            The number of columns in each row.
+	 * @return A list of rows.
+	 */
+	static List<List<String>> numericRows(int rows, int columns) {
+		final Random random = new Random(SEED);
+		final List<List<String>> result = new ArrayList<>(rows);
+		for (int r = 0; r < rows; r++) {
+			final List<String> nextRow = new ArrayList<>(columns);
+			for (int c = 0; c < columns; c++) {
+				if (c % 2 == 0) {
+					nextRow.add(Long.toString(random.nextInt(Integer.MAX_VALUE) - (Integer.MAX_VALUE / 2)));
+				} else {
+					nextRow.add(Long.toString(random.nextInt(1000000)) + "." + random.nextInt(1000000));
+				}
+			}
+			result.add(nextRow);
+		}
+		return result;
+	}
+
+	/**
+	 * Serialise the headers and rows as an RFC-4180 CSV document.
+	 * 
+	 * @param headers
+	 *            The headers.
+	 * @param rows
+	 *            The rows.
+	 * @return The CSV document.
+	 */
+	static String csv(List<String> headers, List<List<String>> rows) {
+		final StringBuilder result = new StringBuilder();
+		appendCSVLine(result, headers);
+		for (final List<String> nextRow : rows) {
+			appendCSVLine(result, nextRow);
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Serialise the rows as a JSON object, with the rows as an array of
+	 * objects under the "records" key.
+	 * 
+	 * @param headers
+	 *            The headers, used as the keys for each record.
+	 * @param rows
+	 *            The rows.
+	 * @return The JSON document.
+	 */
+	static String jsonArray(List<String> headers, List<List<String>> rows) {
+		final StringBuilder result = new StringBuilder("{\"records\":[");
+		for (int r = 0; r < rows.size(); r++) {
+			if (r > 0) {
+				result.append(',');
+			}
+			appendJSONObject(result, headers, rows.get(r));
+		}
+		return result.append("]}").toString();
+	}
+
+	/**
+	 * Serialise the rows as a JSON Lines document, with one object on each
+	 * line.
+	 * 
+	 * @param headers
+	 *            The headers, used as the keys for each record.
+	 * @param rows
+	 *            The rows.
+	 * @return The JSON Lines document.
+	 */
+	static String jsonLines(List<String> headers, List<List<String>> rows) {
+		final StringBuilder result = new StringBuilder();
+		for (final List<String> nextRow : rows) {
+			appendJSONObject(result, headers, nextRow);
+			result.append('\n');
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Serialise a single row as a JSON object under the "records" key.
+	 * 
+	 * @param headers
+	 *            The headers, used as the keys for the record.
+	 * @param row
+	 *            The row.
+	 * @return The JSON document.
+	 */
+	static String jsonObject(List<String> headers, List<String> row) {
+		final StringBuilder result = new StringBuilder("{\"records\":");
+		appendJSONObject(result, headers, row);
+		return result.append('}').toString();
+	}
+
+	private static String value(Random random, double quotedFraction) {
+		final StringBuilder result = new StringBuilder();
+		final int length = 4 + random.nextInt(12);
+		for (int i = 0; i < length; i++) {
+			result.append((char) ('a' + random.nextInt(26)));
+		}
+		if (random.nextDouble() < quotedFraction) {
+			// Mix of embedded separators, escaped quotes and line breaks
+			switch (random.nextInt(3)) {
+			case 0:
+				result.insert(length / 2, ',');
+				break;
+			case 1:
+				result.insert(length / 2, '"');
+				break;
+			default:
+				result.insert(length / 2, '\n');
+				break;
+			}
+		}
+		return result.toString();
+	}
+
+	private static void appendCSVLine(StringBuilder result, List<String> values) {
+		for (int i = 0; i < values.size(); i++) {
+			if (i > 0) {
+				result.append(',');
+			}
+			final String nextValue = values.get(i);
+			if (nextValue.indexOf(',') >= 0 || nextValue.indexOf('"') >= 0 || nextValue.indexOf('\n') >= 0) {
+				result.append('"').append(nextValue.replace("\"", "\"\"")).append('"');
+			} else {
+				result.append(nextValue);
+			}
+		}
+		result.append('\n');
+	}
+
+	private static void appendJSONObject(StringBuilder result, List<String> headers, List<String> values) {
+		result.append('{');
+		for (int i = 0; i < headers.size(); i++) {
+			if (i > 0) {
+				result.append(',');
+			}
+			result.append('"').append(headers.get(i)).append("\":\"");
+			result.append(values.get(i).replace("\"", "\\\"").replace("\n", "\\n")).append('"');
+		}
+		result.append('}');
+	}
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * 
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema.ColumnType;
+import com.github.ansell.csv.stream.CSVProjection;
+import com.github.ansell.csv.stream.CSVStream;
+
+/**
+ * JMH benchmarks comparing numeric decoding from Strings with the typed
+ * accessors on {@link com.github.ansell.csv.stream.CSVRow}.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSVNumericBenchmark {
+
+	@Param({ "10" })
+	public int columns;
+
+	@Param({ "100000" })
+	public int rows;
+
+	private CsvSchema typedSchema;
+
+	private long csvBytes;
+
+	private Path csvFile;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		final List<String> headers = BenchmarkData.headers(columns);
+		final List<ColumnType> types = new ArrayList<>(columns);
+		for (int c = 0; c < columns; c++) {
+			types.add(ColumnType.NUMBER);
+		}
+		typedSchema = CSVStream.buildSchema(headers, types, false);
+		final byte[] csvBytes = BenchmarkData.csv(headers, BenchmarkData.numericRows(rows, columns))
+				.getBytes(StandardCharsets.UTF_8);
+		this.csvBytes = csvBytes.length;
+		csvFile = Files.createTempFile("csvstream-numeric-benchmark-", ".csv");
+		Files.write(csvFile, csvBytes);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(csvFile);
+	}
+
+	@Benchmark
+	public void parseStrings(ThroughputCounters counters, Blackhole blackhole) throws Exception {
+		CSVStream.parse(csvFile, h -> {
+		}, (h, l) -> {
+			for (int i = 0; i < l.size(); i += 2) {
+				blackhole.consume(Long.parseLong(l.get(i)));
+				blackhole.consume(Double.parseDouble(l.get(i + 1)));
+			}
+			return null;
+		}, blackhole::consume, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT,
+				CSVStream.defaultSchema(), CSVProjection.all());
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void parseRowsTyped(ThroughputCounters counters, Blackhole blackhole) throws Exception {
+		CSVStream.parseRows(csvFile, h -> {
+		}, (h, r) -> {
+			for (int i = 0; i < r.size(); i += 2) {
+				blackhole.consume(r.getLong(i));
+				blackhole.consume(r.getDouble(i + 1));
+			}
+			return null;
+		}, blackhole::consume, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT, typedSchema);
+		counters.record(rows, csvBytes);
+	}
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * 
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.github.ansell.csv.stream.BatchingConsumer;
+import com.github.ansell.csv.stream.CSVGzip;
+import com.github.ansell.csv.stream.CSVJSONTranscoder;
+import com.github.ansell.csv.stream.CSVProjection;
+import com.github.ansell.csv.stream.CSVStream;
+import com.github.ansell.csv.stream.JSONStream;
+
+/**
+ * JMH benchmarks for {@link CSVStream#parse} and {@link CSVStream#write}.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CSVStreamBenchmark {
+
+	@Param({ "5", "50" })
+	public int columns;
+
+	@Param({ "1000", "100000" })
+	public int rows;
+
+	@Param({ "0.0", "0.25" })
+	public double quotedFraction;
+
+	private List<String> headers;
+
+	private List<List<String>> data;
+
+	private CsvSchema schema;
+
+	private String csv;
+
+	private byte[] csvUTF8;
+
+	private long csvBytes;
+
+	private Path csvFile;
+
+	private byte[] csvGzip;
+
+	private byte[] csvBGZF;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		headers = BenchmarkData.headers(columns);
+		data = BenchmarkData.rows(rows, columns, quotedFraction);
+		schema = CSVStream.buildSchema(headers);
+		csv = BenchmarkData.csv(headers, data);
+		final byte[] csvBytes = csv.getBytes(StandardCharsets.UTF_8);
+		csvUTF8 = csvBytes;
+		this.csvBytes = csvBytes.length;
+		csvFile = Files.createTempFile("csvstream-benchmark-", ".csv");
+		Files.write(csvFile, csvBytes);
+		final ByteArrayOutputStream gzipOutput = new ByteArrayOutputStream();
+		try (final OutputStream gzip = new GZIPOutputStream(gzipOutput);) {
+			gzip.write(csvBytes);
+		}
+		csvGzip = gzipOutput.toByteArray();
+		final ByteArrayOutputStream bgzfOutput = new ByteArrayOutputStream();
+		try (final OutputStream bgzf = CSVGzip.newOutputStream(bgzfOutput);) {
+			bgzf.write(csvBytes);
+		}
+		csvBGZF = bgzfOutput.toByteArray();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(csvFile);
+	}
+
+	@Benchmark
+	public void parse(ThroughputCounters counters, Blackhole blackhole) throws Exception {
+		CSVStream.parse(new StringReader(csv), h -> {
+		}, (h, l) -> l, blackhole::consume);
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void parseBatched(ThroughputCounters counters, Blackhole blackhole) throws Exception {
+		CSVStream.parseBatched(new StringReader(csv), h -> {
+		}, (h, l) -> l, blackhole::consume, BatchingConsumer.DEFAULT_BATCH_SIZE);
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void transcodeToJSON(ThroughputCounters counters) throws Exception {
+		final CountingWriter writer = new CountingWriter();
+		CSVJSONTranscoder.csvToJSON(new StringReader(csv), writer);
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void streamWriteJSON(ThroughputCounters counters) throws Exception {
+		final CountingWriter writer = new CountingWriter();
+		try (final Stream<List<String>> lines = CSVStream.stream(new StringReader(csv), h -> {
+		}, (h, l) -> l);) {
+			JSONStream.write(writer, lines, headers, (h, l) -> l);
+		}
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void parseGZIPInputStream(ThroughputCounters counters, Blackhole blackhole) throws Exception {
+		CSVStream.parse(new GZIPInputStream(new ByteArrayInputStream(csvGzip)), h -> {
+		}, (h, l) -> l, blackhole::consume);
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void parseGzip(ThroughputCounters counters, Blackhole blackhole) throws Exception {
+		CSVStream.parseGzip(new ByteArrayInputStream(csvGzip), h -> {
+		}, (h, l) -> l, blackhole::consume);
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void parseGzipBGZF(ThroughputCounters counters, Blackhole blackhole) throws Exception {
+		CSVStream.parseGzip(new ByteArrayInputStream(csvBGZF), h -> {
+		}, (h, l) -> l, blackhole::consume);
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void parsePath(ThroughputCounters counters, Blackhole blackhole) throws Exception {
+		CSVStream.parse(csvFile, h -> {
+		}, (h, l) -> l, blackhole::consume);
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void parsePathProjected(ThroughputCounters counters, Blackhole blackhole) throws Exception {
+		CSVStream.parse(csvFile, h -> {
+		}, (h, l) -> l.get(1), blackhole::consume, null, Collections.emptyList(), CSVStream.DEFAULT_HEADER_COUNT,
+				CSVStream.defaultSchema(), CSVProjection.ofIndexes(0, columns - 1));
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void parseRows(ThroughputCounters counters, Blackhole blackhole) throws Exception {
+		CSVStream.parseRows(csvFile, h -> {
+		}, (h, r) -> {
+			for (int i = 0; i < r.size(); i++) {
+				blackhole.consume(r.get(i).length());
+			}
+			return null;
+		}, blackhole::consume);
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void parseLookupByIndexOf(ThroughputCounters counters, Blackhole blackhole) throws Exception {
+		CSVStream.parse(csvFile, h -> {
+		}, (h, l) -> {
+			for (int i = 0; i < headers.size(); i++) {
+				blackhole.consume(l.get(h.indexOf(headers.get(i))).length());
+			}
+			return null;
+		}, blackhole::consume);
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void parseWithHeaders(ThroughputCounters counters, Blackhole blackhole) throws Exception {
+		CSVStream.parseWithHeaders(csvFile, h -> {
+		}, (h, r) -> {
+			for (int i = 0; i < headers.size(); i++) {
+				blackhole.consume(r.get(h.indexOf(headers.get(i))).length());
+			}
+			return null;
+		}, blackhole::consume);
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void parseParallel(ThroughputCounters counters, Blackhole blackhole) throws Exception {
+		CSVStream.parseParallel(csvFile, h -> {
+		}, (h, l) -> l, blackhole::consume, true);
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void parsePipelined(ThroughputCounters counters, Blackhole blackhole) throws Exception {
+		CSVStream.parsePipelined(new ByteArrayInputStream(csvUTF8), h -> {
+		}, (h, l) -> l, blackhole::consume, true);
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void streamParallel(ThroughputCounters counters, Blackhole blackhole) throws Exception {
+		try (Stream<List<String>> stream = CSVStream.stream(csvFile, h -> {
+		}, (h, l) -> l);) {
+			stream.parallel().forEach(blackhole::consume);
+		}
+		counters.record(rows, csvBytes);
+	}
+
+	@Benchmark
+	public void write(ThroughputCounters counters) throws Exception {
+		final CountingWriter writer = new CountingWriter();
+		CSVStream.write(writer, data.stream(), schema, (h, o) -> o);
+		counters.record(rows, writer.count);
+	}
+
+	@Benchmark
+	public void writeParallel(ThroughputCounters counters) throws Exception {
+		final CountingWriter writer = new CountingWriter();
+		final ForkJoinPool pool = ForkJoinPool.commonPool();
+		CSVStream.writeParallel(writer, data.stream(), schema, (h, o) -> o, pool,
+				CSVStream.DEFAULT_PARALLEL_WRITE_CHUNK_SIZE, Math.max(2, pool.getParallelism() * 2));
+		counters.record(rows, writer.count);
+	}
+
+	/**
+	 * Discards characters, counting them so the output size can be reported.
+	 * The count is of characters rather than bytes, which is exact for the
+	 * ASCII benchmark data.
+	 */
+	static final class CountingWriter extends Writer {
+
+		long count;
+
+		@Override
+		public void write(char[] cbuf, int off, int len) {
+			count += len;
+		}
+
+		@Override
+		public void write(String str, int off, int len) {
+			count += len;
+		}
+
+		@Override
+		public void write(int c) {
+			count++;
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * 
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream.benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.github.ansell.csv.stream.CSVJSONTranscoder;
+import com.github.ansell.csv.stream.CSVMapperCache;
+import com.github.ansell.csv.stream.CSVStream;
+import com.github.ansell.csv.stream.JSONExtractionPlan;
+import com.github.ansell.csv.stream.JSONStream;
+import com.github.ansell.csv.stream.util.JSONStreamUtil;
+
+/**
+ * JMH benchmarks for {@link JSONStream#parse} and
+ * {@link JSONStream#parseFields}, with base paths pointing to
+ * both an array of records and a single record object.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JSONStreamBenchmark {
+
+	private static final JsonPointer BASE_PATH = JsonPointer.compile("/records");
+
+	@State(Scope.Benchmark)
+	public static class ArrayDocument {
+
+		@Param({ "5", "50" })
+		public int columns;
+
+		@Param({ "1000", "100000" })
+		public int rows;
+
+		private List<String> headers;
+
+		private Map<String, Optional<JsonPointer>> fieldRelativePaths;
+
+		private List<String> selectedHeaders;
+
+		private Map<String, Optional<JsonPointer>> selectedFieldRelativePaths;
+
+		private String json;
+
+		private long jsonBytes;
+
+		private List<List<String>> data;
+
+		private byte[] jsonUTF8;
+
+		private JSONExtractionPlan plan;
+
+		private String jsonLines;
+
+		private long jsonLinesBytes;
+
+		private JsonPointer lastRecordPath;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			headers = BenchmarkData.headers(columns);
+			fieldRelativePaths = fieldRelativePaths(headers);
+			selectedHeaders = headers.subList(0, 3);
+			selectedFieldRelativePaths = fieldRelativePaths(selectedHeaders);
+			data = BenchmarkData.rows(rows, columns, 0.0);
+			json = BenchmarkData.jsonArray(headers, data);
+			jsonUTF8 = json.getBytes(StandardCharsets.UTF_8);
+			jsonBytes = jsonUTF8.length;
+			plan = JSONExtractionPlan.compile(headers, fieldRelativePaths);
+			jsonLines = BenchmarkData.jsonLines(headers, data);
+			jsonLinesBytes = jsonLines.getBytes(StandardCharsets.UTF_8).length;
+			lastRecordPath = JsonPointer.compile(BASE_PATH + "/" + (rows - 1) + "/" + headers.get(0));
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class ObjectDocument {
+
+		@Param({ "5", "50" })
+		public int columns;
+
+		private List<String> headers;
+
+		private Map<String, Optional<JsonPointer>> fieldRelativePaths;
+
+		private JSONExtractionPlan plan;
+
+		private String json;
+
+		private long jsonBytes;
+
+		@Setup(Level.Trial)
+		public void setup() {
+			headers = BenchmarkData.headers(columns);
+			fieldRelativePaths = fieldRelativePaths(headers);
+			plan = JSONExtractionPlan.compile(headers, fieldRelativePaths);
+			json = BenchmarkData.jsonObject(headers, BenchmarkData.rows(1, columns, 0.0).get(0));
+			jsonBytes = json.getBytes(StandardCharsets.UTF_8).length;
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class Mapper {
+		private final ObjectMapper mapper = new ObjectMapper();
+	}
+
+	@Benchmark
+	public void parseArray(ArrayDocument document, Mapper mapper, ThroughputCounters counters,
+			Blackhole blackhole) throws Exception {
+		JSONStream.parse(new StringReader(document.json), h -> {
+		}, (n, h, l) -> l, blackhole::consume, BASE_PATH, document.fieldRelativePaths,
+				Collections.emptyMap(), mapper.mapper, document.headers);
+		counters.record(document.rows, document.jsonBytes);
+	}
+
+	@Benchmark
+	public void parseArraySelected(ArrayDocument document, Mapper mapper, ThroughputCounters counters,
+			Blackhole blackhole) throws Exception {
+		JSONStream.parse(new StringReader(document.json), h -> {
+		}, (n, h, l) -> l, blackhole::consume, BASE_PATH, document.selectedFieldRelativePaths,
+				Collections.emptyMap(), mapper.mapper, document.selectedHeaders);
+		counters.record(document.rows, document.jsonBytes);
+	}
+
+	@Benchmark
+	public void parseParallelArray(ArrayDocument document, Mapper mapper, ThroughputCounters counters,
+			Blackhole blackhole) throws Exception {
+		JSONStream.parseParallel(new StringReader(document.json), h -> {
+		}, (n, h, l) -> l, blackhole::consume, BASE_PATH, document.fieldRelativePaths,
+				Collections.emptyMap(), mapper.mapper, document.headers, true);
+		counters.record(document.rows, document.jsonBytes);
+	}
+
+	@Benchmark
+	public void parseLines(ArrayDocument document, Mapper mapper, ThroughputCounters counters,
+			Blackhole blackhole) throws Exception {
+		JSONStream.parseLines(new StringReader(document.jsonLines), h -> {
+		}, (n, h, l) -> l, blackhole::consume, document.fieldRelativePaths, Collections.emptyMap(),
+				mapper.mapper, document.headers);
+		counters.record(document.rows, document.jsonLinesBytes);
+	}
+
+	@Benchmark
+	public void parseFieldsArray(ArrayDocument document, Mapper mapper, ThroughputCounters counters,
+			Blackhole blackhole) throws Exception {
+		JSONStream.parseFields(new StringReader(document.json), h -> {
+		}, (h, l) -> l, blackhole::consume, BASE_PATH, document.fieldRelativePaths,
+				Collections.emptyMap(), mapper.mapper, document.headers);
+		counters.record(document.rows, document.jsonBytes);
+	}
+
+	@Benchmark
+	public void parseFieldsArrayBytes(ArrayDocument document, Mapper mapper, ThroughputCounters counters,
+			Blackhole blackhole) throws Exception {
+		JSONStream.parseFields(ByteBuffer.wrap(document.jsonUTF8), h -> {
+		}, (h, l) -> l, blackhole::consume, BASE_PATH, document.plan, Collections.emptyMap(),
+				mapper.mapper);
+		counters.record(document.rows, document.jsonBytes);
+	}
+
+	@Benchmark
+	public void parseFieldsArraySelected(ArrayDocument document, Mapper mapper, ThroughputCounters counters,
+			Blackhole blackhole) throws Exception {
+		JSONStream.parseFields(new StringReader(document.json), h -> {
+		}, (h, l) -> l, blackhole::consume, BASE_PATH, document.selectedFieldRelativePaths,
+				Collections.emptyMap(), mapper.mapper, document.selectedHeaders);
+		counters.record(document.rows, document.jsonBytes);
+	}
+
+	@Benchmark
+	public void transcodeToCSV(ArrayDocument document, Mapper mapper, ThroughputCounters counters)
+			throws Exception {
+		final CSVStreamBenchmark.CountingWriter writer = new CSVStreamBenchmark.CountingWriter();
+		CSVJSONTranscoder.jsonToCSV(new StringReader(document.json), writer, h -> {
+		}, BASE_PATH, document.plan, Collections.emptyMap(), mapper.mapper, CSVMapperCache.defaultCache());
+		counters.record(document.rows, document.jsonBytes);
+	}
+
+	@Benchmark
+	public void parseFieldsWriteCSV(ArrayDocument document, Mapper mapper, ThroughputCounters counters)
+			throws Exception {
+		final CSVStreamBenchmark.CountingWriter writer = new CSVStreamBenchmark.CountingWriter();
+		try (final SequenceWriter csvWriter = CSVStream.newCSVWriter(writer, document.headers);) {
+			JSONStream.parseFields(new StringReader(document.json), h -> {
+			}, (h, l) -> l, l -> {
+				try {
+					csvWriter.write(l);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}, BASE_PATH, document.plan, Collections.emptyMap(), mapper.mapper);
+		}
+		counters.record(document.rows, document.jsonBytes);
+	}
+
+	@Benchmark
+	public String queryJSON(ArrayDocument document, ThroughputCounters counters) throws Exception {
+		final String result = JSONStreamUtil.queryJSON(new StringReader(document.json), document.lastRecordPath);
+		counters.record(document.rows, document.jsonBytes);
+		return result;
+	}
+
+	@Benchmark
+	public String queryJSONTree(ArrayDocument document, ThroughputCounters counters) throws Exception {
+		final String result = JSONStreamUtil.queryJSONNodeAsText(
+				JSONStreamUtil.loadJSON(new StringReader(document.json)), document.lastRecordPath);
+		counters.record(document.rows, document.jsonBytes);
+		return result;
+	}
+
+	@Benchmark
+	public void toPrettyPrint(ArrayDocument document, ThroughputCounters counters) throws Exception {
+		final CSVStreamBenchmark.CountingWriter writer = new CSVStreamBenchmark.CountingWriter();
+		JSONStreamUtil.toPrettyPrint(new StringReader(document.json), writer);
+		counters.record(document.rows, document.jsonBytes);
+	}
+
+	@Benchmark
+	public void toPrettyPrintTree(ArrayDocument document, ThroughputCounters counters) throws Exception {
+		final CSVStreamBenchmark.CountingWriter writer = new CSVStreamBenchmark.CountingWriter();
+		JSONStreamUtil.toPrettyPrint(JSONStreamUtil.loadJSON(new StringReader(document.json)), writer);
+		counters.record(document.rows, document.jsonBytes);
+	}
+
+	@Benchmark
+	public void write(ArrayDocument document, ThroughputCounters counters) throws Exception {
+		final CSVStreamBenchmark.CountingWriter writer = new CSVStreamBenchmark.CountingWriter();
+		JSONStream.write(writer, document.data.stream(), document.headers, (h, o) -> o);
+		counters.record(document.rows, writer.count);
+	}
+
+	@Benchmark
+	public void writeParallel(ArrayDocument document, Mapper mapper, ThroughputCounters counters)
+			throws Exception {
+		final CSVStreamBenchmark.CountingWriter writer = new CSVStreamBenchmark.CountingWriter();
+		final ForkJoinPool pool = ForkJoinPool.commonPool();
+		JSONStream.writeParallel(writer, document.data.stream(), document.headers, (h, o) -> o,
+				mapper.mapper, false, pool, CSVStream.DEFAULT_PARALLEL_WRITE_CHUNK_SIZE,
+				Math.max(2, pool.getParallelism() * 2));
+		counters.record(document.rows, writer.count);
+	}
+
+	@Benchmark
+	public void parseObject(ObjectDocument document, Mapper mapper, ThroughputCounters counters,
+			Blackhole blackhole) throws Exception {
+		JSONStream.parse(new StringReader(document.json), h -> {
+		}, (n, h, l) -> l, blackhole::consume, BASE_PATH, document.fieldRelativePaths,
+				Collections.emptyMap(), mapper.mapper, document.headers);
+		counters.record(1, document.jsonBytes);
+	}
+
+	@Benchmark
+	public void parseObjectPlan(ObjectDocument document, Mapper mapper, ThroughputCounters counters,
+			Blackhole blackhole) throws Exception {
+		JSONStream.parse(new StringReader(document.json), h -> {
+		}, (n, h, l) -> l, blackhole::consume, BASE_PATH, document.plan, Collections.emptyMap(),
+				mapper.mapper);
+		counters.record(1, document.jsonBytes);
+	}
+
+	private static Map<String, Optional<JsonPointer>> fieldRelativePaths(List<String> headers) {
+		final Map<String, Optional<JsonPointer>> result = new LinkedHashMap<>();
+		for (final String nextHeader : headers) {
+			result.put(nextHeader, Optional.of(JsonPointer.compile("/" + nextHeader)));
+		}
+		return result;
+	}
+}
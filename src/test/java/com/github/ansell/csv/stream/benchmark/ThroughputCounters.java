@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2026, Peter Ansell
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * * Redistributions of source code must retain the above copyright notice, this
+ *   list of conditions and the following disclaimer.
+ * 
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package com.github.ansell.csv.stream.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary JMH counters, reported as rates alongside the primary ops/sec
+ * results, so that benchmarks with different row widths and sizes can be
+ * compared using rows/sec and MB/sec.
+ * 
+ * @author Peter Ansell p_ansell@yahoo.com
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ThroughputCounters {
+
+	private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+
+	/**
+	 * The number of rows processed, reported as rows/sec.
+	 */
+	public long rows;
+
+	/**
+	 * The number of megabytes processed, reported as megabytes/sec.
+	 */
+	public double megabytes;
+
+	@Setup(Level.Iteration)
+	public void reset() {
+		rows = 0;
+		megabytes = 0;
+	}
+
+	/**
+	 * Record the completion of a single benchmark operation.
+	 * 
+	 * @param rowCount
+	 *            The number of rows processed by the operation.
+	 * @param byteCount
+	 *            The number of bytes processed by the operation.
+	 */
+	public void record(long rowCount, long byteCount) {
+		rows += rowCount;
+		megabytes += byteCount / BYTES_PER_MEGABYTE;
+	}
+}
@@ -27,6 +27,7 @@ package com.github.ansell.csv.stream.util;
 
 import static org.junit.Assert.*;
 
+import java.io.FilterWriter;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.StringReader;
@@ -37,6 +38,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Ignore;
 import org.junit.Rule;
@@ -73,6 +81,78 @@ public class JSONStreamUtilTest {
 		assertTrue(output.toString().contains("\"test\" : \"something\""));
 	}
 
+	@Test
+	public final void testToPrettyPrintMatchesTree() throws Exception {
+		String json = "{\"a\":{\"b\":[1.50,{\"c\":true},[]],\"d\":null,\"e\":\"te\\\"xt\"},\"f\":12345678901234,\"g\":{}}";
+		StringWriter expected = new StringWriter();
+		JSONStreamUtil.toPrettyPrint(JSONStreamUtil.loadJSON(new StringReader(json)), expected);
+
+		StringWriter output = new StringWriter();
+		JSONStreamUtil.toPrettyPrint(new StringReader(json), output);
+		assertEquals(expected.toString(), output.toString());
+
+		StringWriter smallBuffer = new StringWriter();
+		JSONStreamUtil.toPrettyPrint(new StringReader(json), smallBuffer, JSONStreamUtil.DEFAULT_PRETTY_PRINT_INDENT, 1);
+		assertEquals(expected.toString(), smallBuffer.toString());
+	}
+
+	@Test
+	public final void testToPrettyPrintIndent() throws Exception {
+		String json = "{\"a\":{\"b\":[1,2]}}";
+		String lf = System.lineSeparator();
+		StringWriter output = new StringWriter();
+		JSONStreamUtil.toPrettyPrint(new StringReader(json), output, 4, 16);
+		assertEquals("{" + lf + "    \"a\" : {" + lf + "        \"b\" : [ 1, 2 ]" + lf + "    }" + lf + "}",
+				output.toString());
+
+		StringWriter noIndent = new StringWriter();
+		JSONStreamUtil.toPrettyPrint(new StringReader(json), noIndent, 0, 16);
+		assertEquals("{" + lf + "\"a\" : {" + lf + "\"b\" : [ 1, 2 ]" + lf + "}" + lf + "}", noIndent.toString());
+	}
+
+	@Test
+	public final void testToPrettyPrintMultipleRootValues() throws Exception {
+		String lf = System.lineSeparator();
+		StringWriter output = new StringWriter();
+		JSONStreamUtil.toPrettyPrint(new StringReader("{\"a\":1}\n{\"a\":2}\n"), output);
+		assertEquals("{" + lf + "  \"a\" : 1" + lf + "}" + lf + "{" + lf + "  \"a\" : 2" + lf + "}", output.toString());
+	}
+
+	@Test
+	public final void testToPrettyPrintDoesNotClose() throws Exception {
+		AtomicBoolean inputClosed = new AtomicBoolean();
+		AtomicBoolean outputClosed = new AtomicBoolean();
+		StringWriter output = new StringWriter();
+		JSONStreamUtil.toPrettyPrint(new StringReader("[1]") {
+			@Override
+			public void close() {
+				inputClosed.set(true);
+			}
+		}, new FilterWriter(output) {
+			@Override
+			public void close() {
+				outputClosed.set(true);
+			}
+		});
+		assertEquals("[ 1 ]", output.toString());
+		assertFalse(inputClosed.get());
+		assertFalse(outputClosed.get());
+	}
+
+	@Test
+	public final void testToPrettyPrintNegativeIndent() throws Exception {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Indent must not be negative");
+		JSONStreamUtil.toPrettyPrint(new StringReader("{}"), new StringWriter(), -1, 16);
+	}
+
+	@Test
+	public final void testToPrettyPrintZeroBufferSize() throws Exception {
+		thrown.expect(IllegalArgumentException.class);
+		thrown.expectMessage("Buffer size must be positive");
+		JSONStreamUtil.toPrettyPrint(new StringReader("{}"), new StringWriter(), 2, 0);
+	}
+
 	@Ignore("Requires offline resource")
 	@Test
 	public final void testToPrettyPrintLarge() throws Exception {
@@ -134,6 +214,57 @@ public class JSONStreamUtilTest {
 		assertEquals("something", result2);
 	}
 
+	@Test
+	public final void testQueryJSONMatchesTree() throws Exception {
+		String json = "{\"a\":{\"b\":[1.50,{\"c\":true}],\"d\":null,\"e\":\"text\"},\"f\":12345678901234}";
+		JsonNode tree = JSONStreamUtil.loadJSON(new StringReader(json));
+		for (String nextPath : Arrays.asList("", "/a", "/a/b", "/a/b/0", "/a/b/1/c", "/a/d", "/a/e", "/f", "/missing",
+				"/a/b/2", "/a/e/x")) {
+			JsonPointer jpath = JsonPointer.compile(nextPath);
+			assertEquals(nextPath, tree.at(jpath).asText(), JSONStreamUtil.queryJSON(new StringReader(json), jpath));
+			assertEquals(nextPath, tree.at(jpath), JSONStreamUtil.queryJSONNode(new StringReader(json), jpath));
+		}
+		assertTrue(JSONStreamUtil.queryJSONNode(new StringReader(json), "/missing").isMissingNode());
+	}
+
+	@Test
+	public final void testQueryJSONStopsAtValue() throws Exception {
+		// The document is truncated after the value, so reading the whole
+		// document would fail
+		String json = "{\"config\":{\"name\":\"value\"},\"data\":[1,2,";
+		assertEquals("value", JSONStreamUtil.queryJSON(new StringReader(json), "/config/name"));
+
+		Map<JsonPointer, String> results = JSONStreamUtil.queryJSON(new StringReader(json),
+				Arrays.asList(JsonPointer.compile("/data/1"), JsonPointer.compile("/config/name")));
+		assertEquals("2", results.get(JsonPointer.compile("/data/1")));
+		assertEquals("value", results.get(JsonPointer.compile("/config/name")));
+	}
+
+	@Test
+	public final void testQueryJSONMultiple() throws Exception {
+		String json = "{\"a\":{\"b\":[1.50,{\"c\":true}],\"d\":null},\"a\":{\"d\":\"duplicate\"},\"f\":\"last\"}";
+		List<JsonPointer> jpaths = Arrays.asList(JsonPointer.compile("/f"), JsonPointer.compile("/a/b/1/c"),
+				JsonPointer.compile("/a"), JsonPointer.compile("/a/d"), JsonPointer.compile("/missing"),
+				JsonPointer.compile("/a/b/0"), JsonPointer.compile("/f"));
+		Map<JsonPointer, JsonNode> nodes = JSONStreamUtil.queryJSONNodes(new StringReader(json), jpaths);
+		assertEquals(new ArrayList<>(new LinkedHashSet<>(jpaths)), new ArrayList<>(nodes.keySet()));
+		assertEquals("last", nodes.get(JsonPointer.compile("/f")).asText());
+		assertTrue(nodes.get(JsonPointer.compile("/a/b/1/c")).asBoolean());
+		assertTrue(nodes.get(JsonPointer.compile("/a")).isObject());
+		// Only the first match is used for each pointer
+		assertTrue(nodes.get(JsonPointer.compile("/a/d")).isNull());
+		assertTrue(nodes.get(JsonPointer.compile("/missing")).isMissingNode());
+		assertEquals(1.5, nodes.get(JsonPointer.compile("/a/b/0")).asDouble(), 0.0);
+
+		Map<JsonPointer, String> results = JSONStreamUtil.queryJSON(new StringReader(json), jpaths);
+		assertEquals("", results.get(JsonPointer.compile("/a")));
+		assertEquals("null", results.get(JsonPointer.compile("/a/d")));
+		assertEquals("", results.get(JsonPointer.compile("/missing")));
+
+		assertEquals(Collections.emptyMap(),
+				JSONStreamUtil.queryJSONNodes(new StringReader("not json"), Collections.emptyList()));
+	}
+
 	@Test
 	public final void testLoadJSONNullProperty() throws Exception {
 		Path testNullFile = tempDir.newFolder("jsonutiltest").toPath().resolve("test-null.json");